@@ -0,0 +1,211 @@
+package acc.br.repository;
+
+import acc.br.model.ContaCorrente;
+import acc.br.model.ContasConjuntas;
+import acc.br.model.NotificacoesPendentes;
+import acc.br.model.ParametrosConfiguracao;
+import acc.br.model.Poupanca;
+import acc.br.model.Transacoes;
+import acc.br.util.DatabaseAuditListener;
+import io.quarkus.panache.common.Sort;
+import io.quarkus.panache.hibernate.common.runtime.PanacheJpaUtil;
+import org.hibernate.Session;
+import org.hibernate.validator.messageinterpolation.ParameterMessageInterpolator;
+
+import javax.persistence.EntityManager;
+import javax.persistence.LockModeType;
+import javax.persistence.Query;
+import javax.validation.Validation;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Repositórios da aplicação ligados a uma sessão do Hibernate fora do contêiner Quarkus, para os benchmarks.
+ * <p>
+ * Os métodos do Panache são gerados pelo build do Quarkus, por isso cada repositório sobrescreve apenas as
+ * primitivas que usa ({@code getEntityManager}, {@code findById}, {@code persist}, {@code update} e
+ * {@code listAll}), delegando-as à sessão da thread atual com o mesmo HQL que o Panache geraria. Os métodos próprios
+ * dos repositórios, como os UPDATEs condicionados à versão e os lotes JDBC, são os da aplicação.
+ */
+public final class RepositoriosH2 {
+
+    private final Supplier<Session> sessao;
+    private final DatabaseAuditListener databaseAuditListener;
+
+    /**
+     * @param sessao                A sessão da thread atual, com a transação aberta.
+     * @param databaseAuditListener O ouvinte de auditoria usado pelos UPDATEs em massa e pelos lotes JDBC.
+     */
+    public RepositoriosH2(Supplier<Session> sessao, DatabaseAuditListener databaseAuditListener) {
+        this.sessao = sessao;
+        this.databaseAuditListener = databaseAuditListener;
+    }
+
+    public ContaCorrenteRepository contaCorrente() {
+        ContaCorrenteRepository repositorio = new ContaCorrenteRepository() {
+            @Override
+            public EntityManager getEntityManager() {
+                return sessao.get();
+            }
+
+            @Override
+            public ContaCorrente findById(Long id) {
+                return sessao.get().find(ContaCorrente.class, id);
+            }
+
+            @Override
+            public ContaCorrente findById(Long id, LockModeType modoBloqueio) {
+                return sessao.get().find(ContaCorrente.class, id, modoBloqueio);
+            }
+
+            @Override
+            public void persist(ContaCorrente conta) {
+                sessao.get().persist(conta);
+            }
+
+            @Override
+            public int update(String consulta, Object... parametros) {
+                return atualizar(ContaCorrente.class, consulta, parametros);
+            }
+        };
+        repositorio.databaseAuditListener = databaseAuditListener;
+        return repositorio;
+    }
+
+    public ContasConjuntasRepository contasConjuntas() {
+        ContasConjuntasRepository repositorio = new ContasConjuntasRepository() {
+            @Override
+            public EntityManager getEntityManager() {
+                return sessao.get();
+            }
+
+            @Override
+            public ContasConjuntas findById(Long id) {
+                return sessao.get().find(ContasConjuntas.class, id);
+            }
+
+            @Override
+            public ContasConjuntas findById(Long id, LockModeType modoBloqueio) {
+                return sessao.get().find(ContasConjuntas.class, id, modoBloqueio);
+            }
+
+            @Override
+            public void persist(ContasConjuntas conta) {
+                sessao.get().persist(conta);
+            }
+
+            @Override
+            public int update(String consulta, Object... parametros) {
+                return atualizar(ContasConjuntas.class, consulta, parametros);
+            }
+        };
+        repositorio.databaseAuditListener = databaseAuditListener;
+        return repositorio;
+    }
+
+    public PoupancaRepository poupanca() {
+        PoupancaRepository repositorio = new PoupancaRepository() {
+            @Override
+            public EntityManager getEntityManager() {
+                return sessao.get();
+            }
+
+            @Override
+            public Poupanca findById(Long id) {
+                return sessao.get().find(Poupanca.class, id);
+            }
+
+            @Override
+            public Poupanca findById(Long id, LockModeType modoBloqueio) {
+                return sessao.get().find(Poupanca.class, id, modoBloqueio);
+            }
+
+            @Override
+            public void persist(Poupanca conta) {
+                sessao.get().persist(conta);
+            }
+
+            @Override
+            public int update(String consulta, Object... parametros) {
+                return atualizar(Poupanca.class, consulta, parametros);
+            }
+        };
+        repositorio.databaseAuditListener = databaseAuditListener;
+        return repositorio;
+    }
+
+    public TransacoesRepository transacoes() {
+        TransacoesRepository repositorio = new TransacoesRepository() {
+            @Override
+            public EntityManager getEntityManager() {
+                return sessao.get();
+            }
+
+            @Override
+            public Transacoes findById(Long id) {
+                return sessao.get().find(Transacoes.class, id);
+            }
+
+            @Override
+            public void persist(Transacoes transacao) {
+                sessao.get().persist(transacao);
+            }
+        };
+        repositorio.validator = Validation.byDefaultProvider().configure()
+                .messageInterpolator(new ParameterMessageInterpolator())
+                .buildValidatorFactory()
+                .getValidator();
+        repositorio.databaseAuditListener = databaseAuditListener;
+        return repositorio;
+    }
+
+    public LancamentosRazaoRepository lancamentosRazao() {
+        return new LancamentosRazaoRepository() {
+            @Override
+            public EntityManager getEntityManager() {
+                return sessao.get();
+            }
+        };
+    }
+
+    public NotificacoesPendentesRepository notificacoesPendentes() {
+        return new NotificacoesPendentesRepository() {
+            @Override
+            public EntityManager getEntityManager() {
+                return sessao.get();
+            }
+
+            @Override
+            public void persist(NotificacoesPendentes pendente) {
+                sessao.get().persist(pendente);
+            }
+        };
+    }
+
+    public ParametrosConfiguracaoRepository parametrosConfiguracao() {
+        return new ParametrosConfiguracaoRepository() {
+            @Override
+            public EntityManager getEntityManager() {
+                return sessao.get();
+            }
+
+            @Override
+            public List<ParametrosConfiguracao> listAll(Sort ordem) {
+                return sessao.get().createQuery("from ParametrosConfiguracao" + PanacheJpaUtil.toOrderBy(ordem), ParametrosConfiguracao.class)
+                        .getResultList();
+            }
+        };
+    }
+
+    /**
+     * Executa um UPDATE na forma abreviada do Panache ({@code "campo = ?1 where ..."}), convertido para HQL como o
+     * Panache faria.
+     */
+    private int atualizar(Class<?> entidade, String consulta, Object... parametros) {
+        Query atualizacao = sessao.get().createQuery(PanacheJpaUtil.createUpdateQuery(entidade, consulta, parametros.length));
+        for (int i = 0; i < parametros.length; i++) {
+            atualizacao.setParameter(i + 1, parametros[i]);
+        }
+        return atualizacao.executeUpdate();
+    }
+}
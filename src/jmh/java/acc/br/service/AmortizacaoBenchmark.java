@@ -0,0 +1,94 @@
+package acc.br.service;
+
+import acc.br.util.ParcelaAmortizacao;
+import acc.br.util.PrecisaoAmortizacao;
+import acc.br.util.SistemaAmortizacao;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo do valor da parcela e da tabela de amortização completa por prazo. O cálculo original, com a potência exata
+ * a cada chamada, é comparado com o {@link MotorAmortizacao} com o fator em cache, nas precisões RAPIDA e EXATA, e com
+ * a precisão RAPIDA sem cache (um fator novo a cada chamada), que é o custo de uma simulação com taxa ou prazo inéditos.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class AmortizacaoBenchmark {
+
+    private static final BigDecimal VALOR_EMPRESTIMO = new BigDecimal("300000.00");
+    private static final BigDecimal TAXA_JUROS_ANUAL = new BigDecimal("9.50");
+
+    @Param({"48", "360", "999"})
+    int prazoMeses;
+
+    private final BigDecimal taxaJurosMensal = MotorAmortizacao.taxaMensal(TAXA_JUROS_ANUAL);
+    private MotorAmortizacao motorRapido;
+    private MotorAmortizacao motorExato;
+    private MotorAmortizacao motorRapidoSemCache;
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        motorRapido = criarMotor(PrecisaoAmortizacao.RAPIDA, 1000);
+        motorExato = criarMotor(PrecisaoAmortizacao.EXATA, 1000);
+        motorRapidoSemCache = criarMotor(PrecisaoAmortizacao.RAPIDA, 0);
+    }
+
+    @Benchmark
+    public BigDecimal valorParcelaOriginal() {
+        BigDecimal fator = BigDecimal.ONE.add(taxaJurosMensal).pow(prazoMeses);
+        return VALOR_EMPRESTIMO.multiply(taxaJurosMensal).multiply(fator).divide(fator.subtract(BigDecimal.ONE), 2, RoundingMode.HALF_UP);
+    }
+
+    @Benchmark
+    public BigDecimal valorParcelaRapidaEmCache() {
+        return motorRapido.valorParcelaPrice(VALOR_EMPRESTIMO, taxaJurosMensal, prazoMeses);
+    }
+
+    @Benchmark
+    public BigDecimal valorParcelaExataEmCache() {
+        return motorExato.valorParcelaPrice(VALOR_EMPRESTIMO, taxaJurosMensal, prazoMeses);
+    }
+
+    @Benchmark
+    public BigDecimal valorParcelaRapidaSemCache() {
+        return motorRapidoSemCache.valorParcelaPrice(VALOR_EMPRESTIMO, taxaJurosMensal, prazoMeses);
+    }
+
+    @Benchmark
+    public void tabelaPrice(Blackhole blackhole) {
+        Iterator<ParcelaAmortizacao> parcelas = motorRapido.parcelas(VALOR_EMPRESTIMO, taxaJurosMensal, prazoMeses, SistemaAmortizacao.PRICE);
+        while (parcelas.hasNext()) {
+            blackhole.consume(parcelas.next());
+        }
+    }
+
+    @Benchmark
+    public void tabelaSac(Blackhole blackhole) {
+        Iterator<ParcelaAmortizacao> parcelas = motorRapido.parcelas(VALOR_EMPRESTIMO, taxaJurosMensal, prazoMeses, SistemaAmortizacao.SAC);
+        while (parcelas.hasNext()) {
+            blackhole.consume(parcelas.next());
+        }
+    }
+
+    private static MotorAmortizacao criarMotor(PrecisaoAmortizacao precisao, long fatoresMaximo) {
+        MotorAmortizacao motor = new MotorAmortizacao();
+        motor.precisao = precisao;
+        motor.fatoresMaximo = fatoresMaximo;
+        motor.inicializar();
+        return motor;
+    }
+}
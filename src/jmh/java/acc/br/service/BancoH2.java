@@ -0,0 +1,277 @@
+package acc.br.service;
+
+import acc.br.model.ContaCorrente;
+import acc.br.model.ContasConjuntas;
+import acc.br.model.LancamentosRazao;
+import acc.br.model.NotificacoesPendentes;
+import acc.br.model.ParametrosConfiguracao;
+import acc.br.model.Poupanca;
+import acc.br.model.Transacoes;
+import acc.br.repository.ContaCorrenteRepository;
+import acc.br.repository.ContasConjuntasRepository;
+import acc.br.repository.PoupancaRepository;
+import acc.br.repository.RepositoriosH2;
+import acc.br.util.DatabaseAuditListener;
+import acc.br.util.ModoConcorrencia;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.Transaction;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.hibernate.dialect.H2Dialect;
+
+import javax.persistence.EntityManager;
+import javax.transaction.Status;
+import javax.transaction.Synchronization;
+import javax.transaction.TransactionSynchronizationRegistry;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Banco H2 em memória usado pelos benchmarks dos serviços que acessam o banco de dados.
+ * <p>
+ * O esquema é criado pelo Hibernate a partir dos mapeamentos das entidades, e os serviços usam os repositórios da
+ * aplicação ligados a uma sessão do Hibernate ({@link RepositoriosH2}), de modo que as leituras, os bloqueios, o
+ * controle de versão e o flush são os do ORM. Cada thread usa a sua própria sessão, e {@link #emTransacao(Supplier)}
+ * delimita a transação e limpa o contexto de persistência como o interceptor {@code @Transactional} e o fim da
+ * requisição fariam. As sincronizações de transação usadas pelos caches são registradas na transação do Hibernate.
+ * <p>
+ * A validação das entidades pelo Hibernate e a gravação da auditoria, feita fora do caminho crítico, não são medidas;
+ * o pool de conexões é o do próprio Hibernate, e não o Agroal.
+ */
+final class BancoH2 {
+
+    static final int QUANTIDADE_CONTAS = 1000;
+    static final BigDecimal SALDO_INICIAL = new BigDecimal("1000000000.00");
+
+    private final SessionFactory sessionFactory;
+    private final ThreadLocal<Session> sessaoDaThread = new ThreadLocal<>();
+    private final List<Session> sessoes = Collections.synchronizedList(new ArrayList<>());
+    private final RepositoriosH2 repositorios;
+
+    BancoH2(String nome) {
+        sessionFactory = new Configuration()
+                .addAnnotatedClass(ContaCorrente.class)
+                .addAnnotatedClass(ContasConjuntas.class)
+                .addAnnotatedClass(Poupanca.class)
+                .addAnnotatedClass(Transacoes.class)
+                .addAnnotatedClass(LancamentosRazao.class)
+                .addAnnotatedClass(NotificacoesPendentes.class)
+                .addAnnotatedClass(ParametrosConfiguracao.class)
+                .setProperty(AvailableSettings.URL, "jdbc:h2:mem:" + nome + ";DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000")
+                .setProperty(AvailableSettings.DIALECT, H2Dialect.class.getName())
+                .setProperty(AvailableSettings.HBM2DDL_AUTO, "create-drop")
+                .setProperty(AvailableSettings.JPA_VALIDATION_MODE, "none")
+                .setProperty(AvailableSettings.POOL_SIZE, "16")
+                // Mesmo valor de quarkus.hibernate-orm.jdbc.statement-batch-size
+                .setProperty(AvailableSettings.STATEMENT_BATCH_SIZE, "100")
+                .buildSessionFactory();
+        repositorios = new RepositoriosH2(this::sessao, new DatabaseAuditListener() {
+            @Override
+            public void onJdbcInsert(List<?> entities) {
+            }
+
+            @Override
+            public void onBulkUpdate(Object entity) {
+            }
+        });
+        criarContas();
+    }
+
+    /**
+     * Cria um TransacoesService ligado a este banco, com as mesmas dependências injetadas pelo contêiner.
+     */
+    TransacoesService criarTransacoesService(ModoConcorrencia modoConcorrencia) {
+        ContaCorrenteRepository contaCorrenteRepository = repositorios.contaCorrente();
+        ContasConjuntasRepository contasConjuntasRepository = repositorios.contasConjuntas();
+        PoupancaRepository poupancaRepository = repositorios.poupanca();
+        TransactionSynchronizationRegistry registroSincronizacao = registroSincronizacao();
+        EntityManager entityManager = entityManagerDaThread();
+
+        CacheEstadoContas cacheEstadoContas = new CacheEstadoContas();
+        cacheEstadoContas.contaCorrenteRepository = contaCorrenteRepository;
+        cacheEstadoContas.contasConjuntasRepository = contasConjuntasRepository;
+        cacheEstadoContas.poupancaRepository = poupancaRepository;
+        cacheEstadoContas.registroSincronizacao = registroSincronizacao;
+        cacheEstadoContas.tamanhoMaximo = QUANTIDADE_CONTAS * 3;
+        cacheEstadoContas.expiracaoSegundos = 300;
+        cacheEstadoContas.inicializar();
+
+        MetricasBanco metricasBanco = new MetricasBanco();
+        metricasBanco.registro = new SimpleMeterRegistry();
+        metricasBanco.registroSincronizacao = registroSincronizacao;
+        metricasBanco.inicializar();
+
+        LivroRazaoService livroRazaoService = new LivroRazaoService();
+        livroRazaoService.lancamentosRazaoRepository = repositorios.lancamentosRazao();
+        livroRazaoService.entityManager = entityManager;
+
+        AgregadorGastosJanela agregadorGastosJanela = new AgregadorGastosJanela();
+        agregadorGastosJanela.registroSincronizacao = registroSincronizacao;
+        agregadorGastosJanela.duracaoIntervaloSegundos = 300;
+        agregadorGastosJanela.maximaHoras = 24;
+        agregadorGastosJanela.clientesMaximo = QUANTIDADE_CONTAS * 3;
+        agregadorGastosJanela.inicializar();
+
+        MotorAlertasGastos motorAlertasGastos = new MotorAlertasGastos();
+        motorAlertasGastos.agregadorGastosJanela = agregadorGastosJanela;
+
+        DespachanteNotificacoes despachanteNotificacoes = new DespachanteNotificacoes();
+        despachanteNotificacoes.notificacoesPendentesRepository = repositorios.notificacoesPendentes();
+
+        TransacoesService transacoesService = new TransacoesService();
+        transacoesService.transacoesRepository = repositorios.transacoes();
+        transacoesService.contaCorrenteRepository = contaCorrenteRepository;
+        transacoesService.contasConjuntasRepository = contasConjuntasRepository;
+        transacoesService.poupancaRepository = poupancaRepository;
+        transacoesService.motorAlertasGastos = motorAlertasGastos;
+        transacoesService.despachanteNotificacoes = despachanteNotificacoes;
+        transacoesService.entityManager = entityManager;
+        transacoesService.cacheEstadoContas = cacheEstadoContas;
+        transacoesService.metricasBanco = metricasBanco;
+        transacoesService.livroRazaoService = livroRazaoService;
+        transacoesService.inicializar();
+        transacoesService.modoConcorrencia = modoConcorrencia;
+        return transacoesService;
+    }
+
+    /**
+     * Executa a operação em uma transação na sessão da thread atual. Em caso de erro a transação é desfeita e a
+     * sessão é descartada, como o Hibernate exige após uma exceção.
+     */
+    <T> T emTransacao(Supplier<T> operacao) {
+        Session sessao = sessao();
+        Transaction transacao = sessao.beginTransaction();
+        try {
+            T resultado = operacao.get();
+            transacao.commit();
+            sessao.clear();
+            return resultado;
+        } catch (RuntimeException e) {
+            descartar(sessao, transacao);
+            throw e;
+        }
+    }
+
+    void emTransacao(Runnable operacao) {
+        emTransacao(() -> {
+            operacao.run();
+            return null;
+        });
+    }
+
+    /**
+     * Obtém o valor de um parâmetro da tabela ParametrosConfiguracao.
+     */
+    String consultarParametro(String nomeParametro) {
+        return sessao().createQuery("select valorParametro from ParametrosConfiguracao where nomeParametro = ?1", String.class)
+                .setParameter(1, nomeParametro)
+                .getSingleResult();
+    }
+
+    /**
+     * Fecha as sessões e descarta o banco.
+     */
+    void fechar() {
+        synchronized (sessoes) {
+            for (Session sessao : sessoes) {
+                sessao.close();
+            }
+            sessoes.clear();
+        }
+        sessionFactory.close();
+    }
+
+    private void criarContas() {
+        emTransacao(() -> {
+            Session sessao = sessao();
+            for (long id = 1; id <= QUANTIDADE_CONTAS; id++) {
+                ContaCorrente contaCorrente = new ContaCorrente();
+                contaCorrente.setSaldo(SALDO_INICIAL);
+                contaCorrente.setLimiteCredito(new BigDecimal("1000.00"));
+                contaCorrente.setLimiteCreditoUtilizado(BigDecimal.ZERO);
+                contaCorrente.setClienteID(id);
+                sessao.persist(contaCorrente);
+
+                ContasConjuntas contaConjunta = new ContasConjuntas();
+                contaConjunta.setSaldo(SALDO_INICIAL);
+                contaConjunta.setClienteID(id);
+                sessao.persist(contaConjunta);
+
+                Poupanca poupanca = new Poupanca();
+                poupanca.setSaldo(SALDO_INICIAL);
+                poupanca.setClienteID(id);
+                poupanca.setDataAniversario(LocalDate.now().toString());
+                sessao.persist(poupanca);
+            }
+            ParametrosConfiguracao taxaPoupanca = new ParametrosConfiguracao();
+            taxaPoupanca.setNomeParametro("TaxaPoupanca");
+            taxaPoupanca.setValorParametro("0.5");
+            sessao.persist(taxaPoupanca);
+        });
+    }
+
+    private Session sessao() {
+        Session sessao = sessaoDaThread.get();
+        if (sessao == null) {
+            sessao = sessionFactory.openSession();
+            sessaoDaThread.set(sessao);
+            sessoes.add(sessao);
+        }
+        return sessao;
+    }
+
+    private void descartar(Session sessao, Transaction transacao) {
+        try {
+            if (transacao.isActive()) {
+                transacao.rollback();
+            }
+        } catch (RuntimeException e) {
+            // A falha original é mais relevante que a do rollback
+        }
+        sessaoDaThread.remove();
+        sessoes.remove(sessao);
+        sessao.close();
+    }
+
+    /**
+     * EntityManager que delega à sessão da thread atual, como o EntityManager injetado pelo Quarkus delega ao da
+     * transação corrente.
+     */
+    private EntityManager entityManagerDaThread() {
+        return (EntityManager) Proxy.newProxyInstance(EntityManager.class.getClassLoader(), new Class<?>[]{EntityManager.class},
+                (proxy, metodo, argumentos) -> {
+                    try {
+                        return metodo.invoke(sessao(), argumentos);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+
+    /**
+     * Registro de sincronizações sobre a transação do Hibernate da thread atual: as sincronizações são notificadas
+     * com STATUS_COMMITTED ou STATUS_ROLLEDBACK ao fim da transação.
+     */
+    private TransactionSynchronizationRegistry registroSincronizacao() {
+        return (TransactionSynchronizationRegistry) Proxy.newProxyInstance(TransactionSynchronizationRegistry.class.getClassLoader(),
+                new Class<?>[]{TransactionSynchronizationRegistry.class}, (proxy, metodo, argumentos) -> {
+                    switch (metodo.getName()) {
+                        case "getTransactionStatus":
+                            return sessao().getTransaction().isActive() ? Status.STATUS_ACTIVE : Status.STATUS_NO_TRANSACTION;
+                        case "registerInterposedSynchronization":
+                            sessao().getTransaction().registerSynchronization((Synchronization) argumentos[0]);
+                            return null;
+                        default:
+                            throw new UnsupportedOperationException(metodo.getName());
+                    }
+                });
+    }
+}
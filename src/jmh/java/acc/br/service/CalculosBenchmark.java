@@ -0,0 +1,106 @@
+package acc.br.service;
+
+import acc.br.exception.ParametroConfiguracaoNaoEncontradoException;
+import acc.br.model.ParametrosConfiguracao;
+import acc.br.model.Poupanca;
+import acc.br.repository.ParametrosConfiguracaoRepository;
+import acc.br.util.PrecisaoAmortizacao;
+import io.quarkus.panache.common.Sort;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo dos cálculos de parcelas de empréstimo, atualização mensal da poupança e validação de CPF.
+ * A atualização da poupança é medida com a taxa lida do {@link CacheParametrosConfiguracao}, como o serviço faz, e
+ * com a taxa consultada na tabela de parâmetros a cada chamada, para comparação.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CalculosBenchmark {
+
+    private static final BigDecimal VALOR_EMPRESTIMO = new BigDecimal("25000.00");
+    private static final BigDecimal TAXA_JUROS_MENSAL = new BigDecimal("0.0189");
+    private static final BigDecimal SALDO_POUPANCA = new BigDecimal("15000.00");
+
+    private final EmprestimosService emprestimosService = new EmprestimosService();
+    private final String dataAniversario = LocalDate.now().toString();
+
+    private BancoH2 banco;
+    private PoupancaService poupancaService;
+    private PoupancaService poupancaServiceConsultandoTabela;
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        banco = new BancoH2("calculos");
+        emprestimosService.motorAmortizacao = new MotorAmortizacao();
+        emprestimosService.motorAmortizacao.precisao = PrecisaoAmortizacao.EXATA;
+        emprestimosService.motorAmortizacao.fatoresMaximo = 1000;
+        emprestimosService.motorAmortizacao.inicializar();
+        poupancaService = new PoupancaService();
+        poupancaService.cacheParametrosConfiguracao = new CacheParametrosConfiguracao();
+        poupancaService.cacheParametrosConfiguracao.parametrosConfiguracaoRepository = new ParametrosConfiguracaoRepository() {
+            @Override
+            public List<ParametrosConfiguracao> listAll(Sort sort) {
+                ParametrosConfiguracao taxaPoupanca = new ParametrosConfiguracao();
+                taxaPoupanca.setNomeParametro("TaxaPoupanca");
+                taxaPoupanca.setValorParametro(banco.emTransacao(() -> banco.consultarParametro("TaxaPoupanca")));
+                return List.of(taxaPoupanca);
+            }
+        };
+        poupancaServiceConsultandoTabela = new PoupancaService() {
+            @Override
+            public BigDecimal obterTaxaPoupancaComoBigDecimal() {
+                return new BigDecimal(banco.emTransacao(() -> banco.consultarParametro("TaxaPoupanca")));
+            }
+        };
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+        banco.fechar();
+    }
+
+    @Benchmark
+    public BigDecimal calcularValorParcelas() {
+        return emprestimosService.calcularValorParcelas(VALOR_EMPRESTIMO, TAXA_JUROS_MENSAL, 48);
+    }
+
+    @Benchmark
+    public BigDecimal calcularAtualizacaoMensal() throws ParametroConfiguracaoNaoEncontradoException {
+        Poupanca poupanca = new Poupanca();
+        poupanca.setSaldo(SALDO_POUPANCA);
+        poupanca.setDataAniversario(dataAniversario);
+        return poupancaService.calcularAtualizacaoMensal(poupanca);
+    }
+
+    @Benchmark
+    public BigDecimal calcularAtualizacaoMensalConsultandoTabela() throws ParametroConfiguracaoNaoEncontradoException {
+        Poupanca poupanca = new Poupanca();
+        poupanca.setSaldo(SALDO_POUPANCA);
+        poupanca.setDataAniversario(dataAniversario);
+        return poupancaServiceConsultandoTabela.calcularAtualizacaoMensal(poupanca);
+    }
+
+    @Benchmark
+    public boolean isCPFValidValido() {
+        return ClientesService.isCPFValid("04575123692");
+    }
+
+    @Benchmark
+    public boolean isCPFValidInvalido() {
+        return ClientesService.isCPFValid("12345678900");
+    }
+}
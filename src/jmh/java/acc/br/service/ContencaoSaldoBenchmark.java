@@ -0,0 +1,59 @@
+package acc.br.service;
+
+import acc.br.util.ModoConcorrencia;
+import acc.br.util.TipoConta;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara os modos de concorrência com várias threads sacando da mesma conta corrente, o pior caso de disputa.
+ * No modo otimista os conflitos de versão são repetidos pelo {@link ExecutorConcorrenciaSaldo}, como no controlador.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(4)
+public class ContencaoSaldoBenchmark {
+
+    private static final BigDecimal VALOR = new BigDecimal("0.01");
+    private static final long CONTA_DISPUTADA = 1L;
+
+    @Param({"OTIMISTA", "PESSIMISTA"})
+    ModoConcorrencia modoConcorrencia;
+
+    private BancoH2 banco;
+    private TransacoesService transacoesService;
+    private ExecutorConcorrenciaSaldo executorConcorrenciaSaldo;
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        banco = new BancoH2("contencao_" + modoConcorrencia);
+        transacoesService = banco.criarTransacoesService(modoConcorrencia);
+        executorConcorrenciaSaldo = new ExecutorConcorrenciaSaldo();
+        executorConcorrenciaSaldo.maxTentativas = 50;
+        executorConcorrenciaSaldo.esperaBaseMs = 1;
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+        banco.fechar();
+    }
+
+    @Benchmark
+    public void sacarDaMesmaConta() {
+        executorConcorrenciaSaldo.executar(() -> banco.emTransacao(
+                () -> transacoesService.realizarSaque(CONTA_DISPUTADA, VALOR, TipoConta.CONTA_CORRENTE)));
+    }
+}
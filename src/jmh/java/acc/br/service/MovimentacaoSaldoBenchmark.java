@@ -0,0 +1,64 @@
+package acc.br.service;
+
+import acc.br.util.ModoConcorrencia;
+import acc.br.util.TipoConta;
+import acc.br.util.TipoDeposito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Vazão de saques e depósitos do {@link TransacoesService} para cada tipo de conta, sem concorrência.
+ * As operações percorrem as contas em sequência, de modo que cada execução repete a mesma carga.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class MovimentacaoSaldoBenchmark {
+
+    private static final BigDecimal VALOR = new BigDecimal("10.00");
+
+    @Param({"CONTA_CORRENTE", "CONTA_CONJUNTA", "CONTA_POUPANCA"})
+    TipoConta tipoConta;
+
+    private BancoH2 banco;
+    private TransacoesService transacoesService;
+    private long contador;
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        banco = new BancoH2("movimentacao_" + tipoConta);
+        transacoesService = banco.criarTransacoesService(ModoConcorrencia.OTIMISTA);
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+        banco.fechar();
+    }
+
+    @Benchmark
+    public void realizarSaque() {
+        long contaID = proximaConta();
+        banco.emTransacao(() -> transacoesService.realizarSaque(contaID, VALOR, tipoConta));
+    }
+
+    @Benchmark
+    public void realizarDeposito() {
+        long contaID = proximaConta();
+        banco.emTransacao(() -> transacoesService.realizarDeposito(contaID, VALOR, tipoConta, TipoDeposito.DINHEIRO, null));
+    }
+
+    private long proximaConta() {
+        return contador++ % BancoH2.QUANTIDADE_CONTAS + 1;
+    }
+}
@@ -0,0 +1,60 @@
+package acc.br.service;
+
+import acc.br.util.ModoConcorrencia;
+import acc.br.util.TipoConta;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Vazão de transferências do {@link TransacoesService} para todas as combinações de tipo de conta de origem e destino,
+ * nos dois modos de concorrência (no modo pessimista as duas contas são bloqueadas antes da alteração).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class TransferenciaBenchmark {
+
+    private static final BigDecimal VALOR = new BigDecimal("10.00");
+
+    @Param({"CONTA_CORRENTE", "CONTA_CONJUNTA", "CONTA_POUPANCA"})
+    TipoConta tipoContaOrigem;
+
+    @Param({"CONTA_CORRENTE", "CONTA_CONJUNTA", "CONTA_POUPANCA"})
+    TipoConta tipoContaDestino;
+
+    @Param({"OTIMISTA", "PESSIMISTA"})
+    ModoConcorrencia modoConcorrencia;
+
+    private BancoH2 banco;
+    private TransacoesService transacoesService;
+    private long contador;
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        banco = new BancoH2("transferencia_" + tipoContaOrigem + "_" + tipoContaDestino + "_" + modoConcorrencia);
+        transacoesService = banco.criarTransacoesService(modoConcorrencia);
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+        banco.fechar();
+    }
+
+    @Benchmark
+    public void realizarTransferencia() {
+        long contaOrigemID = contador++ % BancoH2.QUANTIDADE_CONTAS + 1;
+        long contaDestinoID = contaOrigemID % BancoH2.QUANTIDADE_CONTAS + 1;
+        banco.emTransacao(() -> transacoesService.realizarTransferencia(contaOrigemID, contaDestinoID, VALOR, tipoContaOrigem, tipoContaDestino));
+    }
+}
@@ -0,0 +1,52 @@
+package acc.br.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.security.SecureRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latência da codificação e da verificação de uma senha para cada quantidade de iterações do PBKDF2, para escolher
+ * {@code twobank.senhas.hash.iteracoes} dentro do orçamento de latência do cadastro e do login. O modo SampleTime
+ * informa os percentis; com {@code -t} igual a {@code twobank.senhas.hash.threads}, mede a latência com o pool ocupado.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class CodificadorSenhaBenchmark {
+
+    @Param({"100000", "210000", "310000", "600000"})
+    int iteracoes;
+
+    @Param({"16"})
+    int tamanhoSalt;
+
+    private final String senha = "Senha-de-referencia-1";
+    private byte[] salt;
+    private String codificada;
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        salt = new byte[tamanhoSalt];
+        new SecureRandom().nextBytes(salt);
+        codificada = CodificadorSenha.codificar(senha, iteracoes, salt);
+    }
+
+    @Benchmark
+    public String codificar() {
+        return CodificadorSenha.codificar(senha, iteracoes, salt);
+    }
+
+    @Benchmark
+    public boolean verificar() {
+        return CodificadorSenha.verificar(senha, codificada);
+    }
+}
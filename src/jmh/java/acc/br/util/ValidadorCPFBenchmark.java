@@ -0,0 +1,169 @@
+package acc.br.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.InputMismatchException;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo da validação de CPFs: um CPF por chamada, com a implementação anterior de ClientesService.isCPFValid e com o
+ * {@link ValidadorCPF}, e uma coluna inteira de CPFs, como na importação de arquivos, sequencial e em paralelo.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ValidadorCPFBenchmark {
+
+    @Param({"100000"})
+    int tamanhoColuna;
+
+    private final String cpfValido = "04575123692";
+    private final String cpfInvalido = "12345678900";
+    private final byte[] cpfFormatadoAscii = "045.751.236-92".getBytes(StandardCharsets.US_ASCII);
+
+    private List<String> coluna;
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        coluna = new ArrayList<>(tamanhoColuna);
+        ThreadLocalRandom aleatorio = ThreadLocalRandom.current();
+        for (int i = 0; i < tamanhoColuna; i++) {
+            // Metade dos CPFs é válida; a outra metade tem o último dígito alterado
+            long base = aleatorio.nextLong(1_000_000_000L);
+            String cpf = ValidadorCPF.formatar(completar(base));
+            coluna.add(i % 2 == 0 ? cpf : cpf.substring(0, 13) + (char) ('0' + (cpf.charAt(13) - '0' + 1) % 10));
+        }
+    }
+
+    @Benchmark
+    public boolean anteriorValido() {
+        return isCPFValidAnterior(cpfValido);
+    }
+
+    @Benchmark
+    public boolean anteriorInvalido() {
+        return isCPFValidAnterior(cpfInvalido);
+    }
+
+    @Benchmark
+    public boolean validadorValido() {
+        return ValidadorCPF.isValido(cpfValido);
+    }
+
+    @Benchmark
+    public boolean validadorInvalido() {
+        return ValidadorCPF.isValido(cpfInvalido);
+    }
+
+    @Benchmark
+    public long validadorFormatadoAscii() {
+        return ValidadorCPF.interpretar(cpfFormatadoAscii, 0, cpfFormatadoAscii.length);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public int colunaAnterior() {
+        int validos = 0;
+        for (String cpf : coluna) {
+            if (isCPFValidAnterior(cpf.replace(".", "").replace("-", ""))) {
+                validos++;
+            }
+        }
+        return validos;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public int colunaSequencial() {
+        int validos = 0;
+        for (String cpf : coluna) {
+            if (ValidadorCPF.interpretar(cpf) != ValidadorCPF.INVALIDO) {
+                validos++;
+            }
+        }
+        return validos;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public boolean[] colunaParalela() {
+        return ValidadorCPF.validar(coluna);
+    }
+
+    /**
+     * Acrescenta os dígitos verificadores aos 9 primeiros dígitos de um CPF.
+     */
+    private static long completar(long base) {
+        int soma1 = 0;
+        int soma2 = 0;
+        long resto = base;
+        for (int k = 8; k >= 0; k--) {
+            int d = (int) (resto % 10);
+            resto /= 10;
+            soma1 += d * (10 - k);
+            soma2 += d * (11 - k);
+        }
+        int digito10 = soma1 % 11 < 2 ? 0 : 11 - soma1 % 11;
+        soma2 += digito10 * 2;
+        int digito11 = soma2 % 11 < 2 ? 0 : 11 - soma2 % 11;
+        return base * 100 + digito10 * 10 + digito11;
+    }
+
+    /**
+     * Implementação anterior de ClientesService.isCPFValid, mantida como referência.
+     */
+    private static boolean isCPFValidAnterior(String cpf) {
+        if (cpf.equals("00000000000") ||
+            cpf.equals("11111111111") ||
+            cpf.equals("22222222222") || cpf.equals("33333333333") ||
+            cpf.equals("44444444444") || cpf.equals("55555555555") ||
+            cpf.equals("66666666666") || cpf.equals("77777777777") ||
+            cpf.equals("88888888888") || cpf.equals("99999999999") ||
+            (cpf.length() != 11)) {
+            return false;
+        }
+        char dig10, dig11;
+        int sm, i, r, num, peso;
+        try {
+            sm = 0;
+            peso = 10;
+            for (i = 0; i < 9; i++) {
+                num = (int) (cpf.charAt(i) - 48);
+                sm = sm + (num * peso);
+                peso = peso - 1;
+            }
+            r = 11 - (sm % 11);
+            if ((r == 10) || (r == 11))
+                dig10 = '0';
+            else dig10 = (char) (r + 48);
+
+            sm = 0;
+            peso = 11;
+            for (i = 0; i < 10; i++) {
+                num = (int) (cpf.charAt(i) - 48);
+                sm = sm + (num * peso);
+                peso = peso - 1;
+            }
+            r = 11 - (sm % 11);
+            if ((r == 10) || (r == 11))
+                dig11 = '0';
+            else dig11 = (char) (r + 48);
+
+            return (dig10 == cpf.charAt(9)) && (dig11 == cpf.charAt(10));
+        } catch (InputMismatchException erro) {
+            return false;
+        }
+    }
+}
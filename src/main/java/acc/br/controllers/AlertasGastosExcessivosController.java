@@ -4,6 +4,8 @@ import acc.br.exception.AlertaNaoEncontradoException;
 import acc.br.exception.ClienteNaoEncontradoException;
 import acc.br.model.AlertasGastosExcessivos;
 import acc.br.service.AlertasGastosExcessivosService;
+import acc.br.util.FiltroAmostragemLog;
+import acc.br.util.Monitorado;
 import io.quarkus.runtime.annotations.RegisterForReflection;
 import javax.inject.Inject;
 import javax.validation.Valid;
@@ -24,28 +26,30 @@ import java.util.logging.Logger;
 @RegisterForReflection
 @Produces(MediaType.APPLICATION_JSON)
 @Consumes(MediaType.APPLICATION_JSON)
+@Monitorado
 public class AlertasGastosExcessivosController {
 
     @Inject
     AlertasGastosExcessivosService alertasService;
 
     private static final int HTTP_OK = Response.Status.OK.getStatusCode();
-    private static final Logger logger = Logger.getLogger(AlertasGastosExcessivosController.class.getName());
+    private static final Logger logger = FiltroAmostragemLog.getLogger(AlertasGastosExcessivosController.class);
 
     /**
      * Cria um novo alerta de gastos excessivos.
      *
      * @param alerta O alerta a ser criado.
      * @return Resposta HTTP com código 201 (Created) se o alerta for criado com sucesso.
-     *         Resposta HTTP com código 400 (Bad Request) se o cliente associado ao alerta não for encontrado.
+     *         Resposta HTTP com código 400 (Bad Request) se o cliente associado ao alerta não for encontrado
+     *         ou se a regra do alerta for inválida.
      */
     @POST
     public Response criarAlerta(@Valid @NotNull AlertasGastosExcessivos alerta) {
         try {
             alertasService.criarAlerta(alerta);
-            logger.info("Alerta criado com sucesso: " + alerta.getAlertaID()); 
+            logger.log(Level.INFO, "Alerta criado com sucesso: {0,number,#}", alerta.getAlertaID());
             return Response.status(HTTP_OK).build();
-        } catch (ClienteNaoEncontradoException e) {
+        } catch (ClienteNaoEncontradoException | IllegalArgumentException e) {
             logger.log(Level.SEVERE, "Erro ao criar alerta: " + e.getMessage(), e);
             return Response.status(Response.Status.BAD_REQUEST).entity(e.getMessage()).build();
         }
@@ -56,19 +60,20 @@ public class AlertasGastosExcessivosController {
      *
      * @param alerta O alerta a ser atualizado.
      * @return Resposta HTTP com código 200 (OK) se o alerta for atualizado com sucesso.
-     *         Resposta HTTP com código 400 (Bad Request) se o cliente associado ao alerta não for encontrado.
+     *         Resposta HTTP com código 400 (Bad Request) se o cliente associado ao alerta não for encontrado
+     *         ou se a regra do alerta for inválida.
      *         Resposta HTTP com código 404 (Not Found) se o alerta não for encontrado.
      */
     @PUT
     public Response atualizarAlerta(@Valid @NotNull AlertasGastosExcessivos alerta) {
         try {
             alertasService.atualizarAlerta(alerta);
-            logger.info("Alerta atualizado com sucesso: " + alerta.getAlertaID());
+            logger.log(Level.INFO, "Alerta atualizado com sucesso: {0,number,#}", alerta.getAlertaID());
             return Response.status(HTTP_OK).build();
         } catch (AlertaNaoEncontradoException e) {
             logger.log(Level.SEVERE, "Erro ao atualizar alerta: " + e.getMessage(), e); 
             return Response.status(Response.Status.NOT_FOUND).entity(e.getMessage()).build();
-        } catch (ClienteNaoEncontradoException e) {
+        } catch (ClienteNaoEncontradoException | IllegalArgumentException e) {
             logger.log(Level.SEVERE, "Erro ao atualizar alerta: " + e.getMessage(), e);
             return Response.status(Response.Status.BAD_REQUEST).entity(e.getMessage()).build();
         }
@@ -86,7 +91,7 @@ public class AlertasGastosExcessivosController {
     public Response deletarAlerta(@PathParam("alertaId") Long alertaId) {
         try {
             alertasService.deletarAlerta(alertaId);
-            logger.info("Alerta deletado com sucesso: " + alertaId);
+            logger.log(Level.INFO, "Alerta deletado com sucesso: {0,number,#}", alertaId);
             return Response.status(HTTP_OK).build();
         } catch (AlertaNaoEncontradoException e) {
             logger.log(Level.SEVERE, "Erro ao deletar alerta: " + e.getMessage(), e);
@@ -103,7 +108,7 @@ public class AlertasGastosExcessivosController {
     @GET
     @Path("/cliente/{clienteId}")
     public List<AlertasGastosExcessivos> listarAlertasPorCliente(@PathParam("clienteId") Long clienteId) {
-    	logger.info("Alertas listados com sucesso: " + clienteId);
+    	logger.log(Level.INFO, "Alertas listados com sucesso: {0,number,#}", clienteId);
     	return alertasService.listarAlertasPorCliente(clienteId);
     }
 
@@ -119,7 +124,7 @@ public class AlertasGastosExcessivosController {
     public Response buscarAlertaPorId(@PathParam("alertaId") Long alertaId) {
         AlertasGastosExcessivos alerta = alertasService.buscarAlertaPorId(alertaId);
         if (alerta != null) {
-        	logger.info("Alertas buscado com sucesso: " + alertaId);
+        	logger.log(Level.INFO, "Alertas buscado com sucesso: {0,number,#}", alertaId);
             return Response.status(HTTP_OK).entity(alerta).build();
         } else {
             logger.log(Level.SEVERE, "Erro ao buscar alerta" );
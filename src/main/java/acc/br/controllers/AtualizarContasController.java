@@ -9,8 +9,12 @@ import acc.br.model.Contas;
 import acc.br.model.ContasConjuntas;
 import acc.br.service.ContaCorrenteService;
 import acc.br.service.PoupancaService;
+import acc.br.util.FiltroAmostragemLog;
+import acc.br.util.Monitorado;
 import acc.br.util.PoupancaServiceQualifier;
+import acc.br.service.CacheEstadoContas;
 import acc.br.service.ContasConjuntasService;
+import acc.br.util.TipoConta;
 import io.quarkus.runtime.annotations.RegisterForReflection;
 
 import java.util.logging.Level;
@@ -29,6 +33,7 @@ import javax.ws.rs.core.Response;
 @RegisterForReflection
 @Produces(MediaType.APPLICATION_JSON)
 @Consumes(MediaType.APPLICATION_JSON)
+@Monitorado
 public class AtualizarContasController {
 
     @Inject
@@ -40,9 +45,12 @@ public class AtualizarContasController {
 
     @Inject
     ContasConjuntasService contasConjuntasService;
+
+    @Inject
+    CacheEstadoContas cacheEstadoContas;
     
     private static final int HTTP_OK = Response.Status.OK.getStatusCode();
-    private static final Logger logger = Logger.getLogger(AtualizarContasController.class.getName());
+    private static final Logger logger = FiltroAmostragemLog.getLogger(AtualizarContasController.class);
 
 
     /**
@@ -59,7 +67,8 @@ public class AtualizarContasController {
     public Response atualizarContaCorrente(@PathParam("id") Long id, @Valid ContaCorrente contaCorrente) {
         try {
             Contas contaAtualizada = contaCorrenteService.atualizarConta(id, contaCorrente);
-            logger.info("Conta Corrente atualizada com sucesso: " + contaCorrente.getcontaCorrenteID()); 
+            cacheEstadoContas.invalidar(TipoConta.CONTA_CORRENTE, id);
+            logger.log(Level.INFO, "Conta Corrente atualizada com sucesso: {0,number,#}", contaCorrente.getcontaCorrenteID());
             return Response.status(HTTP_OK).entity(contaAtualizada).build();
         } catch (ContaCorrenteNaoEncontradaException e) {
         	 logger.log(Level.SEVERE, "Erro ao atualizar conta corrente: " + e.getMessage(), e);
@@ -84,7 +93,8 @@ public class AtualizarContasController {
     public Response atualizarContaPoupanca(@PathParam("id") Long id, @Valid Poupanca contaPoupanca) {
         try {
             Contas contaAtualizada = poupancaService.atualizarConta(id, contaPoupanca);
-            logger.info("Conta Poupanca atualizada com sucesso: " + contaPoupanca.getPoupancaID());
+            cacheEstadoContas.invalidar(TipoConta.CONTA_POUPANCA, id);
+            logger.log(Level.INFO, "Conta Poupanca atualizada com sucesso: {0,number,#}", contaPoupanca.getPoupancaID());
             return Response.status(HTTP_OK).entity(contaAtualizada).build();
         } catch (PoupancaNaoEncontradaException e) {
         	logger.log(Level.SEVERE, "Erro ao atualizar conta poupanca: " + e.getMessage(), e);
@@ -109,7 +119,8 @@ public class AtualizarContasController {
     public Response atualizarContaConjunta(@PathParam("id") Long id, @Valid ContasConjuntas contasConjuntas) {
         try {
             Contas contaAtualizada = contasConjuntasService.atualizarConta(id, contasConjuntas);
-            logger.info("Conta Conjunta atualizada com sucesso: " + contasConjuntas.getContaConjuntaID());
+            cacheEstadoContas.invalidar(TipoConta.CONTA_CONJUNTA, id);
+            logger.log(Level.INFO, "Conta Conjunta atualizada com sucesso: {0,number,#}", contasConjuntas.getContaConjuntaID());
             return Response.status(HTTP_OK).entity(contaAtualizada).build();
         } catch (ContaConjuntaNaoEncontradaException e) {
         	logger.log(Level.SEVERE, "Erro ao atualizar conta conjunta: " + e.getMessage(), e);
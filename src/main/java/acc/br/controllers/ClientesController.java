@@ -4,14 +4,34 @@ import acc.br.exception.ClienteExistenteException;
 import acc.br.exception.ClienteNaoEncontradoException;
 import acc.br.model.Clientes;
 import acc.br.service.ClientesService;
+import acc.br.service.ExecutorHashSenhas;
+import acc.br.service.ImportadorClientes;
+import acc.br.util.AutenticacaoRequest;
+import acc.br.util.AutenticacaoResponse;
+import acc.br.util.FiltroAmostragemLog;
+import acc.br.util.LeitorImportacaoClientes;
+import acc.br.util.Monitorado;
+import acc.br.util.ResultadoImportacaoClientes;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.quarkus.runtime.annotations.RegisterForReflection;
+import org.eclipse.microprofile.context.ManagedExecutor;
 import javax.inject.Inject;
 import javax.transaction.Transactional;
 import javax.validation.Valid;
 import javax.ws.rs.*;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -22,13 +42,29 @@ import java.util.logging.Logger;
 @RegisterForReflection
 @Produces(MediaType.APPLICATION_JSON)
 @Consumes(MediaType.APPLICATION_JSON)
+@Monitorado
 public class ClientesController {
 
     @Inject
     ClientesService clientesService;
+
+    @Inject
+    ImportadorClientes importadorClientes;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @Inject
+    ExecutorHashSenhas executorHashSenhas;
+
+    @Inject
+    ManagedExecutor managedExecutor;
+
+    private static final String TEXT_CSV = "text/csv";
+    private static final String APPLICATION_NDJSON = "application/x-ndjson";
     
     private static final int HTTP_OK = Response.Status.OK.getStatusCode();
-    private static final Logger logger = Logger.getLogger(ClientesController.class.getName());
+    private static final Logger logger = FiltroAmostragemLog.getLogger(ClientesController.class);
 
 
     /**
@@ -55,7 +91,7 @@ public class ClientesController {
     public Response obterCliente(@PathParam("clienteID") Long clienteID) {
         try {
             Clientes cliente = clientesService.obterCliente(clienteID);
-            logger.info("Cliente retornado com sucesso: " + clienteID); 
+            logger.log(Level.INFO, "Cliente retornado com sucesso: {0,number,#}", clienteID);
             return Response.status(HTTP_OK).entity(cliente).build();
         } catch (ClienteNaoEncontradoException e) {
        	 	logger.log(Level.SEVERE, "Erro ao retornar cliente: " + e.getMessage(), e);
@@ -71,20 +107,22 @@ public class ClientesController {
      *         Resposta HTTP com código 409 (Conflict) se um cliente com o mesmo CPF já existir.
      *         Resposta HTTP com código 400 (Bad Request) se os dados do cliente não forem válidos.
      */
-    @Transactional
     @POST
-    public Response criarCliente(@Valid Clientes cliente) {
-        try {
-            Clientes novoCliente = clientesService.criarCliente(cliente);
-            logger.info("Cliente criado com sucesso: " + cliente); 
-            return Response.status(HTTP_OK).entity(novoCliente).build();
-        } catch (ClienteExistenteException e) {
-       	 	logger.log(Level.SEVERE, "Erro ao criar cliente: " + e.getMessage(), e);
-            return Response.status(Response.Status.CONFLICT).entity(e.getMessage()).build();
-        } catch (IllegalArgumentException e) {
-        	logger.log(Level.SEVERE, "Erro ao criar cliente: " + e.getMessage(), e);
-            return Response.status(Response.Status.BAD_REQUEST).entity(e.getMessage()).build();
-        }
+    public CompletionStage<Response> criarCliente(@Valid Clientes cliente) {
+        return codificarSenha(cliente).thenApply(codificado -> {
+            try {
+                Clientes novoCliente = clientesService.criarClienteComSenhaCodificada(cliente);
+                logger.info("Cliente criado com sucesso");
+                logger.log(Level.FINE, "Cliente criado com sucesso: {0}", cliente);
+                return Response.status(HTTP_OK).entity(novoCliente).build();
+            } catch (ClienteExistenteException e) {
+                logger.log(Level.SEVERE, "Erro ao criar cliente: " + e.getMessage(), e);
+                return Response.status(Response.Status.CONFLICT).entity(e.getMessage()).build();
+            } catch (IllegalArgumentException e) {
+                logger.log(Level.SEVERE, "Erro ao criar cliente: " + e.getMessage(), e);
+                return Response.status(Response.Status.BAD_REQUEST).entity(e.getMessage()).build();
+            }
+        }).exceptionally(ClientesController::traduzirSobrecarga);
     }
 
     /**
@@ -99,21 +137,23 @@ public class ClientesController {
      */
     @PUT
     @Path("/{clienteID}")
-    public Response atualizarCliente(@PathParam("clienteID") Long clienteID, @Valid Clientes cliente) {
-        try {
-            Clientes clienteAtualizado = clientesService.atualizarCliente(clienteID, cliente);
-            logger.info("Cliente atualizado com sucesso: " + clienteID); 
-            return Response.status(HTTP_OK).entity(clienteAtualizado).build();
-        } catch (ClienteNaoEncontradoException e) {
-        	logger.log(Level.SEVERE, "Erro ao atualizar cliente: " + e.getMessage(), e);
-            return Response.status(Response.Status.NOT_FOUND).entity(e.getMessage()).build();
-        } catch (ClienteExistenteException e) {
-        	logger.log(Level.SEVERE, "Erro ao atualizar cliente: " + e.getMessage(), e);
-            return Response.status(Response.Status.CONFLICT).entity(e.getMessage()).build();
-        } catch (IllegalArgumentException e) {
-        	logger.log(Level.SEVERE, "Erro ao atualizar cliente: " + e.getMessage(), e);
-            return Response.status(Response.Status.BAD_REQUEST).entity(e.getMessage()).build();
-        }
+    public CompletionStage<Response> atualizarCliente(@PathParam("clienteID") Long clienteID, @Valid Clientes cliente) {
+        return codificarSenha(cliente).thenApply(codificado -> {
+            try {
+                Clientes clienteAtualizado = clientesService.atualizarClienteComSenhaCodificada(clienteID, cliente);
+                logger.log(Level.INFO, "Cliente atualizado com sucesso: {0,number,#}", clienteID);
+                return Response.status(HTTP_OK).entity(clienteAtualizado).build();
+            } catch (ClienteNaoEncontradoException e) {
+                logger.log(Level.SEVERE, "Erro ao atualizar cliente: " + e.getMessage(), e);
+                return Response.status(Response.Status.NOT_FOUND).entity(e.getMessage()).build();
+            } catch (ClienteExistenteException e) {
+                logger.log(Level.SEVERE, "Erro ao atualizar cliente: " + e.getMessage(), e);
+                return Response.status(Response.Status.CONFLICT).entity(e.getMessage()).build();
+            } catch (IllegalArgumentException e) {
+                logger.log(Level.SEVERE, "Erro ao atualizar cliente: " + e.getMessage(), e);
+                return Response.status(Response.Status.BAD_REQUEST).entity(e.getMessage()).build();
+            }
+        }).exceptionally(ClientesController::traduzirSobrecarga);
     }
 
     /**
@@ -128,11 +168,88 @@ public class ClientesController {
     public Response removerCliente(@PathParam("clienteID") Long clienteID) {
         try {
             clientesService.removerCliente(clienteID);
-            logger.info("Cliente removido com sucesso: " + clienteID); 
+            logger.log(Level.INFO, "Cliente removido com sucesso: {0,number,#}", clienteID);
             return Response.status(HTTP_OK).build();
         } catch (ClienteNaoEncontradoException e) {
         	logger.log(Level.SEVERE, "Erro ao remover cliente: " + e.getMessage(), e);
             return Response.status(Response.Status.NOT_FOUND).entity(e.getMessage()).build();
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Importa clientes em massa, recebidos como CSV (com cabeçalho) ou como NDJSON (um objeto por linha), em UTF-8.
+     * O arquivo é lido sob demanda e os clientes são gravados em blocos independentes; o resultado informa os totais
+     * e o motivo da rejeição de cada registro recusado.
+     *
+     * @param cabecalhos Os cabeçalhos da requisição, para identificar o formato.
+     * @param corpo      O conteúdo do arquivo.
+     * @return Resposta HTTP com código 200 (OK) e o resultado da importação.
+     *         Resposta HTTP com código 400 (Bad Request) se o cabeçalho do CSV for inválido ou se o arquivo não pôde
+     *         ser lido até o fim (os registros anteriores ao erro permanecem importados).
+     */
+    @POST
+    @Path("/importacao")
+    @Consumes({TEXT_CSV, APPLICATION_NDJSON})
+    public Response importarClientes(@Context HttpHeaders cabecalhos, InputStream corpo) {
+        InputStreamReader leitor = new InputStreamReader(corpo, StandardCharsets.UTF_8);
+        boolean csv = cabecalhos.getMediaType() != null && cabecalhos.getMediaType().isCompatible(MediaType.valueOf(TEXT_CSV));
+        try (LeitorImportacaoClientes linhas = csv ? LeitorImportacaoClientes.csv(leitor) : LeitorImportacaoClientes.ndjson(leitor, objectMapper)) {
+            ResultadoImportacaoClientes resultado = importadorClientes.importar(linhas);
+            logger.log(Level.INFO, "Importação de clientes processada: {0,number,#} de {1,number,#} registros importados",
+                    new Object[]{resultado.getImportados(), resultado.getTotal()});
+            Response.Status status = resultado.getErroLeitura() == null ? Response.Status.OK : Response.Status.BAD_REQUEST;
+            return Response.status(status).entity(resultado).build();
+        } catch (IllegalArgumentException | IOException | UncheckedIOException e) {
+            logger.log(Level.SEVERE, "Erro ao ler a importação de clientes: " + e.getMessage(), e);
+            throw new WebApplicationException("Conteúdo da importação inválido: " + e.getMessage(), Response.Status.BAD_REQUEST);
+        }
+    }
+
+    /**
+     * Autentica um cliente pelo e-mail e pela senha. A senha é verificada no pool de senhas, sem ocupar a thread de
+     * trabalho, e é recodificada se tiver sido gravada com parâmetros anteriores.
+     *
+     * @param requisicao O e-mail e a senha.
+     * @return Resposta HTTP com código 200 (OK) e o ID, o nome e o e-mail do cliente, se o e-mail e a senha conferem.
+     *         Resposta HTTP com código 401 (Unauthorized) caso contrário.
+     *         Resposta HTTP com código 503 (Service Unavailable) se o pool de senhas estiver sobrecarregado.
+     */
+    @POST
+    @Path("/autenticacao")
+    public CompletionStage<Response> autenticarCliente(@Valid AutenticacaoRequest requisicao) {
+        return clientesService.autenticar(requisicao.getEmail(), requisicao.getSenha())
+                .thenApply(cliente -> cliente
+                        .map(autenticado -> {
+                            logger.log(Level.INFO, "Cliente autenticado: {0,number,#}", autenticado.getClienteID());
+                            return Response.status(HTTP_OK).entity(new AutenticacaoResponse(autenticado)).build();
+                        })
+                        .orElseGet(() -> Response.status(Response.Status.UNAUTHORIZED).entity("E-mail ou senha inválidos.").build()))
+                .exceptionally(ClientesController::traduzirSobrecarga);
+    }
+
+    /**
+     * Codifica a senha do cliente no pool de senhas, liberando a thread de trabalho durante a codificação. A senha é
+     * sempre codificada, mesmo que já tenha o formato de uma senha codificada. As etapas seguintes executam no pool de
+     * trabalho, com o contexto da requisição.
+     */
+    private CompletionStage<Clientes> codificarSenha(Clientes cliente) {
+        return managedExecutor.copy(executorHashSenhas.codificar(cliente.getSenha()))
+                .thenApplyAsync(senha -> {
+                    cliente.setSenha(senha);
+                    return cliente;
+                });
+    }
+
+    /**
+     * Responde 503 (Service Unavailable) quando a fila do pool de senhas está cheia; as demais falhas seguem para os
+     * mapeadores da aplicação.
+     */
+    private static Response traduzirSobrecarga(Throwable e) {
+        Throwable causa = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+        if (causa instanceof RejectedExecutionException) {
+            logger.log(Level.WARNING, "Pool de senhas sobrecarregado: {0}", causa.getMessage());
+            return Response.status(Response.Status.SERVICE_UNAVAILABLE).entity("Serviço sobrecarregado, tente novamente.").build();
+        }
+        throw causa instanceof RuntimeException ? (RuntimeException) causa : new CompletionException(causa);
+    }
+}
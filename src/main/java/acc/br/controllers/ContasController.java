@@ -9,8 +9,12 @@ import acc.br.repository.PoupancaRepository;
 import acc.br.model.Contas;
 import acc.br.model.ContasConjuntas;
 import acc.br.service.ContaCorrenteService;
+import acc.br.service.LivroRazaoService;
 import acc.br.service.PoupancaService;
+import acc.br.util.FiltroAmostragemLog;
+import acc.br.util.Monitorado;
 import acc.br.util.PoupancaServiceQualifier;
+import acc.br.util.TipoConta;
 import acc.br.service.ContasConjuntasService;
 import io.quarkus.runtime.annotations.RegisterForReflection;
 import javax.inject.Inject;
@@ -30,6 +34,7 @@ import java.util.logging.Logger;
 @RegisterForReflection
 @Produces(MediaType.APPLICATION_JSON)
 @Consumes(MediaType.APPLICATION_JSON)
+@Monitorado
 public class ContasController {
 
     @Inject
@@ -50,9 +55,12 @@ public class ContasController {
     
     @Inject
     PoupancaRepository poupancaRepository;
+
+    @Inject
+    LivroRazaoService livroRazaoService;
     
     private static final int HTTP_OK = Response.Status.OK.getStatusCode();
-    private static final Logger logger = Logger.getLogger(ContasController.class.getName());
+    private static final Logger logger = FiltroAmostragemLog.getLogger(ContasController.class);
 
     /**
      * Lista todas as contas correntes cadastradas no sistema.
@@ -102,7 +110,7 @@ public class ContasController {
     public Response obterContaCorrente(@PathParam("contaID") Long contaID) {
         try {
             Contas contaCorrente = contaCorrenteRepository.findById(contaID);
-            logger.info("Conta corrente obtida com sucesso: " + contaID);
+            logger.log(Level.INFO, "Conta corrente obtida com sucesso: {0,number,#}", contaID);
             return Response.status(HTTP_OK).entity(contaCorrente).build();
         } catch (ContaNaoEncontradaException e) {
         	logger.log(Level.SEVERE, "Erro ao obter conta corrente: " + e.getMessage(), e);
@@ -122,7 +130,7 @@ public class ContasController {
     public Response obterContaPoupanca(@PathParam("contaID") Long contaID) {
         try {
         	Poupanca contaPoupanca = poupancaRepository.findById(contaID);
-        	logger.info("Conta poupança obtida com sucesso: " + contaID);
+        	logger.log(Level.INFO, "Conta poupança obtida com sucesso: {0,number,#}", contaID);
             return Response.status(HTTP_OK).entity(contaPoupanca).build();
         } catch (ContaNaoEncontradaException e) {
         	logger.log(Level.SEVERE, "Erro ao obter conta poupança: " + e.getMessage(), e);
@@ -142,11 +150,30 @@ public class ContasController {
     public Response obterContaConjunta(@PathParam("contaID") Long contaID) {
         try {
             ContasConjuntas contaConjunta = contasConjuntasRepository.findById(contaID);
-            logger.info("Conta conjunta obtida com sucesso: " + contaID);
+            logger.log(Level.INFO, "Conta conjunta obtida com sucesso: {0,number,#}", contaID);
             return Response.status(HTTP_OK).entity(contaConjunta).build();
         } catch (ContaNaoEncontradaException e) {
         	logger.log(Level.SEVERE, "Erro ao obter conta conjunta: " + e.getMessage(), e);
             return Response.status(Response.Status.NOT_FOUND).entity(e.getMessage()).build();
         }
     }
+
+    /**
+     * Obtém o saldo de uma conta no livro-razão: o saldo consolidado mais os lançamentos posteriores.
+     *
+     * @param tipoConta O tipo da conta (CONTA_CORRENTE, CONTA_POUPANCA ou CONTA_CONJUNTA).
+     * @param contaID O ID da conta.
+     * @return Resposta HTTP com código 200 (OK) e o saldo da conta no razão.
+     *         Resposta HTTP com código 404 (Not Found) se a conta não for encontrada.
+     */
+    @GET
+    @Path("/razao/{tipoConta}/{contaID}")
+    public Response obterSaldoRazao(@PathParam("tipoConta") TipoConta tipoConta, @PathParam("contaID") Long contaID) {
+        try {
+            return Response.status(HTTP_OK).entity(livroRazaoService.consultarSaldo(tipoConta, contaID)).build();
+        } catch (ContaNaoEncontradaException e) {
+            logger.log(Level.SEVERE, "Erro ao obter saldo no razão: " + e.getMessage(), e);
+            return Response.status(Response.Status.NOT_FOUND).entity(e.getMessage()).build();
+        }
+    }
 }
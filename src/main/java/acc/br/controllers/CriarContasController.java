@@ -7,6 +7,8 @@ import acc.br.model.Contas;
 import acc.br.model.ContasConjuntas;
 import acc.br.service.ContaCorrenteService;
 import acc.br.service.PoupancaService;
+import acc.br.util.FiltroAmostragemLog;
+import acc.br.util.Monitorado;
 import acc.br.util.PoupancaServiceQualifier;
 import acc.br.service.ContasConjuntasService;
 import io.quarkus.runtime.annotations.RegisterForReflection;
@@ -27,6 +29,7 @@ import javax.ws.rs.core.Response;
 @RegisterForReflection
 @Produces(MediaType.APPLICATION_JSON)
 @Consumes(MediaType.APPLICATION_JSON)
+@Monitorado
 public class CriarContasController {
 
     @Inject
@@ -40,7 +43,7 @@ public class CriarContasController {
     ContasConjuntasService contasConjuntasService;
     
     private static final int HTTP_OK = Response.Status.OK.getStatusCode();
-    private static final Logger logger = Logger.getLogger(CriarContasController.class.getName());
+    private static final Logger logger = FiltroAmostragemLog.getLogger(CriarContasController.class);
 
     /**
      * Cria uma nova conta corrente.
@@ -55,7 +58,8 @@ public class CriarContasController {
     public Response criarContaCorrente(@Valid ContaCorrente contaCorrente) {
         try {
             Contas novaConta = contaCorrenteService.criarConta(contaCorrente);
-            logger.info("Conta corrente criada com sucesso: " + contaCorrente);
+            logger.info("Conta corrente criada com sucesso");
+            logger.log(Level.FINE, "Conta corrente criada com sucesso: {0}", contaCorrente);
             return Response.status(HTTP_OK).entity(novaConta).build();
         } catch (ContaExistenteException e) {
         	logger.log(Level.SEVERE, "Erro ao criar conta corrente: " + e.getMessage(), e);
@@ -79,7 +83,8 @@ public class CriarContasController {
     public Response criarContaPoupanca(@Valid Poupanca contaPoupanca) {
         try {
         	Poupanca novaConta = poupancaService.criarConta(contaPoupanca);
-        	logger.info("Conta poupança criada com sucesso: " + contaPoupanca);
+        	logger.info("Conta poupança criada com sucesso");
+        	logger.log(Level.FINE, "Conta poupança criada com sucesso: {0}", contaPoupanca);
             return Response.status(HTTP_OK).entity(novaConta).build();
         } catch (ContaExistenteException e) {
         	logger.log(Level.SEVERE, "Erro ao criar conta poupança: " + e.getMessage(), e);
@@ -103,7 +108,8 @@ public class CriarContasController {
     public Response criarContaConjunta(@Valid ContasConjuntas contasConjuntas) {
         try {
         	ContasConjuntas novaConta = contasConjuntasService.criarConta(contasConjuntas);
-        	logger.info("Conta conjunta criada com sucesso: " + contasConjuntas);
+        	logger.info("Conta conjunta criada com sucesso");
+        	logger.log(Level.FINE, "Conta conjunta criada com sucesso: {0}", contasConjuntas);
             return Response.status(HTTP_OK).entity(novaConta).build();
         } catch (ContaExistenteException e) {
         	logger.log(Level.SEVERE, "Erro ao criar conta conjunta: " + e.getMessage(), e);
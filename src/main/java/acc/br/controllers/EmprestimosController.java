@@ -4,12 +4,23 @@ import acc.br.exception.EmprestimoExistenteException;
 import acc.br.exception.EmprestimoNaoEncontradoException;
 import acc.br.model.Emprestimos;
 import acc.br.service.EmprestimosService;
+import acc.br.service.MotorAmortizacao;
+import acc.br.util.FiltroAmostragemLog;
+import acc.br.util.Monitorado;
+import acc.br.util.ParcelaAmortizacao;
+import acc.br.util.SimulacaoEmprestimoRequest;
+import acc.br.util.SistemaAmortizacao;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.quarkus.runtime.annotations.RegisterForReflection;
 import javax.inject.Inject;
 import javax.validation.Valid;
 import javax.ws.rs.*;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
+import java.math.BigDecimal;
+import java.util.Iterator;
 import java.util.List;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -21,13 +32,20 @@ import java.util.logging.Logger;
 @RegisterForReflection
 @Produces(MediaType.APPLICATION_JSON)
 @Consumes(MediaType.APPLICATION_JSON)
+@Monitorado
 public class EmprestimosController {
 
     @Inject
     EmprestimosService emprestimosService;
+
+    @Inject
+    MotorAmortizacao motorAmortizacao;
+
+    @Inject
+    ObjectMapper objectMapper;
     
     private static final int HTTP_OK = Response.Status.OK.getStatusCode();
-    private static final Logger logger = Logger.getLogger(EmprestimosController.class.getName());
+    private static final Logger logger = FiltroAmostragemLog.getLogger(EmprestimosController.class);
 
     /**
      * Cria um novo empréstimo no sistema.
@@ -41,7 +59,8 @@ public class EmprestimosController {
     public Response criarEmprestimo(@Valid Emprestimos emprestimo) {
         try {
             Emprestimos novoEmprestimo = emprestimosService.criarEmprestimo(emprestimo);
-            logger.info("Emprestimo criado com sucesso: " + emprestimo);
+            logger.info("Emprestimo criado com sucesso");
+            logger.log(Level.FINE, "Emprestimo criado com sucesso: {0}", emprestimo);
             return Response.status(HTTP_OK).entity(novoEmprestimo).build();
         } catch (EmprestimoExistenteException e) {
         	logger.log(Level.SEVERE, "Erro ao criar emprestimo: " + e.getMessage(), e);
@@ -66,7 +85,8 @@ public class EmprestimosController {
     public Response atualizarEmprestimo(@PathParam("id") Long id, @Valid Emprestimos emprestimo) {
         try {
             Emprestimos emprestimoAtualizado = emprestimosService.atualizarEmprestimo(id, emprestimo);
-            logger.info("Emprestimo atualizado com sucesso: " + emprestimo);
+            logger.info("Emprestimo atualizado com sucesso");
+            logger.log(Level.FINE, "Emprestimo atualizado com sucesso: {0}", emprestimo);
             return Response.status(HTTP_OK).entity(emprestimoAtualizado).build();
         } catch (EmprestimoNaoEncontradoException e) {
         	logger.log(Level.SEVERE, "Erro ao atualizar emprestimo: " + e.getMessage(), e);
@@ -89,7 +109,7 @@ public class EmprestimosController {
     public Response deletarEmprestimo(@PathParam("id") Long id) {
         try {
             emprestimosService.deletarEmprestimo(id);
-            logger.info("Emprestimo deletado com sucesso: " + id);
+            logger.log(Level.INFO, "Emprestimo deletado com sucesso: {0,number,#}", id);
             return Response.status(HTTP_OK).build();
         } catch (EmprestimoNaoEncontradoException e) {
         	logger.log(Level.SEVERE, "Erro ao deletar emprestimo: " + e.getMessage(), e);
@@ -120,11 +140,104 @@ public class EmprestimosController {
     public Response buscarEmprestimoPorId(@PathParam("id") Long id) {
         Emprestimos emprestimo = emprestimosService.buscarEmprestimoPorId(id);
         if (emprestimo != null) {
-        	logger.info("Emprestimo retornado com sucesso: " + id);
+        	logger.log(Level.INFO, "Emprestimo retornado com sucesso: {0,number,#}", id);
             return Response.status(HTTP_OK).entity(emprestimo).build();
         } else {
         	logger.log(Level.SEVERE, "Erro ao listar emprestimo");
             return Response.status(Response.Status.NOT_FOUND).build();
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Simula um empréstimo, sem gravá-lo, e transmite a tabela de amortização em um objeto JSON com os dados da
+     * simulação, as parcelas e os totais. O cálculo não acessa o banco de dados e é feito na própria thread da
+     * requisição; as parcelas são geradas e escritas uma a uma.
+     *
+     * @param simulacao O valor, a taxa de juros anual, o prazo e o sistema de amortização.
+     * @return Resposta HTTP com código 200 (OK) e a tabela de amortização.
+     *         Resposta HTTP com código 400 (Bad Request) se os dados da simulação não forem válidos.
+     */
+    @POST
+    @Path("/simulacao")
+    public Response simularEmprestimo(@Valid SimulacaoEmprestimoRequest simulacao) {
+        try {
+            SistemaAmortizacao sistema = simulacao.getSistema() != null ? simulacao.getSistema() : SistemaAmortizacao.PRICE;
+            BigDecimal taxaJurosMensal = MotorAmortizacao.taxaMensal(simulacao.getTaxaJuros());
+            Iterator<ParcelaAmortizacao> parcelas = motorAmortizacao.parcelas(simulacao.getValorEmprestimo(), taxaJurosMensal,
+                    simulacao.getPrazoMeses(), sistema);
+            return Response.status(HTTP_OK)
+                    .entity(transmitirTabela(sistema, simulacao.getValorEmprestimo(), simulacao.getTaxaJuros(), taxaJurosMensal,
+                            simulacao.getPrazoMeses(), parcelas))
+                    .type(MediaType.APPLICATION_JSON)
+                    .build();
+        } catch (IllegalArgumentException e) {
+            logger.log(Level.SEVERE, "Erro ao simular emprestimo: " + e.getMessage(), e);
+            return Response.status(Response.Status.BAD_REQUEST).entity(e.getMessage()).build();
+        }
+    }
+
+    /**
+     * Transmite a tabela de amortização de um empréstimo cadastrado, no mesmo formato da simulação.
+     *
+     * @param id      O ID do empréstimo.
+     * @param sistema O sistema de amortização (PRICE ou SAC).
+     * @return Resposta HTTP com código 200 (OK) e a tabela de amortização.
+     *         Resposta HTTP com código 404 (Not Found) se o empréstimo não for encontrado.
+     *         Resposta HTTP com código 400 (Bad Request) se o valor, a taxa ou o prazo do empréstimo não forem válidos.
+     */
+    @GET
+    @Path("/{id}/amortizacao")
+    public Response tabelaAmortizacao(@PathParam("id") Long id,
+            @QueryParam("sistema") @DefaultValue("PRICE") SistemaAmortizacao sistema) {
+        Emprestimos emprestimo = emprestimosService.buscarEmprestimoPorId(id);
+        if (emprestimo == null) {
+            logger.log(Level.SEVERE, "Emprestimo nao encontrado: {0,number,#}", id);
+            return Response.status(Response.Status.NOT_FOUND).entity("Empréstimo não encontrado").build();
+        }
+        try {
+            Iterator<ParcelaAmortizacao> parcelas = motorAmortizacao.parcelas(emprestimo, sistema);
+            logger.log(Level.INFO, "Tabela de amortizacao retornada com sucesso: {0,number,#}", id);
+            return Response.status(HTTP_OK)
+                    .entity(transmitirTabela(sistema, emprestimo.getValorEmprestimo(), emprestimo.getTaxaJuros(),
+                            MotorAmortizacao.taxaMensal(emprestimo.getTaxaJuros()), emprestimo.getPrazoMeses(), parcelas))
+                    .type(MediaType.APPLICATION_JSON)
+                    .build();
+        } catch (IllegalArgumentException e) {
+            logger.log(Level.SEVERE, "Erro ao calcular a tabela de amortizacao: " + e.getMessage(), e);
+            return Response.status(Response.Status.BAD_REQUEST).entity(e.getMessage()).build();
+        }
+    }
+
+    /**
+     * Escreve a tabela de amortização diretamente na saída, parcela a parcela, e os totais ao final.
+     */
+    private StreamingOutput transmitirTabela(SistemaAmortizacao sistema, BigDecimal valorEmprestimo, BigDecimal taxaJuros,
+                                             BigDecimal taxaJurosMensal, int prazoMeses, Iterator<ParcelaAmortizacao> parcelas) {
+        return saida -> {
+            try (JsonGenerator gerador = objectMapper.getFactory().createGenerator(saida)) {
+                gerador.writeStartObject();
+                gerador.writeStringField("sistema", sistema.name());
+                gerador.writeNumberField("valorEmprestimo", valorEmprestimo);
+                gerador.writeNumberField("taxaJuros", taxaJuros);
+                gerador.writeNumberField("taxaJurosMensal", taxaJurosMensal);
+                gerador.writeNumberField("prazoMeses", prazoMeses);
+                gerador.writeArrayFieldStart("parcelas");
+                BigDecimal totalJuros = BigDecimal.ZERO;
+                BigDecimal totalPago = BigDecimal.ZERO;
+                while (parcelas.hasNext()) {
+                    ParcelaAmortizacao parcela = parcelas.next();
+                    totalJuros = totalJuros.add(parcela.getJuros());
+                    totalPago = totalPago.add(parcela.getValorParcela());
+                    objectMapper.writeValue(gerador, parcela);
+                }
+                gerador.writeEndArray();
+                gerador.writeNumberField("totalJuros", totalJuros);
+                gerador.writeNumberField("totalPago", totalPago);
+                gerador.writeEndObject();
+            } catch (Exception e) {
+                logger.log(Level.SEVERE, "Erro ao transmitir a tabela de amortizacao: " + e.getMessage(), e);
+                throw e;
+            }
+        };
+    }
+}
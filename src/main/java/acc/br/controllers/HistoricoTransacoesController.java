@@ -3,6 +3,8 @@ package acc.br.controllers;
 import acc.br.exception.HistoricoTransacoesNaoEncontradoException;
 import acc.br.model.HistoricoTransacoes;
 import acc.br.service.HistoricoTransacoesService;
+import acc.br.util.FiltroAmostragemLog;
+import acc.br.util.Monitorado;
 import io.quarkus.runtime.annotations.RegisterForReflection;
 import javax.inject.Inject;
 import javax.validation.Valid;
@@ -20,13 +22,14 @@ import java.util.logging.Logger;
 @RegisterForReflection
 @Produces(MediaType.APPLICATION_JSON)
 @Consumes(MediaType.APPLICATION_JSON)
+@Monitorado
 public class HistoricoTransacoesController {
 
     @Inject
     HistoricoTransacoesService historicoTransacoesService;
     
     private static final int HTTP_OK = Response.Status.OK.getStatusCode();
-    private static final Logger logger = Logger.getLogger(HistoricoTransacoesController.class.getName());
+    private static final Logger logger = FiltroAmostragemLog.getLogger(HistoricoTransacoesController.class);
 
     /**
      * Cria um novo registro de histórico de transações.
@@ -38,7 +41,8 @@ public class HistoricoTransacoesController {
     public Response criarHistoricoTransacoes(@Valid HistoricoTransacoes historicoTransacoes) {
         try {
             historicoTransacoesService.criarHistoricoTransacoes(historicoTransacoes);
-            logger.info("Historico Transações criado com sucesso: " + historicoTransacoes);
+            logger.info("Historico Transações criado com sucesso");
+            logger.log(Level.FINE, "Historico Transações criado com sucesso: {0}", historicoTransacoes);
             return Response.status(HTTP_OK).build();
         } catch (Exception e) {
         	logger.log(Level.SEVERE, "Erro ao criar historico transações: " + e.getMessage(), e);
@@ -58,7 +62,8 @@ public class HistoricoTransacoesController {
     public Response atualizarHistoricoTransacoes(@PathParam("id") Long id, @Valid HistoricoTransacoes historicoTransacoes) {
         try {
             historicoTransacoesService.atualizarHistoricoTransacoes(id, historicoTransacoes);
-            logger.info("Historico Transações atualizado com sucesso: " + historicoTransacoes);
+            logger.info("Historico Transações atualizado com sucesso");
+            logger.log(Level.FINE, "Historico Transações atualizado com sucesso: {0}", historicoTransacoes);
             return Response.status(HTTP_OK).build();
         } catch (HistoricoTransacoesNaoEncontradoException e) {
         	logger.log(Level.SEVERE, "Erro ao atualizar historico transações: " + e.getMessage(), e);
@@ -80,7 +85,7 @@ public class HistoricoTransacoesController {
     public Response obterHistoricoTransacoes(@PathParam("id") Long id) {
         try {
             HistoricoTransacoes historicoTransacoes = historicoTransacoesService.obterHistoricoTransacoes(id);
-            logger.info("Historico Transações obtido com sucesso: " + id);
+            logger.log(Level.INFO, "Historico Transações obtido com sucesso: {0,number,#}", id);
             return Response.status(HTTP_OK).entity(historicoTransacoes).build();
         } catch (HistoricoTransacoesNaoEncontradoException e) {
         	logger.log(Level.SEVERE, "Erro ao obter historico transações: " + e.getMessage(), e);
@@ -119,7 +124,7 @@ public class HistoricoTransacoesController {
     public Response removerHistoricoTransacoes(@PathParam("id") Long id) {
         try {
             historicoTransacoesService.removerHistoricoTransacoes(id);
-            logger.info("Historico Transações removido com sucesso" + id);
+            logger.log(Level.INFO, "Historico Transações removido com sucesso: {0,number,#}", id);
             return Response.status(HTTP_OK).build();
         } catch (HistoricoTransacoesNaoEncontradoException e) {
         	logger.log(Level.SEVERE, "Erro ao remover historico transações: " + e.getMessage(), e);
@@ -3,6 +3,8 @@ package acc.br.controllers;
 import acc.br.exception.InvestimentoNaoEncontradoException;
 import acc.br.model.Investimentos;
 import acc.br.service.InvestimentosService;
+import acc.br.util.FiltroAmostragemLog;
+import acc.br.util.Monitorado;
 import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
 import io.quarkus.runtime.annotations.RegisterForReflection;
 import javax.inject.Inject;
@@ -22,13 +24,14 @@ import java.util.logging.Logger;
 @RegisterForReflection
 @Produces(MediaType.APPLICATION_JSON)
 @Consumes(MediaType.APPLICATION_JSON)
+@Monitorado
 public class InvestimentosController {
 
     @Inject
     InvestimentosService investimentosService;
     
     private static final int HTTP_OK = Response.Status.OK.getStatusCode();
-    private static final Logger logger = Logger.getLogger(InvestimentosController.class.getName());
+    private static final Logger logger = FiltroAmostragemLog.getLogger(InvestimentosController.class);
 
 
     /**
@@ -41,7 +44,8 @@ public class InvestimentosController {
     public Response criarInvestimento(Investimentos investimento) {
         try {
             investimentosService.criarInvestimento(investimento);
-            logger.info("Investimento criado com sucesso: " + investimento);
+            logger.info("Investimento criado com sucesso");
+            logger.log(Level.FINE, "Investimento criado com sucesso: {0}", investimento);
             return Response.status(HTTP_OK).entity(investimento).build();
         } catch (Exception e) {
         	logger.log(Level.SEVERE, "Erro ao criar investimento: " + e.getMessage(), e);
@@ -62,7 +66,8 @@ public class InvestimentosController {
     public Response atualizarInvestimento(@PathParam("id") Long id, Investimentos investimento) {
         try {
             investimentosService.atualizarInvestimento(id, investimento);
-            logger.info("Investimento atualizado com sucesso: " + investimento);
+            logger.info("Investimento atualizado com sucesso");
+            logger.log(Level.FINE, "Investimento atualizado com sucesso: {0}", investimento);
             return Response.status(HTTP_OK).entity(investimento).build();
         } catch (InvestimentoNaoEncontradoException e) {
         	logger.log(Level.SEVERE, "Erro ao atualizar investimento: " + e.getMessage(), e);
@@ -85,7 +90,7 @@ public class InvestimentosController {
     public Response obterInvestimento(@PathParam("id") Long id) {
         try {
             Investimentos investimento = investimentosService.obterInvestimento(id);
-            logger.info("Investimento obtido com sucesso: " + id);
+            logger.log(Level.INFO, "Investimento obtido com sucesso: {0,number,#}", id);
             return Response.status(HTTP_OK).entity(investimento).build();
         } catch (InvestimentoNaoEncontradoException e) {
         	logger.log(Level.SEVERE, "Erro ao obter investimento: " + e.getMessage(), e);
@@ -125,7 +130,7 @@ public class InvestimentosController {
     public Response removerInvestimento(@PathParam("id") Long id) {
         try {
             investimentosService.removerInvestimento(id);
-            logger.info("Investimento removido com sucesso: " + id);
+            logger.log(Level.INFO, "Investimento removido com sucesso: {0,number,#}", id);
             return Response.status(HTTP_OK).build();
         } catch (InvestimentoNaoEncontradoException e) {
         	logger.log(Level.SEVERE, "Erro ao remover investimento: " + e.getMessage(), e);
@@ -148,7 +153,7 @@ public class InvestimentosController {
     public Response calcularRetornoInvestimento(@PathParam("id") Long id) throws InvestimentoNaoEncontradoException {
         try {
             BigDecimal retorno = investimentosService.calcularRetornoInvestimento(PanacheEntityBase.findById(id));
-            logger.info("Investimento calculado com sucesso: " + id);
+            logger.log(Level.INFO, "Investimento calculado com sucesso: {0,number,#}", id);
             return Response.status(HTTP_OK).entity(retorno).build();
         } catch (Exception e) {
         	logger.log(Level.SEVERE, "Erro ao calcular investimento: " + e.getMessage(), e);
@@ -167,7 +172,7 @@ public class InvestimentosController {
     public Response listarInvestimentosPorCliente(@PathParam("clienteID") Integer clienteID) {
         try {
             List<Investimentos> investimentos = investimentosService.listarInvestimentosPorCliente(clienteID);
-            logger.info("Investimento listado com sucesso: " + clienteID);
+            logger.log(Level.INFO, "Investimento listado com sucesso: {0,number,#}", clienteID);
             return Response.status(HTTP_OK).entity(investimentos).build();
         } catch (Exception e) {
         	logger.log(Level.SEVERE, "Erro ao listar investimento: " + e.getMessage(), e);
@@ -3,6 +3,8 @@ package acc.br.controllers;
 import acc.br.exception.NotificacaoNaoEncontradaException;
 import acc.br.model.Notificacoes;
 import acc.br.service.NotificacoesService;
+import acc.br.util.FiltroAmostragemLog;
+import acc.br.util.Monitorado;
 import io.quarkus.runtime.annotations.RegisterForReflection;
 import javax.inject.Inject;
 import javax.ws.rs.*;
@@ -19,13 +21,14 @@ import java.util.logging.Logger;
 @RegisterForReflection
 @Produces(MediaType.APPLICATION_JSON)
 @Consumes(MediaType.APPLICATION_JSON)
+@Monitorado
 public class NotificacoesController {
 
     @Inject
     NotificacoesService notificacoesService;
     
     private static final int HTTP_OK = Response.Status.OK.getStatusCode();
-    private static final Logger logger = Logger.getLogger(NotificacoesController.class.getName());
+    private static final Logger logger = FiltroAmostragemLog.getLogger(NotificacoesController.class);
 
     /**
      * Cria uma nova notificação.
@@ -37,7 +40,8 @@ public class NotificacoesController {
     public Response criarNotificacao(Notificacoes notificacao) {
         try {
             notificacoesService.criarNotificacao(notificacao);
-            logger.info("Notificação criada com sucesso: " + notificacao);
+            logger.info("Notificação criada com sucesso");
+            logger.log(Level.FINE, "Notificação criada com sucesso: {0}", notificacao);
             return Response.status(HTTP_OK).entity(notificacao).build();
         } catch (Exception e) {
         	logger.log(Level.SEVERE, "Erro ao criar notificação: " + e.getMessage(), e);
@@ -60,7 +64,8 @@ public class NotificacoesController {
     public Response atualizarNotificacao(@PathParam("id") Long id, Notificacoes notificacao) {
         try {
             notificacoesService.atualizarNotificacao(id, notificacao);
-            logger.info("Notificação atualizada com sucesso: " + notificacao);
+            logger.info("Notificação atualizada com sucesso");
+            logger.log(Level.FINE, "Notificação atualizada com sucesso: {0}", notificacao);
             return Response.status(HTTP_OK).build();
         } catch (NotificacaoNaoEncontradaException e) {
         	logger.log(Level.SEVERE, "Erro ao atualizar notificação: " + e.getMessage(), e);
@@ -87,7 +92,8 @@ public class NotificacoesController {
     public Response obterNotificacao(@PathParam("id") Long id) {
         try {
             Notificacoes notificacao = notificacoesService.obterNotificacao(id);
-            logger.info("Notificação obtida com sucesso: " + notificacao);
+            logger.info("Notificação obtida com sucesso");
+            logger.log(Level.FINE, "Notificação obtida com sucesso: {0}", notificacao);
             return Response.ok(notificacao).build();
         } catch (NotificacaoNaoEncontradaException e) {
         	logger.log(Level.SEVERE, "Erro ao obter notificação: " + e.getMessage(), e);
@@ -133,7 +139,7 @@ public class NotificacoesController {
     public Response removerNotificacao(@PathParam("id") Long id) {
         try {
             notificacoesService.removerNotificacao(id);
-            logger.info("Notificação removida com sucesso: " + id);
+            logger.log(Level.INFO, "Notificação removida com sucesso: {0,number,#}", id);
             return Response.status(HTTP_OK).build();
         } catch (NotificacaoNaoEncontradaException e) {
         	logger.log(Level.SEVERE, "Erro ao remover notificações: " + e.getMessage(), e);
@@ -159,7 +165,7 @@ public class NotificacoesController {
     public Response listarNotificacoesPorCliente(@PathParam("clienteID") Long clienteID) {
         try {
             List<Notificacoes> notificacoes = notificacoesService.listarNotificacoesPorCliente(clienteID);
-            logger.info("Notificação listada com sucesso: " + clienteID);
+            logger.log(Level.INFO, "Notificação listada com sucesso: {0,number,#}", clienteID);
             return Response.ok(notificacoes).build();
         } catch (Exception e) {
         	logger.log(Level.SEVERE, "Erro ao listar notificações: " + e.getMessage(), e);
@@ -3,6 +3,8 @@ package acc.br.controllers;
 import acc.br.exception.ParametroConfiguracaoNaoEncontradoException;
 import acc.br.model.ParametrosConfiguracao;
 import acc.br.service.ParametrosConfiguracaoService;
+import acc.br.util.FiltroAmostragemLog;
+import acc.br.util.Monitorado;
 import io.quarkus.runtime.annotations.RegisterForReflection;
 import javax.inject.Inject;
 import javax.validation.Valid;
@@ -20,13 +22,14 @@ import java.util.logging.Logger;
 @RegisterForReflection
 @Produces(MediaType.APPLICATION_JSON)
 @Consumes(MediaType.APPLICATION_JSON)
+@Monitorado
 public class ParametrosConfiguracaoController {
 
     @Inject
     ParametrosConfiguracaoService parametrosConfiguracaoService;
     
     private static final int HTTP_OK = Response.Status.OK.getStatusCode();
-    private static final Logger logger = Logger.getLogger(ParametrosConfiguracaoController.class.getName());
+    private static final Logger logger = FiltroAmostragemLog.getLogger(ParametrosConfiguracaoController.class);
 
     /**
      * Cria um novo registro de parâmetro de configuração.
@@ -40,7 +43,8 @@ public class ParametrosConfiguracaoController {
         URI uri = UriBuilder.fromPath("/parametros-configuracao/{id}")
                 .resolveTemplate("id", parametrosConfiguracao.getParametroID())
                 .build();
-        logger.info("Parametro criado com sucesso: " + parametrosConfiguracao);
+        logger.info("Parametro criado com sucesso");
+        logger.log(Level.FINE, "Parametro criado com sucesso: {0}", parametrosConfiguracao);
         return Response.created(uri).build();
     }
 
@@ -57,7 +61,8 @@ public class ParametrosConfiguracaoController {
     public Response atualizarParametrosConfiguracao(@PathParam("id") Long id, @Valid ParametrosConfiguracao parametrosConfiguracao) {
         try {
             parametrosConfiguracaoService.atualizarParametrosConfiguracao(id, parametrosConfiguracao);
-            logger.info("Parametro atualizado com sucesso: " + parametrosConfiguracao);
+            logger.info("Parametro atualizado com sucesso");
+            logger.log(Level.FINE, "Parametro atualizado com sucesso: {0}", parametrosConfiguracao);
             return Response.status(HTTP_OK).build();
         } catch (ParametroConfiguracaoNaoEncontradoException e) {
         	logger.log(Level.SEVERE, "Erro ao atualizar notificação: " + e.getMessage(), e);
@@ -77,7 +82,7 @@ public class ParametrosConfiguracaoController {
     public Response obterParametrosConfiguracao(@PathParam("id") Long id) {
         try {
             ParametrosConfiguracao parametrosConfiguracao = parametrosConfiguracaoService.obterParametrosConfiguracao(id);
-            logger.info("Parametro obtido com sucesso: " + id);
+            logger.log(Level.INFO, "Parametro obtido com sucesso: {0,number,#}", id);
             return Response.ok(parametrosConfiguracao).build();
         } catch (ParametroConfiguracaoNaoEncontradoException e) {
         	logger.log(Level.SEVERE, "Erro ao obter notificação: " + e.getMessage(), e);
@@ -109,7 +114,7 @@ public class ParametrosConfiguracaoController {
     public Response removerParametrosConfiguracao(@PathParam("id") Long id) {
         try {
             parametrosConfiguracaoService.removerParametrosConfiguracao(id);
-            logger.info("Parametro removido com sucesso: " + id);
+            logger.log(Level.INFO, "Parametro removido com sucesso: {0,number,#}", id);
             return Response.noContent().build();
         } catch (ParametroConfiguracaoNaoEncontradoException e) {
         	logger.log(Level.SEVERE, "Erro ao remover notificação: " + e.getMessage(), e);
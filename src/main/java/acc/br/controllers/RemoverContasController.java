@@ -5,8 +5,12 @@ import acc.br.exception.PoupancaNaoEncontradaException;
 import acc.br.exception.ContaConjuntaNaoEncontradaException;
 import acc.br.service.ContaCorrenteService;
 import acc.br.service.PoupancaService;
+import acc.br.util.FiltroAmostragemLog;
+import acc.br.util.Monitorado;
 import acc.br.util.PoupancaServiceQualifier;
+import acc.br.service.CacheEstadoContas;
 import acc.br.service.ContasConjuntasService;
+import acc.br.util.TipoConta;
 import io.quarkus.runtime.annotations.RegisterForReflection;
 
 import java.util.logging.Level;
@@ -24,6 +28,7 @@ import javax.ws.rs.core.Response;
 @RegisterForReflection
 @Produces(MediaType.APPLICATION_JSON)
 @Consumes(MediaType.APPLICATION_JSON)
+@Monitorado
 public class RemoverContasController {
 
     @Inject
@@ -35,9 +40,12 @@ public class RemoverContasController {
 
     @Inject
     ContasConjuntasService contasConjuntasService;
+
+    @Inject
+    CacheEstadoContas cacheEstadoContas;
     
     private static final int HTTP_OK = Response.Status.OK.getStatusCode();
-    private static final Logger logger = Logger.getLogger(ParametrosConfiguracaoController.class.getName());
+    private static final Logger logger = FiltroAmostragemLog.getLogger(RemoverContasController.class);
 
 
     /**
@@ -52,7 +60,8 @@ public class RemoverContasController {
     public Response removerContaCorrente(@PathParam("id") Long id) {
         try {
             contaCorrenteService.removerContaCorrente(id);
-            logger.info("Conta corrente removida com sucesso: " + id);
+            cacheEstadoContas.invalidar(TipoConta.CONTA_CORRENTE, id);
+            logger.log(Level.INFO, "Conta corrente removida com sucesso: {0,number,#}", id);
             return Response.status(HTTP_OK).build();
         } catch (ContaCorrenteNaoEncontradaException e) {
         	logger.log(Level.SEVERE, "Erro ao remover conta corrente: " + e.getMessage(), e);
@@ -72,7 +81,8 @@ public class RemoverContasController {
     public Response removerContaPoupanca(@PathParam("id") Long id) {
         try {
             poupancaService.removerPoupanca(id);
-            logger.info("Conta poupança removida com sucesso: " + id);
+            cacheEstadoContas.invalidar(TipoConta.CONTA_POUPANCA, id);
+            logger.log(Level.INFO, "Conta poupança removida com sucesso: {0,number,#}", id);
             return Response.status(HTTP_OK).build();
         } catch (PoupancaNaoEncontradaException e) {
         	logger.log(Level.SEVERE, "Erro ao remover conta poupança: " + e.getMessage(), e);
@@ -92,7 +102,8 @@ public class RemoverContasController {
     public Response removerContaConjunta(@PathParam("id") Long id) {
         try {
             contasConjuntasService.removerContasConjunta(id);
-            logger.info("Conta conjunta removida com sucesso: " + id);
+            cacheEstadoContas.invalidar(TipoConta.CONTA_CONJUNTA, id);
+            logger.log(Level.INFO, "Conta conjunta removida com sucesso: {0,number,#}", id);
             return Response.status(HTTP_OK).build();
         } catch (ContaConjuntaNaoEncontradaException e) {
         	logger.log(Level.SEVERE, "Erro ao remover conta conjunta: " + e.getMessage(), e);
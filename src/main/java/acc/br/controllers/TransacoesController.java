@@ -7,26 +7,37 @@ import acc.br.exception.SaqueExcedeLimiteException;
 import acc.br.exception.TransacoesNaoEncontradaException;
 import acc.br.exception.ValorMinimoInvalidoException;
 import acc.br.model.Transacoes;
-import acc.br.repository.ContaCorrenteRepository;
-import acc.br.repository.ContasConjuntasRepository;
 import acc.br.repository.ContasRepository;
-import acc.br.repository.PoupancaRepository;
+import acc.br.service.CacheEstadoContas;
+import acc.br.service.IdempotenciaService;
+import acc.br.service.ProcessadorLoteTransacoes;
 import acc.br.service.TransacoesService;
 import acc.br.util.DepositoRequest;
+import acc.br.util.FiltroAmostragemLog;
+import acc.br.util.Monitorado;
+import acc.br.util.OperacaoLote;
+import acc.br.util.PaginaTransacoes;
+import acc.br.util.ResultadoLote;
 import acc.br.util.SaqueRequest;
 import acc.br.util.TipoConta;
 import acc.br.util.TipoDeposito;
+import acc.br.util.TipoTransacao;
 import acc.br.util.TransferenciaRequest;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.quarkus.runtime.annotations.RegisterForReflection;
 import javax.inject.Inject;
 import javax.persistence.EntityManager;
-import javax.transaction.Transactional;
 import javax.validation.Valid;
 import javax.ws.rs.*;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
+import java.io.IOException;
+import java.io.InputStream;
 import java.math.BigDecimal;
-import java.util.List;
+import java.util.Optional;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -37,6 +48,7 @@ import java.util.logging.Logger;
 @RegisterForReflection
 @Produces(MediaType.APPLICATION_JSON)
 @Consumes(MediaType.APPLICATION_JSON)
+@Monitorado
 public class TransacoesController {
 
     @Inject
@@ -49,16 +61,23 @@ public class TransacoesController {
     EntityManager entityManager;
     
     @Inject
-    PoupancaRepository poupancaRepository;
+    CacheEstadoContas cacheEstadoContas;
     
     @Inject
-    ContasConjuntasRepository contasConjuntasRepository;
-    
+    ObjectMapper objectMapper;
+
     @Inject
-    ContaCorrenteRepository contaCorrenteRepository;
-    
+    ProcessadorLoteTransacoes processadorLoteTransacoes;
+
+    @Inject
+    IdempotenciaService idempotenciaService;
+
     private static final int HTTP_OK = Response.Status.OK.getStatusCode();
-    private static final Logger logger = Logger.getLogger(TransacoesController.class.getName());
+    private static final int TAMANHO_PAGINA_STREAMING = 500;
+    private static final String MENSAGEM_SAQUE = "Saque realizado com sucesso.";
+    private static final String MENSAGEM_DEPOSITO = "Depósito realizado com sucesso.";
+    private static final String MENSAGEM_TRANSFERENCIA = "Transferência realizada com sucesso.";
+    private static final Logger logger = FiltroAmostragemLog.getLogger(TransacoesController.class);
     
     /**
      * Cria uma nova transação financeira.
@@ -70,7 +89,8 @@ public class TransacoesController {
     public Response criarTransacao(Transacoes transacao) {
         try {
             transacoesService.criarTransacao(transacao);
-            logger.info("Transação criada com sucesso: " + transacao);
+            logger.info("Transação criada com sucesso");
+            logger.log(Level.FINE, "Transação criada com sucesso: {0}", transacao);
             return Response.status(HTTP_OK).entity(transacao).build();
         } catch (Exception e) {
         	logger.log(Level.SEVERE, "Erro ao criar transação: " + e.getMessage(), e);
@@ -91,7 +111,8 @@ public class TransacoesController {
     public Response atualizarTransacao(@PathParam("id") Long id, Transacoes transacao) {
         try {
             transacoesService.atualizarTransacao(id, transacao);
-            logger.info("Transação atualizada com sucesso: " + transacao);
+            logger.info("Transação atualizada com sucesso");
+            logger.log(Level.FINE, "Transação atualizada com sucesso: {0}", transacao);
             return Response.status(HTTP_OK).entity(transacao).build();
         } catch (TransacoesNaoEncontradaException e) {
         	logger.log(Level.SEVERE, "Erro ao atualizar transação: " + e.getMessage(), e);
@@ -115,7 +136,8 @@ public class TransacoesController {
     public Response obterTransacao(@PathParam("id") Long id) {
         try {
             Transacoes transacao = transacoesService.obterTransacao(id);
-            logger.info("Transação retornada com sucesso: " + transacao);
+            logger.info("Transação retornada com sucesso");
+            logger.log(Level.FINE, "Transação retornada com sucesso: {0}", transacao);
             return Response.status(HTTP_OK).entity(transacao).build();
         } catch (TransacoesNaoEncontradaException e) {
         	logger.log(Level.SEVERE, "Transação não encontrada: " + e.getMessage(), e);
@@ -129,18 +151,58 @@ public class TransacoesController {
     }
 
     /**
-     * Lista todas as transações financeiras.
+     * Lista todas as transações financeiras em um array JSON transmitido em partes (chunked).
+     * As transações são lidas página a página por cursor e escritas diretamente na saída,
+     * de modo que no máximo uma página fica em memória durante a resposta.
      *
-     * @return A resposta HTTP com uma lista de todas as transações financeiras.
+     * @return A resposta HTTP com o array JSON de todas as transações financeiras.
      */
     @GET
     public Response listarTransacoes() {
-        try {
-            List<Transacoes> transacoes = transacoesService.listarTransacoes();
+        StreamingOutput corpo = saida -> {
+            try (JsonGenerator gerador = objectMapper.getFactory().createGenerator(saida)) {
+                gerador.writeStartArray();
+                Long cursor = null;
+                do {
+                    PaginaTransacoes pagina = transacoesService.listarTransacoes(cursor, TAMANHO_PAGINA_STREAMING);
+                    for (Transacoes transacao : pagina.getTransacoes()) {
+                        objectMapper.writeValue(gerador, transacao);
+                    }
+                    gerador.flush();
+                    cursor = pagina.getProximoCursor();
+                } while (cursor != null);
+                gerador.writeEndArray();
+            } catch (Exception e) {
+                logger.log(Level.SEVERE, "Erro ao transmitir as transações: " + e.getMessage(), e);
+                throw e;
+            }
             logger.info("Transação listada com sucesso");
-            return Response.status(HTTP_OK).entity(transacoes).build();
+        };
+        return Response.status(HTTP_OK).entity(corpo).type(MediaType.APPLICATION_JSON).build();
+    }
+
+    /**
+     * Lista uma página de transações financeiras usando paginação por cursor (keyset).
+     * Para percorrer todas as transações, o cliente repete a chamada informando o
+     * {@code proximoCursor} da resposta anterior até que ele seja nulo.
+     *
+     * @param cursor  O cursor retornado pela página anterior (opcional).
+     * @param tamanho A quantidade de transações por página.
+     * @return A resposta HTTP com a página de transações e o cursor da próxima página.
+     */
+    @GET
+    @Path("/pagina")
+    public Response listarTransacoesPaginadas(@QueryParam("cursor") Long cursor,
+            @QueryParam("tamanho") @DefaultValue("100") int tamanho) {
+        try {
+            PaginaTransacoes pagina = transacoesService.listarTransacoes(cursor, tamanho);
+            logger.log(Level.INFO, "Página de transações listada com sucesso: {0,number,#}", cursor);
+            return Response.status(HTTP_OK).entity(pagina).build();
+        } catch (IllegalArgumentException e) {
+            logger.log(Level.SEVERE, "Erro ao listar as transações: " + e.getMessage(), e);
+            return Response.status(Response.Status.BAD_REQUEST).entity(e.getMessage()).build();
         } catch (Exception e) {
-        	logger.log(Level.SEVERE, "Transação não encontrada: " + e.getMessage(), e);
+        	logger.log(Level.SEVERE, "Erro ao listar as transações: " + e.getMessage(), e);
             return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
                     .entity("Erro ao listar as transações: " + e.getMessage()).build();
         }
@@ -157,7 +219,7 @@ public class TransacoesController {
     public Response removerTransacao(@PathParam("id") Long id) {
         try {
             transacoesService.removerTransacao(id);
-            logger.info("Transação removida com sucesso: "  + id);
+            logger.log(Level.INFO, "Transação removida com sucesso: {0,number,#}", id);
             return Response.status(HTTP_OK).build();
         } catch (TransacoesNaoEncontradaException e) {
         	logger.log(Level.SEVERE, "Erro ao remover a transação: " + e.getMessage(), e);
@@ -174,13 +236,21 @@ public class TransacoesController {
      * Lista todas as transferências de uma determinada conta com base no ID da conta.
      *
      * @param contaID O ID da conta para a qual deseja listar as transferências.
-     * @return Uma lista de transferências associadas à conta.
+     * @param cursor  O cursor retornado pela página anterior (opcional).
+     * @param tamanho A quantidade de transações por página.
+     * @return Uma página de transferências da conta e o cursor da próxima página.
      */
-    public Response listarTransferenciasPorConta(Long contaID) {
+    @GET
+    @Path("/conta/{contaID}/transferencias")
+    public Response listarTransferenciasPorConta(@PathParam("contaID") Long contaID, @QueryParam("cursor") Long cursor,
+            @QueryParam("tamanho") @DefaultValue("100") int tamanho) {
         try {
-            List<Transacoes> transferencias = transacoesService.listarTransferenciasPorConta(contaID);
-            logger.info("Transação listada com sucesso: "  + contaID);
+            PaginaTransacoes transferencias = transacoesService.listarTransferenciasPorConta(contaID, cursor, tamanho);
+            logger.log(Level.INFO, "Transferências da conta listadas com sucesso: {0,number,#}", contaID);
             return Response.status(HTTP_OK).entity(transferencias).build();
+        } catch (IllegalArgumentException e) {
+            logger.log(Level.SEVERE, "Erro ao listar as transações: " + e.getMessage(), e);
+            return Response.status(Response.Status.BAD_REQUEST).entity(e.getMessage()).build();
         } catch (ContaNaoEncontradaException e) {
         	logger.log(Level.SEVERE, "Erro ao encontrar a transação: " + e.getMessage(), e);
             return Response.status(Response.Status.NOT_FOUND).entity("Conta não encontrada.").build();
@@ -191,13 +261,21 @@ public class TransacoesController {
      * Lista todos os saques de uma determinada conta com base no ID da conta.
      *
      * @param contaID O ID da conta para a qual deseja listar os saques.
-     * @return Uma lista de saques associadas à conta.
+     * @param cursor  O cursor retornado pela página anterior (opcional).
+     * @param tamanho A quantidade de transações por página.
+     * @return Uma página de saques da conta e o cursor da próxima página.
      */
-    public Response listarSaquesPorConta(Long contaID) {
+    @GET
+    @Path("/conta/{contaID}/saques")
+    public Response listarSaquesPorConta(@PathParam("contaID") Long contaID, @QueryParam("cursor") Long cursor,
+            @QueryParam("tamanho") @DefaultValue("100") int tamanho) {
         try {
-            List<Transacoes> saques = transacoesService.listarSaquesPorConta(contaID);
-            logger.info("Transação listada com sucesso: "  + contaID);
+            PaginaTransacoes saques = transacoesService.listarSaquesPorConta(contaID, cursor, tamanho);
+            logger.log(Level.INFO, "Saques da conta listados com sucesso: {0,number,#}", contaID);
             return Response.status(HTTP_OK).entity(saques).build();
+        } catch (IllegalArgumentException e) {
+            logger.log(Level.SEVERE, "Erro ao listar as transações: " + e.getMessage(), e);
+            return Response.status(Response.Status.BAD_REQUEST).entity(e.getMessage()).build();
         } catch (ContaNaoEncontradaException e) {
         	logger.log(Level.SEVERE, "Erro ao encontrar a transação: " + e.getMessage(), e);
             return Response.status(Response.Status.NOT_FOUND).entity("Conta não encontrada.").build();
@@ -208,13 +286,21 @@ public class TransacoesController {
      * Lista todos os depósitos de uma determinada conta com base no ID da conta.
      *
      * @param contaID O ID da conta para a qual deseja listar os depósitos.
-     * @return Uma lista de depósitos associadas à conta.
+     * @param cursor  O cursor retornado pela página anterior (opcional).
+     * @param tamanho A quantidade de transações por página.
+     * @return Uma página de depósitos da conta e o cursor da próxima página.
      */
-    public Response listarDepositosPorConta(Long contaID) {
+    @GET
+    @Path("/conta/{contaID}/depositos")
+    public Response listarDepositosPorConta(@PathParam("contaID") Long contaID, @QueryParam("cursor") Long cursor,
+            @QueryParam("tamanho") @DefaultValue("100") int tamanho) {
         try {
-            List<Transacoes> depositos = transacoesService.listarDepositosPorConta(contaID);
-            logger.info("Transação listada com sucesso: "  + contaID);
+            PaginaTransacoes depositos = transacoesService.listarDepositosPorConta(contaID, cursor, tamanho);
+            logger.log(Level.INFO, "Depósitos da conta listados com sucesso: {0,number,#}", contaID);
             return Response.status(HTTP_OK).entity(depositos).build();
+        } catch (IllegalArgumentException e) {
+            logger.log(Level.SEVERE, "Erro ao listar as transações: " + e.getMessage(), e);
+            return Response.status(Response.Status.BAD_REQUEST).entity(e.getMessage()).build();
         } catch (ContaNaoEncontradaException e) {
         	logger.log(Level.SEVERE, "Erro ao encontrar a transação: " + e.getMessage(), e);
             return Response.status(Response.Status.NOT_FOUND).entity("Conta não encontrada.").build();
@@ -225,13 +311,21 @@ public class TransacoesController {
      * Lista todas as transferências a partir de um valor mínimo.
      *
      * @param valorMinimo O valor mínimo das transferências desejadas.
-     * @return Uma lista de transferências com valores maiores ou iguais ao valor mínimo.
+     * @param cursor      O cursor retornado pela página anterior (opcional).
+     * @param tamanho     A quantidade de transações por página.
+     * @return Uma página de transferências com valores maiores ou iguais ao valor mínimo e o cursor da próxima página.
      */
-    public Response listarTransferenciasPorValorMinimo(BigDecimal valorMinimo) {
+    @GET
+    @Path("/transferencias")
+    public Response listarTransferenciasPorValorMinimo(@QueryParam("valorMinimo") BigDecimal valorMinimo,
+            @QueryParam("cursor") Long cursor, @QueryParam("tamanho") @DefaultValue("100") int tamanho) {
         try {
-            List<Transacoes> transferencias = transacoesService.listarTransferenciasPorValorMinimo(valorMinimo);
-            logger.info("Transação listada com sucesso: "  + valorMinimo);
+            PaginaTransacoes transferencias = transacoesService.listarTransferenciasPorValorMinimo(valorMinimo, cursor, tamanho);
+            logger.log(Level.INFO, "Transferências por valor mínimo listadas com sucesso: {0,number,0.00}", valorMinimo);
             return Response.status(HTTP_OK).entity(transferencias).build();
+        } catch (IllegalArgumentException e) {
+            logger.log(Level.SEVERE, "Erro ao listar as transações: " + e.getMessage(), e);
+            return Response.status(Response.Status.BAD_REQUEST).entity(e.getMessage()).build();
         } catch (ValorMinimoInvalidoException e) {
         	logger.log(Level.SEVERE, "Erro ao encontrar a transação: " + e.getMessage(), e);
             return Response.status(Response.Status.BAD_REQUEST).entity("Valor mínimo inválido.").build();
@@ -242,13 +336,21 @@ public class TransacoesController {
      * Lista todos os saques a partir de um valor mínimo.
      *
      * @param valorMinimo O valor mínimo dos saques desejadas.
-     * @return Uma lista de saques com valores maiores ou iguais ao valor mínimo.
+     * @param cursor      O cursor retornado pela página anterior (opcional).
+     * @param tamanho     A quantidade de transações por página.
+     * @return Uma página de saques com valores maiores ou iguais ao valor mínimo e o cursor da próxima página.
      */
-    public Response listarSaquesPorValorMinimo(BigDecimal valorMinimo) {
+    @GET
+    @Path("/saques")
+    public Response listarSaquesPorValorMinimo(@QueryParam("valorMinimo") BigDecimal valorMinimo,
+            @QueryParam("cursor") Long cursor, @QueryParam("tamanho") @DefaultValue("100") int tamanho) {
         try {
-            List<Transacoes> saques = transacoesService.listarSaquesPorValorMinimo(valorMinimo);
-            logger.info("Transação listada com sucesso: "  + valorMinimo);
+            PaginaTransacoes saques = transacoesService.listarSaquesPorValorMinimo(valorMinimo, cursor, tamanho);
+            logger.log(Level.INFO, "Saques por valor mínimo listados com sucesso: {0,number,0.00}", valorMinimo);
             return Response.status(HTTP_OK).entity(saques).build();
+        } catch (IllegalArgumentException e) {
+            logger.log(Level.SEVERE, "Erro ao listar as transações: " + e.getMessage(), e);
+            return Response.status(Response.Status.BAD_REQUEST).entity(e.getMessage()).build();
         } catch (ValorMinimoInvalidoException e) {
         	logger.log(Level.SEVERE, "Erro ao encontrar a transação: " + e.getMessage(), e);
             return Response.status(Response.Status.BAD_REQUEST).entity("Valor mínimo inválido.").build();
@@ -259,13 +361,21 @@ public class TransacoesController {
      * Lista todos os depósitos a partir de um valor mínimo.
      *
      * @param valorMinimo O valor mínimo dos depósitos desejadas.
-     * @return Uma lista de depósitos com valores maiores ou iguais ao valor mínimo.
+     * @param cursor      O cursor retornado pela página anterior (opcional).
+     * @param tamanho     A quantidade de transações por página.
+     * @return Uma página de depósitos com valores maiores ou iguais ao valor mínimo e o cursor da próxima página.
      */
-    public Response listarDepositosPorValorMinimo(BigDecimal valorMinimo) {
+    @GET
+    @Path("/depositos")
+    public Response listarDepositosPorValorMinimo(@QueryParam("valorMinimo") BigDecimal valorMinimo,
+            @QueryParam("cursor") Long cursor, @QueryParam("tamanho") @DefaultValue("100") int tamanho) {
         try {
-            List<Transacoes> depositos = transacoesService.listarDepositosPorValorMinimo(valorMinimo);
-            logger.info("Transação listada com sucesso: "  + valorMinimo);
+            PaginaTransacoes depositos = transacoesService.listarDepositosPorValorMinimo(valorMinimo, cursor, tamanho);
+            logger.log(Level.INFO, "Depósitos por valor mínimo listados com sucesso: {0,number,0.00}", valorMinimo);
             return Response.status(HTTP_OK).entity(depositos).build();
+        } catch (IllegalArgumentException e) {
+            logger.log(Level.SEVERE, "Erro ao listar as transações: " + e.getMessage(), e);
+            return Response.status(Response.Status.BAD_REQUEST).entity(e.getMessage()).build();
         } catch (ValorMinimoInvalidoException e) {
         	logger.log(Level.SEVERE, "Erro ao encontrar a transação: " + e.getMessage(), e);
             return Response.status(Response.Status.BAD_REQUEST).entity("Valor mínimo inválido.").build();
@@ -274,8 +384,10 @@ public class TransacoesController {
     
     /**
      * Realiza um saque em uma conta com base no tipo de conta especificado no JSON do corpo da solicitação.
+     * Com o cabeçalho Idempotency-Key, as repetições da mesma requisição recebem a resposta original sem novo débito.
      *
      * @param contaID O ID da conta.
+     * @param chaveIdempotencia A chave de idempotência da requisição (opcional).
      * @param saqueRequest Objeto que contém o valor do saque e o tipo de conta.
      * @return A resposta HTTP 200 OK com a transação de saque criada.
      * @throws NotificacaoNaoEncontradaException  Se houver um problema com o serviço de notificações.
@@ -283,16 +395,23 @@ public class TransacoesController {
      */
     @POST
     @Path("/saque/{contaID}")
-    @Transactional
     public Response realizarSaque(
             @PathParam("contaID") Long contaID,
+            @HeaderParam(IdempotenciaService.CABECALHO_CHAVE) String chaveIdempotencia,
             SaqueRequest saqueRequest) {  
-        verificarContaExistente(contaID, saqueRequest.getTipoConta());
         BigDecimal valor = saqueRequest.getValor();
         try {
-            transacoesService.realizarSaque(contaID, valor, saqueRequest.getTipoConta());
-            logger.info("Saque realizado com sucesso: "  + contaID);
-            return Response.status(HTTP_OK).entity("Saque realizado com sucesso.").build();
+            Optional<Response> repetida = idempotenciaService.executar(chaveIdempotencia, TipoTransacao.SAQUE,
+                    IdempotenciaService.assinar(contaID, valor, saqueRequest.getTipoConta()), MENSAGEM_SAQUE, () -> {
+                        verificarContaExistente(contaID, saqueRequest.getTipoConta());
+                        transacoesService.realizarSaque(contaID, valor, saqueRequest.getTipoConta());
+                    });
+            if (repetida.isPresent()) {
+                logger.log(Level.INFO, "Saque repetido pela chave de idempotência: {0,number,#}", contaID);
+                return repetida.get();
+            }
+            logger.log(Level.INFO, "Saque realizado com sucesso: {0,number,#}", contaID);
+            return Response.status(HTTP_OK).entity(MENSAGEM_SAQUE).build();
         } catch (NotificacaoNaoEncontradaException e) {
         	logger.log(Level.SEVERE, "Erro ao sacar: " + e.getMessage(), e);
         	throw new WebApplicationException("Notificação não encontrada.", Response.Status.NOT_FOUND);
@@ -304,25 +423,33 @@ public class TransacoesController {
     
     /**
      * Realiza um depósito em uma conta.
+     * Com o cabeçalho Idempotency-Key, as repetições da mesma requisição recebem a resposta original sem novo crédito.
      *
+     * @param chaveIdempotencia A chave de idempotência da requisição (opcional).
      * @param depositoRequest O objeto de solicitação de depósito no formato JSON.
      * @return A resposta HTTP 200 OK com a transação de depósito criada.
      */
     @POST
     @Path("/deposito/{contaID}")
-    @Transactional
-    public Response realizarDeposito(@PathParam("contaID") Long contaID, @Valid DepositoRequest depositoRequest) {
+    public Response realizarDeposito(@PathParam("contaID") Long contaID,
+            @HeaderParam(IdempotenciaService.CABECALHO_CHAVE) String chaveIdempotencia,
+            @Valid DepositoRequest depositoRequest) {
         BigDecimal valor = depositoRequest.getValor();
         TipoConta tipoConta = depositoRequest.getTipoConta();
         TipoDeposito tipoDeposito = depositoRequest.getTipoDeposito();
         String numeroCheque = depositoRequest.getNumeroCheque();
 
-        verificarContaExistente(contaID, tipoConta);
-
         try {
-            transacoesService.realizarDeposito(contaID, valor, tipoConta, tipoDeposito, numeroCheque);
-            logger.info("Depósito realizado com sucesso: "  + contaID);
-            return Response.status(HTTP_OK).entity("Depósito realizado com sucesso.").build();
+            // O crédito é um UPDATE atômico que também confirma a existência da conta e não sofre conflito de versão
+            Optional<Response> repetida = idempotenciaService.executar(chaveIdempotencia, TipoTransacao.DEPOSITO,
+                    IdempotenciaService.assinar(contaID, valor, tipoConta, tipoDeposito, numeroCheque), MENSAGEM_DEPOSITO,
+                    () -> transacoesService.realizarDeposito(contaID, valor, tipoConta, tipoDeposito, numeroCheque));
+            if (repetida.isPresent()) {
+                logger.log(Level.INFO, "Depósito repetido pela chave de idempotência: {0,number,#}", contaID);
+                return repetida.get();
+            }
+            logger.log(Level.INFO, "Depósito realizado com sucesso: {0,number,#}", contaID);
+            return Response.status(HTTP_OK).entity(MENSAGEM_DEPOSITO).build();
         } catch (ContaNaoEncontradaException e) {
         	logger.log(Level.SEVERE, "Erro ao depositar: " + e.getMessage(), e);
             throw new WebApplicationException("Conta não encontrada.", Response.Status.NOT_FOUND);
@@ -331,37 +458,77 @@ public class TransacoesController {
     
     /**
      * Realiza uma transferência entre duas contas.
+     * Com o cabeçalho Idempotency-Key, as repetições da mesma requisição recebem a resposta original sem nova
+     * movimentação.
      *
+     * @param chaveIdempotencia A chave de idempotência da requisição (opcional).
      * @param transferenciaRequest O objeto de solicitação de transferência no formato JSON.
      * @return A resposta HTTP 200 OK com a transação de transferência criada.
      */
     @POST
     @Path("/transferencia/{contaOrigemID}-{contaDestinoID}")
-    @Transactional
     public Response realizarTransferencia(@PathParam("contaOrigemID") Long contaOrigemID,
-            @PathParam("contaDestinoID") Long contaDestinoID, @Valid TransferenciaRequest transferenciaRequest) {
+            @PathParam("contaDestinoID") Long contaDestinoID,
+            @HeaderParam(IdempotenciaService.CABECALHO_CHAVE) String chaveIdempotencia,
+            @Valid TransferenciaRequest transferenciaRequest) {
         BigDecimal valor = transferenciaRequest.getValor();
         TipoConta tipoContaOrigem = transferenciaRequest.getTipoContaOrigem();
         TipoConta tipoContaDestino = transferenciaRequest.getTipoContaDestino();
 
-        verificarContaExistente(contaOrigemID, tipoContaOrigem);
-        verificarContaExistente(contaDestinoID, tipoContaDestino);
-
         try {
-            transacoesService.realizarTransferencia(contaOrigemID, contaDestinoID, valor, tipoContaOrigem, tipoContaDestino);
-            logger.info("Transferencia realizada com sucesso: "  + contaOrigemID);
-            return Response.status(Response.Status.OK).entity("Transferência realizada com sucesso.").build();
+            Optional<Response> repetida = idempotenciaService.executar(chaveIdempotencia, TipoTransacao.TRANSFERENCIA,
+                    IdempotenciaService.assinar(contaOrigemID, contaDestinoID, valor, tipoContaOrigem, tipoContaDestino),
+                    MENSAGEM_TRANSFERENCIA, () -> {
+                        verificarContaExistente(contaOrigemID, tipoContaOrigem);
+                        verificarContaExistente(contaDestinoID, tipoContaDestino);
+                        transacoesService.realizarTransferencia(contaOrigemID, contaDestinoID, valor, tipoContaOrigem, tipoContaDestino);
+                    });
+            if (repetida.isPresent()) {
+                logger.log(Level.INFO, "Transferencia repetida pela chave de idempotência: {0,number,#}", contaOrigemID);
+                return repetida.get();
+            }
+            logger.log(Level.INFO, "Transferencia realizada com sucesso: {0,number,#}", contaOrigemID);
+            return Response.status(Response.Status.OK).entity(MENSAGEM_TRANSFERENCIA).build();
         } catch (ContaNaoEncontradaException e) {
         	logger.log(Level.SEVERE, "Erro ao transferir: " + e.getMessage(), e);
             throw new WebApplicationException("Uma das contas não foi encontrada.", Response.Status.NOT_FOUND);
         } catch (SaldoInsuficienteException e) {
         	logger.log(Level.SEVERE, "Erro ao transferir: " + e.getMessage(), e);
             throw new WebApplicationException("Saldo insuficiente na conta de origem.", Response.Status.BAD_REQUEST);
+        } catch (IllegalArgumentException e) {
+        	logger.log(Level.SEVERE, "Erro ao transferir: " + e.getMessage(), e);
+            throw new WebApplicationException(e.getMessage(), Response.Status.BAD_REQUEST);
         }
     }
     
+    /**
+     * Importa um lote de depósitos e saques, recebido como um array JSON ou como NDJSON (um objeto por linha).
+     * As operações são lidas sob demanda e confirmadas em blocos independentes; o resultado informa,
+     * para cada operação, se ela foi concluída ou o motivo da rejeição.
+     *
+     * @param corpo O conteúdo do lote.
+     * @return A resposta HTTP 200 OK com o resultado de cada operação, ou 400 Bad Request se o conteúdo
+     *         não pôde ser lido até o fim (as operações anteriores ao erro permanecem processadas).
+     */
+    @POST
+    @Path("/lote")
+    @Consumes({MediaType.APPLICATION_JSON, "application/x-ndjson"})
+    public Response importarLote(InputStream corpo) {
+        try (MappingIterator<OperacaoLote> operacoes = objectMapper.readerFor(OperacaoLote.class).readValues(corpo)) {
+            ResultadoLote resultado = processadorLoteTransacoes.processar(operacoes);
+            logger.log(Level.INFO, "Lote de transações processado: {0,number,#} de {1,number,#} operações concluídas",
+                    new Object[]{resultado.getSucessos(), resultado.getTotal()});
+            Response.Status status = resultado.getErroLeitura() == null ? Response.Status.OK : Response.Status.BAD_REQUEST;
+            return Response.status(status).entity(resultado).build();
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, "Erro ao ler o lote de transações: " + e.getMessage(), e);
+            throw new WebApplicationException("Conteúdo do lote inválido.", Response.Status.BAD_REQUEST);
+        }
+    }
+
     /**
      * Verifica a existência de uma conta com base no tipo de conta e ID.
+     * A consulta passa pelo cache de estado das contas e só acessa o banco de dados quando a conta não está em cache.
      *
      * @param contaID    O ID da conta.
      * @param tipoConta  O tipo de conta.
@@ -378,17 +545,17 @@ public class TransacoesController {
 
         switch (tipoConta) {
             case CONTA_CORRENTE:
-                if (contaCorrenteRepository.findById(contaID) == null) {
+                if (cacheEstadoContas.obter(tipoConta, contaID) == null) {
                     throw new ContaNaoEncontradaException("Conta Corrente não encontrada com ID: " + contaID);
                 }
                 break;
             case CONTA_CONJUNTA:
-                if (contasConjuntasRepository.findById(contaID) == null) {
+                if (cacheEstadoContas.obter(tipoConta, contaID) == null) {
                     throw new ContaNaoEncontradaException("Conta Conjunta não encontrada com ID: " + contaID);
                 }
                 break;
             case CONTA_POUPANCA:
-                if (poupancaRepository.findById(contaID) == null) {
+                if (cacheEstadoContas.obter(tipoConta, contaID) == null) {
                     throw new ContaNaoEncontradaException("Conta Poupança não encontrada com ID: " + contaID);
                 }
                 break;
@@ -0,0 +1,17 @@
+package acc.br.exception;
+
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.Response;
+
+/**
+ * Exceção personalizada para representar um cabeçalho Idempotency-Key em formato inválido.
+ */
+public class ChaveIdempotenciaInvalidaException extends WebApplicationException {
+
+    public ChaveIdempotenciaInvalidaException(String message) {
+        super(Response.status(Response.Status.BAD_REQUEST)
+                .entity(message)
+                .type("text/plain")
+                .build());
+    }
+}
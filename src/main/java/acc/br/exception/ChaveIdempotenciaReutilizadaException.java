@@ -0,0 +1,19 @@
+package acc.br.exception;
+
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.Response;
+
+/**
+ * Exceção personalizada para representar uma chave de idempotência já utilizada em uma requisição diferente.
+ */
+public class ChaveIdempotenciaReutilizadaException extends WebApplicationException {
+
+    private static final int UNPROCESSABLE_ENTITY = 422;
+
+    public ChaveIdempotenciaReutilizadaException(String message) {
+        super(Response.status(UNPROCESSABLE_ENTITY)
+                .entity(message)
+                .type("text/plain")
+                .build());
+    }
+}
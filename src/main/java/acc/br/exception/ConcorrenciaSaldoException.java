@@ -0,0 +1,18 @@
+package acc.br.exception;
+
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.Response;
+
+/**
+ * Exceção personalizada para representar uma alteração de saldo que não pôde ser concluída
+ * por conflito com outras operações concorrentes na mesma conta.
+ */
+public class ConcorrenciaSaldoException extends WebApplicationException {
+
+    public ConcorrenciaSaldoException(String message, Throwable cause) {
+        super(cause, Response.status(Response.Status.CONFLICT)
+                .entity(message)
+                .type("text/plain")
+                .build());
+    }
+}
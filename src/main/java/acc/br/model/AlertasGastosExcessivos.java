@@ -1,6 +1,5 @@
 package acc.br.model;
 
-import javax.enterprise.context.ApplicationScoped;
 import javax.persistence.*;
 import javax.validation.constraints.*;
 import java.math.BigDecimal;
@@ -12,7 +11,6 @@ import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
  */
 @Entity
 @Table(name = "AlertasGastosExcessivos")
-@ApplicationScoped
 public class AlertasGastosExcessivos extends PanacheEntityBase {
 
     /**
@@ -31,7 +29,7 @@ public class AlertasGastosExcessivos extends PanacheEntityBase {
     private String tipoAlerta;
 
     /**
-     * Valor limite para o alerta.
+     * Valor limite para o alerta: de uma única saída ou, se houver janela, da soma das saídas na janela.
      */
     @DecimalMax(value = "9999999.99", message = "{quarkus.hibernate-validator.message.decimalMax.alertasGastosExcessivos.valorLimite}")
     @Column(name = "ValorLimite")
@@ -49,6 +47,20 @@ public class AlertasGastosExcessivos extends PanacheEntityBase {
     @Column(name = "Ativo")
     private Integer ativo;
 
+    /**
+     * Duração da janela de tempo do alerta, em minutos, ou null para avaliar cada saída isoladamente.
+     */
+    @Min(value = 1, message = "{quarkus.hibernate-validator.message.min.alertasGastosExcessivos.janelaMinutos}")
+    @Column(name = "JanelaMinutos")
+    private Integer janelaMinutos;
+
+    /**
+     * Quantidade máxima de saídas na janela, ou null para não limitar a quantidade.
+     */
+    @Min(value = 0, message = "{quarkus.hibernate-validator.message.min.alertasGastosExcessivos.quantidadeMaxima}")
+    @Column(name = "QuantidadeMaxima")
+    private Integer quantidadeMaxima;
+
     /**
      * Obtém o ID único do alerta.
      *
@@ -138,6 +150,40 @@ public class AlertasGastosExcessivos extends PanacheEntityBase {
     public void setAtivo(Integer ativo) {
         this.ativo = ativo;
     }
-}
 
+    /**
+     * Obtém a duração da janela de tempo do alerta.
+     *
+     * @return A duração da janela, em minutos, ou null se cada saída é avaliada isoladamente.
+     */
+    public Integer getJanelaMinutos() {
+        return janelaMinutos;
+    }
+
+    /**
+     * Define a duração da janela de tempo do alerta.
+     *
+     * @param janelaMinutos A duração da janela, em minutos, ou null para avaliar cada saída isoladamente.
+     */
+    public void setJanelaMinutos(Integer janelaMinutos) {
+        this.janelaMinutos = janelaMinutos;
+    }
+
+    /**
+     * Obtém a quantidade máxima de saídas na janela.
+     *
+     * @return A quantidade máxima, ou null se a quantidade não é limitada.
+     */
+    public Integer getQuantidadeMaxima() {
+        return quantidadeMaxima;
+    }
 
+    /**
+     * Define a quantidade máxima de saídas na janela.
+     *
+     * @param quantidadeMaxima A quantidade máxima, ou null para não limitar a quantidade.
+     */
+    public void setQuantidadeMaxima(Integer quantidadeMaxima) {
+        this.quantidadeMaxima = quantidadeMaxima;
+    }
+}
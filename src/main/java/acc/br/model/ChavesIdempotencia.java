@@ -0,0 +1,166 @@
+package acc.br.model;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+import acc.br.util.TipoTransacao;
+import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
+
+/**
+ * Classe que representa uma chave de idempotência já utilizada em uma operação de saque, depósito ou transferência.
+ * <p>
+ * A chave é a chave primária da tabela, de modo que duas requisições simultâneas com a mesma chave não conseguem
+ * ser confirmadas ao mesmo tempo. O índice por data de criação atende à remoção das chaves expiradas.
+ */
+@Entity
+@Table(name = "ChavesIdempotencia", indexes = {
+        @Index(name = "IX_ChavesIdempotencia_DataCriacao", columnList = "DataCriacao")
+})
+public class ChavesIdempotencia extends PanacheEntityBase {
+
+    /**
+     * Chave informada pelo cliente no cabeçalho Idempotency-Key.
+     */
+    @Id
+    @Column(name = "Chave", length = 100)
+    private String chave;
+
+    /**
+     * Tipo da operação realizada com a chave.
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(name = "TipoTransacao", nullable = false, length = 20)
+    private TipoTransacao tipoTransacao;
+
+    /**
+     * Hash SHA-256 dos parâmetros da requisição, usado para recusar a mesma chave com outra requisição.
+     */
+    @Column(name = "HashRequisicao", nullable = false, length = 64)
+    private String hashRequisicao;
+
+    /**
+     * Código HTTP da resposta armazenada.
+     */
+    @Column(name = "StatusHttp", nullable = false)
+    private int statusHttp;
+
+    /**
+     * Corpo da resposta armazenada.
+     */
+    @Column(name = "Resposta", length = 255)
+    private String resposta;
+
+    /**
+     * Data e hora em que a chave foi utilizada.
+     */
+    @Column(name = "DataCriacao", nullable = false)
+    private LocalDateTime dataCriacao;
+
+    /**
+     * Obtém a chave de idempotência.
+     *
+     * @return A chave de idempotência.
+     */
+    public String getChave() {
+        return chave;
+    }
+
+    /**
+     * Define a chave de idempotência.
+     *
+     * @param chave A chave de idempotência.
+     */
+    public void setChave(String chave) {
+        this.chave = chave;
+    }
+
+    /**
+     * Obtém o tipo da operação realizada com a chave.
+     *
+     * @return O tipo da operação.
+     */
+    public TipoTransacao getTipoTransacao() {
+        return tipoTransacao;
+    }
+
+    /**
+     * Define o tipo da operação realizada com a chave.
+     *
+     * @param tipoTransacao O tipo da operação.
+     */
+    public void setTipoTransacao(TipoTransacao tipoTransacao) {
+        this.tipoTransacao = tipoTransacao;
+    }
+
+    /**
+     * Obtém o hash dos parâmetros da requisição.
+     *
+     * @return O hash da requisição.
+     */
+    public String getHashRequisicao() {
+        return hashRequisicao;
+    }
+
+    /**
+     * Define o hash dos parâmetros da requisição.
+     *
+     * @param hashRequisicao O hash da requisição.
+     */
+    public void setHashRequisicao(String hashRequisicao) {
+        this.hashRequisicao = hashRequisicao;
+    }
+
+    /**
+     * Obtém o código HTTP da resposta armazenada.
+     *
+     * @return O código HTTP.
+     */
+    public int getStatusHttp() {
+        return statusHttp;
+    }
+
+    /**
+     * Define o código HTTP da resposta armazenada.
+     *
+     * @param statusHttp O código HTTP.
+     */
+    public void setStatusHttp(int statusHttp) {
+        this.statusHttp = statusHttp;
+    }
+
+    /**
+     * Obtém o corpo da resposta armazenada.
+     *
+     * @return O corpo da resposta.
+     */
+    public String getResposta() {
+        return resposta;
+    }
+
+    /**
+     * Define o corpo da resposta armazenada.
+     *
+     * @param resposta O corpo da resposta.
+     */
+    public void setResposta(String resposta) {
+        this.resposta = resposta;
+    }
+
+    /**
+     * Obtém a data e hora em que a chave foi utilizada.
+     *
+     * @return A data e hora de criação.
+     */
+    public LocalDateTime getDataCriacao() {
+        return dataCriacao;
+    }
+
+    /**
+     * Define a data e hora em que a chave foi utilizada.
+     *
+     * @param dataCriacao A data e hora de criação.
+     */
+    public void setDataCriacao(LocalDateTime dataCriacao) {
+        this.dataCriacao = dataCriacao;
+    }
+}
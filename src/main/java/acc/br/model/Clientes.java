@@ -5,14 +5,31 @@ import javax.validation.constraints.*;
 
 import java.time.LocalDate;
 import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
+import com.fasterxml.jackson.annotation.JsonProperty;
 
 /**
  * Classe que representa um cliente no sistema.
+ * <p>
+ * As restrições únicas nomeadas de e-mail e CPF garantem a unicidade dos clientes; o {@link acc.br.service.ClientesService}
+ * reconhece a violação de cada uma pelo nome.
  */
 @Entity
-@Table(name = "Clientes")
+@Table(name = "Clientes", uniqueConstraints = {
+        @UniqueConstraint(name = Clientes.RESTRICAO_EMAIL, columnNames = "Email"),
+        @UniqueConstraint(name = Clientes.RESTRICAO_CPF, columnNames = "CPF")
+})
 public class Clientes extends PanacheEntityBase {
 
+    /**
+     * Nome da restrição única do e-mail.
+     */
+    public static final String RESTRICAO_EMAIL = "UK_Clientes_Email";
+
+    /**
+     * Nome da restrição única do CPF.
+     */
+    public static final String RESTRICAO_CPF = "UK_Clientes_CPF";
+
     /**
      * ID único do cliente.
      */
@@ -35,12 +52,13 @@ public class Clientes extends PanacheEntityBase {
     @NotBlank(message = "{quarkus.hibernate-validator.message.not-blank.cliente.email}")
     @Email(message = "{quarkus.hibernate-validator.message.email.cliente.email}")
     @Size(max = 100, message = "{quarkus.hibernate-validator.message.size.cliente.email}")
-    @Column(name = "Email", nullable = false, unique = true)
+    @Column(name = "Email", nullable = false)
     private String email;
 
     /**
-     * Senha do cliente.
+     * Senha do cliente, gravada codificada. É aceita na entrada, mas nunca incluída nas respostas JSON.
      */
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
     @NotBlank(message = "{quarkus.hibernate-validator.message.not-blank.cliente.senha}")
     @Size(min = 6, max = 255, message = "{quarkus.hibernate-validator.message.size.cliente.senha}")
     @Column(name = "Senha", nullable = false)
@@ -58,7 +76,7 @@ public class Clientes extends PanacheEntityBase {
      */
     @NotBlank(message = "{quarkus.hibernate-validator.message.not-blank.cliente.cpf}")
     @Size(min = 11, max = 11, message = "{quarkus.hibernate-validator.message.size.cliente.cpf}")
-    @Column(name = "CPF", nullable = false, unique = true)
+    @Column(name = "CPF", nullable = false)
     private String cpf;
 
     /**
@@ -56,6 +56,13 @@ public class ContaCorrente extends Contas{
     @DecimalMax(value = "9999999.99", message = "{quarkus.hibernate-validator.message.decimalMax.contas.limiteCredito}")
     @Column(name = "LimiteCredito")
     private BigDecimal limiteCredito;
+
+    /**
+     * Parte do limite de crédito consumida pelos débitos acima do saldo. A posição líquida da conta é o saldo menos
+     * esse valor.
+     */
+    @Column(name = "LimiteCreditoUtilizado")
+    private BigDecimal limiteCreditoUtilizado;
     
     // Getters e setters
     
@@ -94,6 +101,24 @@ public class ContaCorrente extends Contas{
     public void setLimiteCredito(BigDecimal limiteCredito) {
         this.limiteCredito = limiteCredito;
     }
+
+    /**
+     * Obtém a parte do limite de crédito já consumida.
+     *
+     * @return O limite de crédito utilizado, ou null nas contas anteriores ao seu registro.
+     */
+    public BigDecimal getLimiteCreditoUtilizado() {
+        return limiteCreditoUtilizado;
+    }
+
+    /**
+     * Define a parte do limite de crédito já consumida.
+     *
+     * @param limiteCreditoUtilizado O limite de crédito utilizado.
+     */
+    public void setLimiteCreditoUtilizado(BigDecimal limiteCreditoUtilizado) {
+        this.limiteCreditoUtilizado = limiteCreditoUtilizado;
+    }
     
     
 }
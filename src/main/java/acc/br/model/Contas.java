@@ -56,6 +56,13 @@ public abstract class Contas extends PanacheEntityBase  {
     @Column(name = "Ativa")
     private boolean ativa;
 
+    /**
+     * Versão da conta, incrementada a cada alteração para o controle de concorrência otimista.
+     */
+    @Version
+    @Column(name = "Versao", nullable = false, columnDefinition = "BIGINT NOT NULL DEFAULT 0")
+    private long versao;
+
     // Getters e setters
 
     /**
@@ -156,4 +163,22 @@ public abstract class Contas extends PanacheEntityBase  {
     public boolean isAtiva() {
         return ativa;
     }
-}
\ No newline at end of file
+
+    /**
+     * Obtém a versão da conta.
+     *
+     * @return A versão da conta.
+     */
+    public long getVersao() {
+        return versao;
+    }
+
+    /**
+     * Define a versão da conta.
+     *
+     * @param versao A versão da conta.
+     */
+    public void setVersao(long versao) {
+        this.versao = versao;
+    }
+}
@@ -0,0 +1,165 @@
+package acc.br.model;
+
+import javax.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
+
+/**
+ * Classe que representa a execução do rendimento mensal da poupança em uma data de referência, com o ponto de
+ * controle (checkpoint) de onde uma execução interrompida continua.
+ * <p>
+ * O ponto de controle avança junto com os blocos de contas confirmados: as contas com ID até
+ * {@code ultimoPoupancaID} já foram processadas na data de referência.
+ */
+@Entity
+@Table(name = "ExecucoesRendimentoPoupanca")
+public class ExecucoesRendimentoPoupanca extends PanacheEntityBase {
+
+    /**
+     * Data de referência do rendimento.
+     */
+    @Id
+    @Column(name = "DataReferencia")
+    private LocalDate dataReferencia;
+
+    /**
+     * ID da última conta poupança processada.
+     */
+    @Column(name = "UltimoPoupancaID", nullable = false)
+    private Long ultimoPoupancaID;
+
+    /**
+     * Quantidade de contas que receberam rendimento.
+     */
+    @Column(name = "ContasCreditadas", nullable = false)
+    private long contasCreditadas;
+
+    /**
+     * Soma dos rendimentos creditados.
+     */
+    @Column(name = "ValorCreditado", nullable = false, precision = 19, scale = 2)
+    private BigDecimal valorCreditado;
+
+    /**
+     * Data e hora do início da primeira execução.
+     */
+    @Column(name = "DataInicio", nullable = false)
+    private LocalDateTime dataInicio;
+
+    /**
+     * Data e hora da conclusão, ou null enquanto a execução não termina.
+     */
+    @Column(name = "DataConclusao")
+    private LocalDateTime dataConclusao;
+
+    /**
+     * Obtém a data de referência do rendimento.
+     *
+     * @return A data de referência.
+     */
+    public LocalDate getDataReferencia() {
+        return dataReferencia;
+    }
+
+    /**
+     * Define a data de referência do rendimento.
+     *
+     * @param dataReferencia A data de referência.
+     */
+    public void setDataReferencia(LocalDate dataReferencia) {
+        this.dataReferencia = dataReferencia;
+    }
+
+    /**
+     * Obtém o ID da última conta poupança processada.
+     *
+     * @return O ID da última conta processada.
+     */
+    public Long getUltimoPoupancaID() {
+        return ultimoPoupancaID;
+    }
+
+    /**
+     * Define o ID da última conta poupança processada.
+     *
+     * @param ultimoPoupancaID O ID da última conta processada.
+     */
+    public void setUltimoPoupancaID(Long ultimoPoupancaID) {
+        this.ultimoPoupancaID = ultimoPoupancaID;
+    }
+
+    /**
+     * Obtém a quantidade de contas que receberam rendimento.
+     *
+     * @return A quantidade de contas creditadas.
+     */
+    public long getContasCreditadas() {
+        return contasCreditadas;
+    }
+
+    /**
+     * Define a quantidade de contas que receberam rendimento.
+     *
+     * @param contasCreditadas A quantidade de contas creditadas.
+     */
+    public void setContasCreditadas(long contasCreditadas) {
+        this.contasCreditadas = contasCreditadas;
+    }
+
+    /**
+     * Obtém a soma dos rendimentos creditados.
+     *
+     * @return O valor creditado.
+     */
+    public BigDecimal getValorCreditado() {
+        return valorCreditado;
+    }
+
+    /**
+     * Define a soma dos rendimentos creditados.
+     *
+     * @param valorCreditado O valor creditado.
+     */
+    public void setValorCreditado(BigDecimal valorCreditado) {
+        this.valorCreditado = valorCreditado;
+    }
+
+    /**
+     * Obtém a data e hora do início da execução.
+     *
+     * @return A data e hora de início.
+     */
+    public LocalDateTime getDataInicio() {
+        return dataInicio;
+    }
+
+    /**
+     * Define a data e hora do início da execução.
+     *
+     * @param dataInicio A data e hora de início.
+     */
+    public void setDataInicio(LocalDateTime dataInicio) {
+        this.dataInicio = dataInicio;
+    }
+
+    /**
+     * Obtém a data e hora da conclusão da execução.
+     *
+     * @return A data e hora de conclusão, ou null se a execução não terminou.
+     */
+    public LocalDateTime getDataConclusao() {
+        return dataConclusao;
+    }
+
+    /**
+     * Define a data e hora da conclusão da execução.
+     *
+     * @param dataConclusao A data e hora de conclusão.
+     */
+    public void setDataConclusao(LocalDateTime dataConclusao) {
+        this.dataConclusao = dataConclusao;
+    }
+}
@@ -0,0 +1,197 @@
+package acc.br.model;
+
+import javax.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import acc.br.util.NaturezaLancamento;
+import acc.br.util.TipoConta;
+import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
+
+/**
+ * Classe que representa um lançamento (partida) do livro-razão.
+ * <p>
+ * Cada transação gera um débito e um crédito de mesmo valor. Os lançamentos só são inseridos, nunca alterados:
+ * o saldo de uma conta é o saldo consolidado em {@link SaldosConsolidados} mais a soma dos lançamentos posteriores.
+ * A contrapartida de depósitos e saques é o caixa do banco, representado por um lançamento sem conta.
+ * O índice por conta atende ao cálculo do saldo e o índice por data à definição do horizonte de consolidação.
+ */
+@Entity
+@Table(name = "LancamentosRazao", indexes = {
+        @Index(name = "IX_LancamentosRazao_Conta", columnList = "TipoConta, ContaID, LancamentoID"),
+        @Index(name = "IX_LancamentosRazao_DataHora", columnList = "DataHora")
+})
+public class LancamentosRazao extends PanacheEntityBase {
+
+    /**
+     * ID único do lançamento, crescente na ordem de inserção.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "LancamentoID")
+    private Long lancamentoID;
+
+    /**
+     * ID da transação que originou o lançamento.
+     */
+    @Column(name = "TransacaoID")
+    private Long transacaoID;
+
+    /**
+     * Tipo da conta lançada, ou null para o caixa do banco.
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(name = "TipoConta", length = 20)
+    private TipoConta tipoConta;
+
+    /**
+     * ID da conta lançada, ou null para o caixa do banco.
+     */
+    @Column(name = "ContaID")
+    private Long contaID;
+
+    /**
+     * Natureza do lançamento (débito ou crédito).
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(name = "Natureza", nullable = false, length = 10)
+    private NaturezaLancamento natureza;
+
+    /**
+     * Valor do lançamento, sempre positivo.
+     */
+    @Column(name = "Valor", nullable = false, precision = 10, scale = 2)
+    private BigDecimal valor;
+
+    /**
+     * Data e hora do lançamento.
+     */
+    @Column(name = "DataHora", nullable = false)
+    private LocalDateTime dataHora;
+
+    /**
+     * Obtém o ID do lançamento.
+     *
+     * @return O ID do lançamento.
+     */
+    public Long getLancamentoID() {
+        return lancamentoID;
+    }
+
+    /**
+     * Define o ID do lançamento.
+     *
+     * @param lancamentoID O ID do lançamento.
+     */
+    public void setLancamentoID(Long lancamentoID) {
+        this.lancamentoID = lancamentoID;
+    }
+
+    /**
+     * Obtém o ID da transação que originou o lançamento.
+     *
+     * @return O ID da transação.
+     */
+    public Long getTransacaoID() {
+        return transacaoID;
+    }
+
+    /**
+     * Define o ID da transação que originou o lançamento.
+     *
+     * @param transacaoID O ID da transação.
+     */
+    public void setTransacaoID(Long transacaoID) {
+        this.transacaoID = transacaoID;
+    }
+
+    /**
+     * Obtém o tipo da conta lançada.
+     *
+     * @return O tipo da conta, ou null para o caixa do banco.
+     */
+    public TipoConta getTipoConta() {
+        return tipoConta;
+    }
+
+    /**
+     * Define o tipo da conta lançada.
+     *
+     * @param tipoConta O tipo da conta, ou null para o caixa do banco.
+     */
+    public void setTipoConta(TipoConta tipoConta) {
+        this.tipoConta = tipoConta;
+    }
+
+    /**
+     * Obtém o ID da conta lançada.
+     *
+     * @return O ID da conta, ou null para o caixa do banco.
+     */
+    public Long getContaID() {
+        return contaID;
+    }
+
+    /**
+     * Define o ID da conta lançada.
+     *
+     * @param contaID O ID da conta, ou null para o caixa do banco.
+     */
+    public void setContaID(Long contaID) {
+        this.contaID = contaID;
+    }
+
+    /**
+     * Obtém a natureza do lançamento.
+     *
+     * @return A natureza do lançamento.
+     */
+    public NaturezaLancamento getNatureza() {
+        return natureza;
+    }
+
+    /**
+     * Define a natureza do lançamento.
+     *
+     * @param natureza A natureza do lançamento.
+     */
+    public void setNatureza(NaturezaLancamento natureza) {
+        this.natureza = natureza;
+    }
+
+    /**
+     * Obtém o valor do lançamento.
+     *
+     * @return O valor do lançamento.
+     */
+    public BigDecimal getValor() {
+        return valor;
+    }
+
+    /**
+     * Define o valor do lançamento.
+     *
+     * @param valor O valor do lançamento.
+     */
+    public void setValor(BigDecimal valor) {
+        this.valor = valor;
+    }
+
+    /**
+     * Obtém a data e hora do lançamento.
+     *
+     * @return A data e hora do lançamento.
+     */
+    public LocalDateTime getDataHora() {
+        return dataHora;
+    }
+
+    /**
+     * Define a data e hora do lançamento.
+     *
+     * @param dataHora A data e hora do lançamento.
+     */
+    public void setDataHora(LocalDateTime dataHora) {
+        this.dataHora = dataHora;
+    }
+}
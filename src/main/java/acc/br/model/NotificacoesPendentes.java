@@ -0,0 +1,218 @@
+package acc.br.model;
+
+import javax.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import acc.br.util.TipoConta;
+import acc.br.util.TipoTransacao;
+import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
+
+/**
+ * Classe que representa uma notificação ainda não despachada (outbox).
+ * <p>
+ * Cada saque, depósito ou transferência grava uma linha nesta tabela na mesma transação da operação, de modo que a
+ * notificação existe se, e somente se, a operação foi confirmada. As linhas são lidas em lotes, na ordem do ID,
+ * convertidas em {@link Notificacoes} e removidas.
+ */
+@Entity
+@Table(name = "NotificacoesPendentes")
+public class NotificacoesPendentes extends PanacheEntityBase {
+
+    /**
+     * ID único da notificação pendente, crescente na ordem de gravação.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "NotificacaoPendenteID")
+    private Long notificacaoPendenteID;
+
+    /**
+     * ID do cliente a ser notificado, ou null se ainda não conhecido (depósitos, em que a conta não é lida).
+     */
+    @Column(name = "ClienteID")
+    private Long clienteID;
+
+    /**
+     * Tipo da conta movimentada (de origem, nas transferências).
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(name = "TipoConta", nullable = false, length = 20)
+    private TipoConta tipoConta;
+
+    /**
+     * ID da conta movimentada (de origem, nas transferências).
+     */
+    @Column(name = "ContaID", nullable = false)
+    private Long contaID;
+
+    /**
+     * Tipo da transação realizada.
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(name = "TipoTransacao", nullable = false, length = 20)
+    private TipoTransacao tipoTransacao;
+
+    /**
+     * Valor da transação.
+     */
+    @Column(name = "Valor", nullable = false, precision = 10, scale = 2)
+    private BigDecimal valor;
+
+    /**
+     * Data da transação.
+     */
+    @Column(name = "DataHoraTransacao", nullable = false)
+    private LocalDate dataHoraTransacao;
+
+    /**
+     * Data e hora em que a notificação foi gravada.
+     */
+    @Column(name = "DataCriacao", nullable = false)
+    private LocalDateTime dataCriacao;
+
+    /**
+     * Obtém o ID da notificação pendente.
+     *
+     * @return O ID da notificação pendente.
+     */
+    public Long getNotificacaoPendenteID() {
+        return notificacaoPendenteID;
+    }
+
+    /**
+     * Define o ID da notificação pendente.
+     *
+     * @param notificacaoPendenteID O ID da notificação pendente.
+     */
+    public void setNotificacaoPendenteID(Long notificacaoPendenteID) {
+        this.notificacaoPendenteID = notificacaoPendenteID;
+    }
+
+    /**
+     * Obtém o ID do cliente a ser notificado.
+     *
+     * @return O ID do cliente, ou null se ainda não conhecido.
+     */
+    public Long getClienteID() {
+        return clienteID;
+    }
+
+    /**
+     * Define o ID do cliente a ser notificado.
+     *
+     * @param clienteID O ID do cliente.
+     */
+    public void setClienteID(Long clienteID) {
+        this.clienteID = clienteID;
+    }
+
+    /**
+     * Obtém o tipo da conta movimentada.
+     *
+     * @return O tipo da conta.
+     */
+    public TipoConta getTipoConta() {
+        return tipoConta;
+    }
+
+    /**
+     * Define o tipo da conta movimentada.
+     *
+     * @param tipoConta O tipo da conta.
+     */
+    public void setTipoConta(TipoConta tipoConta) {
+        this.tipoConta = tipoConta;
+    }
+
+    /**
+     * Obtém o ID da conta movimentada.
+     *
+     * @return O ID da conta.
+     */
+    public Long getContaID() {
+        return contaID;
+    }
+
+    /**
+     * Define o ID da conta movimentada.
+     *
+     * @param contaID O ID da conta.
+     */
+    public void setContaID(Long contaID) {
+        this.contaID = contaID;
+    }
+
+    /**
+     * Obtém o tipo da transação realizada.
+     *
+     * @return O tipo da transação.
+     */
+    public TipoTransacao getTipoTransacao() {
+        return tipoTransacao;
+    }
+
+    /**
+     * Define o tipo da transação realizada.
+     *
+     * @param tipoTransacao O tipo da transação.
+     */
+    public void setTipoTransacao(TipoTransacao tipoTransacao) {
+        this.tipoTransacao = tipoTransacao;
+    }
+
+    /**
+     * Obtém o valor da transação.
+     *
+     * @return O valor da transação.
+     */
+    public BigDecimal getValor() {
+        return valor;
+    }
+
+    /**
+     * Define o valor da transação.
+     *
+     * @param valor O valor da transação.
+     */
+    public void setValor(BigDecimal valor) {
+        this.valor = valor;
+    }
+
+    /**
+     * Obtém a data da transação.
+     *
+     * @return A data da transação.
+     */
+    public LocalDate getDataHoraTransacao() {
+        return dataHoraTransacao;
+    }
+
+    /**
+     * Define a data da transação.
+     *
+     * @param dataHoraTransacao A data da transação.
+     */
+    public void setDataHoraTransacao(LocalDate dataHoraTransacao) {
+        this.dataHoraTransacao = dataHoraTransacao;
+    }
+
+    /**
+     * Obtém a data e hora em que a notificação foi gravada.
+     *
+     * @return A data e hora de criação.
+     */
+    public LocalDateTime getDataCriacao() {
+        return dataCriacao;
+    }
+
+    /**
+     * Define a data e hora em que a notificação foi gravada.
+     *
+     * @param dataCriacao A data e hora de criação.
+     */
+    public void setDataCriacao(LocalDateTime dataCriacao) {
+        this.dataCriacao = dataCriacao;
+    }
+}
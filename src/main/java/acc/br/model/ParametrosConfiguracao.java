@@ -7,9 +7,12 @@ import javax.validation.constraints.*;
 
 /**
  * Classe que representa os parâmetros de configuração no sistema.
+ * O índice pelo nome atende às consultas de um parâmetro específico.
  */
 @Entity
-@Table(name = "ParametrosConfiguracao")
+@Table(name = "ParametrosConfiguracao", indexes = {
+        @Index(name = "IX_ParametrosConfiguracao_NomeParametro", columnList = "NomeParametro")
+})
 public class ParametrosConfiguracao extends PanacheEntityBase {
 
     /**
@@ -2,12 +2,19 @@ package acc.br.model;
 
 import javax.persistence.*;
 import javax.validation.constraints.*;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
 
 /**
  * Classe que representa uma conta poupança no sistema.
+ * <p>
+ * O dia de aniversário é mantido em uma coluna própria, derivada da data de aniversário, e indexado para que o
+ * rendimento mensal selecione as contas do dia sem interpretar as datas uma a uma.
  */
 @Entity
-@Table(name = "Poupanca")
+@Table(name = "Poupanca", indexes = {
+        @Index(name = "IX_Poupanca_DiaAniversario", columnList = "DiaAniversario, poupancaID")
+})
 @DiscriminatorValue("Conta Poupança")
 public class Poupanca extends Contas {
 	
@@ -27,6 +34,18 @@ public class Poupanca extends Contas {
     @Column(name = "DataAniversario")
     private String dataAniversario;
 
+    /**
+     * Dia do mês da data de aniversário, derivado de dataAniversario.
+     */
+    @Column(name = "DiaAniversario")
+    private Integer diaAniversario;
+
+    /**
+     * Data de referência do último rendimento creditado.
+     */
+    @Column(name = "DataUltimoRendimento")
+    private LocalDate dataUltimoRendimento;
+
     // Getters e setters
 
     /**
@@ -58,11 +77,50 @@ public class Poupanca extends Contas {
     }
 
     /**
-     * Define a data de aniversário da conta poupança.
+     * Define a data de aniversário da conta poupança e o dia de aniversário correspondente.
      *
-     * @param dataAniversario A data de aniversário da conta poupança.
+     * @param dataAniversario A data de aniversário da conta poupança, no formato AAAA-MM-DD.
      */
     public void setDataAniversario(String dataAniversario) {
         this.dataAniversario = dataAniversario;
+        this.diaAniversario = extrairDia(dataAniversario);
+    }
+
+    /**
+     * Obtém o dia do mês da data de aniversário.
+     *
+     * @return O dia de aniversário, ou null se a data de aniversário não for válida.
+     */
+    public Integer getDiaAniversario() {
+        return diaAniversario;
+    }
+
+    /**
+     * Obtém a data de referência do último rendimento creditado.
+     *
+     * @return A data do último rendimento, ou null se a conta ainda não recebeu rendimento.
+     */
+    public LocalDate getDataUltimoRendimento() {
+        return dataUltimoRendimento;
+    }
+
+    /**
+     * Define a data de referência do último rendimento creditado.
+     *
+     * @param dataUltimoRendimento A data do último rendimento.
+     */
+    public void setDataUltimoRendimento(LocalDate dataUltimoRendimento) {
+        this.dataUltimoRendimento = dataUltimoRendimento;
+    }
+
+    private static Integer extrairDia(String dataAniversario) {
+        if (dataAniversario == null) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(dataAniversario).getDayOfMonth();
+        } catch (DateTimeParseException e) {
+            return null;
+        }
     }
 }
\ No newline at end of file
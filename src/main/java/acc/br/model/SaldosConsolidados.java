@@ -0,0 +1,171 @@
+package acc.br.model;
+
+import javax.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import acc.br.util.TipoConta;
+import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
+
+/**
+ * Classe que representa o saldo consolidado de uma conta no livro-razão: o saldo resultante de todos os lançamentos
+ * da conta até o lançamento {@code ultimoLancamentoID}, inclusive.
+ * <p>
+ * A restrição única por conta impede que duas consolidações criem saldos diferentes para a mesma conta. O índice pelo
+ * último lançamento atende à busca do ponto de onde a próxima consolidação continua.
+ */
+@Entity
+@Table(name = "SaldosConsolidados", uniqueConstraints = {
+        @UniqueConstraint(name = "UK_SaldosConsolidados_Conta", columnNames = {"TipoConta", "ContaID"})
+}, indexes = {
+        @Index(name = "IX_SaldosConsolidados_UltimoLancamento", columnList = "UltimoLancamentoID")
+})
+public class SaldosConsolidados extends PanacheEntityBase {
+
+    /**
+     * ID único do saldo consolidado.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "SaldoConsolidadoID")
+    private Long saldoConsolidadoID;
+
+    /**
+     * Tipo da conta.
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(name = "TipoConta", nullable = false, length = 20)
+    private TipoConta tipoConta;
+
+    /**
+     * ID da conta.
+     */
+    @Column(name = "ContaID", nullable = false)
+    private Long contaID;
+
+    /**
+     * Saldo da conta após o último lançamento consolidado.
+     */
+    @Column(name = "Saldo", nullable = false, precision = 19, scale = 2)
+    private BigDecimal saldo;
+
+    /**
+     * ID do último lançamento incluído no saldo.
+     */
+    @Column(name = "UltimoLancamentoID", nullable = false)
+    private Long ultimoLancamentoID;
+
+    /**
+     * Data e hora da última consolidação.
+     */
+    @Column(name = "DataConsolidacao", nullable = false)
+    private LocalDateTime dataConsolidacao;
+
+    /**
+     * Obtém o ID do saldo consolidado.
+     *
+     * @return O ID do saldo consolidado.
+     */
+    public Long getSaldoConsolidadoID() {
+        return saldoConsolidadoID;
+    }
+
+    /**
+     * Define o ID do saldo consolidado.
+     *
+     * @param saldoConsolidadoID O ID do saldo consolidado.
+     */
+    public void setSaldoConsolidadoID(Long saldoConsolidadoID) {
+        this.saldoConsolidadoID = saldoConsolidadoID;
+    }
+
+    /**
+     * Obtém o tipo da conta.
+     *
+     * @return O tipo da conta.
+     */
+    public TipoConta getTipoConta() {
+        return tipoConta;
+    }
+
+    /**
+     * Define o tipo da conta.
+     *
+     * @param tipoConta O tipo da conta.
+     */
+    public void setTipoConta(TipoConta tipoConta) {
+        this.tipoConta = tipoConta;
+    }
+
+    /**
+     * Obtém o ID da conta.
+     *
+     * @return O ID da conta.
+     */
+    public Long getContaID() {
+        return contaID;
+    }
+
+    /**
+     * Define o ID da conta.
+     *
+     * @param contaID O ID da conta.
+     */
+    public void setContaID(Long contaID) {
+        this.contaID = contaID;
+    }
+
+    /**
+     * Obtém o saldo consolidado.
+     *
+     * @return O saldo consolidado.
+     */
+    public BigDecimal getSaldo() {
+        return saldo;
+    }
+
+    /**
+     * Define o saldo consolidado.
+     *
+     * @param saldo O saldo consolidado.
+     */
+    public void setSaldo(BigDecimal saldo) {
+        this.saldo = saldo;
+    }
+
+    /**
+     * Obtém o ID do último lançamento incluído no saldo.
+     *
+     * @return O ID do último lançamento consolidado.
+     */
+    public Long getUltimoLancamentoID() {
+        return ultimoLancamentoID;
+    }
+
+    /**
+     * Define o ID do último lançamento incluído no saldo.
+     *
+     * @param ultimoLancamentoID O ID do último lançamento consolidado.
+     */
+    public void setUltimoLancamentoID(Long ultimoLancamentoID) {
+        this.ultimoLancamentoID = ultimoLancamentoID;
+    }
+
+    /**
+     * Obtém a data e hora da última consolidação.
+     *
+     * @return A data e hora da consolidação.
+     */
+    public LocalDateTime getDataConsolidacao() {
+        return dataConsolidacao;
+    }
+
+    /**
+     * Define a data e hora da última consolidação.
+     *
+     * @param dataConsolidacao A data e hora da consolidação.
+     */
+    public void setDataConsolidacao(LocalDateTime dataConsolidacao) {
+        this.dataConsolidacao = dataConsolidacao;
+    }
+}
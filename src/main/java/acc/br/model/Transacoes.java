@@ -11,9 +11,15 @@ import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
 
 /**
  * Classe que representa as transações financeiras.
+ * <p>
+ * Os índices atendem às consultas do {@link acc.br.repository.TransacoesRepository}: transações de uma conta por tipo,
+ * em ordem de data, e transações de um tipo a partir de um valor mínimo.
  */
 @Entity
-@Table(name = "Transacoes")
+@Table(name = "Transacoes", indexes = {
+        @Index(name = "IX_Transacoes_Conta_Tipo_Data", columnList = "ContaID, TipoTransacao, DataHoraTransacao"),
+        @Index(name = "IX_Transacoes_Tipo_Valor", columnList = "TipoTransacao, Valor")
+})
 public class Transacoes extends PanacheEntityBase {
 
     /**
@@ -25,7 +31,7 @@ public class Transacoes extends PanacheEntityBase {
     private Long transacaoID;
 
     /**
-     * Tipo da transação (Deposito, Saque ou Transferencia).
+     * Tipo da transação (Deposito, Saque, Transferencia ou Rendimento).
      */
     @NotNull(message = "{quarkus.hibernate-validator.message.notNull.transacoes.tipoTransacao}")
     @Enumerated(EnumType.STRING)
@@ -4,6 +4,7 @@ import acc.br.model.AlertasGastosExcessivos;
 import io.quarkus.hibernate.orm.panache.PanacheRepository;
 
 import javax.enterprise.context.ApplicationScoped;
+import java.util.List;
 
 /**
  * Repositório para a entidade AlertasGastosExcessivos.
@@ -11,4 +12,12 @@ import javax.enterprise.context.ApplicationScoped;
 @ApplicationScoped
 public class AlertasGastosExcessivosRepository implements PanacheRepository<AlertasGastosExcessivos> {
 
+    /**
+     * Lista os alertas ativos de todos os clientes.
+     *
+     * @return Os alertas com Ativo = 1.
+     */
+    public List<AlertasGastosExcessivos> listarAtivos() {
+        return list("ativo = 1");
+    }
 }
\ No newline at end of file
@@ -0,0 +1,35 @@
+package acc.br.repository;
+
+import acc.br.model.ChavesIdempotencia;
+import io.quarkus.hibernate.orm.panache.PanacheRepositoryBase;
+
+import javax.enterprise.context.ApplicationScoped;
+import java.time.LocalDateTime;
+
+/**
+ * Repositório para a entidade ChavesIdempotencia.
+ */
+@ApplicationScoped
+public class ChavesIdempotenciaRepository implements PanacheRepositoryBase<ChavesIdempotencia, String> {
+
+    /**
+     * Remove a chave informada se ela foi criada antes do limite, liberando-a para uma nova operação.
+     *
+     * @param chave  A chave de idempotência.
+     * @param limite A data e hora a partir da qual as chaves ainda são válidas.
+     * @return true se a chave estava expirada e foi removida.
+     */
+    public boolean removerSeExpirada(String chave, LocalDateTime limite) {
+        return delete("chave = ?1 and dataCriacao < ?2", chave, limite) > 0;
+    }
+
+    /**
+     * Remove as chaves criadas antes do limite.
+     *
+     * @param limite A data e hora a partir da qual as chaves ainda são válidas.
+     * @return A quantidade de chaves removidas.
+     */
+    public long removerExpiradas(LocalDateTime limite) {
+        return delete("dataCriacao < ?1", limite);
+    }
+}
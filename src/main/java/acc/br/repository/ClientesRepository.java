@@ -2,8 +2,20 @@ package acc.br.repository;
 
 import acc.br.model.Clientes;
 import io.quarkus.hibernate.orm.panache.PanacheRepository;
+import org.hibernate.Session;
 
 import javax.enterprise.context.ApplicationScoped;
+import javax.persistence.TypedQuery;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repositório para a entidade Clientes.
@@ -11,4 +23,117 @@ import javax.enterprise.context.ApplicationScoped;
 @ApplicationScoped
 public class ClientesRepository implements PanacheRepository<Clientes> {
 
-}
\ No newline at end of file
+    static final String SQL_INSERCAO_CLIENTE = "INSERT INTO Clientes (Nome, Email, Senha, DataNascimento, CPF, Endereco, "
+            + "Telefone, Nacionalidade, EstadoCivil, Genero, Profissao, DataRegistro, Ativo) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    /**
+     * Busca, com uma única consulta, um cliente diferente do informado que já use o e-mail ou o CPF.
+     *
+     * @param email     O e-mail.
+     * @param cpf       O CPF.
+     * @param clienteID O ID do cliente a ser desconsiderado, ou null na criação.
+     * @return O e-mail e o CPF do cliente encontrado, se houver.
+     */
+    public Optional<Object[]> buscarConflito(String email, String cpf, Long clienteID) {
+        String consulta = "select c.email, c.cpf from Clientes c where (c.email = :email or c.cpf = :cpf)"
+                + (clienteID == null ? "" : " and c.clienteID <> :clienteID");
+        TypedQuery<Object[]> query = getEntityManager().createQuery(consulta, Object[].class)
+                .setParameter("email", email)
+                .setParameter("cpf", cpf)
+                .setMaxResults(1);
+        if (clienteID != null) {
+            query.setParameter("clienteID", clienteID);
+        }
+        return query.getResultStream().findFirst();
+    }
+
+    /**
+     * Busca um cliente pelo e-mail.
+     *
+     * @param email O e-mail.
+     * @return O cliente, se houver.
+     */
+    public Optional<Clientes> buscarPorEmail(String email) {
+        return find("email", email).firstResultOptional();
+    }
+
+    /**
+     * Substitui a senha de um cliente, desde que ela ainda seja a informada.
+     *
+     * @param clienteID O ID do cliente.
+     * @param anterior  A senha esperada.
+     * @param nova      A nova senha.
+     * @return A quantidade de clientes alterados: 1, ou 0 se a senha foi alterada nesse meio-tempo.
+     */
+    public int atualizarSenha(Long clienteID, String anterior, String nova) {
+        return update("senha = ?1 where clienteID = ?2 and senha = ?3", nova, clienteID, anterior);
+    }
+
+    /**
+     * Percorre o e-mail e o CPF de todos os clientes, sem carregar as entidades.
+     * O stream deve ser fechado após o uso.
+     *
+     * @return O e-mail e o CPF de cada cliente.
+     */
+    public Stream<Object[]> streamEmailsECpfs() {
+        return getEntityManager().createQuery("select c.email, c.cpf from Clientes c", Object[].class).getResultStream();
+    }
+
+    /**
+     * Busca, com uma única consulta, os clientes que já usam algum dos e-mails ou dos CPFs informados.
+     *
+     * @param emails Os e-mails.
+     * @param cpfs   Os CPFs.
+     * @return O e-mail e o CPF de cada cliente encontrado.
+     */
+    public List<Object[]> listarEmailsECpfsExistentes(Collection<String> emails, Collection<String> cpfs) {
+        return getEntityManager()
+                .createQuery("select c.email, c.cpf from Clientes c where c.email in :emails or c.cpf in :cpfs", Object[].class)
+                .setParameter("emails", emails)
+                .setParameter("cpfs", cpfs)
+                .getResultList();
+    }
+
+    /**
+     * Insere os clientes com um único lote JDBC na conexão da transação atual.
+     * A chave IDENTITY impede o Hibernate de agrupar esses INSERTs, por isso o lote é montado aqui.
+     * Os IDs gerados são atribuídos aos clientes.
+     *
+     * @param clientes Os clientes a serem inseridos.
+     */
+    public void inserir(List<Clientes> clientes) {
+        if (clientes.isEmpty()) {
+            return;
+        }
+        getEntityManager().unwrap(Session.class).doWork(conexao -> {
+            try (PreparedStatement insercao = conexao.prepareStatement(SQL_INSERCAO_CLIENTE, Statement.RETURN_GENERATED_KEYS)) {
+                for (Clientes cliente : clientes) {
+                    insercao.setString(1, cliente.getNome());
+                    insercao.setString(2, cliente.getEmail());
+                    insercao.setString(3, cliente.getSenha());
+                    insercao.setDate(4, data(cliente.getDataNascimento()));
+                    insercao.setString(5, cliente.getCpf());
+                    insercao.setString(6, cliente.getEndereco());
+                    insercao.setString(7, cliente.getTelefone());
+                    insercao.setString(8, cliente.getNacionalidade());
+                    insercao.setString(9, cliente.getEstadoCivil());
+                    insercao.setString(10, cliente.getGenero());
+                    insercao.setString(11, cliente.getProfissao());
+                    insercao.setDate(12, data(cliente.getDataRegistro()));
+                    insercao.setBoolean(13, cliente.isAtivo());
+                    insercao.addBatch();
+                }
+                insercao.executeBatch();
+                try (ResultSet chaves = insercao.getGeneratedKeys()) {
+                    for (Iterator<Clientes> iterador = clientes.iterator(); iterador.hasNext() && chaves.next(); ) {
+                        iterador.next().setClienteID(chaves.getLong(1));
+                    }
+                }
+            }
+        });
+    }
+
+    private static Date data(LocalDate data) {
+        return data == null ? null : Date.valueOf(data);
+    }
+}
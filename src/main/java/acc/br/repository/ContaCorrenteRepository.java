@@ -1,14 +1,50 @@
 package acc.br.repository;
 
 import acc.br.model.ContaCorrente;
+import acc.br.util.DatabaseAuditListener;
 import io.quarkus.hibernate.orm.panache.PanacheRepository;
 
 import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+import java.math.BigDecimal;
 
 /**
  * Repositório para a entidade ContaCorrente.
  */
 @ApplicationScoped
 public class ContaCorrenteRepository implements PanacheRepository<ContaCorrente> {
-    
-}
\ No newline at end of file
+
+    @Inject
+    DatabaseAuditListener databaseAuditListener;
+
+    /**
+     * Credita um valor no saldo da conta corrente com um único UPDATE atômico, sem carregar a entidade.
+     * O incremento da versão mantém o controle otimista das operações que leem o saldo antes de alterá-lo.
+     *
+     * @param contaCorrenteID O ID da conta corrente.
+     * @param valor O valor a ser creditado.
+     * @return true se a conta foi encontrada e atualizada.
+     */
+    public boolean creditarSaldo(Long contaCorrenteID, BigDecimal valor) {
+        return update("saldo = saldo + ?1, versao = versao + 1 where contaCorrenteID = ?2", valor, contaCorrenteID) > 0;
+    }
+
+    /**
+     * Grava o saldo e o limite de crédito (disponível e utilizado) de uma conta corrente que não está no contexto de persistência, com um único
+     * UPDATE condicionado à versão da conta (controle otimista sem carregar a entidade). A alteração é auditada.
+     *
+     * @param conta A conta com o saldo e o limite já alterados e a versão lida.
+     * @return true se a versão no banco de dados ainda era a da conta; nesse caso a versão da conta é incrementada.
+     */
+    public boolean gravarSaldo(ContaCorrente conta) {
+        if (update("saldo = ?1, limiteCredito = ?2, limiteCreditoUtilizado = ?3, versao = versao + 1"
+                        + " where contaCorrenteID = ?4 and versao = ?5",
+                conta.getSaldo(), conta.getLimiteCredito(), conta.getLimiteCreditoUtilizado(), conta.getcontaCorrenteID(),
+                conta.getVersao()) == 0) {
+            return false;
+        }
+        conta.setVersao(conta.getVersao() + 1);
+        databaseAuditListener.onBulkUpdate(conta);
+        return true;
+    }
+}
@@ -1,9 +1,12 @@
 package acc.br.repository;
 
 import acc.br.model.ContasConjuntas;
+import acc.br.util.DatabaseAuditListener;
 import io.quarkus.hibernate.orm.panache.PanacheRepository;
 
 import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+import java.math.BigDecimal;
 
 /**
  * Repositório para a entidade ContasConjuntas.
@@ -11,4 +14,35 @@ import javax.enterprise.context.ApplicationScoped;
 @ApplicationScoped
 public class ContasConjuntasRepository implements PanacheRepository<ContasConjuntas> {
 
-}
\ No newline at end of file
+    @Inject
+    DatabaseAuditListener databaseAuditListener;
+
+    /**
+     * Credita um valor no saldo da conta conjunta com um único UPDATE atômico, sem carregar a entidade.
+     * O incremento da versão mantém o controle otimista das operações que leem o saldo antes de alterá-lo.
+     *
+     * @param contaConjuntaID O ID da conta conjunta.
+     * @param valor O valor a ser creditado.
+     * @return true se a conta foi encontrada e atualizada.
+     */
+    public boolean creditarSaldo(Long contaConjuntaID, BigDecimal valor) {
+        return update("saldo = saldo + ?1, versao = versao + 1 where contaConjuntaID = ?2", valor, contaConjuntaID) > 0;
+    }
+
+    /**
+     * Grava o saldo de uma conta conjunta que não está no contexto de persistência, com um único UPDATE condicionado à
+     * versão da conta (controle otimista sem carregar a entidade). A alteração é auditada.
+     *
+     * @param conta A conta com o saldo já alterado e a versão lida.
+     * @return true se a versão no banco de dados ainda era a da conta; nesse caso a versão da conta é incrementada.
+     */
+    public boolean gravarSaldo(ContasConjuntas conta) {
+        if (update("saldo = ?1, versao = versao + 1 where contaConjuntaID = ?2 and versao = ?3",
+                conta.getSaldo(), conta.getContaConjuntaID(), conta.getVersao()) == 0) {
+            return false;
+        }
+        conta.setVersao(conta.getVersao() + 1);
+        databaseAuditListener.onBulkUpdate(conta);
+        return true;
+    }
+}
@@ -0,0 +1,51 @@
+package acc.br.repository;
+
+import acc.br.util.TipoConta;
+
+/**
+ * Nomes da entidade e do atributo de ID de cada tipo de conta, para as consultas HQL que juntam outras tabelas às
+ * tabelas de contas.
+ */
+final class EntidadesConta {
+
+    private EntidadesConta() {
+    }
+
+    /**
+     * Obtém o nome da entidade de um tipo de conta.
+     *
+     * @param tipoConta O tipo da conta.
+     * @return O nome da entidade.
+     */
+    static String entidade(TipoConta tipoConta) {
+        switch (tipoConta) {
+            case CONTA_CORRENTE:
+                return "ContaCorrente";
+            case CONTA_CONJUNTA:
+                return "ContasConjuntas";
+            case CONTA_POUPANCA:
+                return "Poupanca";
+            default:
+                throw new IllegalArgumentException("Tipo de conta não suportado: " + tipoConta);
+        }
+    }
+
+    /**
+     * Obtém o nome do atributo de ID da entidade de um tipo de conta.
+     *
+     * @param tipoConta O tipo da conta.
+     * @return O nome do atributo de ID.
+     */
+    static String atributoID(TipoConta tipoConta) {
+        switch (tipoConta) {
+            case CONTA_CORRENTE:
+                return "contaCorrenteID";
+            case CONTA_CONJUNTA:
+                return "contaConjuntaID";
+            case CONTA_POUPANCA:
+                return "poupancaID";
+            default:
+                throw new IllegalArgumentException("Tipo de conta não suportado: " + tipoConta);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package acc.br.repository;
+
+import acc.br.model.ExecucoesRendimentoPoupanca;
+import io.quarkus.hibernate.orm.panache.PanacheRepositoryBase;
+
+import javax.enterprise.context.ApplicationScoped;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Repositório para a entidade ExecucoesRendimentoPoupanca.
+ */
+@ApplicationScoped
+public class ExecucoesRendimentoPoupancaRepository implements PanacheRepositoryBase<ExecucoesRendimentoPoupanca, LocalDate> {
+
+    /**
+     * Lista as datas de referência das execuções iniciadas e não concluídas.
+     *
+     * @return As datas de referência, da mais antiga para a mais recente.
+     */
+    public List<LocalDate> listarNaoConcluidas() {
+        return getEntityManager()
+                .createQuery("select e.dataReferencia from ExecucoesRendimentoPoupanca e where e.dataConclusao is null"
+                        + " order by e.dataReferencia", LocalDate.class)
+                .getResultList();
+    }
+
+    /**
+     * Obtém a data de referência mais recente entre todas as execuções, concluídas ou não.
+     *
+     * @return A data de referência, ou null se nenhuma execução foi iniciada.
+     */
+    public LocalDate buscarUltimaReferencia() {
+        return getEntityManager()
+                .createQuery("select max(e.dataReferencia) from ExecucoesRendimentoPoupanca e", LocalDate.class)
+                .getSingleResult();
+    }
+}
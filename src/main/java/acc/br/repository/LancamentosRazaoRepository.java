@@ -0,0 +1,133 @@
+package acc.br.repository;
+
+import acc.br.model.LancamentosRazao;
+import acc.br.util.NaturezaLancamento;
+import acc.br.util.TipoConta;
+import io.quarkus.hibernate.orm.panache.PanacheRepository;
+import io.quarkus.panache.common.Sort;
+import org.hibernate.Session;
+
+import javax.enterprise.context.ApplicationScoped;
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Repositório para a entidade LancamentosRazao.
+ */
+@ApplicationScoped
+public class LancamentosRazaoRepository implements PanacheRepository<LancamentosRazao> {
+
+    static final String SQL_INSERCAO_LANCAMENTO = "INSERT INTO LancamentosRazao (TransacaoID, TipoConta, ContaID, Natureza, Valor, DataHora) VALUES (?, ?, ?, ?, ?, ?)";
+
+    private static final String VALOR_COM_SINAL = "case when l.natureza = :credito then l.valor else -l.valor end";
+
+    static final String CONSULTA_SOMA_CONTA = "select coalesce(sum(" + VALOR_COM_SINAL + "), 0) from LancamentosRazao l"
+            + " where l.tipoConta = :tipoConta and l.contaID = :contaID and l.lancamentoID > :inicio and l.lancamentoID <= :fim";
+
+    static final String CONSULTA_SOMA_POR_CONTA = "select l.tipoConta, l.contaID, sum(" + VALOR_COM_SINAL + ") from LancamentosRazao l"
+            + " where l.lancamentoID > :inicio and l.lancamentoID <= :fim and l.contaID is not null"
+            + " group by l.tipoConta, l.contaID";
+
+    /**
+     * Monta a consulta dos débitos nas contas de um tipo (saques e transferências enviadas), com o cliente da conta.
+     */
+    static String consultaDebitosClientes(TipoConta tipoConta) {
+        return "select c.clienteID, l.valor, l.dataHora from LancamentosRazao l, " + EntidadesConta.entidade(tipoConta) + " c"
+                + " where l.tipoConta = :tipoConta and l.contaID = c." + EntidadesConta.atributoID(tipoConta)
+                + " and l.natureza = :debito and l.dataHora >= :inicio";
+    }
+
+    /**
+     * Insere os lançamentos com um único lote JDBC na conexão da transação atual.
+     * A chave IDENTITY impede o Hibernate de agrupar esses INSERTs, por isso o lote é montado aqui.
+     *
+     * @param lancamentos Os lançamentos a serem inseridos.
+     */
+    public void inserir(List<LancamentosRazao> lancamentos) {
+        if (lancamentos.isEmpty()) {
+            return;
+        }
+        getEntityManager().unwrap(Session.class).doWork(conexao -> {
+            try (PreparedStatement insercao = conexao.prepareStatement(SQL_INSERCAO_LANCAMENTO)) {
+                for (LancamentosRazao lancamento : lancamentos) {
+                    insercao.setObject(1, lancamento.getTransacaoID(), Types.BIGINT);
+                    insercao.setString(2, lancamento.getTipoConta() == null ? null : lancamento.getTipoConta().name());
+                    insercao.setObject(3, lancamento.getContaID(), Types.BIGINT);
+                    insercao.setString(4, lancamento.getNatureza().name());
+                    insercao.setBigDecimal(5, lancamento.getValor());
+                    insercao.setTimestamp(6, Timestamp.valueOf(lancamento.getDataHora()));
+                    insercao.addBatch();
+                }
+                insercao.executeBatch();
+            }
+        });
+    }
+
+    /**
+     * Soma os lançamentos de uma conta em um intervalo de IDs, com os créditos positivos e os débitos negativos.
+     * A consulta percorre o índice IX_LancamentosRazao_Conta.
+     *
+     * @param tipoConta O tipo da conta.
+     * @param contaID   O ID da conta.
+     * @param inicio    O ID a partir do qual os lançamentos são somados (exclusive).
+     * @param fim       O ID até o qual os lançamentos são somados (inclusive).
+     * @return A soma dos lançamentos, ou zero se não houver nenhum.
+     */
+    public BigDecimal somar(TipoConta tipoConta, Long contaID, long inicio, long fim) {
+        return getEntityManager().createQuery(CONSULTA_SOMA_CONTA, BigDecimal.class)
+                .setParameter("credito", NaturezaLancamento.CREDITO)
+                .setParameter("tipoConta", tipoConta)
+                .setParameter("contaID", contaID)
+                .setParameter("inicio", inicio)
+                .setParameter("fim", fim)
+                .getSingleResult();
+    }
+
+    /**
+     * Soma os lançamentos de cada conta em um intervalo de IDs, ignorando os lançamentos do caixa.
+     *
+     * @param inicio O ID a partir do qual os lançamentos são somados (exclusive).
+     * @param fim    O ID até o qual os lançamentos são somados (inclusive).
+     * @return Para cada conta lançada no intervalo: o tipo da conta, o ID da conta e a soma dos lançamentos.
+     */
+    public List<Object[]> somarPorConta(long inicio, long fim) {
+        return getEntityManager().createQuery(CONSULTA_SOMA_POR_CONTA, Object[].class)
+                .setParameter("credito", NaturezaLancamento.CREDITO)
+                .setParameter("inicio", inicio)
+                .setParameter("fim", fim)
+                .getResultList();
+    }
+
+    /**
+     * Obtém o ID do lançamento mais recente feito antes do limite, percorrendo o índice IX_LancamentosRazao_DataHora
+     * a partir do fim.
+     *
+     * @param limite A data e hora limite (exclusive).
+     * @return O ID do lançamento, ou null se não houver lançamentos antes do limite.
+     */
+    public Long buscarUltimoAntesDe(LocalDateTime limite) {
+        LancamentosRazao lancamento = find("dataHora < ?1", Sort.descending("dataHora", "lancamentoID"), limite).firstResult();
+        return lancamento == null ? null : lancamento.getLancamentoID();
+    }
+
+    /**
+     * Lista os débitos lançados nas contas de um tipo a partir de uma data e hora, com o cliente de cada conta.
+     * Os débitos nas contas dos clientes são os saques e as transferências enviadas.
+     *
+     * @param tipoConta O tipo das contas.
+     * @param inicio    A data e hora inicial.
+     * @return O cliente, o valor e a data e hora de cada débito, lidos sob demanda.
+     */
+    public Stream<Object[]> listarDebitosClientes(TipoConta tipoConta, LocalDateTime inicio) {
+        return getEntityManager().createQuery(consultaDebitosClientes(tipoConta), Object[].class)
+                .setParameter("tipoConta", tipoConta)
+                .setParameter("debito", NaturezaLancamento.DEBITO)
+                .setParameter("inicio", inicio)
+                .getResultStream();
+    }
+}
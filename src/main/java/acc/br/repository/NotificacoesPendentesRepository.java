@@ -0,0 +1,102 @@
+package acc.br.repository;
+
+import acc.br.model.NotificacoesPendentes;
+import acc.br.util.TipoConta;
+import io.quarkus.hibernate.orm.panache.PanacheRepository;
+import io.quarkus.panache.common.Sort;
+import org.hibernate.Session;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.persistence.LockModeType;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Repositório para a entidade NotificacoesPendentes.
+ */
+@ApplicationScoped
+public class NotificacoesPendentesRepository implements PanacheRepository<NotificacoesPendentes> {
+
+    static final String SQL_INSERCAO_NOTIFICACAO = "INSERT INTO NotificacoesPendentes (ClienteID, TipoConta, ContaID, TipoTransacao, Valor, DataHoraTransacao, DataCriacao) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    /**
+     * Insere as notificações pendentes com um único lote JDBC na conexão da transação atual.
+     * A chave IDENTITY impede o Hibernate de agrupar esses INSERTs, por isso o lote é montado aqui.
+     *
+     * @param pendentes As notificações pendentes a serem inseridas.
+     */
+    public void inserir(List<NotificacoesPendentes> pendentes) {
+        if (pendentes.isEmpty()) {
+            return;
+        }
+        getEntityManager().unwrap(Session.class).doWork(conexao -> {
+            try (PreparedStatement insercao = conexao.prepareStatement(SQL_INSERCAO_NOTIFICACAO)) {
+                for (NotificacoesPendentes pendente : pendentes) {
+                    insercao.setObject(1, pendente.getClienteID(), Types.BIGINT);
+                    insercao.setString(2, pendente.getTipoConta().name());
+                    insercao.setLong(3, pendente.getContaID());
+                    insercao.setString(4, pendente.getTipoTransacao().name());
+                    insercao.setBigDecimal(5, pendente.getValor());
+                    insercao.setDate(6, Date.valueOf(pendente.getDataHoraTransacao()));
+                    insercao.setTimestamp(7, Timestamp.valueOf(pendente.getDataCriacao()));
+                    insercao.addBatch();
+                }
+                insercao.executeBatch();
+            }
+        });
+    }
+
+    /**
+     * Busca o próximo lote de notificações pendentes, na ordem de gravação, bloqueando as linhas lidas para que
+     * outra instância não despache as mesmas notificações.
+     *
+     * @param tamanhoLote A quantidade máxima de notificações do lote.
+     * @return As notificações pendentes mais antigas.
+     */
+    public List<NotificacoesPendentes> buscarLote(int tamanhoLote) {
+        return findAll(Sort.ascending("notificacaoPendenteID"))
+                .withLock(LockModeType.PESSIMISTIC_WRITE)
+                .page(0, tamanhoLote)
+                .list();
+    }
+
+    /**
+     * Remove as notificações pendentes já despachadas, em um único comando.
+     *
+     * @param ids Os IDs das notificações pendentes.
+     * @return A quantidade de notificações removidas.
+     */
+    public long remover(Collection<Long> ids) {
+        return delete("notificacaoPendenteID in ?1", ids);
+    }
+
+    /**
+     * Obtém o cliente de cada conta de um tipo, em uma única consulta.
+     *
+     * @param tipoConta O tipo das contas.
+     * @param contaIDs  Os IDs das contas.
+     * @return O ID do cliente de cada conta encontrada, indexado pelo ID da conta.
+     */
+    public Map<Long, Long> buscarClientes(TipoConta tipoConta, Collection<Long> contaIDs) {
+        List<Object[]> linhas = getEntityManager()
+                .createQuery(consultaClientes(tipoConta), Object[].class)
+                .setParameter("ids", contaIDs)
+                .getResultList();
+        Map<Long, Long> clientes = new HashMap<>(linhas.size() * 2);
+        for (Object[] linha : linhas) {
+            clientes.put((Long) linha[0], (Long) linha[1]);
+        }
+        return clientes;
+    }
+
+    private static String consultaClientes(TipoConta tipoConta) {
+        String id = "c." + EntidadesConta.atributoID(tipoConta);
+        return "select " + id + ", c.clienteID from " + EntidadesConta.entidade(tipoConta) + " c where " + id + " in :ids";
+    }
+}
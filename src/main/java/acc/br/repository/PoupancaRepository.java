@@ -1,14 +1,100 @@
 package acc.br.repository;
 
 import acc.br.model.Poupanca;
+import acc.br.util.DatabaseAuditListener;
 import io.quarkus.hibernate.orm.panache.PanacheRepository;
+import io.quarkus.panache.common.Sort;
 
 import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+import javax.persistence.LockModeType;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
 
 /**
  * Repositório para a entidade Poupanca.
  */
 @ApplicationScoped
 public class PoupancaRepository implements PanacheRepository<Poupanca> {
-    
-}
\ No newline at end of file
+
+    @Inject
+    DatabaseAuditListener databaseAuditListener;
+
+    /**
+     * Credita um valor no saldo da conta poupança com um único UPDATE atômico, sem carregar a entidade.
+     * O incremento da versão mantém o controle otimista das operações que leem o saldo antes de alterá-lo.
+     *
+     * @param poupancaID O ID da conta poupança.
+     * @param valor O valor a ser creditado.
+     * @return true se a conta foi encontrada e atualizada.
+     */
+    public boolean creditarSaldo(Long poupancaID, BigDecimal valor) {
+        return update("saldo = saldo + ?1, versao = versao + 1 where poupancaID = ?2", valor, poupancaID) > 0;
+    }
+
+    /**
+     * Grava o saldo de uma conta poupança que não está no contexto de persistência, com um único UPDATE condicionado à
+     * versão da conta (controle otimista sem carregar a entidade). A alteração é auditada.
+     *
+     * @param conta A conta com o saldo já alterado e a versão lida.
+     * @return true se a versão no banco de dados ainda era a da conta; nesse caso a versão da conta é incrementada.
+     */
+    public boolean gravarSaldo(Poupanca conta) {
+        if (update("saldo = ?1, versao = versao + 1 where poupancaID = ?2 and versao = ?3",
+                conta.getSaldo(), conta.getPoupancaID(), conta.getVersao()) == 0) {
+            return false;
+        }
+        conta.setVersao(conta.getVersao() + 1);
+        databaseAuditListener.onBulkUpdate(conta);
+        return true;
+    }
+
+    /**
+     * Lista, em ordem de ID, os IDs das contas poupança com aniversário em um dos dias informados que ainda não
+     * receberam o rendimento da data de referência (paginação por keyset sobre o índice IX_Poupanca_DiaAniversario).
+     *
+     * @param diasAniversario Os dias de aniversário.
+     * @param aposID          O ID a partir do qual as contas são listadas (exclusive).
+     * @param referencia      A data de referência do rendimento.
+     * @param limite          A quantidade máxima de IDs.
+     * @return Os IDs das contas.
+     */
+    public List<Long> listarIDsParaRendimento(Collection<Integer> diasAniversario, long aposID, LocalDate referencia, int limite) {
+        return getEntityManager()
+                .createQuery("select p.poupancaID from Poupanca p where p.diaAniversario in :dias and p.poupancaID > :aposID"
+                        + " and (p.dataUltimoRendimento is null or p.dataUltimoRendimento < :referencia)"
+                        + " order by p.poupancaID", Long.class)
+                .setParameter("dias", diasAniversario)
+                .setParameter("aposID", aposID)
+                .setParameter("referencia", referencia)
+                .setMaxResults(limite)
+                .getResultList();
+    }
+
+    /**
+     * Carrega e bloqueia, em ordem de ID, as contas informadas que ainda não receberam o rendimento da data de
+     * referência. A ordem de bloqueio evita deadlocks entre blocos processados em paralelo.
+     *
+     * @param ids        Os IDs das contas.
+     * @param referencia A data de referência do rendimento.
+     * @return As contas bloqueadas.
+     */
+    public List<Poupanca> bloquearParaRendimento(List<Long> ids, LocalDate referencia) {
+        return find("poupancaID in ?1 and (dataUltimoRendimento is null or dataUltimoRendimento < ?2)",
+                Sort.by("poupancaID"), ids, referencia)
+                .withLock(LockModeType.PESSIMISTIC_WRITE)
+                .list();
+    }
+
+    /**
+     * Preenche o dia de aniversário das contas gravadas antes da existência da coluna DiaAniversario.
+     *
+     * @return A quantidade de contas atualizadas.
+     */
+    public int preencherDiaAniversario() {
+        return update("diaAniversario = cast(substring(dataAniversario, 9, 2) as integer)"
+                + " where diaAniversario is null and length(dataAniversario) = 10");
+    }
+}
@@ -0,0 +1,38 @@
+package acc.br.repository;
+
+import acc.br.model.SaldosConsolidados;
+import acc.br.util.TipoConta;
+import io.quarkus.hibernate.orm.panache.PanacheRepository;
+
+import javax.enterprise.context.ApplicationScoped;
+import java.util.Optional;
+
+/**
+ * Repositório para a entidade SaldosConsolidados.
+ */
+@ApplicationScoped
+public class SaldosConsolidadosRepository implements PanacheRepository<SaldosConsolidados> {
+
+    /**
+     * Busca o saldo consolidado de uma conta.
+     *
+     * @param tipoConta O tipo da conta.
+     * @param contaID   O ID da conta.
+     * @return O saldo consolidado, se a conta já foi consolidada.
+     */
+    public Optional<SaldosConsolidados> buscar(TipoConta tipoConta, Long contaID) {
+        return find("tipoConta = ?1 and contaID = ?2", tipoConta, contaID).firstResultOptional();
+    }
+
+    /**
+     * Obtém o maior ID de lançamento já consolidado, de onde a próxima consolidação continua.
+     *
+     * @return O ID do último lançamento consolidado, ou zero se nenhuma conta foi consolidada.
+     */
+    public long buscarUltimoLancamentoConsolidado() {
+        Long ultimo = getEntityManager()
+                .createQuery("select max(s.ultimoLancamentoID) from SaldosConsolidados s", Long.class)
+                .getSingleResult();
+        return ultimo == null ? 0L : ultimo;
+    }
+}
@@ -1,14 +1,151 @@
 package acc.br.repository;
 
 import acc.br.model.Transacoes;
+import acc.br.util.DatabaseAuditListener;
+import acc.br.util.TipoTransacao;
 import io.quarkus.hibernate.orm.panache.PanacheRepository;
+import io.quarkus.panache.common.Sort;
+import org.hibernate.Session;
 
 import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+import javax.validation.ConstraintViolation;
+import javax.validation.ConstraintViolationException;
+import javax.validation.Validator;
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
 
 /**
  * Repositório para a entidade Transacoes.
  */
 @ApplicationScoped
 public class TransacoesRepository implements PanacheRepository<Transacoes> {
-    
-}
\ No newline at end of file
+
+    static final String SQL_INSERCAO_TRANSACAO = "INSERT INTO Transacoes (TipoTransacao, Valor, DataHoraTransacao, ContaID, NumeroCheque, TipoConta) VALUES (?, ?, ?, ?, ?, ?)";
+
+    static final String FILTRO_CONTA_E_TIPO = "contaID = ?1 and tipoTransacao = ?2";
+    static final String FILTRO_CONTA_E_TIPO_APOS_CURSOR = FILTRO_CONTA_E_TIPO
+            + " and (dataHoraTransacao < ?3 or (dataHoraTransacao = ?3 and transacaoID < ?4))";
+    static final Sort ORDEM_CONTA_E_TIPO = Sort.descending("dataHoraTransacao", "transacaoID");
+
+    static final String FILTRO_TIPO_E_VALOR_MINIMO = "tipoTransacao = ?1 and valor >= ?2";
+    static final String FILTRO_TIPO_E_VALOR_MINIMO_APOS_CURSOR = FILTRO_TIPO_E_VALOR_MINIMO
+            + " and (valor < ?3 or (valor = ?3 and transacaoID < ?4))";
+    static final Sort ORDEM_TIPO_E_VALOR_MINIMO = Sort.descending("valor", "transacaoID");
+
+    @Inject
+    Validator validator;
+
+    @Inject
+    DatabaseAuditListener databaseAuditListener;
+
+    /**
+     * Insere as transações com um único lote JDBC na conexão da transação atual.
+     * A chave IDENTITY impede o Hibernate de agrupar esses INSERTs, por isso o lote é montado aqui.
+     * Os IDs gerados são atribuídos às transações, para os lançamentos do livro-razão.
+     * <p>
+     * Como o lote não passa pelos eventos do Hibernate, as transações são validadas aqui, como no persist, e a
+     * inserção é auditada pelo {@link DatabaseAuditListener}.
+     *
+     * @param transacoes As transações a serem inseridas.
+     * @throws ConstraintViolationException Se alguma transação violar as restrições da entidade; nada é inserido.
+     */
+    public void inserir(List<Transacoes> transacoes) {
+        if (transacoes.isEmpty()) {
+            return;
+        }
+        for (Transacoes transacao : transacoes) {
+            Set<ConstraintViolation<Transacoes>> violacoes = validator.validate(transacao);
+            if (!violacoes.isEmpty()) {
+                throw new ConstraintViolationException(violacoes);
+            }
+        }
+        getEntityManager().unwrap(Session.class).doWork(conexao -> {
+            try (PreparedStatement insercao = conexao.prepareStatement(SQL_INSERCAO_TRANSACAO, Statement.RETURN_GENERATED_KEYS)) {
+                for (Transacoes transacao : transacoes) {
+                    insercao.setString(1, transacao.getTipoTransacao().name());
+                    insercao.setBigDecimal(2, transacao.getValor());
+                    insercao.setDate(3, Date.valueOf(transacao.getDataHoraTransacao()));
+                    insercao.setLong(4, transacao.getContaID());
+                    insercao.setString(5, transacao.getNumeroCheque());
+                    insercao.setString(6, transacao.getTipoConta().name());
+                    insercao.addBatch();
+                }
+                insercao.executeBatch();
+                try (ResultSet chaves = insercao.getGeneratedKeys()) {
+                    for (Iterator<Transacoes> iterador = transacoes.iterator(); iterador.hasNext() && chaves.next(); ) {
+                        iterador.next().setTransacaoID(chaves.getLong(1));
+                    }
+                }
+            }
+        });
+        databaseAuditListener.onJdbcInsert(transacoes);
+    }
+
+    /**
+     * Lista uma página de transações em ordem crescente de ID, a partir de um cursor (paginação por keyset).
+     * A consulta usa a chave primária, sem OFFSET, e por isso tem custo constante em qualquer ponto da tabela.
+     *
+     * @param cursor        O ID da última transação da página anterior, ou null para a primeira página.
+     * @param tamanhoPagina A quantidade máxima de transações retornadas.
+     * @return As transações com ID maior que o cursor, limitadas ao tamanho da página.
+     */
+    public List<Transacoes> listarAposCursor(Long cursor, int tamanhoPagina) {
+        return find("transacaoID > ?1", Sort.by("transacaoID"), cursor == null ? 0L : cursor)
+                .page(0, tamanhoPagina)
+                .list();
+    }
+
+    /**
+     * Lista as transações mais recentes de um tipo em uma conta, a partir de um cursor (paginação por keyset).
+     * A consulta percorre o índice IX_Transacoes_Conta_Tipo_Data na ordem da data, sem ordenação adicional;
+     * o ID desempata as transações da mesma data.
+     *
+     * @param contaID        O ID da conta.
+     * @param tipoTransacao  O tipo das transações.
+     * @param ultima         A última transação da página anterior, ou null para a primeira página.
+     * @param limite         A quantidade máxima de transações retornadas.
+     * @return As transações posteriores ao cursor, da mais recente para a mais antiga.
+     */
+    public List<Transacoes> listarPorContaETipo(Long contaID, TipoTransacao tipoTransacao, Transacoes ultima, int limite) {
+        if (ultima == null) {
+            return find(FILTRO_CONTA_E_TIPO, ORDEM_CONTA_E_TIPO, contaID, tipoTransacao)
+                    .page(0, limite)
+                    .list();
+        }
+        return find(FILTRO_CONTA_E_TIPO_APOS_CURSOR, ORDEM_CONTA_E_TIPO, contaID, tipoTransacao,
+                ultima.getDataHoraTransacao(), ultima.getTransacaoID())
+                .page(0, limite)
+                .list();
+    }
+
+    /**
+     * Lista as transações de um tipo com valor maior ou igual ao mínimo, a partir de um cursor (paginação por
+     * keyset), percorrendo o índice IX_Transacoes_Tipo_Valor a partir do maior valor; o ID desempata as transações
+     * de mesmo valor.
+     *
+     * @param tipoTransacao O tipo das transações.
+     * @param valorMinimo   O valor mínimo.
+     * @param ultima        A última transação da página anterior, ou null para a primeira página.
+     * @param limite        A quantidade máxima de transações retornadas.
+     * @return As transações posteriores ao cursor, do maior para o menor valor.
+     */
+    public List<Transacoes> listarPorTipoEValorMinimo(TipoTransacao tipoTransacao, BigDecimal valorMinimo, Transacoes ultima,
+                                                      int limite) {
+        if (ultima == null) {
+            return find(FILTRO_TIPO_E_VALOR_MINIMO, ORDEM_TIPO_E_VALOR_MINIMO, tipoTransacao, valorMinimo)
+                    .page(0, limite)
+                    .list();
+        }
+        return find(FILTRO_TIPO_E_VALOR_MINIMO_APOS_CURSOR, ORDEM_TIPO_E_VALOR_MINIMO, tipoTransacao, valorMinimo,
+                ultima.getValor(), ultima.getTransacaoID())
+                .page(0, limite)
+                .list();
+    }
+}
@@ -0,0 +1,309 @@
+package acc.br.service;
+
+import acc.br.repository.LancamentosRazaoRepository;
+import acc.br.util.TipoConta;
+import acc.br.util.TotaisJanela;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.quarkus.runtime.StartupEvent;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import javax.annotation.PostConstruct;
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
+import javax.inject.Inject;
+import javax.transaction.Status;
+import javax.transaction.Synchronization;
+import javax.transaction.Transactional;
+import javax.transaction.TransactionSynchronizationRegistry;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+/**
+ * Soma e quantidade das saídas (saques e transferências enviadas) de cada cliente em janelas de tempo deslizantes,
+ * mantidas em memória para a avaliação dos alertas de gastos excessivos.
+ * <p>
+ * Cada cliente tem um buffer circular de intervalos de {@code twobank.alertas.janela.duracao-intervalo-segundos},
+ * cobrindo até {@code twobank.alertas.janela.maxima-horas}. Cada intervalo guarda os totais acumulados até ele, de
+ * modo que os totais de qualquer janela são a diferença entre dois intervalos: a consulta tem custo constante,
+ * qualquer que seja a duração da janela. As janelas são arredondadas para intervalos inteiros.
+ * <p>
+ * Uma saída conta nos totais como em curso desde o seu registro até o fim da transação que a realizou; após o commit,
+ * ela entra no intervalo em que foi registrada, e se a transação for desfeita, é descartada. Na inicialização, os buffers são
+ * reconstruídos a partir dos débitos do livro-razão, que registram a data e a hora de cada saída. Os clientes sem
+ * saídas durante a janela máxima são descartados, e no máximo {@code twobank.alertas.janela.clientes-maximo}
+ * clientes são mantidos em memória.
+ */
+@ApplicationScoped
+public class AgregadorGastosJanela {
+
+    private static final Logger logger = Logger.getLogger(AgregadorGastosJanela.class.getName());
+
+    @Inject
+    LancamentosRazaoRepository lancamentosRazaoRepository;
+
+    @Inject
+    TransactionSynchronizationRegistry registroSincronizacao;
+
+    @ConfigProperty(name = "twobank.alertas.janela.duracao-intervalo-segundos", defaultValue = "300")
+    long duracaoIntervaloSegundos;
+
+    @ConfigProperty(name = "twobank.alertas.janela.maxima-horas", defaultValue = "24")
+    long maximaHoras;
+
+    @ConfigProperty(name = "twobank.alertas.janela.clientes-maximo", defaultValue = "100000")
+    long clientesMaximo;
+
+    Clock relogio = Clock.systemDefaultZone();
+
+    private Cache<Long, JanelaGastos> janelas;
+    private int quantidadeIntervalos;
+
+    @PostConstruct
+    void inicializar() {
+        quantidadeIntervalos = (int) ((Duration.ofHours(maximaHoras).getSeconds() + duracaoIntervaloSegundos - 1) / duracaoIntervaloSegundos);
+        janelas = Caffeine.newBuilder()
+                .maximumSize(clientesMaximo)
+                .expireAfterAccess(Duration.ofHours(maximaHoras))
+                .build();
+    }
+
+    /**
+     * Reconstrói as janelas a partir do livro-razão. Uma falha é registrada e deixa as janelas vazias, sem impedir
+     * a inicialização da aplicação.
+     */
+    void iniciar(@Observes StartupEvent evento) {
+        try {
+            reconstruir();
+        } catch (RuntimeException e) {
+            logger.log(Level.WARNING, "Falha ao reconstruir as janelas de gastos a partir do livro-razão", e);
+        }
+    }
+
+    /**
+     * Registra a saída de um cliente e obtém os totais das janelas informadas imediatamente antes dela, incluindo as
+     * saídas ainda em curso. A consulta e o registro são atômicos para o cliente, de modo que saídas simultâneas
+     * recebem totais distintos, cada um incluindo as anteriores. Dentro de uma transação, a saída fica em curso até o
+     * commit, quando entra no seu intervalo, ou até ser desfeita, quando é descartada.
+     *
+     * @param clienteID      O ID do cliente.
+     * @param valor          O valor sacado ou transferido.
+     * @param janelasMinutos As durações das janelas, limitadas a {@code twobank.alertas.janela.maxima-horas}.
+     * @return Os totais de cada janela antes da saída, na ordem das durações informadas.
+     */
+    public TotaisJanela[] registrar(Long clienteID, BigDecimal valor, int... janelasMinutos) {
+        TotaisJanela[] totais = new TotaisJanela[janelasMinutos.length];
+        if (clienteID == null || valor == null) {
+            Arrays.fill(totais, TotaisJanela.VAZIO);
+            return totais;
+        }
+        long intervalo = intervalo(relogio.millis() / 1000);
+        long centavos = centavos(valor);
+        int[] intervalos = new int[janelasMinutos.length];
+        for (int i = 0; i < janelasMinutos.length; i++) {
+            intervalos[i] = intervalos(janelasMinutos[i]);
+        }
+        JanelaGastos janela = janelas.get(clienteID, cliente -> new JanelaGastos(quantidadeIntervalos + 1));
+        boolean emCurso = registroSincronizacao.getTransactionStatus() == Status.STATUS_ACTIVE;
+        if (emCurso) {
+            registroSincronizacao.registerInterposedSynchronization(new Synchronization() {
+                @Override
+                public void beforeCompletion() {
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    concluir(clienteID, janela, intervalo, centavos, status == Status.STATUS_COMMITTED);
+                }
+            });
+        }
+        return janela.registrar(intervalo, centavos, intervalos, emCurso);
+    }
+
+    /**
+     * Obtém a soma e a quantidade das saídas do cliente nos últimos minutos informados, incluindo as saídas em curso.
+     *
+     * @param clienteID     O ID do cliente.
+     * @param janelaMinutos A duração da janela, limitada a {@code twobank.alertas.janela.maxima-horas}.
+     * @return Os totais da janela.
+     */
+    public TotaisJanela consultar(Long clienteID, int janelaMinutos) {
+        JanelaGastos janela = janelas.getIfPresent(clienteID);
+        if (janela == null) {
+            return TotaisJanela.VAZIO;
+        }
+        return janela.consultar(intervalo(relogio.millis() / 1000), intervalos(janelaMinutos));
+    }
+
+    /**
+     * Obtém a duração máxima das janelas consultáveis.
+     *
+     * @return A duração máxima, em minutos.
+     */
+    public long getJanelaMaximaMinutos() {
+        return maximaHoras * 60;
+    }
+
+    /**
+     * Substitui as janelas pelos débitos lançados no livro-razão durante a janela máxima.
+     */
+    @Transactional
+    void reconstruir() {
+        janelas.invalidateAll();
+        LocalDateTime inicio = LocalDateTime.now(relogio).minusHours(maximaHoras);
+        AtomicLong debitos = new AtomicLong();
+        for (TipoConta tipoConta : TipoConta.values()) {
+            try (Stream<Object[]> linhas = lancamentosRazaoRepository.listarDebitosClientes(tipoConta, inicio)) {
+                linhas.forEach(linha -> {
+                    long instante = ((LocalDateTime) linha[2]).atZone(ZoneId.systemDefault()).toEpochSecond();
+                    registrar((Long) linha[0], (BigDecimal) linha[1], instante);
+                    debitos.incrementAndGet();
+                });
+            }
+        }
+        logger.log(Level.INFO, "Janelas de gastos reconstruídas com {0,number,#} saídas de {1,number,#} clientes",
+                new Object[]{debitos.get(), janelas.estimatedSize()});
+    }
+
+    private void registrar(Long clienteID, BigDecimal valor, long instante) {
+        if (clienteID == null || valor == null) {
+            return;
+        }
+        janelas.get(clienteID, cliente -> new JanelaGastos(quantidadeIntervalos + 1))
+                .registrar(intervalo(instante), centavos(valor));
+    }
+
+    /**
+     * Conclui uma saída em curso. Se o buffer do cliente foi descartado enquanto a saída estava em curso, a saída
+     * confirmada é registrada no buffer atual.
+     */
+    private void concluir(Long clienteID, JanelaGastos reservada, long intervalo, long centavos, boolean confirmada) {
+        JanelaGastos atual = confirmada ? janelas.get(clienteID, cliente -> new JanelaGastos(quantidadeIntervalos + 1)) : reservada;
+        if (atual == reservada) {
+            reservada.concluir(intervalo, centavos, confirmada);
+        } else {
+            reservada.concluir(intervalo, centavos, false);
+            atual.registrar(intervalo, centavos);
+        }
+    }
+
+    private int intervalos(int janelaMinutos) {
+        long intervalos = (janelaMinutos * 60L + duracaoIntervaloSegundos - 1) / duracaoIntervaloSegundos;
+        return (int) Math.min(intervalos, quantidadeIntervalos);
+    }
+
+    private long intervalo(long instante) {
+        return Math.floorDiv(instante, duracaoIntervaloSegundos);
+    }
+
+    private static long centavos(BigDecimal valor) {
+        return valor.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValue();
+    }
+
+    /**
+     * Buffer circular de totais acumulados de um cliente. A posição de cada intervalo é o seu número módulo o
+     * tamanho do buffer; todos os intervalos entre o primeiro e o último registrados são preenchidos. As saídas em
+     * curso são somadas à parte e entram em todas as janelas.
+     */
+    static final class JanelaGastos {
+
+        private final long[] valorAcumulado;
+        private final long[] quantidadeAcumulada;
+        private long primeiro = Long.MIN_VALUE;
+        private long ultimo = Long.MIN_VALUE;
+        private long valorEmCurso;
+        private long quantidadeEmCurso;
+
+        JanelaGastos(int tamanho) {
+            valorAcumulado = new long[tamanho];
+            quantidadeAcumulada = new long[tamanho];
+        }
+
+        synchronized TotaisJanela[] registrar(long intervalo, long centavos, int[] intervalos, boolean emCurso) {
+            TotaisJanela[] totais = new TotaisJanela[intervalos.length];
+            for (int i = 0; i < intervalos.length; i++) {
+                totais[i] = consultar(intervalo, intervalos[i]);
+            }
+            if (emCurso) {
+                valorEmCurso += centavos;
+                quantidadeEmCurso++;
+            } else {
+                registrar(intervalo, centavos);
+            }
+            return totais;
+        }
+
+        synchronized void concluir(long intervalo, long centavos, boolean confirmada) {
+            valorEmCurso -= centavos;
+            quantidadeEmCurso--;
+            if (confirmada) {
+                registrar(intervalo, centavos);
+            }
+        }
+
+        synchronized void registrar(long intervalo, long centavos) {
+            int tamanho = valorAcumulado.length;
+            if (ultimo == Long.MIN_VALUE) {
+                primeiro = intervalo;
+                ultimo = intervalo;
+            } else if (intervalo > ultimo) {
+                // Os intervalos sem saídas repetem os totais do último intervalo registrado
+                int anterior = posicao(ultimo);
+                long valor = valorAcumulado[anterior];
+                long quantidade = quantidadeAcumulada[anterior];
+                for (long i = Math.max(ultimo + 1, intervalo - tamanho + 1); i <= intervalo; i++) {
+                    valorAcumulado[posicao(i)] = valor;
+                    quantidadeAcumulada[posicao(i)] = quantidade;
+                }
+                ultimo = intervalo;
+            } else if (intervalo < primeiro) {
+                // Saída anterior ao primeiro intervalo: os intervalos anteriores valem zero
+                if (intervalo <= ultimo - tamanho) {
+                    return;
+                }
+                for (long i = intervalo; i < primeiro; i++) {
+                    valorAcumulado[posicao(i)] = 0;
+                    quantidadeAcumulada[posicao(i)] = 0;
+                }
+                primeiro = intervalo;
+            } else if (intervalo <= ultimo - tamanho) {
+                // Saída mais antiga que o buffer, irrelevante para qualquer janela
+                return;
+            }
+            // A saída entra no acumulado do seu intervalo e de todos os posteriores
+            for (long i = intervalo; i <= ultimo; i++) {
+                valorAcumulado[posicao(i)] += centavos;
+                quantidadeAcumulada[posicao(i)]++;
+            }
+        }
+
+        synchronized TotaisJanela consultar(long atual, int intervalos) {
+            long valor = valorEmCurso;
+            long quantidade = quantidadeEmCurso;
+            long base = atual - intervalos;
+            if (ultimo != Long.MIN_VALUE && base < ultimo) {
+                int fim = posicao(Math.min(atual, ultimo));
+                valor += valorAcumulado[fim];
+                quantidade += quantidadeAcumulada[fim];
+                if (base >= primeiro) {
+                    valor -= valorAcumulado[posicao(base)];
+                    quantidade -= quantidadeAcumulada[posicao(base)];
+                }
+            }
+            return quantidade == 0 ? TotaisJanela.VAZIO : new TotaisJanela(BigDecimal.valueOf(valor, 2), quantidade);
+        }
+
+        private int posicao(long intervalo) {
+            return (int) Math.floorMod(intervalo, (long) valorAcumulado.length);
+        }
+    }
+}
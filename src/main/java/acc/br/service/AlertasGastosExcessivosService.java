@@ -15,11 +15,13 @@ import acc.br.model.AlertasGastosExcessivos;
 import acc.br.model.Clientes;
 import acc.br.repository.AlertasGastosExcessivosRepository;
 import acc.br.repository.ClientesRepository;
+import acc.br.util.Monitorado;
 
 /**
  * Serviço para gerenciar operações relacionadas a alertas de gastos excessivos.
  */
 @ApplicationScoped
+@Monitorado
 public class AlertasGastosExcessivosService {
 
     @Inject
@@ -28,6 +30,12 @@ public class AlertasGastosExcessivosService {
     @Inject
     ClientesRepository clientesRepository;
 
+    @Inject
+    MotorAlertasGastos motorAlertasGastos;
+
+    @Inject
+    AgregadorGastosJanela agregadorGastosJanela;
+
     /**
      * Cria um novo alerta de gastos excessivos.
      *
@@ -36,7 +44,9 @@ public class AlertasGastosExcessivosService {
     @Transactional
     public void criarAlerta(@Valid @NotNull AlertasGastosExcessivos alerta) {
         validarCliente(alerta.getClienteID());
+        validarRegra(alerta);
         repository.persist(alerta);
+        motorAlertasGastos.atualizar(null, alerta);
     }
 
     /**
@@ -52,13 +62,18 @@ public class AlertasGastosExcessivosService {
         }
 
         validarCliente(alerta.getClienteID()); 
+        validarRegra(alerta);
 
+        Long clienteIDAnterior = alertaExistente.getClienteID();
         alertaExistente.setTipoAlerta(alerta.getTipoAlerta());
         alertaExistente.setValorLimite(alerta.getValorLimite());
         alertaExistente.setClienteID(alerta.getClienteID());
         alertaExistente.setAtivo(alerta.getAtivo());
+        alertaExistente.setJanelaMinutos(alerta.getJanelaMinutos());
+        alertaExistente.setQuantidadeMaxima(alerta.getQuantidadeMaxima());
 
         repository.persist(alertaExistente); 
+        motorAlertasGastos.atualizar(clienteIDAnterior, alertaExistente);
     }
 
     /**
@@ -74,6 +89,7 @@ public class AlertasGastosExcessivosService {
         }
 
         repository.delete(alerta);
+        motorAlertasGastos.remover(alerta);
     }
 
     /**
@@ -115,4 +131,27 @@ public class AlertasGastosExcessivosService {
             throw new ClienteNaoEncontradoException("Cliente não encontrado.");
         }
     }
+
+    /**
+     * Valida os limites do alerta: um alerta sem janela exige o valor limite; um alerta com janela exige o valor
+     * limite ou a quantidade máxima, e a janela não pode exceder a janela máxima mantida em memória.
+     *
+     * @param alerta O alerta a ser validado.
+     * @throws IllegalArgumentException Se os limites do alerta forem inválidos.
+     */
+    void validarRegra(AlertasGastosExcessivos alerta) {
+        if (alerta.getJanelaMinutos() == null) {
+            if (alerta.getValorLimite() == null) {
+                throw new IllegalArgumentException("O valor limite do alerta deve ser especificado.");
+            }
+            return;
+        }
+        if (alerta.getValorLimite() == null && alerta.getQuantidadeMaxima() == null) {
+            throw new IllegalArgumentException("O alerta com janela deve especificar o valor limite ou a quantidade máxima.");
+        }
+        long janelaMaxima = agregadorGastosJanela.getJanelaMaximaMinutos();
+        if (alerta.getJanelaMinutos() > janelaMaxima) {
+            throw new IllegalArgumentException("A janela do alerta não pode exceder " + janelaMaxima + " minutos.");
+        }
+    }
 }
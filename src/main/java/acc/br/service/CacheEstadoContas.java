@@ -0,0 +1,230 @@
+package acc.br.service;
+
+import acc.br.model.Contas;
+import acc.br.repository.ContaCorrenteRepository;
+import acc.br.repository.ContasConjuntasRepository;
+import acc.br.repository.PoupancaRepository;
+import acc.br.util.EstadoConta;
+import acc.br.util.TipoConta;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.quarkus.runtime.StartupEvent;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import javax.annotation.PostConstruct;
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
+import javax.inject.Inject;
+import javax.transaction.Status;
+import javax.transaction.Synchronization;
+import javax.transaction.TransactionSynchronizationRegistry;
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Cache em memória do estado financeiro das contas, indexado por (tipo de conta, ID).
+ * <p>
+ * O tamanho é limitado e a remoção segue a política W-TinyLFU do Caffeine, que mantém as contas mais movimentadas.
+ * As alterações de saldo feitas pelo {@link TransacoesService} atualizam o cache somente após o commit, e a edição
+ * ou remoção de contas o invalida. A expiração após a escrita limita a defasagem causada por alterações feitas
+ * fora desta instância da aplicação.
+ * <p>
+ * No modo otimista, os saques partem do estado em cache e gravam o novo saldo com um UPDATE condicionado à versão
+ * em cache; quando a versão no banco de dados é outra, o estado é invalidado e o saque relê a conta.
+ */
+@ApplicationScoped
+public class CacheEstadoContas {
+
+    @Inject
+    ContaCorrenteRepository contaCorrenteRepository;
+
+    @Inject
+    ContasConjuntasRepository contasConjuntasRepository;
+
+    @Inject
+    PoupancaRepository poupancaRepository;
+
+    @Inject
+    TransactionSynchronizationRegistry registroSincronizacao;
+
+    @Inject
+    MeterRegistry registro;
+
+    @ConfigProperty(name = "twobank.cache.contas.tamanho-maximo", defaultValue = "10000")
+    long tamanhoMaximo;
+
+    @ConfigProperty(name = "twobank.cache.contas.expiracao-segundos", defaultValue = "300")
+    long expiracaoSegundos;
+
+    private Cache<ChaveConta, EstadoConta> cache;
+
+    @PostConstruct
+    void inicializar() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximo)
+                .expireAfterWrite(Duration.ofSeconds(expiracaoSegundos))
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Obtém o estado de uma conta, consultando o banco de dados apenas quando ela não está em cache.
+     * <p>
+     * A consulta é feita fora do cache: um carregamento dentro de {@code Cache.get} executaria a ida ao banco
+     * dentro do {@code compute} do mapa, bloqueando as outras escritas no mesmo segmento. Se outra thread gravar a
+     * conta antes, prevalece o estado já gravado.
+     *
+     * @param tipoConta O tipo da conta.
+     * @param contaID   O ID da conta.
+     * @return O estado da conta, ou null se a conta não existir.
+     */
+    public EstadoConta obter(TipoConta tipoConta, Long contaID) {
+        ChaveConta chave = new ChaveConta(tipoConta, contaID);
+        EstadoConta estado = cache.getIfPresent(chave);
+        if (estado != null) {
+            return estado;
+        }
+        estado = carregar(tipoConta, contaID);
+        if (estado == null) {
+            return null;
+        }
+        EstadoConta existente = cache.asMap().putIfAbsent(chave, estado);
+        return existente == null ? estado : existente;
+    }
+
+    /**
+     * Grava no cache o estado de uma conta alterada. Dentro de uma transação, a gravação ocorre somente
+     * após o commit; se a transação for desfeita, a conta é removida do cache.
+     *
+     * @param conta A conta com o saldo já alterado.
+     */
+    public void atualizar(Contas conta) {
+        EstadoConta estado = EstadoConta.de(conta);
+        ChaveConta chave = new ChaveConta(estado.getTipoConta(), estado.getContaID());
+        aposConclusao(chave, estado);
+    }
+
+    /**
+     * Remove uma conta do cache, imediatamente e novamente após o commit da transação atual,
+     * para que uma leitura concorrente não recoloque o estado anterior.
+     *
+     * @param tipoConta O tipo da conta.
+     * @param contaID   O ID da conta.
+     */
+    public void invalidar(TipoConta tipoConta, Long contaID) {
+        ChaveConta chave = new ChaveConta(tipoConta, contaID);
+        cache.invalidate(chave);
+        aposConclusao(chave, null);
+    }
+
+    /**
+     * Obtém a proporção de consultas atendidas pelo cache.
+     *
+     * @return A taxa de acerto, entre 0 e 1.
+     */
+    public double getTaxaAcerto() {
+        return cache.stats().hitRate();
+    }
+
+    /**
+     * Obtém as estatísticas acumuladas do cache (acertos, faltas, carregamentos e remoções).
+     *
+     * @return As estatísticas do cache.
+     */
+    public CacheStats getEstatisticas() {
+        return cache.stats();
+    }
+
+    /**
+     * Obtém a quantidade aproximada de contas em cache.
+     *
+     * @return O tamanho estimado do cache.
+     */
+    public long getTamanho() {
+        return cache.estimatedSize();
+    }
+
+    /**
+     * Registra as métricas do Caffeine na inicialização da aplicação.
+     */
+    void registrarMedidores(@Observes StartupEvent evento) {
+        CaffeineCacheMetrics.monitor(registro, cache, "contas");
+    }
+
+    private void aposConclusao(ChaveConta chave, EstadoConta estado) {
+        if (registroSincronizacao.getTransactionStatus() != Status.STATUS_ACTIVE) {
+            aplicar(chave, estado);
+            return;
+        }
+        registroSincronizacao.registerInterposedSynchronization(new Synchronization() {
+            @Override
+            public void beforeCompletion() {
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                aplicar(chave, status == Status.STATUS_COMMITTED ? estado : null);
+            }
+        });
+    }
+
+    private void aplicar(ChaveConta chave, EstadoConta estado) {
+        if (estado == null) {
+            cache.invalidate(chave);
+        } else {
+            cache.put(chave, estado);
+        }
+    }
+
+    private EstadoConta carregar(TipoConta tipoConta, Long contaID) {
+        Contas conta;
+        switch (tipoConta) {
+            case CONTA_CORRENTE:
+                conta = contaCorrenteRepository.findById(contaID);
+                break;
+            case CONTA_CONJUNTA:
+                conta = contasConjuntasRepository.findById(contaID);
+                break;
+            case CONTA_POUPANCA:
+                conta = poupancaRepository.findById(contaID);
+                break;
+            default:
+                throw new IllegalArgumentException("Tipo de conta não suportado: " + tipoConta);
+        }
+        return conta == null ? null : EstadoConta.de(conta);
+    }
+
+    /**
+     * Chave do cache: os IDs das contas são sequenciais por tabela, por isso o tipo faz parte da chave.
+     */
+    private static final class ChaveConta {
+
+        private final TipoConta tipoConta;
+        private final Long contaID;
+
+        private ChaveConta(TipoConta tipoConta, Long contaID) {
+            this.tipoConta = tipoConta;
+            this.contaID = contaID;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof ChaveConta)) {
+                return false;
+            }
+            ChaveConta outra = (ChaveConta) o;
+            return tipoConta == outra.tipoConta && contaID.equals(outra.contaID);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(tipoConta, contaID);
+        }
+    }
+}
@@ -0,0 +1,263 @@
+package acc.br.service;
+
+import acc.br.exception.ParametroConfiguracaoNaoEncontradoException;
+import acc.br.model.ParametrosConfiguracao;
+import acc.br.repository.ParametrosConfiguracaoRepository;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.narayana.jta.RunOptions;
+import io.quarkus.panache.common.Sort;
+import io.quarkus.runtime.StartupEvent;
+import io.quarkus.scheduler.Scheduled;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
+import javax.inject.Inject;
+import javax.transaction.Status;
+import javax.transaction.Synchronization;
+import javax.transaction.Transactional;
+import javax.transaction.TransactionSynchronizationRegistry;
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Cache em memória da tabela ParametrosConfiguracao, indexado pelo nome do parâmetro.
+ * <p>
+ * Os parâmetros ficam em um instantâneo imutável, com os valores já convertidos para BigDecimal e Long, de modo que
+ * a leitura não consulta o banco de dados nem repete a conversão. Após o commit de cada escrita feita pelo
+ * {@link ParametrosConfiguracaoService}, a tabela é relida em uma nova transação e o instantâneo é publicado por
+ * inteiro. A leitura e a publicação são feitas sob o mesmo bloqueio, de modo que a última publicação sempre vem da
+ * leitura mais recente, mesmo com escritas concorrentes ou notificações de commit fora de ordem. Cada publicação com
+ * conteúdo diferente incrementa a versão. A recarga periódica
+ * ({@code twobank.parametros.recarga.intervalo}) alcança as alterações feitas fora desta instância da aplicação.
+ * Se houver mais de um parâmetro com o mesmo nome, vale o de menor ID.
+ */
+@ApplicationScoped
+public class CacheParametrosConfiguracao {
+
+    private static final Logger logger = Logger.getLogger(CacheParametrosConfiguracao.class.getName());
+
+    @Inject
+    ParametrosConfiguracaoRepository parametrosConfiguracaoRepository;
+
+    @Inject
+    TransactionSynchronizationRegistry registroSincronizacao;
+
+    private volatile Instantaneo instantaneo;
+
+    void iniciar(@Observes StartupEvent evento) {
+        try {
+            recarregar();
+        } catch (RuntimeException e) {
+            logger.log(Level.WARNING, "Falha ao carregar os parâmetros de configuração", e);
+        }
+    }
+
+    /**
+     * Relê a tabela de parâmetros e publica o resultado imediatamente.
+     */
+    @Scheduled(every = "{twobank.parametros.recarga.intervalo}", concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    @Transactional
+    void recarregar() {
+        carregarEPublicar();
+    }
+
+    /**
+     * Relê a tabela de parâmetros em uma nova transação após o commit da transação atual e publica o resultado.
+     * Fora de uma transação, a tabela é relida imediatamente.
+     */
+    void recarregarAposCommit() {
+        if (registroSincronizacao.getTransactionStatus() != Status.STATUS_ACTIVE) {
+            carregarEPublicar();
+            return;
+        }
+        registroSincronizacao.registerInterposedSynchronization(new Synchronization() {
+            @Override
+            public void beforeCompletion() {
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (status == Status.STATUS_COMMITTED) {
+                    try {
+                        emNovaTransacao(CacheParametrosConfiguracao.this::carregarEPublicar);
+                    } catch (RuntimeException e) {
+                        logger.log(Level.WARNING, "Falha ao recarregar os parâmetros de configuração após o commit", e);
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * Executa a operação em uma nova transação, suspendendo a atual, que já foi concluída.
+     */
+    void emNovaTransacao(Runnable operacao) {
+        QuarkusTransaction.run(QuarkusTransaction.runOptions().semantic(RunOptions.Semantic.REQUIRE_NEW), operacao);
+    }
+
+    /**
+     * Obtém o valor textual de um parâmetro.
+     *
+     * @param nomeParametro O nome do parâmetro.
+     * @return O valor do parâmetro.
+     * @throws ParametroConfiguracaoNaoEncontradoException Se o parâmetro não existir.
+     */
+    public String obterTexto(String nomeParametro) throws ParametroConfiguracaoNaoEncontradoException {
+        return obterValor(nomeParametro).texto;
+    }
+
+    /**
+     * Obtém o valor de um parâmetro como BigDecimal.
+     *
+     * @param nomeParametro O nome do parâmetro.
+     * @return O valor do parâmetro.
+     * @throws ParametroConfiguracaoNaoEncontradoException Se o parâmetro não existir ou não for um número decimal.
+     */
+    public BigDecimal obterBigDecimal(String nomeParametro) throws ParametroConfiguracaoNaoEncontradoException {
+        ValorParametro valor = obterValor(nomeParametro);
+        if (valor.decimal == null) {
+            throw new ParametroConfiguracaoNaoEncontradoException(
+                    "Erro ao converter '" + nomeParametro + "' para BigDecimal: " + valor.texto);
+        }
+        return valor.decimal;
+    }
+
+    /**
+     * Obtém o valor de um parâmetro como Long.
+     *
+     * @param nomeParametro O nome do parâmetro.
+     * @return O valor do parâmetro.
+     * @throws ParametroConfiguracaoNaoEncontradoException Se o parâmetro não existir ou não for um número inteiro.
+     */
+    public Long obterLong(String nomeParametro) throws ParametroConfiguracaoNaoEncontradoException {
+        ValorParametro valor = obterValor(nomeParametro);
+        if (valor.inteiro == null) {
+            throw new ParametroConfiguracaoNaoEncontradoException(
+                    "Erro ao converter '" + nomeParametro + "' para Long: " + valor.texto);
+        }
+        return valor.inteiro;
+    }
+
+    /**
+     * Obtém a versão do instantâneo publicado, incrementada a cada alteração no conteúdo dos parâmetros.
+     *
+     * @return A versão atual, ou 0 se os parâmetros ainda não foram carregados.
+     */
+    public long getVersao() {
+        Instantaneo atual = instantaneo;
+        return atual == null ? 0 : atual.versao;
+    }
+
+    private ValorParametro obterValor(String nomeParametro) throws ParametroConfiguracaoNaoEncontradoException {
+        Instantaneo atual = instantaneo;
+        if (atual == null) {
+            atual = carregarInicial();
+        }
+        ValorParametro valor = atual.valores.get(nomeParametro);
+        if (valor == null) {
+            throw new ParametroConfiguracaoNaoEncontradoException(
+                    "Parâmetro '" + nomeParametro + "' não encontrado na tabela ParametrosConfiguracao.");
+        }
+        return valor;
+    }
+
+    private synchronized Instantaneo carregarInicial() {
+        if (instantaneo == null) {
+            publicar(carregar());
+        }
+        return instantaneo;
+    }
+
+    /**
+     * Lê a tabela e publica o resultado sob o bloqueio da publicação, para que uma leitura mais antiga nunca seja
+     * publicada depois de uma mais recente.
+     */
+    private synchronized void carregarEPublicar() {
+        publicar(carregar());
+    }
+
+    private Map<String, ValorParametro> carregar() {
+        List<ParametrosConfiguracao> parametros = parametrosConfiguracaoRepository.listAll(Sort.by("parametroID"));
+        Map<String, ValorParametro> valores = new HashMap<>(parametros.size() * 2);
+        for (ParametrosConfiguracao parametro : parametros) {
+            if (parametro.getNomeParametro() != null && parametro.getValorParametro() != null) {
+                valores.putIfAbsent(parametro.getNomeParametro(), ValorParametro.de(parametro.getValorParametro()));
+            }
+        }
+        return valores;
+    }
+
+    private synchronized void publicar(Map<String, ValorParametro> valores) {
+        Instantaneo atual = instantaneo;
+        if (atual != null && atual.valores.equals(valores)) {
+            return;
+        }
+        long versao = atual == null ? 1 : atual.versao + 1;
+        instantaneo = new Instantaneo(Collections.unmodifiableMap(valores), versao);
+        logger.log(Level.FINE, "Parâmetros de configuração publicados: {0} (versão {1})",
+                new Object[]{valores.size(), versao});
+    }
+
+    /**
+     * Conjunto imutável dos parâmetros publicados, com a sua versão.
+     */
+    private static final class Instantaneo {
+
+        private final Map<String, ValorParametro> valores;
+        private final long versao;
+
+        private Instantaneo(Map<String, ValorParametro> valores, long versao) {
+            this.valores = valores;
+            this.versao = versao;
+        }
+    }
+
+    /**
+     * Valor de um parâmetro com as conversões já feitas; a conversão que não se aplica fica nula.
+     */
+    private static final class ValorParametro {
+
+        private final String texto;
+        private final BigDecimal decimal;
+        private final Long inteiro;
+
+        private ValorParametro(String texto, BigDecimal decimal, Long inteiro) {
+            this.texto = texto;
+            this.decimal = decimal;
+            this.inteiro = inteiro;
+        }
+
+        private static ValorParametro de(String texto) {
+            String normalizado = texto.trim();
+            BigDecimal decimal;
+            try {
+                decimal = new BigDecimal(normalizado);
+            } catch (NumberFormatException e) {
+                decimal = null;
+            }
+            Long inteiro;
+            try {
+                inteiro = Long.valueOf(normalizado);
+            } catch (NumberFormatException e) {
+                inteiro = null;
+            }
+            return new ValorParametro(texto, decimal, inteiro);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof ValorParametro && texto.equals(((ValorParametro) o).texto);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(texto);
+        }
+    }
+}
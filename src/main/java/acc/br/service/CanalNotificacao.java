@@ -0,0 +1,20 @@
+package acc.br.service;
+
+import acc.br.model.Notificacoes;
+
+/**
+ * Canal de entrega das notificações aos clientes (por exemplo, mensagem no Telegram ou e-mail).
+ * <p>
+ * Para trocar o canal, basta declarar outro bean que implemente esta interface; na ausência dele é usado
+ * {@link CanalNotificacaoLog}.
+ */
+public interface CanalNotificacao {
+
+    /**
+     * Entrega a notificação ao cliente.
+     *
+     * @param notificacao A notificação a ser entregue.
+     * @throws RuntimeException Se a entrega falhar; a notificação é gravada como não enviada.
+     */
+    void entregar(Notificacoes notificacao);
+}
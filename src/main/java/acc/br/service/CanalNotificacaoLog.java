@@ -0,0 +1,24 @@
+package acc.br.service;
+
+import acc.br.model.Notificacoes;
+import io.quarkus.arc.DefaultBean;
+
+import javax.enterprise.context.ApplicationScoped;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Canal de notificação padrão, que apenas registra a notificação no log da aplicação.
+ */
+@ApplicationScoped
+@DefaultBean
+public class CanalNotificacaoLog implements CanalNotificacao {
+
+    private static final Logger logger = Logger.getLogger(CanalNotificacaoLog.class.getName());
+
+    @Override
+    public void entregar(Notificacoes notificacao) {
+        logger.log(Level.INFO, "Notificação ao cliente {0,number,#}: {1}",
+                new Object[]{notificacao.getClienteID(), notificacao.getMensagemNotificacao()});
+    }
+}
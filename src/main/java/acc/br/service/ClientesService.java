@@ -5,26 +5,63 @@ import acc.br.repository.ClientesRepository;
 import acc.br.exception.CPF_invalido;
 import acc.br.exception.ClienteExistenteException;
 import acc.br.exception.ClienteNaoEncontradoException;
+import acc.br.util.CodificadorSenha;
+import acc.br.util.Monitorado;
+import acc.br.util.ValidadorCPF;
+import org.hibernate.exception.ConstraintViolationException;
+
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 import javax.persistence.EntityManager;
+import javax.persistence.PersistenceException;
 import javax.transaction.Transactional;
 
-import java.util.InputMismatchException;
+import java.sql.SQLException;
 import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 /**
  * Um serviço para operações relacionadas a clientes.
+ * <p>
+ * A unicidade do e-mail e do CPF é garantida pelas restrições únicas da tabela Clientes: a gravação é enviada ao banco
+ * de dados dentro do próprio método e a violação de uma das restrições é convertida em {@link ClienteExistenteException}.
+ * Com o {@link FiltroClientesExistentes} habilitado, os cadastros cujo e-mail ou CPF podem já existir são conferidos
+ * antes, com uma única consulta.
+ * <p>
+ * As senhas são gravadas codificadas pelo {@link ExecutorHashSenhas}. {@link #criarCliente} e {@link #atualizarCliente}
+ * sempre codificam a senha recebida, mesmo que ela tenha o formato de uma senha codificada. Os chamadores que já
+ * codificaram a senha no pool, fora da thread de trabalho, usam os métodos {@code ComSenhaCodificada}.
  */
 @ApplicationScoped
+@Monitorado
 public class ClientesService {
 
+    static final String MENSAGEM_EMAIL_EXISTENTE = "E-mail já está sendo usado por outro cliente.";
+    static final String MENSAGEM_CPF_EXISTENTE = "CPF já está sendo usado por outro cliente.";
+
+    private static final Logger logger = Logger.getLogger(ClientesService.class.getName());
+
+    // SQLSTATE padrão de violação de unicidade e o código de erro equivalente do MySQL
+    private static final String SQLSTATE_UNICIDADE = "23505";
+    private static final int ERRO_MYSQL_CHAVE_DUPLICADA = 1062;
+
     @Inject
     ClientesRepository clientesRepository;
     
     @Inject
     EntityManager entityManager;
 
+    @Inject
+    FiltroClientesExistentes filtroClientesExistentes;
+
+    @Inject
+    ExecutorHashSenhas executorHashSenhas;
+
     /**
      * Lista todos os clientes registrados.
      *
@@ -51,42 +88,85 @@ public class ClientesService {
     }
 
     /**
-     * Cria um novo cliente.
+     * Cria um novo cliente. O ID é atribuído pelo banco de dados, e a senha informada é codificada.
      *
-     * @param cliente O cliente a ser criado.
+     * @param cliente O cliente a ser criado, com a senha sem codificação.
      * @return O cliente criado com sucesso.
-     * @throws ClienteExistenteException Se um cliente com o mesmo ID já existir.
+     * @throws ClienteExistenteException Se um cliente com o mesmo CPF ou e-mail já existir.
      */
     @Transactional
     public Clientes criarCliente(Clientes cliente) {
-        if (cliente.getClienteID() != null && clientesRepository.findById(cliente.getClienteID()) != null) {
-            throw new ClienteExistenteException("Cliente já existe com ID: " + cliente.getClienteID());
-        }
-        validarCliente(cliente); 
-        Clientes clienteGerenciado = entityManager.merge(cliente); // Mescla a entidade no contexto de persistência
-        entityManager.persist(clienteGerenciado); // Persiste a entidade
-        return cliente;
+        return criar(cliente, true);
+    }
+
+    /**
+     * Cria um novo cliente cuja senha já foi codificada pelo {@link ExecutorHashSenhas}.
+     *
+     * @param cliente O cliente a ser criado, com a senha codificada.
+     * @return O cliente criado com sucesso.
+     * @throws ClienteExistenteException Se um cliente com o mesmo CPF ou e-mail já existir.
+     * @throws IllegalStateException     Se a senha não estiver codificada.
+     */
+    @Transactional
+    public Clientes criarClienteComSenhaCodificada(Clientes cliente) {
+        exigirSenhaCodificada(cliente);
+        return criar(cliente, false);
     }
 
     /**
-     * Atualiza um cliente existente.
+     * Atualiza um cliente existente. A senha informada é codificada.
      *
      * @param clienteID O ID do cliente a ser atualizado.
-     * @param cliente   Os novos dados do cliente.
+     * @param cliente   Os novos dados do cliente, com a senha sem codificação.
      * @return O cliente atualizado com sucesso.
      * @throws ClienteNaoEncontradoException Se o cliente não for encontrado.
+     * @throws ClienteExistenteException     Se outro cliente com o mesmo CPF ou e-mail já existir.
      */
     @Transactional
     public Clientes atualizarCliente(Long clienteID, Clientes cliente) {
+        return atualizar(clienteID, cliente, true);
+    }
+
+    /**
+     * Atualiza um cliente existente com a senha já codificada pelo {@link ExecutorHashSenhas}.
+     *
+     * @param clienteID O ID do cliente a ser atualizado.
+     * @param cliente   Os novos dados do cliente, com a senha codificada.
+     * @return O cliente atualizado com sucesso.
+     * @throws ClienteNaoEncontradoException Se o cliente não for encontrado.
+     * @throws ClienteExistenteException     Se outro cliente com o mesmo CPF ou e-mail já existir.
+     * @throws IllegalStateException         Se a senha não estiver codificada.
+     */
+    @Transactional
+    public Clientes atualizarClienteComSenhaCodificada(Long clienteID, Clientes cliente) {
+        exigirSenhaCodificada(cliente);
+        return atualizar(clienteID, cliente, false);
+    }
+
+    private Clientes criar(Clientes cliente, boolean codificarSenha) {
+        cliente.setClienteID(null);
+        validarCliente(cliente);
+        if (codificarSenha) {
+            cliente.setSenha(executorHashSenhas.codificarAguardando(cliente.getSenha()));
+        }
+        clientesRepository.persist(cliente);
+        gravar(cliente);
+        return cliente;
+    }
+
+    private Clientes atualizar(Long clienteID, Clientes cliente, boolean codificarSenha) {
         Clientes clienteExistente = clientesRepository.findById(clienteID);
         if (clienteExistente == null) {
             throw new ClienteNaoEncontradoException("Cliente não encontrado com ID: " + clienteID);
         }
-        validarCliente(cliente);
         cliente.setClienteID(clienteID);
-        
-        Clientes clienteGerenciado = entityManager.merge(cliente); // Mescla a entidade no contexto de persistência
-        entityManager.persist(clienteGerenciado); // Persiste a entidade
+        validarCliente(cliente);
+        if (codificarSenha) {
+            cliente.setSenha(executorHashSenhas.codificarAguardando(cliente.getSenha()));
+        }
+
+        entityManager.merge(cliente); // Copia os novos dados para o cliente já carregado no contexto de persistência
+        gravar(cliente);
         return cliente;
     }
 
@@ -106,109 +186,162 @@ public class ClientesService {
     }
 
     /**
-     * Valida um cliente.
+     * Autentica um cliente pelo e-mail e pela senha. A verificação executa no pool do {@link ExecutorHashSenhas}; se a
+     * senha armazenada estiver sem codificação ou tiver sido codificada com parâmetros anteriores, ela é recodificada
+     * com os parâmetros atuais e gravada. Uma falha na recodificação não impede a autenticação.
      *
-     * @param cliente O cliente a ser validado.
-     * @throws IllegalArgumentException         Se o cliente for inválido.
-     * @throws ClienteExistenteException         Se um cliente com o mesmo CPF ou e-mail já existir.
-     * @throws ClienteNaoEncontradoException     Se o cliente não estiver ativo ou não existir.
+     * @param email O e-mail do cliente.
+     * @param senha A senha informada.
+     * @return O cliente, se o e-mail e a senha conferem, ou vazio; falha com
+     *         {@link java.util.concurrent.RejectedExecutionException} se o pool de senhas estiver sobrecarregado.
      */
-    public void validarCliente(Clientes cliente) {
-        // if (cliente == null || cliente.getClienteID() == null) {
-        //     throw new IllegalArgumentException("Cliente inválido.");
-        // }
-
-        // // Verifica se o cliente existe na base de dados
-        // Clientes clienteExistente = clientesRepository.findById(cliente.getClienteID());
-        // if (clienteExistente == null || !clienteExistente.isAtivo()) {
-        //     throw new ClienteNaoEncontradoException("Cliente não encontrado ou não está ativo.");
-        // }
-
-        // Verifica se o e-mail é único
-        if (clientesRepository.count("email = ?1 and clienteID != ?2", cliente.getEmail(), cliente.getClienteID()) > 0) {
-            throw new ClienteExistenteException("E-mail já está sendo usado por outro cliente.");
+    public CompletionStage<Optional<Clientes>> autenticar(String email, String senha) {
+        Clientes cliente = email == null ? null : clientesRepository.buscarPorEmail(email).orElse(null);
+        if (cliente == null) {
+            // Verificação de mesmo custo, para que o tempo de resposta não revele se o e-mail está cadastrado
+            return executorHashSenhas.verificarSemCliente(senha).thenApply(confere -> Optional.empty());
         }
+        String armazenada = cliente.getSenha();
+        return executorHashSenhas.verificar(senha, armazenada).thenCompose(confere -> {
+            if (!confere) {
+                return CompletableFuture.completedFuture(Optional.<Clientes>empty());
+            }
+            if (!executorHashSenhas.precisaRecodificar(armazenada)) {
+                return CompletableFuture.completedFuture(Optional.of(cliente));
+            }
+            return executorHashSenhas.recodificar(senha).handle((nova, erro) -> {
+                if (erro == null) {
+                    try {
+                        recodificarSenha(cliente.getClienteID(), armazenada, nova);
+                        cliente.setSenha(nova);
+                    } catch (RuntimeException e) {
+                        erro = e;
+                    }
+                }
+                if (erro != null) {
+                    logger.log(Level.WARNING, "Senha do cliente " + cliente.getClienteID() + " não recodificada", erro);
+                }
+                return Optional.of(cliente);
+            });
+        });
+    }
 
-        // Verifica se o CPF é único
-        if (clientesRepository.count("cpf = ?1 and clienteID != ?2", cliente.getCpf(), cliente.getClienteID()) > 0) {
-            throw new ClienteExistenteException("CPF já está sendo usado por outro cliente.");
-        }
+    /**
+     * Grava a senha recodificada, desde que a senha armazenada não tenha sido alterada desde a autenticação.
+     *
+     * @param clienteID O ID do cliente.
+     * @param anterior  A senha armazenada que foi verificada.
+     * @param nova      A senha recodificada.
+     */
+    @Transactional
+    void recodificarSenha(Long clienteID, String anterior, String nova) {
+        clientesRepository.atualizarSenha(clienteID, anterior, nova);
+    }
 
+    /**
+     * Valida um cliente. A duplicidade de e-mail e CPF é conferida aqui somente quando o
+     * {@link FiltroClientesExistentes} indica que ela é possível; nos demais casos, as restrições únicas a detectam
+     * na gravação.
+     *
+     * @param cliente O cliente a ser validado.
+     * @throws CPF_invalido              Se o CPF for inválido.
+     * @throws ClienteExistenteException Se outro cliente com o mesmo CPF ou e-mail já existir.
+     */
+    public void validarCliente(Clientes cliente) {
         // Verifica se CPF digitado tem digitas válidos
         if (!isCPFValid(cliente.getCpf())) {
             throw new CPF_invalido("CPF inválido! Digite novamente");
         }
-        
-    }
-    public void verificaExistenciaCliente(Clientes cliente) {
 
-        // Verifica se o cliente existe na base de dados
-        Clientes clienteExistente = clientesRepository.findById(cliente.getClienteID());
-        if (clienteExistente == null || !clienteExistente.isAtivo()) {
-            throw new ClienteNaoEncontradoException("Cliente não encontrado ou não está ativo.");
+        if (filtroClientesExistentes.isHabilitado() && filtroClientesExistentes.talvezExista(cliente.getEmail(), cliente.getCpf())) {
+            Object[] conflito = clientesRepository.buscarConflito(cliente.getEmail(), cliente.getCpf(), cliente.getClienteID())
+                    .orElse(null);
+            if (conflito != null) {
+                throw cliente.getEmail() != null && cliente.getEmail().equalsIgnoreCase((String) conflito[0])
+                        ? new ClienteExistenteException(MENSAGEM_EMAIL_EXISTENTE)
+                        : new ClienteExistenteException(MENSAGEM_CPF_EXISTENTE);
+            }
         }
     }
 
-    public static boolean isCPFValid(String cpf) {
-        // Check if the CPF is 11 digits long
-        if (cpf.equals("00000000000") ||
-            cpf.equals("11111111111") ||
-            cpf.equals("22222222222") || cpf.equals("33333333333") ||
-            cpf.equals("44444444444") || cpf.equals("55555555555") ||
-            cpf.equals("66666666666") || cpf.equals("77777777777") ||
-            cpf.equals("88888888888") || cpf.equals("99999999999") ||
-            (cpf.length() != 11)) {
-          return false;
+    /**
+     * Converte a violação de uma das restrições únicas de Clientes em {@link ClienteExistenteException}.
+     *
+     * @param erro O erro da gravação.
+     * @return A exceção correspondente, ou null se o erro não for uma violação de unicidade.
+     */
+    static ClienteExistenteException traduzirViolacaoUnicidade(PersistenceException erro) {
+        for (Throwable causa = erro; causa != null; causa = causa.getCause()) {
+            if (causa instanceof ConstraintViolationException) {
+                ConstraintViolationException violacao = (ConstraintViolationException) causa;
+                String restricao = violacao.getConstraintName() == null ? "" : violacao.getConstraintName().toUpperCase(Locale.ROOT);
+                if (restricao.contains(Clientes.RESTRICAO_EMAIL.toUpperCase(Locale.ROOT))) {
+                    return new ClienteExistenteException(MENSAGEM_EMAIL_EXISTENTE);
+                }
+                if (restricao.contains(Clientes.RESTRICAO_CPF.toUpperCase(Locale.ROOT))) {
+                    return new ClienteExistenteException(MENSAGEM_CPF_EXISTENTE);
+                }
+                // Restrição com outro nome, como as criadas antes da nomeação: basta saber que é de unicidade
+                SQLException sql = violacao.getSQLException();
+                if (sql != null && (SQLSTATE_UNICIDADE.equals(sql.getSQLState()) || sql.getErrorCode() == ERRO_MYSQL_CHAVE_DUPLICADA)) {
+                    return new ClienteExistenteException("CPF ou e-mail já está sendo usado por outro cliente.");
+                }
+                return null;
+            }
         }
-       char dig10, dig11;
-        int sm, i, r, num, peso;
+        return null;
+    }
 
-        // "try" - protege o codigo para eventuais erros de conversao de tipo (int)
+    /**
+     * Envia a gravação ao banco de dados, para que a violação de unicidade seja detectada e convertida aqui, e
+     * registra o e-mail e o CPF no filtro de clientes existentes.
+     */
+    private void gravar(Clientes cliente) {
         try {
-        // Calculo do 1o. Digito Verificador
-            sm = 0;
-            peso = 10;
-            for (i=0; i<9; i++) {
-        // converte o i-esimo caractere do CPF em um numero:
-        // por exemplo, transforma o caractere '0' no inteiro 0
-        // (48 eh a posicao de '0' na tabela ASCII)
-            num = (int)(cpf.charAt(i) - 48);
-            sm = sm + (num * peso);
-            peso = peso - 1;
-            }
-
-            r = 11 - (sm % 11);
-            if ((r == 10) || (r == 11))
-                dig10 = '0';
-            else dig10 = (char)(r + 48); // converte no respectivo caractere numerico
-
-        // Calculo do 2o. Digito Verificador
-            sm = 0;
-            peso = 11;
-            for(i=0; i<10; i++) {
-            num = (int)(cpf.charAt(i) - 48);
-            sm = sm + (num * peso);
-            peso = peso - 1;
+            entityManager.flush();
+        } catch (PersistenceException e) {
+            ClienteExistenteException existente = traduzirViolacaoUnicidade(e);
+            if (existente != null) {
+                throw existente;
             }
+            throw e;
+        }
+        filtroClientesExistentes.registrar(cliente.getEmail(), cliente.getCpf());
+    }
 
-            r = 11 - (sm % 11);
-            if ((r == 10) || (r == 11))
-                 dig11 = '0';
-            else dig11 = (char)(r + 48);
-
-        // Verifica se os digitos calculados conferem com os digitos informados.
-            if ((dig10 == cpf.charAt(9)) && (dig11 == cpf.charAt(10)))
-                 return(true);
-            else return(false);
-                } catch (InputMismatchException erro) {
-                return(false);
-            }
+    private static void exigirSenhaCodificada(Clientes cliente) {
+        if (!CodificadorSenha.isCodificada(cliente.getSenha())) {
+            throw new IllegalStateException("A senha do cliente deveria estar codificada.");
         }
+    }
+
+    public void verificaExistenciaCliente(Clientes cliente) {
 
-        public static String imprimeCPF(String cpf) {
-            return(cpf.substring(0, 3) + "." + cpf.substring(3, 6) + "." +
-            cpf.substring(6, 9) + "-" + cpf.substring(9, 11));
+        // Verifica se o cliente existe na base de dados
+        Clientes clienteExistente = clientesRepository.findById(cliente.getClienteID());
+        if (clienteExistente == null || !clienteExistente.isAtivo()) {
+            throw new ClienteNaoEncontradoException("Cliente não encontrado ou não está ativo.");
         }
+    }
 
-}
+    /**
+     * Verifica se um CPF sem formatação é válido.
+     *
+     * @param cpf O CPF com 11 dígitos.
+     * @return true se o CPF for válido.
+     * @see ValidadorCPF
+     */
+    public static boolean isCPFValid(String cpf) {
+        return ValidadorCPF.isValido(cpf);
+    }
 
+    /**
+     * Formata um CPF sem formatação.
+     *
+     * @param cpf O CPF com 11 dígitos.
+     * @return O CPF no formato 000.000.000-00.
+     */
+    public static String imprimeCPF(String cpf) {
+        return ValidadorCPF.formatar(cpf);
+    }
+}
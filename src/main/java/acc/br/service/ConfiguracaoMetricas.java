@@ -0,0 +1,60 @@
+package acc.br.service;
+
+import acc.br.util.Monitorado;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import javax.enterprise.inject.Produces;
+import javax.inject.Singleton;
+import java.util.List;
+
+/**
+ * Configuração da distribuição dos temporizadores publicados em /q/metrics.
+ * <p>
+ * As requisições HTTP publicam os percentis e também os buckets do histograma, que permitem agregar percentis
+ * entre instâncias no Prometheus. Os métodos dos serviços publicam apenas os percentis, calculados na aplicação,
+ * para não multiplicar o número de séries por método.
+ */
+@Singleton
+public class ConfiguracaoMetricas {
+
+    /**
+     * Nome dos temporizadores das requisições HTTP, um por endpoint, publicados pela extensão do Micrometer.
+     */
+    public static final String REQUISICOES_HTTP = "http.server.requests";
+
+    /**
+     * Nome dos temporizadores dos métodos dos beans {@link Monitorado}.
+     */
+    public static final String METODOS = "twobank.metodos";
+
+    @ConfigProperty(name = "twobank.metricas.percentis", defaultValue = "0.5,0.95,0.99")
+    List<Double> percentis;
+
+    @Produces
+    @Singleton
+    public MeterFilter configurarDistribuicoes() {
+        double[] valores = percentis.stream().mapToDouble(Double::doubleValue).toArray();
+        return new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                if (id.getName().startsWith(REQUISICOES_HTTP)) {
+                    return DistributionStatisticConfig.builder()
+                            .percentiles(valores)
+                            .percentilesHistogram(true)
+                            .build()
+                            .merge(config);
+                }
+                if (id.getName().startsWith(METODOS)) {
+                    return DistributionStatisticConfig.builder()
+                            .percentiles(valores)
+                            .build()
+                            .merge(config);
+                }
+                return config;
+            }
+        };
+    }
+}
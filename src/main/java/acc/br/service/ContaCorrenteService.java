@@ -1,5 +1,6 @@
 package acc.br.service;
 
+import java.math.BigDecimal;
 import java.util.List;
 
 import javax.enterprise.context.ApplicationScoped;
@@ -13,12 +14,14 @@ import acc.br.exception.ContaExistenteException;
 import acc.br.exception.ContaNaoEncontradaException;
 import acc.br.model.ContaCorrente;
 import acc.br.repository.ContaCorrenteRepository;
+import acc.br.util.Monitorado;
 import acc.br.util.TipoConta;
 
 /**
  * Serviço para operações relacionadas a contas correntes bancárias.
  */
 @ApplicationScoped 
+@Monitorado
 public class ContaCorrenteService{
     
     @Inject
@@ -40,6 +43,7 @@ public class ContaCorrenteService{
             throw new ContaExistenteException("Conta corrente já existe com ID: " + contaCorrente.getcontaCorrenteID());
         }
         contaCorrente.setTipoConta(TipoConta.CONTA_CORRENTE.toString());
+        contaCorrente.setLimiteCreditoUtilizado(BigDecimal.ZERO); // Uma conta nova ainda não usou o limite de crédito
         
         ContaCorrente contasGerenciada = entityManager.merge(contaCorrente); // Mescla a entidade no contexto de persistência
         entityManager.persist(contasGerenciada); // Persiste a entidade
@@ -62,6 +66,8 @@ public class ContaCorrenteService{
             throw new ContaCorrenteNaoEncontradaException("Conta corrente não encontrada com ID: " + contaID);
         }
         
+        contaCorrente.setVersao(contaCorrenteExistente.getVersao()); // A edição cadastral não participa do controle de concorrência dos saldos
+        contaCorrente.setLimiteCreditoUtilizado(contaCorrenteExistente.getLimiteCreditoUtilizado()); // Alterado apenas pelos débitos
         contaCorrente.setTipoConta(TipoConta.CONTA_CORRENTE.toString());
 
         ContaCorrente contasGerenciada = entityManager.merge(contaCorrente); // Mescla a entidade no contexto de persistência
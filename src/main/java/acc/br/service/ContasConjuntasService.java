@@ -2,6 +2,7 @@ package acc.br.service;
 
 import acc.br.model.ContasConjuntas;
 import acc.br.repository.ContasConjuntasRepository;
+import acc.br.util.Monitorado;
 import acc.br.util.TipoConta;
 import acc.br.exception.ContaConjuntaExistenteException;
 import acc.br.exception.ContaConjuntaNaoEncontradaException;
@@ -22,6 +23,7 @@ import java.util.List;
  * Serviço para operações relacionadas a contas conjuntas bancárias.
  */
 @ApplicationScoped
+@Monitorado
 public class ContasConjuntasService {
 
     @Inject
@@ -87,6 +89,7 @@ public class ContasConjuntasService {
         
         validarContaConjunta(contaConjunta);
 
+        contaConjunta.setVersao(contaConjuntaExistente.getVersao()); // A edição cadastral não participa do controle de concorrência dos saldos
         contaConjunta.setTipoConta(TipoConta.CONTA_CONJUNTA.toString());
         
         ContasConjuntas contasGerenciada = entityManager.merge(contaConjunta); // Mescla a entidade no contexto de persistência
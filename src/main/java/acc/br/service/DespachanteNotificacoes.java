@@ -0,0 +1,182 @@
+package acc.br.service;
+
+import acc.br.model.Notificacoes;
+import acc.br.model.NotificacoesPendentes;
+import acc.br.model.Transacoes;
+import acc.br.repository.NotificacoesPendentesRepository;
+import acc.br.repository.NotificacoesRepository;
+import acc.br.util.Monitorado;
+import acc.br.util.TipoConta;
+import io.quarkus.scheduler.Scheduled;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+import javax.transaction.Transactional;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Notificações das operações dos clientes, gravadas em uma outbox transacional.
+ * <p>
+ * Saques, depósitos e transferências gravam uma linha em NotificacoesPendentes na mesma transação da operação, o que
+ * custa à requisição uma única inserção; a importação em lote e o rendimento da poupança gravam as linhas de cada bloco
+ * com um único lote JDBC. Periodicamente ({@code twobank.notificacoes.despacho.intervalo}) as linhas
+ * pendentes são lidas em lotes de {@code twobank.notificacoes.despacho.tamanho-lote}, gravadas em Notificacoes,
+ * entregues pelo {@link CanalNotificacao} e removidas, cada lote em uma transação própria. Se a transação do lote
+ * falhar após a entrega, o lote é despachado de novo na próxima execução: a entrega é feita ao menos uma vez.
+ */
+@ApplicationScoped
+@Monitorado
+public class DespachanteNotificacoes {
+
+    private static final Logger logger = Logger.getLogger(DespachanteNotificacoes.class.getName());
+
+    @Inject
+    NotificacoesPendentesRepository notificacoesPendentesRepository;
+
+    @Inject
+    NotificacoesRepository notificacoesRepository;
+
+    @Inject
+    CanalNotificacao canalNotificacao;
+
+    @ConfigProperty(name = "twobank.notificacoes.despacho.tamanho-lote", defaultValue = "500")
+    int tamanhoLote;
+
+    /**
+     * Grava a notificação de uma transação na transação corrente, para despacho posterior.
+     *
+     * @param clienteID O ID do cliente a ser notificado, ou null se a conta não foi lida (o cliente é obtido no despacho).
+     * @param transacao A transação realizada.
+     */
+    public void registrar(Long clienteID, Transacoes transacao) {
+        notificacoesPendentesRepository.persist(criarPendente(clienteID, transacao, LocalDateTime.now()));
+    }
+
+    /**
+     * Grava as notificações de um bloco de transações na transação corrente, com um único lote JDBC, para despacho
+     * posterior.
+     *
+     * @param clientesIDs Os IDs dos clientes a serem notificados, na ordem das transações.
+     * @param transacoes  As transações realizadas.
+     */
+    public void registrar(List<Long> clientesIDs, List<Transacoes> transacoes) {
+        LocalDateTime agora = LocalDateTime.now();
+        List<NotificacoesPendentes> pendentes = new ArrayList<>(transacoes.size());
+        for (int i = 0; i < transacoes.size(); i++) {
+            pendentes.add(criarPendente(clientesIDs.get(i), transacoes.get(i), agora));
+        }
+        notificacoesPendentesRepository.inserir(pendentes);
+    }
+
+    /**
+     * Despacha as notificações pendentes, lote a lote, até esvaziar a outbox.
+     */
+    @Scheduled(every = "{twobank.notificacoes.despacho.intervalo}", concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void despachar() {
+        long despachadas = 0;
+        int lote;
+        do {
+            lote = despacharLote();
+            despachadas += lote;
+        } while (lote == tamanhoLote);
+        if (despachadas > 0) {
+            logger.log(Level.FINE, "Notificações despachadas: {0,number,#}", despachadas);
+        }
+    }
+
+    /**
+     * Despacha um lote de notificações pendentes em uma transação própria.
+     *
+     * @return A quantidade de notificações despachadas.
+     */
+    @Transactional(Transactional.TxType.REQUIRES_NEW)
+    int despacharLote() {
+        List<NotificacoesPendentes> pendentes = notificacoesPendentesRepository.buscarLote(tamanhoLote);
+        if (pendentes.isEmpty()) {
+            return 0;
+        }
+        Map<TipoConta, Map<Long, Long>> clientesPorConta = buscarClientes(pendentes);
+
+        LocalDateTime agora = LocalDateTime.now();
+        List<Notificacoes> notificacoes = new ArrayList<>(pendentes.size());
+        List<Long> ids = new ArrayList<>(pendentes.size());
+        for (NotificacoesPendentes pendente : pendentes) {
+            ids.add(pendente.getNotificacaoPendenteID());
+            Long clienteID = pendente.getClienteID() != null
+                    ? pendente.getClienteID()
+                    : clientesPorConta.get(pendente.getTipoConta()).get(pendente.getContaID());
+            if (clienteID == null) {
+                // Conta removida antes do despacho: não há cliente a notificar
+                continue;
+            }
+            Notificacoes notificacao = new Notificacoes();
+            notificacao.setClienteID(clienteID);
+            notificacao.setDataHoraNotificacao(agora);
+            notificacao.setMensagemNotificacao(mensagem(clienteID, pendente));
+            notificacao.setEnviada(entregar(notificacao) ? 1 : 0);
+            notificacoes.add(notificacao);
+        }
+        notificacoesRepository.persist(notificacoes);
+        notificacoesPendentesRepository.remover(ids);
+        return pendentes.size();
+    }
+
+    /**
+     * Monta o texto da notificação de uma transação.
+     *
+     * @param clienteID O ID do cliente notificado.
+     * @param pendente  A notificação pendente.
+     * @return A mensagem da notificação.
+     */
+    static String mensagem(Long clienteID, NotificacoesPendentes pendente) {
+        return "O Cliente: " + clienteID + " realizou um Tipo de Transação: " + pendente.getTipoTransacao()
+                + " na data e hora: " + pendente.getDataHoraTransacao() + " no valor de: R$ " + pendente.getValor();
+    }
+
+    private static NotificacoesPendentes criarPendente(Long clienteID, Transacoes transacao, LocalDateTime agora) {
+        NotificacoesPendentes pendente = new NotificacoesPendentes();
+        pendente.setClienteID(clienteID);
+        pendente.setTipoConta(transacao.getTipoConta());
+        pendente.setContaID(transacao.getContaID());
+        pendente.setTipoTransacao(transacao.getTipoTransacao());
+        pendente.setValor(transacao.getValor());
+        pendente.setDataHoraTransacao(transacao.getDataHoraTransacao());
+        pendente.setDataCriacao(agora);
+        return pendente;
+    }
+
+    /**
+     * Obtém o cliente das contas das notificações gravadas sem ele, com uma consulta por tipo de conta.
+     */
+    private Map<TipoConta, Map<Long, Long>> buscarClientes(List<NotificacoesPendentes> pendentes) {
+        Map<TipoConta, Set<Long>> contasSemCliente = new EnumMap<>(TipoConta.class);
+        for (NotificacoesPendentes pendente : pendentes) {
+            if (pendente.getClienteID() == null) {
+                contasSemCliente.computeIfAbsent(pendente.getTipoConta(), tipo -> new HashSet<>()).add(pendente.getContaID());
+            }
+        }
+        Map<TipoConta, Map<Long, Long>> clientesPorConta = new EnumMap<>(TipoConta.class);
+        contasSemCliente.forEach((tipoConta, contaIDs) ->
+                clientesPorConta.put(tipoConta, notificacoesPendentesRepository.buscarClientes(tipoConta, contaIDs)));
+        return clientesPorConta;
+    }
+
+    private boolean entregar(Notificacoes notificacao) {
+        try {
+            canalNotificacao.entregar(notificacao);
+            return true;
+        } catch (RuntimeException e) {
+            logger.log(Level.WARNING, "Falha na entrega da notificação ao cliente " + notificacao.getClienteID(), e);
+            return false;
+        }
+    }
+}
@@ -7,19 +7,20 @@ import acc.br.model.Clientes;
 import acc.br.model.Emprestimos;
 import acc.br.repository.ClientesRepository;
 import acc.br.repository.EmprestimosRepository;
+import acc.br.util.Monitorado;
 
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 import javax.persistence.EntityManager;
 import javax.transaction.Transactional;
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.util.List;
 
 /**
  * Serviço para gerenciar empréstimos em um sistema bancário.
  */
 @ApplicationScoped
+@Monitorado
 public class EmprestimosService {
 
     @Inject
@@ -31,9 +32,12 @@ public class EmprestimosService {
     @Inject
     ClientesRepository clientesRepository;
 
+    @Inject
+    MotorAmortizacao motorAmortizacao;
+
 
     /**
-     * Cria um novo empréstimo no sistema.
+     * Cria um novo empréstimo no sistema. O valor das parcelas é calculado pela Tabela Price, como na atualização.
      *
      * @param emprestimo O empréstimo a ser criado.
      * @return O empréstimo criado.
@@ -51,6 +55,7 @@ public class EmprestimosService {
         if (!emprestimosExistente.isEmpty()) {
             throw new EmprestimoExistenteException("Empréstimo já existente para este cliente com o mesmo status");
         }
+        emprestimo.setValorParcelas(calcularValorParcelas(emprestimo));
         Emprestimos emprestimoGerenciado = entityManager.merge(emprestimo); // Mescla a entidade no contexto de persistÃªncia
         entityManager.persist(emprestimoGerenciado); // Persiste a entidade
         return emprestimo;
@@ -80,12 +85,9 @@ public class EmprestimosService {
             throw new ClienteNaoEncontradoException("Cliente no encontrado com ID: " + emprestimo.getClienteID());
         }
 
-        // Calcular o novo valor das parcelas com base na taxa de juros mensal
-        BigDecimal taxaJurosMensal = emprestimoExistente.getTaxaJuros().divide(BigDecimal.valueOf(100), 5, RoundingMode.HALF_UP).divide(BigDecimal.valueOf(12), 5, RoundingMode.HALF_UP);
-        int prazoMeses = emprestimoExistente.getPrazoMeses();
+        // Calcular o novo valor das parcelas com o valor, a taxa e o prazo atualizados
         BigDecimal valorEmprestimo = emprestimo.getValorEmprestimo();
-        
-        BigDecimal valorParcelas = calcularValorParcelas(valorEmprestimo, taxaJurosMensal, prazoMeses);
+        BigDecimal valorParcelas = calcularValorParcelas(emprestimo);
 
         // Atualizar os campos do empréstimo existente
         emprestimoExistente.setValorEmprestimo(valorEmprestimo);
@@ -102,6 +104,7 @@ public class EmprestimosService {
 
     /**
      * Calcula o valor das parcelas de um empréstimo com base no valor do empréstimo, na taxa de juros mensal e no prazo em meses.
+     * O fator (1 + i)^n vem do cache do {@link MotorAmortizacao}, que também gera a tabela de amortização completa.
      *
      * @param valorEmprestimo    O valor total do empréstimo.
      * @param taxaJurosMensal    A taxa de juros mensal (em formato decimal, por exemplo, 0.05 para 5%).
@@ -109,8 +112,19 @@ public class EmprestimosService {
      * @return O valor das parcelas mensais do empréstimo.
      */
     public BigDecimal calcularValorParcelas(BigDecimal valorEmprestimo, BigDecimal taxaJurosMensal, int prazoMeses) {
-        BigDecimal umMaisTaxaJurosMensalElevadoPrazo = BigDecimal.ONE.add(taxaJurosMensal).pow(prazoMeses);
-        return valorEmprestimo.multiply(taxaJurosMensal).multiply(umMaisTaxaJurosMensalElevadoPrazo).divide(umMaisTaxaJurosMensalElevadoPrazo.subtract(BigDecimal.ONE), 2, RoundingMode.HALF_UP);
+        return motorAmortizacao.valorParcelaPrice(valorEmprestimo, taxaJurosMensal, prazoMeses);
+    }
+
+    /**
+     * Calcula o valor das parcelas de um empréstimo pela Tabela Price, com a taxa mensal convertida por
+     * {@link MotorAmortizacao#taxaMensal}, de modo que o valor gravado é o mesmo da tabela de amortização do empréstimo.
+     *
+     * @param emprestimo O empréstimo, com o valor, a taxa de juros anual e o prazo.
+     * @return O valor das parcelas mensais do empréstimo.
+     */
+    private BigDecimal calcularValorParcelas(Emprestimos emprestimo) {
+        return calcularValorParcelas(emprestimo.getValorEmprestimo(), MotorAmortizacao.taxaMensal(emprestimo.getTaxaJuros()),
+                emprestimo.getPrazoMeses());
     }
 
 
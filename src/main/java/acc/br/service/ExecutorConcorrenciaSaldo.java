@@ -0,0 +1,106 @@
+package acc.br.service;
+
+import acc.br.exception.ConcorrenciaSaldoException;
+import acc.br.util.Monitorado;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.hibernate.StaleStateException;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.persistence.OptimisticLockException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Executa operações de alteração de saldo repetindo-as quando falham por conflito de versão (controle otimista).
+ * <p>
+ * Cada tentativa deve abrir a sua própria transação, por isso este executor deve ser chamado fora de qualquer
+ * contexto transacional, envolvendo a chamada ao método {@code @Transactional} do serviço.
+ */
+@ApplicationScoped
+@Monitorado
+public class ExecutorConcorrenciaSaldo {
+
+    private static final Logger logger = Logger.getLogger(ExecutorConcorrenciaSaldo.class.getName());
+
+    @ConfigProperty(name = "twobank.saldo.concorrencia.max-tentativas", defaultValue = "3")
+    int maxTentativas;
+
+    @ConfigProperty(name = "twobank.saldo.concorrencia.espera-base-ms", defaultValue = "5")
+    long esperaBaseMs;
+
+    /**
+     * Executa a operação, repetindo-a em caso de conflito de versão.
+     *
+     * @param operacao A operação a ser executada em uma nova transação a cada tentativa.
+     * @throws ConcorrenciaSaldoException Se a operação continuar em conflito após o número máximo de tentativas.
+     */
+    public void executar(Runnable operacao) {
+        executar(() -> {
+            operacao.run();
+            return null;
+        });
+    }
+
+    /**
+     * Executa a operação, repetindo-a em caso de conflito de versão.
+     *
+     * @param operacao A operação a ser executada em uma nova transação a cada tentativa.
+     * @param <T>      O tipo do resultado da operação.
+     * @return O resultado da operação.
+     * @throws ConcorrenciaSaldoException Se a operação continuar em conflito após o número máximo de tentativas.
+     */
+    public <T> T executar(Supplier<T> operacao) {
+        for (int tentativa = 1; ; tentativa++) {
+            try {
+                return operacao.get();
+            } catch (RuntimeException e) {
+                if (!isConflitoDeVersao(e)) {
+                    throw e;
+                }
+                if (tentativa >= maxTentativas) {
+                    logger.log(Level.WARNING, "Conflito de concorrência no saldo após " + tentativa + " tentativas", e);
+                    throw new ConcorrenciaSaldoException("A conta foi alterada por outra operação. Tente novamente.", e);
+                }
+                aguardar(tentativa);
+            }
+        }
+    }
+
+    /**
+     * Verifica se a exceção, ou alguma de suas causas, representa um conflito de versão.
+     *
+     * @param e A exceção lançada pela operação.
+     * @return true se a falha foi causada por um conflito de versão.
+     */
+    static boolean isConflitoDeVersao(Throwable e) {
+        for (Throwable causa = e; causa != null; causa = causa.getCause()) {
+            if (causa instanceof OptimisticLockException || causa instanceof StaleStateException) {
+                return true;
+            }
+            // Falhas no commit chegam como RollbackException, com a causa original registrada como suprimida
+            for (Throwable suprimida : causa.getSuppressed()) {
+                if (isConflitoDeVersao(suprimida)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Aguarda um intervalo aleatório e crescente antes da próxima tentativa, para dispersar as operações em conflito.
+     *
+     * @param tentativa O número da tentativa que falhou.
+     */
+    private void aguardar(int tentativa) {
+        long limite = esperaBaseMs << Math.min(tentativa - 1, 6);
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(limite + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConcorrenciaSaldoException("Operação interrompida durante a espera por nova tentativa.", e);
+        }
+    }
+}
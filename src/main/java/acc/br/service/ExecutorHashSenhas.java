@@ -0,0 +1,272 @@
+package acc.br.service;
+
+import acc.br.util.CodificadorSenha;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.runtime.StartupEvent;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
+import javax.inject.Inject;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Codifica e verifica as senhas dos clientes em um pool de threads próprio.
+ * <p>
+ * A codificação ({@link CodificadorSenha}) consome dezenas de milissegundos de CPU por senha, de propósito. Para que
+ * esse custo não ocupe as threads de trabalho do servidor HTTP, as operações assíncronas executam em um pool com
+ * {@code twobank.senhas.hash.threads} threads (por padrão, metade dos processadores) e fila limitada
+ * ({@code twobank.senhas.hash.fila}); com a fila cheia, a operação falha imediatamente com
+ * {@link RejectedExecutionException}, e o controlador responde 503. Os parâmetros da codificação
+ * ({@code twobank.senhas.hash.iteracoes} e {@code twobank.senhas.hash.tamanho-salt}) podem ser alterados de uma
+ * execução da aplicação para outra: as senhas codificadas com parâmetros anteriores continuam válidas e são
+ * recodificadas no próximo login. O custo adequado ao orçamento de latência é medido com o CodificadorSenhaBenchmark.
+ */
+@ApplicationScoped
+public class ExecutorHashSenhas {
+
+    @Inject
+    MeterRegistry registro;
+
+    @ConfigProperty(name = "twobank.senhas.hash.iteracoes", defaultValue = "210000")
+    int iteracoes;
+
+    @ConfigProperty(name = "twobank.senhas.hash.tamanho-salt", defaultValue = "16")
+    int tamanhoSalt;
+
+    // 0 usa metade dos processadores disponíveis
+    @ConfigProperty(name = "twobank.senhas.hash.threads", defaultValue = "0")
+    int threads;
+
+    @ConfigProperty(name = "twobank.senhas.hash.fila", defaultValue = "200")
+    int tamanhoFila;
+
+    private final SecureRandom aleatorio = new SecureRandom();
+
+    private ThreadPoolExecutor executor;
+
+    private volatile String senhaFicticia;
+
+    @PostConstruct
+    void inicializar() {
+        if (iteracoes <= 0) {
+            throw new IllegalArgumentException("twobank.senhas.hash.iteracoes deve ser maior que zero.");
+        }
+        if (tamanhoSalt < 8 || tamanhoSalt > 64) {
+            throw new IllegalArgumentException("twobank.senhas.hash.tamanho-salt deve estar entre 8 e 64 bytes.");
+        }
+        int quantidadeThreads = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger contador = new AtomicInteger();
+        executor = new ThreadPoolExecutor(quantidadeThreads, quantidadeThreads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(tamanhoFila), tarefa -> {
+                    Thread thread = new Thread(tarefa, "twobank-senhas-" + contador.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @PreDestroy
+    void encerrar() {
+        executor.shutdown();
+    }
+
+    /**
+     * Codifica uma senha no pool. A senha é sempre codificada, mesmo que tenha o formato de uma senha codificada, para
+     * que um valor informado pelo cliente não seja gravado sem passar pela codificação.
+     *
+     * @param senha A senha, sem codificação.
+     * @return A senha codificada, ou null se a senha for nula; falha com {@link RejectedExecutionException} se a fila
+     *         do pool estiver cheia.
+     */
+    public CompletionStage<String> codificar(String senha) {
+        if (senha == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return executarNoPool(() -> codificarAgora(senha));
+    }
+
+    /**
+     * Verifica uma senha no pool. A senha armazenada sem codificação, de cadastros anteriores, é comparada diretamente.
+     *
+     * @param senha      A senha informada.
+     * @param armazenada A senha armazenada.
+     * @return true se a senha confere; falha com {@link RejectedExecutionException} se a fila do pool estiver cheia.
+     */
+    public CompletionStage<Boolean> verificar(String senha, String armazenada) {
+        if (senha == null || armazenada == null) {
+            return CompletableFuture.completedFuture(false);
+        }
+        if (!CodificadorSenha.isCodificada(armazenada)) {
+            return CompletableFuture.completedFuture(CodificadorSenha.compararSemCodificacao(senha, armazenada));
+        }
+        return executarNoPool(() -> CodificadorSenha.verificar(senha, armazenada));
+    }
+
+    /**
+     * Codifica, no pool, uma senha informada no login, com os parâmetros atuais.
+     *
+     * @param senha A senha, sem codificação.
+     * @return A senha codificada; falha com {@link RejectedExecutionException} se a fila do pool estiver cheia.
+     */
+    public CompletionStage<String> recodificar(String senha) {
+        return executarNoPool(() -> codificarAgora(senha));
+    }
+
+    /**
+     * Executa no pool uma verificação de mesmo custo que a de uma senha codificada com os parâmetros atuais, para
+     * os logins com e-mail não cadastrado, e responde que a senha não confere.
+     *
+     * @param senha A senha informada.
+     * @return false; falha com {@link RejectedExecutionException} se a fila do pool estiver cheia.
+     */
+    public CompletionStage<Boolean> verificarSemCliente(String senha) {
+        return executarNoPool(() -> {
+            CodificadorSenha.verificar(senha == null ? "" : senha, senhaFicticia());
+            return false;
+        });
+    }
+
+    /**
+     * Codifica uma senha e aguarda o resultado, para os chamadores que já estão fora das threads de trabalho.
+     * Se a fila do pool estiver cheia, a senha é codificada na própria thread do chamador. Como em {@link #codificar},
+     * a senha é sempre codificada.
+     *
+     * @param senha A senha, sem codificação.
+     * @return A senha codificada, ou null se a senha for nula.
+     */
+    public String codificarAguardando(String senha) {
+        if (senha == null) {
+            return null;
+        }
+        try {
+            return aguardar(executarNoPool(() -> codificarAgora(senha)));
+        } catch (RejectedExecutionException e) {
+            return codificarAgora(senha);
+        }
+    }
+
+    /**
+     * Codifica várias senhas em paralelo no pool e aguarda o resultado, para a importação em massa. As senhas são
+     * divididas entre as threads do pool, sem ocupar a fila com uma tarefa por senha; a parte que não couber na fila
+     * é codificada na própria thread do chamador.
+     *
+     * @param senhas As senhas.
+     * @return As senhas codificadas, na mesma ordem; as nulas permanecem nulas.
+     */
+    public List<String> codificarTodas(List<String> senhas) {
+        String[] codificadas = new String[senhas.size()];
+        int partes = Math.min(executor.getCorePoolSize(), codificadas.length);
+        List<CompletableFuture<Void>> tarefas = new ArrayList<>(partes);
+        for (int parte = 0; parte < partes; parte++) {
+            int inicio = (int) ((long) codificadas.length * parte / partes);
+            int fim = (int) ((long) codificadas.length * (parte + 1) / partes);
+            Runnable codificarParte = () -> {
+                for (int i = inicio; i < fim; i++) {
+                    String senha = senhas.get(i);
+                    codificadas[i] = senha == null ? null : codificarAgora(senha);
+                }
+            };
+            try {
+                tarefas.add(CompletableFuture.runAsync(codificarParte, executor));
+            } catch (RejectedExecutionException e) {
+                codificarParte.run();
+            }
+        }
+        aguardar(CompletableFuture.allOf(tarefas.toArray(new CompletableFuture<?>[0])));
+        return Arrays.asList(codificadas);
+    }
+
+    /**
+     * Verifica se uma senha armazenada deve ser recodificada com os parâmetros atuais: se está sem codificação ou
+     * foi codificada com outra quantidade de iterações ou outro tamanho de salt.
+     *
+     * @param armazenada A senha armazenada.
+     * @return true se a senha deve ser recodificada.
+     */
+    public boolean precisaRecodificar(String armazenada) {
+        return !CodificadorSenha.isCodificada(armazenada)
+                || CodificadorSenha.iteracoes(armazenada) != iteracoes
+                || CodificadorSenha.tamanhoSalt(armazenada) != tamanhoSalt;
+    }
+
+    /**
+     * Registra os medidores do pool na inicialização da aplicação.
+     */
+    void registrarMedidores(@Observes StartupEvent evento) {
+        Gauge.builder("twobank.senhas.fila", this, ExecutorHashSenhas::getProfundidadeFila)
+                .description("Codificações e verificações de senha aguardando uma thread do pool")
+                .strongReference(true)
+                .register(registro);
+        Gauge.builder("twobank.senhas.execucao", this, ExecutorHashSenhas::getOperacoesEmExecucao)
+                .description("Codificações e verificações de senha em execução")
+                .strongReference(true)
+                .register(registro);
+    }
+
+    /**
+     * Obtém a quantidade de operações aguardando uma thread do pool.
+     *
+     * @return A profundidade da fila.
+     */
+    public int getProfundidadeFila() {
+        return executor.getQueue().size();
+    }
+
+    /**
+     * Obtém a quantidade de operações em execução no pool.
+     *
+     * @return A quantidade de threads ocupadas.
+     */
+    public int getOperacoesEmExecucao() {
+        return executor.getActiveCount();
+    }
+
+    private String senhaFicticia() {
+        String atual = senhaFicticia;
+        if (atual == null || CodificadorSenha.iteracoes(atual) != iteracoes) {
+            atual = codificarAgora(Long.toHexString(aleatorio.nextLong()));
+            senhaFicticia = atual;
+        }
+        return atual;
+    }
+
+    private String codificarAgora(String senha) {
+        byte[] salt = new byte[tamanhoSalt];
+        aleatorio.nextBytes(salt);
+        return CodificadorSenha.codificar(senha, iteracoes, salt);
+    }
+
+    private <T> CompletableFuture<T> executarNoPool(Supplier<T> operacao) {
+        try {
+            return CompletableFuture.supplyAsync(operacao, executor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private static <T> T aguardar(CompletableFuture<T> resultado) {
+        try {
+            return resultado.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+}
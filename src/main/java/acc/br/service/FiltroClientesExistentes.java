@@ -0,0 +1,131 @@
+package acc.br.service;
+
+import acc.br.repository.ClientesRepository;
+import acc.br.util.FiltroBloom;
+import io.quarkus.runtime.StartupEvent;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
+import javax.inject.Inject;
+import javax.transaction.Transactional;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+/**
+ * Filtro de Bloom, opcional, dos e-mails e CPFs já cadastrados ({@code twobank.clientes.filtro-bloom.*}).
+ * <p>
+ * O {@link ClientesService} consulta o filtro antes de gravar um cliente: se nem o e-mail nem o CPF estão no filtro,
+ * eles certamente não estão cadastrados e a gravação segue sem consultas prévias; caso contrário, uma única consulta
+ * confirma a duplicidade. O filtro é carregado na inicialização e recebe os clientes gravados por esta instância da
+ * aplicação; como não há remoção, os clientes removidos ou alterados apenas geram falsos positivos. Enquanto não é
+ * carregado, o filtro responde sempre que o cliente pode existir. Um cliente gravado por outra instância e ausente do
+ * filtro é recusado pela restrição única, como sem o filtro.
+ */
+@ApplicationScoped
+public class FiltroClientesExistentes {
+
+    private static final Logger logger = Logger.getLogger(FiltroClientesExistentes.class.getName());
+
+    @Inject
+    ClientesRepository clientesRepository;
+
+    @ConfigProperty(name = "twobank.clientes.filtro-bloom.habilitado", defaultValue = "false")
+    boolean habilitado;
+
+    @ConfigProperty(name = "twobank.clientes.filtro-bloom.capacidade", defaultValue = "1000000")
+    long capacidade;
+
+    @ConfigProperty(name = "twobank.clientes.filtro-bloom.taxa-falsos-positivos", defaultValue = "0.01")
+    double taxaFalsosPositivos;
+
+    private volatile FiltroBloom filtro;
+
+    void iniciar(@Observes StartupEvent evento) {
+        if (!habilitado) {
+            return;
+        }
+        try {
+            carregar();
+        } catch (RuntimeException e) {
+            logger.log(Level.WARNING, "Falha ao carregar o filtro de clientes existentes", e);
+        }
+    }
+
+    /**
+     * Monta o filtro com os e-mails e CPFs de todos os clientes cadastrados.
+     */
+    @Transactional
+    void carregar() {
+        FiltroBloom novoFiltro = new FiltroBloom(capacidade, taxaFalsosPositivos);
+        AtomicLong clientes = new AtomicLong();
+        try (Stream<Object[]> todos = clientesRepository.streamEmailsECpfs()) {
+            todos.forEach(cliente -> {
+                adicionar(novoFiltro, (String) cliente[0], (String) cliente[1]);
+                clientes.incrementAndGet();
+            });
+        }
+        filtro = novoFiltro;
+        logger.log(Level.INFO, "Filtro de clientes existentes carregado: {0,number,#} clientes", clientes.get());
+    }
+
+    /**
+     * Indica se o filtro está habilitado.
+     *
+     * @return true se o filtro está habilitado.
+     */
+    public boolean isHabilitado() {
+        return habilitado;
+    }
+
+    /**
+     * Verifica se já pode existir um cliente com o e-mail ou o CPF informados.
+     *
+     * @param email O e-mail do cliente.
+     * @param cpf   O CPF do cliente.
+     * @return false se nenhum cliente tem esse e-mail ou esse CPF; true se algum cliente pode tê-los.
+     */
+    public boolean talvezExista(String email, String cpf) {
+        FiltroBloom atual = filtro;
+        if (atual == null) {
+            return true;
+        }
+        return (email != null && atual.talvezContenha(chaveEmail(email)))
+                || (cpf != null && atual.talvezContenha(chaveCpf(cpf)));
+    }
+
+    /**
+     * Adiciona ao filtro o e-mail e o CPF de um cliente gravado. Se a transação for desfeita, restam apenas falsos
+     * positivos.
+     *
+     * @param email O e-mail do cliente.
+     * @param cpf   O CPF do cliente.
+     */
+    public void registrar(String email, String cpf) {
+        FiltroBloom atual = filtro;
+        if (atual != null) {
+            adicionar(atual, email, cpf);
+        }
+    }
+
+    private static void adicionar(FiltroBloom filtro, String email, String cpf) {
+        if (email != null) {
+            filtro.adicionar(chaveEmail(email));
+        }
+        if (cpf != null) {
+            filtro.adicionar(chaveCpf(cpf));
+        }
+    }
+
+    // O e-mail é comparado sem distinção de maiúsculas, como na restrição única do banco de dados
+    private static String chaveEmail(String email) {
+        return "E:" + email.toLowerCase(Locale.ROOT);
+    }
+
+    private static String chaveCpf(String cpf) {
+        return "C:" + cpf;
+    }
+}
@@ -0,0 +1,705 @@
+package acc.br.service;
+
+import acc.br.model.AuditoriaBancoDados;
+import acc.br.util.ModoDurabilidadeAuditoria;
+import io.agroal.api.AgroalDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
+import javax.inject.Inject;
+import javax.transaction.Status;
+import javax.transaction.Synchronization;
+import javax.transaction.TransactionSynchronizationRegistry;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Grava os registros de auditoria do banco de dados fora do caminho crítico das operações bancárias.
+ * <p>
+ * Nos modos assíncronos os registros de uma transação entram em uma fila limitada somente após o seu commit,
+ * e uma thread em segundo plano os insere em lotes JDBC, fechados por tamanho ou por tempo. Quando a fila
+ * está cheia o registro é gravado na própria thread da requisição, de modo que nenhum evento é descartado.
+ * Um lote que falha é gravado novamente, com espera crescente entre as tentativas, até o encerramento da aplicação.
+ * No modo {@link ModoDurabilidadeAuditoria#ASSINCRONO_WAL} os registros são gravados antes em um arquivo local,
+ * esvaziado sempre que a fila é totalmente gravada e reprocessado na inicialização (entrega ao menos uma vez).
+ * Os registros de uma transação são anexados ao arquivo antes do commit, de modo que uma queda logo após o commit
+ * não os perde; se a anexação falhar, a transação é desfeita. Se a transação for desfeita após a anexação, um
+ * marcador de descarte é anexado e o reprocessamento os ignora.
+ */
+@ApplicationScoped
+public class GravadorAuditoria {
+
+    private static final Logger logger = Logger.getLogger(GravadorAuditoria.class.getName());
+
+    static final String SQL_INSERCAO = "INSERT INTO AuditoriaBancoDados (NomeEntidade, Acao, DataHora) VALUES (?, ?, ?)";
+
+    private static final String CHAVE_REGISTROS_TRANSACAO = GravadorAuditoria.class.getName() + ".registros";
+
+    /**
+     * Identificador, no arquivo de log antecipado, dos registros gravados fora de uma transação.
+     */
+    static final String SEM_TRANSACAO = "-";
+
+    static final String PREFIXO_DESCARTE = "DESCARTADA\t";
+
+    /**
+     * Espera máxima entre as novas tentativas de gravação de um lote que falhou.
+     */
+    static final long ESPERA_MAXIMA_NOVA_TENTATIVA_MS = TimeUnit.SECONDS.toMillis(30);
+
+    @Inject
+    AgroalDataSource dataSource;
+
+    @Inject
+    TransactionSynchronizationRegistry registroSincronizacao;
+
+    @Inject
+    MeterRegistry registro;
+
+    @ConfigProperty(name = "twobank.auditoria.modo", defaultValue = "ASSINCRONO")
+    ModoDurabilidadeAuditoria modo;
+
+    @ConfigProperty(name = "twobank.auditoria.capacidade-fila", defaultValue = "10000")
+    int capacidadeFila;
+
+    @ConfigProperty(name = "twobank.auditoria.tamanho-lote", defaultValue = "500")
+    int tamanhoLote;
+
+    @ConfigProperty(name = "twobank.auditoria.intervalo-flush-ms", defaultValue = "200")
+    long intervaloFlushMs;
+
+    @ConfigProperty(name = "twobank.auditoria.arquivo-wal", defaultValue = "auditoria.wal")
+    String arquivoWal;
+
+    private final AtomicLong pendentes = new AtomicLong();
+    private final AtomicLong registrosGravados = new AtomicLong();
+    private final AtomicLong lotesGravados = new AtomicLong();
+    private final AtomicLong latenciaTotalFlushNanos = new AtomicLong();
+
+    /**
+     * Trava do arquivo de log antecipado, disputada pelas threads das requisições e pela thread de gravação.
+     */
+    private final ReentrantLock travaWal = new ReentrantLock();
+
+    /**
+     * Registros que não puderam ser gravados fora da thread de gravação (fila cheia ou reprocessamento do arquivo na
+     * inicialização) e que ela grava novamente. Continuam contados como pendentes, de modo que o arquivo de log
+     * antecipado não é esvaziado antes da sua gravação.
+     */
+    private final Queue<AuditoriaBancoDados> novasTentativas = new ConcurrentLinkedQueue<>();
+
+    private volatile BlockingQueue<AuditoriaBancoDados> fila;
+    private volatile long ultimaLatenciaFlushNanos;
+    private volatile boolean ativo;
+    private FileChannel canalWal;
+    private Thread escritor;
+
+    /**
+     * Inicia a thread de gravação e, no modo com arquivo de log antecipado, reprocessa os registros que
+     * ficaram pendentes na última execução.
+     */
+    void iniciar(@Observes StartupEvent event) {
+        if (modo == ModoDurabilidadeAuditoria.SINCRONO) {
+            return;
+        }
+        fila = new ArrayBlockingQueue<>(capacidadeFila);
+        // Os pendentes passam a ser os que restarem do arquivo de log antecipado
+        pendentes.set(0);
+        novasTentativas.clear();
+        if (modo == ModoDurabilidadeAuditoria.ASSINCRONO_WAL && reprocessarWal()) {
+            abrirWal();
+        }
+        ativo = true;
+        escritor = new Thread(this::drenarFila, "gravador-auditoria");
+        escritor.setDaemon(true);
+        escritor.start();
+    }
+
+    /**
+     * Interrompe o recebimento de registros e aguarda a gravação dos que ainda estão na fila.
+     */
+    void encerrar(@Observes ShutdownEvent event) {
+        ativo = false;
+        if (escritor != null) {
+            // Interrompe a espera entre as novas tentativas de um lote que falhou
+            LockSupport.unpark(escritor);
+            try {
+                escritor.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        travaWal.lock();
+        try {
+            if (canalWal != null) {
+                try {
+                    canalWal.close();
+                } catch (IOException e) {
+                    logger.log(Level.WARNING, "Erro ao fechar o arquivo de log da auditoria", e);
+                }
+                canalWal = null;
+            }
+        } finally {
+            travaWal.unlock();
+        }
+    }
+
+    /**
+     * Registra um evento de auditoria conforme o modo de durabilidade configurado.
+     * Dentro de uma transação ativa, o registro só é enfileirado após o commit; se a transação for desfeita,
+     * o registro é descartado junto com ela. No modo com arquivo de log antecipado, o registro é anexado ao arquivo
+     * na fase de preparação do commit.
+     *
+     * @param auditoria O registro de auditoria.
+     */
+    public void registrar(AuditoriaBancoDados auditoria) {
+        if (modo == ModoDurabilidadeAuditoria.SINCRONO || !ativo) {
+            gravarDiretamente(Collections.singletonList(auditoria));
+            return;
+        }
+        if (registroSincronizacao.getTransactionStatus() != Status.STATUS_ACTIVE) {
+            enfileirar(Collections.singletonList(auditoria));
+            return;
+        }
+
+        RegistrosTransacao registrosTransacao = (RegistrosTransacao) registroSincronizacao.getResource(CHAVE_REGISTROS_TRANSACAO);
+        if (registrosTransacao == null) {
+            RegistrosTransacao registros = new RegistrosTransacao();
+            try {
+                registroSincronizacao.registerInterposedSynchronization(registros);
+            } catch (IllegalStateException e) {
+                // A transação já está em fase de conclusão e não aceita novas sincronizações
+                enfileirar(Collections.singletonList(auditoria));
+                return;
+            }
+            registroSincronizacao.putResource(CHAVE_REGISTROS_TRANSACAO, registros);
+            registrosTransacao = registros;
+        }
+        registrosTransacao.registros.add(auditoria);
+    }
+
+    /**
+     * Registra os medidores da fila de auditoria na inicialização da aplicação.
+     */
+    void registrarMedidores(@Observes StartupEvent evento) {
+        Gauge.builder("twobank.auditoria.fila", this, GravadorAuditoria::getProfundidadeFila)
+                .description("Registros de auditoria aguardando gravação")
+                .strongReference(true)
+                .register(registro);
+        Gauge.builder("twobank.auditoria.pendentes", this, GravadorAuditoria::getRegistrosPendentes)
+                .description("Registros de auditoria ainda não gravados, incluindo os do lote em gravação")
+                .strongReference(true)
+                .register(registro);
+        Gauge.builder("twobank.auditoria.flush.latencia.media", this, GravadorAuditoria::getLatenciaMediaFlushMs)
+                .description("Latência média da gravação de um lote de auditoria")
+                .baseUnit("milliseconds")
+                .strongReference(true)
+                .register(registro);
+    }
+
+    /**
+     * Obtém a quantidade de registros aguardando na fila.
+     *
+     * @return A profundidade atual da fila.
+     */
+    public int getProfundidadeFila() {
+        BlockingQueue<AuditoriaBancoDados> filaAtual = fila;
+        return filaAtual == null ? 0 : filaAtual.size();
+    }
+
+    /**
+     * Obtém a quantidade de registros aceitos e ainda não gravados no banco de dados.
+     *
+     * @return A quantidade de registros pendentes.
+     */
+    public long getRegistrosPendentes() {
+        return pendentes.get();
+    }
+
+    /**
+     * Obtém a quantidade de registros gravados pela thread em segundo plano desde a inicialização.
+     *
+     * @return A quantidade de registros gravados.
+     */
+    public long getRegistrosGravados() {
+        return registrosGravados.get();
+    }
+
+    /**
+     * Obtém a quantidade de lotes gravados pela thread em segundo plano desde a inicialização.
+     *
+     * @return A quantidade de lotes gravados.
+     */
+    public long getLotesGravados() {
+        return lotesGravados.get();
+    }
+
+    /**
+     * Obtém a duração da gravação do último lote.
+     *
+     * @return A latência do último lote, em milissegundos.
+     */
+    public double getUltimaLatenciaFlushMs() {
+        return ultimaLatenciaFlushNanos / 1_000_000.0;
+    }
+
+    /**
+     * Obtém a duração média da gravação dos lotes.
+     *
+     * @return A latência média por lote, em milissegundos.
+     */
+    public double getLatenciaMediaFlushMs() {
+        long lotes = lotesGravados.get();
+        return lotes == 0 ? 0 : latenciaTotalFlushNanos.get() / 1_000_000.0 / lotes;
+    }
+
+    /**
+     * Coloca os registros de uma transação confirmada na fila de gravação.
+     * Chamado após o commit, portanto nenhuma falha pode ser propagada para a operação auditada.
+     *
+     * @param registros Os registros a serem gravados.
+     */
+    void enfileirar(List<AuditoriaBancoDados> registros) {
+        if (registros.isEmpty()) {
+            return;
+        }
+        // O contador é incrementado junto com a escrita no arquivo para que ele não seja esvaziado entre as duas
+        travaWal.lock();
+        try {
+            pendentes.addAndGet(registros.size());
+            if (canalWal != null) {
+                anexarWal(SEM_TRANSACAO, registros);
+            }
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, "Falha ao gravar no arquivo de log da auditoria; os registros ficam apenas em memória", e);
+        } finally {
+            travaWal.unlock();
+        }
+        ofertar(registros);
+    }
+
+    /**
+     * Anexa ao arquivo de log antecipado os registros de uma transação prestes a ser confirmada.
+     * Os registros passam a contar como pendentes, para que o arquivo não seja esvaziado antes da sua gravação.
+     *
+     * @param transacao O identificador da transação no arquivo.
+     * @param registros Os registros da transação.
+     * @return A quantidade de registros anexados; zero fora do modo com arquivo de log antecipado.
+     * @throws UncheckedIOException Se a escrita no arquivo falhar; lançada na preparação do commit, desfaz a transação.
+     */
+    int anexarTransacao(String transacao, List<AuditoriaBancoDados> registros) {
+        if (registros.isEmpty()) {
+            return 0;
+        }
+        travaWal.lock();
+        try {
+            if (canalWal == null) {
+                return 0;
+            }
+            try {
+                anexarWal(transacao, registros);
+            } catch (IOException e) {
+                // Parte das linhas pode ter chegado ao arquivo: a transação será desfeita e não deve ser reprocessada
+                try {
+                    escreverWal(PREFIXO_DESCARTE + transacao + "\n");
+                } catch (IOException falhaDescarte) {
+                    e.addSuppressed(falhaDescarte);
+                }
+                throw new UncheckedIOException("Falha ao gravar a auditoria da transação no arquivo de log", e);
+            }
+            pendentes.addAndGet(registros.size());
+            return registros.size();
+        } finally {
+            travaWal.unlock();
+        }
+    }
+
+    /**
+     * Coloca na fila os registros de uma transação confirmada. Os registros incluídos depois da preparação do commit
+     * ainda não estão no arquivo de log antecipado e são anexados agora.
+     *
+     * @param registros Os registros da transação.
+     * @param anexados  A quantidade de registros, do início da lista, já anexados ao arquivo.
+     */
+    void confirmarTransacao(List<AuditoriaBancoDados> registros, int anexados) {
+        enfileirar(registros.subList(anexados, registros.size()));
+        ofertar(registros.subList(0, anexados));
+    }
+
+    /**
+     * Marca como descartados no arquivo de log antecipado os registros de uma transação desfeita após a preparação
+     * do commit, para que não sejam gravados no reprocessamento.
+     *
+     * @param transacao O identificador da transação no arquivo.
+     * @param anexados  A quantidade de registros anexados ao arquivo.
+     */
+    void descartarTransacao(String transacao, int anexados) {
+        travaWal.lock();
+        try {
+            if (canalWal != null) {
+                escreverWal(PREFIXO_DESCARTE + transacao + "\n");
+            }
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, "Falha ao marcar como descartados os registros de auditoria da transação " + transacao, e);
+        } finally {
+            pendentes.addAndGet(-anexados);
+            travaWal.unlock();
+        }
+        liberarWal();
+    }
+
+    private void ofertar(List<AuditoriaBancoDados> registros) {
+        for (AuditoriaBancoDados auditoria : registros) {
+            if (!fila.offer(auditoria)) {
+                // Fila cheia: grava na thread atual em vez de descartar o registro
+                if (gravarDiretamente(Collections.singletonList(auditoria))) {
+                    pendentes.decrementAndGet();
+                } else {
+                    novasTentativas.add(auditoria);
+                }
+            }
+        }
+    }
+
+    /**
+     * Insere os registros no banco de dados com um único lote JDBC.
+     * Quando chamado dentro de uma transação, a conexão participa dela.
+     *
+     * @param registros Os registros a serem inseridos.
+     * @throws SQLException Se ocorrer um erro na inserção.
+     */
+    void gravar(List<AuditoriaBancoDados> registros) throws SQLException {
+        try (Connection conexao = dataSource.getConnection();
+             PreparedStatement insercao = conexao.prepareStatement(SQL_INSERCAO)) {
+            for (AuditoriaBancoDados auditoria : registros) {
+                insercao.setString(1, auditoria.getNomeEntidade());
+                insercao.setString(2, auditoria.getAcao());
+                insercao.setTimestamp(3, Timestamp.valueOf(auditoria.getDataHora()));
+                insercao.addBatch();
+            }
+            insercao.executeBatch();
+        }
+    }
+
+    /**
+     * Converte um registro de auditoria em uma linha do arquivo de log antecipado.
+     *
+     * @param transacao O identificador da transação do registro, ou {@link #SEM_TRANSACAO}.
+     * @param auditoria O registro de auditoria.
+     * @return A linha no formato "transacao TAB dataHora TAB acao TAB nomeEntidade".
+     */
+    static String paraLinhaWal(String transacao, AuditoriaBancoDados auditoria) {
+        return transacao + "\t" + auditoria.getDataHora() + "\t" + auditoria.getAcao() + "\t" + auditoria.getNomeEntidade();
+    }
+
+    /**
+     * Converte uma linha do arquivo de log antecipado em um registro de auditoria.
+     *
+     * @param linha       A linha no formato "transacao TAB dataHora TAB acao TAB nomeEntidade".
+     * @param descartadas As transações marcadas como descartadas no arquivo.
+     * @return O registro de auditoria, ou null se a linha for um marcador de descarte, pertencer a uma transação
+     * descartada ou estiver incompleta (gravação interrompida).
+     */
+    static AuditoriaBancoDados deLinhaWal(String linha, Set<String> descartadas) {
+        String[] campos = linha.split("\t", 4);
+        if (campos.length < 4 || linha.startsWith(PREFIXO_DESCARTE) || descartadas.contains(campos[0])) {
+            return null;
+        }
+        AuditoriaBancoDados auditoria = new AuditoriaBancoDados();
+        auditoria.setDataHora(LocalDateTime.parse(campos[1]));
+        auditoria.setAcao(campos[2]);
+        auditoria.setNomeEntidade(campos[3]);
+        return auditoria;
+    }
+
+    private boolean gravarDiretamente(List<AuditoriaBancoDados> registros) {
+        try {
+            gravar(registros);
+            return true;
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Falha ao gravar registro de auditoria", e);
+            return false;
+        }
+    }
+
+    /**
+     * Laço da thread de gravação: agrupa os registros da fila em lotes até atingir o tamanho configurado
+     * ou o intervalo máximo de espera, o que ocorrer primeiro. Os registros a gravar novamente têm prioridade.
+     */
+    private void drenarFila() {
+        List<AuditoriaBancoDados> lote = new ArrayList<>(tamanhoLote);
+        try {
+            while (ativo || !fila.isEmpty() || !novasTentativas.isEmpty()) {
+                AuditoriaBancoDados novaTentativa;
+                while (lote.size() < tamanhoLote && (novaTentativa = novasTentativas.poll()) != null) {
+                    lote.add(novaTentativa);
+                }
+                if (!lote.isEmpty()) {
+                    if (!gravarComNovasTentativas(lote)) {
+                        return;
+                    }
+                    lote.clear();
+                    continue;
+                }
+                AuditoriaBancoDados primeiro = fila.poll(intervaloFlushMs, TimeUnit.MILLISECONDS);
+                if (primeiro == null) {
+                    continue;
+                }
+                lote.add(primeiro);
+                long prazo = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(intervaloFlushMs);
+                while (lote.size() < tamanhoLote) {
+                    if (fila.drainTo(lote, tamanhoLote - lote.size()) > 0) {
+                        continue;
+                    }
+                    long restante = prazo - System.nanoTime();
+                    if (restante <= 0 || !ativo) {
+                        break;
+                    }
+                    AuditoriaBancoDados proximo = fila.poll(restante, TimeUnit.NANOSECONDS);
+                    if (proximo == null) {
+                        break;
+                    }
+                    lote.add(proximo);
+                }
+                if (!gravarComNovasTentativas(lote)) {
+                    return;
+                }
+                lote.clear();
+            }
+        } catch (InterruptedException e) {
+            // Os registros restantes continuam no arquivo de log antecipado, quando habilitado
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Grava o lote, repetindo a tentativa com espera crescente enquanto a gravação falhar.
+     *
+     * @param lote Os registros a serem gravados.
+     * @return false se a aplicação foi encerrada antes da gravação; os registros continuam pendentes e, no modo com
+     * arquivo de log antecipado, são reprocessados na próxima inicialização.
+     */
+    private boolean gravarComNovasTentativas(List<AuditoriaBancoDados> lote) {
+        long esperaMs = Math.max(intervaloFlushMs, 1);
+        while (!gravarLote(lote)) {
+            if (!ativo) {
+                logger.severe("Aplicação encerrada com " + pendentes.get() + " registros de auditoria não gravados");
+                return false;
+            }
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(esperaMs));
+            esperaMs = Math.min(esperaMs * 2, ESPERA_MAXIMA_NOVA_TENTATIVA_MS);
+        }
+        return true;
+    }
+
+    private boolean gravarLote(List<AuditoriaBancoDados> lote) {
+        long inicio = System.nanoTime();
+        try {
+            gravar(lote);
+        } catch (SQLException | RuntimeException e) {
+            logger.log(Level.SEVERE, "Falha ao gravar lote de " + lote.size() + " registros de auditoria; nova tentativa em seguida", e);
+            return false;
+        }
+        long latencia = System.nanoTime() - inicio;
+        ultimaLatenciaFlushNanos = latencia;
+        latenciaTotalFlushNanos.addAndGet(latencia);
+        lotesGravados.incrementAndGet();
+        registrosGravados.addAndGet(lote.size());
+        pendentes.addAndGet(-lote.size());
+        liberarWal();
+        return true;
+    }
+
+    private Path caminhoWal() {
+        return Paths.get(arquivoWal);
+    }
+
+    private void abrirWal() {
+        try {
+            canalWal = FileChannel.open(caminhoWal(), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, "Não foi possível abrir o arquivo de log da auditoria; os registros ficam apenas em memória", e);
+        }
+    }
+
+    private void anexarWal(String transacao, List<AuditoriaBancoDados> registros) throws IOException {
+        StringBuilder linhas = new StringBuilder();
+        for (AuditoriaBancoDados auditoria : registros) {
+            linhas.append(paraLinhaWal(transacao, auditoria)).append('\n');
+        }
+        escreverWal(linhas.toString());
+    }
+
+    private void escreverWal(String linhas) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(linhas.getBytes(StandardCharsets.UTF_8));
+        while (buffer.hasRemaining()) {
+            canalWal.write(buffer);
+        }
+        canalWal.force(false);
+    }
+
+    /**
+     * Esvazia o arquivo de log antecipado quando todos os registros aceitos já foram gravados.
+     * Enquanto houver registros pendentes, inclusive os de lotes que falharam, o arquivo é mantido.
+     */
+    private void liberarWal() {
+        if (pendentes.get() != 0) {
+            return;
+        }
+        travaWal.lock();
+        try {
+            if (canalWal != null && pendentes.get() == 0) {
+                try {
+                    canalWal.truncate(0);
+                } catch (IOException e) {
+                    logger.log(Level.WARNING, "Falha ao esvaziar o arquivo de log da auditoria", e);
+                }
+            }
+        } finally {
+            travaWal.unlock();
+        }
+    }
+
+    /**
+     * Grava os registros que ficaram no arquivo de log antecipado, exceto os das transações descartadas, e o esvazia.
+     * Os registros que não puderem ser gravados agora ficam pendentes para a thread de gravação, e o arquivo só é
+     * esvaziado após a sua gravação. Um arquivo que não pode ser lido é renomeado, para ser analisado manualmente.
+     *
+     * @return true se o arquivo pode ser usado pela execução atual.
+     */
+    private boolean reprocessarWal() {
+        Path caminho = caminhoWal();
+        if (!Files.exists(caminho)) {
+            return true;
+        }
+        List<AuditoriaBancoDados> registros = new ArrayList<>();
+        try (BufferedReader leitor = Files.newBufferedReader(caminho, StandardCharsets.UTF_8)) {
+            Set<String> descartadas = transacoesDescartadas(caminho);
+            String linha;
+            while ((linha = leitor.readLine()) != null) {
+                AuditoriaBancoDados auditoria = deLinhaWal(linha, descartadas);
+                if (auditoria != null) {
+                    registros.add(auditoria);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            return preservarWalIlegivel(caminho, e);
+        }
+
+        int reprocessados = 0;
+        try {
+            while (reprocessados < registros.size()) {
+                List<AuditoriaBancoDados> lote = registros.subList(reprocessados, Math.min(reprocessados + tamanhoLote, registros.size()));
+                gravar(lote);
+                reprocessados += lote.size();
+            }
+        } catch (SQLException | RuntimeException e) {
+            List<AuditoriaBancoDados> restantes = registros.subList(reprocessados, registros.size());
+            pendentes.addAndGet(restantes.size());
+            novasTentativas.addAll(restantes);
+            logger.log(Level.SEVERE, "Falha ao reprocessar o arquivo de log da auditoria; " + restantes.size()
+                    + " registros serão gravados em segundo plano e o arquivo será mantido até lá", e);
+            return true;
+        }
+        try {
+            Files.write(caminho, new byte[0]);
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Falha ao esvaziar o arquivo de log da auditoria após o reprocessamento", e);
+        }
+        if (reprocessados > 0) {
+            logger.info("Registros de auditoria reprocessados do arquivo de log: " + reprocessados);
+        }
+        return true;
+    }
+
+    /**
+     * Renomeia o arquivo de log antecipado que não pôde ser lido, para que ele não seja esvaziado pela execução atual.
+     *
+     * @return true se o arquivo foi renomeado e um novo pode ser aberto.
+     */
+    private boolean preservarWalIlegivel(Path caminho, Exception causa) {
+        Path preservado = caminho.resolveSibling(caminho.getFileName() + "." + System.currentTimeMillis() + ".ilegivel");
+        try {
+            Files.move(caminho, preservado);
+            logger.log(Level.SEVERE, "Falha ao ler o arquivo de log da auditoria; ele foi mantido em " + preservado, causa);
+            return true;
+        } catch (IOException e) {
+            causa.addSuppressed(e);
+            logger.log(Level.SEVERE, "Falha ao ler o arquivo de log da auditoria; ele será mantido e os novos registros "
+                    + "ficam apenas em memória", causa);
+            return false;
+        }
+    }
+
+    private static Set<String> transacoesDescartadas(Path caminho) throws IOException {
+        Set<String> descartadas = new HashSet<>();
+        try (BufferedReader leitor = Files.newBufferedReader(caminho, StandardCharsets.UTF_8)) {
+            String linha;
+            while ((linha = leitor.readLine()) != null) {
+                if (linha.startsWith(PREFIXO_DESCARTE)) {
+                    descartadas.add(linha.substring(PREFIXO_DESCARTE.length()));
+                }
+            }
+        }
+        return descartadas;
+    }
+
+    /**
+     * Registros de auditoria de uma transação, anexados ao arquivo de log antecipado na preparação do commit e
+     * enfileirados após a sua confirmação.
+     */
+    final class RegistrosTransacao implements Synchronization {
+
+        final List<AuditoriaBancoDados> registros = new ArrayList<>();
+        private final String transacao = UUID.randomUUID().toString();
+        private int anexados;
+
+        @Override
+        public void beforeCompletion() {
+            anexados = anexarTransacao(transacao, registros);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            if (status == Status.STATUS_COMMITTED) {
+                confirmarTransacao(registros, anexados);
+            } else if (anexados > 0) {
+                descartarTransacao(transacao, anexados);
+            }
+        }
+    }
+}
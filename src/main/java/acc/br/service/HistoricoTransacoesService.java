@@ -3,6 +3,7 @@ package acc.br.service;
 import acc.br.exception.HistoricoTransacoesNaoEncontradoException;
 import acc.br.model.HistoricoTransacoes;
 import acc.br.repository.HistoricoTransacoesRepository;
+import acc.br.util.Monitorado;
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 import javax.transaction.Transactional;
@@ -14,6 +15,7 @@ import java.util.List;
  * Classe de serviço para a entidade HistoricoTransacoes.
  */
 @ApplicationScoped
+@Monitorado
 public class HistoricoTransacoesService {
 
     @Inject
@@ -0,0 +1,301 @@
+package acc.br.service;
+
+import acc.br.exception.ChaveIdempotenciaInvalidaException;
+import acc.br.exception.ChaveIdempotenciaReutilizadaException;
+import acc.br.model.ChavesIdempotencia;
+import acc.br.repository.ChavesIdempotenciaRepository;
+import acc.br.util.Monitorado;
+import acc.br.util.TipoTransacao;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.quarkus.scheduler.Scheduled;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.hibernate.exception.ConstraintViolationException;
+
+import javax.annotation.PostConstruct;
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceException;
+import javax.transaction.Status;
+import javax.transaction.Synchronization;
+import javax.transaction.Transactional;
+import javax.transaction.TransactionSynchronizationRegistry;
+import javax.ws.rs.core.Response;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Garante que cada saque, depósito ou transferência enviado com o cabeçalho Idempotency-Key seja executado uma única
+ * vez. As repetições da mesma requisição recebem a resposta armazenada, sem alterar os saldos.
+ * <p>
+ * A chave é gravada na tabela ChavesIdempotencia na mesma transação da operação, antes dela: se a operação falhar, a
+ * chave é desfeita junto e a requisição pode ser repetida; se duas requisições com a mesma chave chegarem ao mesmo
+ * tempo, a segunda aguarda a primeira na chave primária e recebe a resposta dela. À frente da tabela fica um cache
+ * limitado com expiração ({@code twobank.idempotencia.*}), que atende as repetições sem acessar o banco de dados.
+ * As chaves expiram após {@code twobank.idempotencia.validade-horas} e são removidas periodicamente.
+ */
+@ApplicationScoped
+@Monitorado
+public class IdempotenciaService {
+
+    /**
+     * Cabeçalho HTTP com a chave de idempotência.
+     */
+    public static final String CABECALHO_CHAVE = "Idempotency-Key";
+
+    /**
+     * Cabeçalho HTTP que identifica uma resposta repetida a partir do armazenamento.
+     */
+    public static final String CABECALHO_REPETIDA = "Idempotent-Replayed";
+
+    static final int TAMANHO_MAXIMO_CHAVE = 100;
+
+    private static final Logger logger = Logger.getLogger(IdempotenciaService.class.getName());
+
+    // SQLSTATE padrão de violação de unicidade e o código de erro equivalente do MySQL
+    private static final String SQLSTATE_UNICIDADE = "23505";
+    private static final int ERRO_MYSQL_CHAVE_DUPLICADA = 1062;
+
+    @Inject
+    ChavesIdempotenciaRepository chavesIdempotenciaRepository;
+
+    @Inject
+    ExecutorConcorrenciaSaldo executorConcorrenciaSaldo;
+
+    @Inject
+    EntityManager entityManager;
+
+    @Inject
+    TransactionSynchronizationRegistry registroSincronizacao;
+
+    @ConfigProperty(name = "twobank.idempotencia.validade-horas", defaultValue = "24")
+    long validadeHoras;
+
+    @ConfigProperty(name = "twobank.idempotencia.cache.tamanho-maximo", defaultValue = "100000")
+    long tamanhoMaximoCache;
+
+    private Cache<String, RespostaArmazenada> cache;
+
+    @PostConstruct
+    void inicializar() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximoCache)
+                .expireAfterWrite(Duration.ofHours(validadeHoras))
+                .build();
+    }
+
+    /**
+     * Executa a operação uma única vez para a chave informada, repetindo-a em caso de conflito de versão.
+     * Sem chave, a operação é sempre executada.
+     *
+     * @param chave          A chave de idempotência enviada pelo cliente, ou null.
+     * @param tipoTransacao  O tipo da operação.
+     * @param assinatura     A assinatura dos parâmetros da requisição, obtida com {@link #assinar(Object...)}.
+     * @param mensagemSucesso O corpo da resposta de sucesso, armazenado para as repetições.
+     * @param operacao       A operação, que deve participar da transação corrente.
+     * @return A resposta armazenada, se a chave já foi utilizada, ou vazio se a operação foi executada agora.
+     * @throws ChaveIdempotenciaInvalidaException    Se a chave estiver em branco ou for longa demais.
+     * @throws ChaveIdempotenciaReutilizadaException Se a chave já foi utilizada em outra requisição.
+     */
+    public Optional<Response> executar(String chave, TipoTransacao tipoTransacao, String assinatura, String mensagemSucesso,
+            Runnable operacao) {
+        if (chave == null) {
+            executorConcorrenciaSaldo.executar(operacao);
+            return Optional.empty();
+        }
+        if (chave.isBlank() || chave.length() > TAMANHO_MAXIMO_CHAVE) {
+            throw new ChaveIdempotenciaInvalidaException(
+                    "O cabeçalho " + CABECALHO_CHAVE + " deve ter entre 1 e " + TAMANHO_MAXIMO_CHAVE + " caracteres.");
+        }
+
+        Optional<Response> armazenada = buscarResposta(chave, tipoTransacao, assinatura);
+        if (armazenada.isPresent()) {
+            return armazenada;
+        }
+        try {
+            executorConcorrenciaSaldo.executar(() -> reservarEExecutar(chave, tipoTransacao, assinatura, mensagemSucesso, operacao));
+            return Optional.empty();
+        } catch (ChaveReservadaException e) {
+            // Uma requisição simultânea com a mesma chave foi confirmada primeiro
+            logger.log(Level.FINE, "Chave de idempotência utilizada por requisição simultânea: {0}", chave);
+            return Optional.of(buscarResposta(chave, tipoTransacao, assinatura).orElseThrow(e::getCause));
+        }
+    }
+
+    /**
+     * Grava a chave e executa a operação na mesma transação. A gravação é enviada ao banco de dados antes da operação,
+     * para que uma requisição simultânea com a mesma chave espere por esta em vez de alterar os saldos.
+     */
+    @Transactional
+    void reservarEExecutar(String chave, TipoTransacao tipoTransacao, String assinatura, String mensagemSucesso,
+            Runnable operacao) {
+        LocalDateTime agora = LocalDateTime.now();
+        chavesIdempotenciaRepository.removerSeExpirada(chave, agora.minusHours(validadeHoras));
+
+        ChavesIdempotencia chaveIdempotencia = new ChavesIdempotencia();
+        chaveIdempotencia.setChave(chave);
+        chaveIdempotencia.setTipoTransacao(tipoTransacao);
+        chaveIdempotencia.setHashRequisicao(assinatura);
+        chaveIdempotencia.setStatusHttp(Response.Status.OK.getStatusCode());
+        chaveIdempotencia.setResposta(mensagemSucesso);
+        chaveIdempotencia.setDataCriacao(agora);
+        try {
+            chavesIdempotenciaRepository.persist(chaveIdempotencia);
+            entityManager.flush();
+        } catch (PersistenceException e) {
+            // Até aqui, somente a chave foi enviada ao banco: uma violação de unicidade é da chave primária de
+            // ChavesIdempotencia. As violações causadas pela operação, abaixo, seguem como falhas da operação.
+            if (isViolacaoUnicidade(e)) {
+                throw new ChaveReservadaException(e);
+            }
+            throw e;
+        }
+
+        operacao.run();
+
+        armazenarAposCommit(chave, RespostaArmazenada.de(chaveIdempotencia));
+    }
+
+    /**
+     * Remove as chaves expiradas da tabela.
+     */
+    @Scheduled(every = "{twobank.idempotencia.limpeza.intervalo}", concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    @Transactional
+    void removerExpiradas() {
+        long removidas = chavesIdempotenciaRepository.removerExpiradas(LocalDateTime.now().minusHours(validadeHoras));
+        if (removidas > 0) {
+            logger.log(Level.INFO, "Chaves de idempotência expiradas removidas: {0,number,#}", removidas);
+        }
+    }
+
+    /**
+     * Calcula a assinatura dos parâmetros de uma requisição, para reconhecer a mesma chave usada em outra requisição.
+     * Os valores decimais são normalizados, de modo que 10 e 10.00 produzem a mesma assinatura.
+     *
+     * @param parametros Os parâmetros da requisição.
+     * @return O hash SHA-256 dos parâmetros, em hexadecimal.
+     */
+    public static String assinar(Object... parametros) {
+        StringBuilder texto = new StringBuilder();
+        for (Object parametro : parametros) {
+            if (parametro instanceof BigDecimal) {
+                texto.append(((BigDecimal) parametro).stripTrailingZeros().toPlainString());
+            } else {
+                texto.append(parametro);
+            }
+            texto.append('|');
+        }
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(texto.toString().getBytes(StandardCharsets.UTF_8));
+            StringBuilder hexadecimal = new StringBuilder(hash.length * 2);
+            for (byte b : hash) {
+                hexadecimal.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return hexadecimal.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível", e);
+        }
+    }
+
+    private Optional<Response> buscarResposta(String chave, TipoTransacao tipoTransacao, String assinatura) {
+        RespostaArmazenada resposta = cache.getIfPresent(chave);
+        if (resposta == null) {
+            resposta = chavesIdempotenciaRepository.findByIdOptional(chave)
+                    .filter(armazenada -> armazenada.getDataCriacao().isAfter(LocalDateTime.now().minusHours(validadeHoras)))
+                    .map(RespostaArmazenada::de)
+                    .orElse(null);
+            if (resposta == null) {
+                return Optional.empty();
+            }
+            cache.put(chave, resposta);
+        }
+        if (resposta.tipoTransacao != tipoTransacao || !resposta.hashRequisicao.equals(assinatura)) {
+            throw new ChaveIdempotenciaReutilizadaException(
+                    "A chave de idempotência já foi utilizada em outra requisição: " + chave);
+        }
+        return Optional.of(Response.status(resposta.statusHttp)
+                .entity(resposta.resposta)
+                .header(CABECALHO_REPETIDA, Boolean.TRUE.toString())
+                .build());
+    }
+
+    private void armazenarAposCommit(String chave, RespostaArmazenada resposta) {
+        if (registroSincronizacao.getTransactionStatus() != Status.STATUS_ACTIVE) {
+            cache.put(chave, resposta);
+            return;
+        }
+        registroSincronizacao.registerInterposedSynchronization(new Synchronization() {
+            @Override
+            public void beforeCompletion() {
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (status == Status.STATUS_COMMITTED) {
+                    cache.put(chave, resposta);
+                }
+            }
+        });
+    }
+
+    /**
+     * Verifica se a falha é uma violação de unicidade, pelo SQLSTATE ou pelo código de erro do MySQL; as demais
+     * violações de restrição, como as de chave estrangeira ou de coluna obrigatória, não são.
+     */
+    static boolean isViolacaoUnicidade(Throwable e) {
+        for (Throwable causa = e; causa != null; causa = causa.getCause()) {
+            if (causa instanceof ConstraintViolationException) {
+                SQLException sql = ((ConstraintViolationException) causa).getSQLException();
+                return sql != null && (SQLSTATE_UNICIDADE.equals(sql.getSQLState()) || sql.getErrorCode() == ERRO_MYSQL_CHAVE_DUPLICADA);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * A chave foi gravada por uma requisição simultânea, confirmada primeiro.
+     */
+    private static final class ChaveReservadaException extends RuntimeException {
+
+        private ChaveReservadaException(PersistenceException causa) {
+            super(causa);
+        }
+
+        @Override
+        public synchronized PersistenceException getCause() {
+            return (PersistenceException) super.getCause();
+        }
+    }
+
+    /**
+     * Resposta armazenada no cache: apenas o necessário para repetir a resposta e reconhecer a requisição.
+     */
+    private static final class RespostaArmazenada {
+
+        private final TipoTransacao tipoTransacao;
+        private final String hashRequisicao;
+        private final int statusHttp;
+        private final String resposta;
+
+        private RespostaArmazenada(TipoTransacao tipoTransacao, String hashRequisicao, int statusHttp, String resposta) {
+            this.tipoTransacao = tipoTransacao;
+            this.hashRequisicao = hashRequisicao;
+            this.statusHttp = statusHttp;
+            this.resposta = resposta;
+        }
+
+        private static RespostaArmazenada de(ChavesIdempotencia chave) {
+            return new RespostaArmazenada(chave.getTipoTransacao(), chave.getHashRequisicao(), chave.getStatusHttp(),
+                    chave.getResposta());
+        }
+    }
+}
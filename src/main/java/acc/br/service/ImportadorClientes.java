@@ -0,0 +1,269 @@
+package acc.br.service;
+
+import acc.br.model.Clientes;
+import acc.br.repository.ClientesRepository;
+import acc.br.util.LinhaImportacaoCliente;
+import acc.br.util.Monitorado;
+import acc.br.util.ResultadoImportacaoClientes;
+import acc.br.util.ResultadoOperacaoLote;
+import acc.br.util.ValidadorCPF;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+import javax.transaction.Transactional;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+/**
+ * Importa clientes em massa, a partir dos registros lidos sob demanda de um arquivo.
+ * <p>
+ * Os registros são processados em blocos (chunks), cada um em sua própria transação. Os CPFs de um bloco são
+ * validados em paralelo e gravados sem formatação, os demais campos passam pelas mesmas validações do cadastro
+ * unitário, e os registros que repetem um e-mail ou um CPF de outro registro do bloco são rejeitados. Os e-mails e CPFs
+ * que restam são conferidos com o cadastro por uma única consulta, e os clientes novos são inseridos com um lote JDBC.
+ * Como cada bloco é confirmado antes da leitura do seguinte, as repetições entre blocos são encontradas por essa
+ * consulta. Se um bloco falhar como um todo, por exemplo por um cliente gravado ao mesmo tempo por outra requisição,
+ * seus registros são gravados um a um pelo {@link ClientesService}. As senhas dos registros aceitos são codificadas
+ * antes da transação, em paralelo, no pool do {@link ExecutorHashSenhas}.
+ */
+@ApplicationScoped
+@Monitorado
+public class ImportadorClientes {
+
+    private static final Logger logger = Logger.getLogger(ImportadorClientes.class.getName());
+    private static final long INTERVALO_PROGRESSO_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    @Inject
+    ClientesRepository clientesRepository;
+
+    @Inject
+    ClientesService clientesService;
+
+    @Inject
+    FiltroClientesExistentes filtroClientesExistentes;
+
+    @Inject
+    ExecutorHashSenhas executorHashSenhas;
+
+    @Inject
+    Validator validator;
+
+    @ConfigProperty(name = "twobank.clientes.importacao.tamanho-bloco", defaultValue = "1000")
+    int tamanhoBloco;
+
+    @ConfigProperty(name = "twobank.clientes.importacao.erros-maximo", defaultValue = "1000")
+    int errosMaximo;
+
+    /**
+     * Importa os clientes na ordem recebida. Deve ser chamado fora de qualquer contexto transacional, pois cada bloco
+     * é confirmado de forma independente. O progresso é registrado no log periodicamente.
+     *
+     * @param linhas Os registros, lidos sob demanda.
+     * @return Os totais, os registros rejeitados e, se a leitura foi interrompida, o erro correspondente.
+     */
+    public ResultadoImportacaoClientes importar(Iterator<LinhaImportacaoCliente> linhas) {
+        ResultadoImportacaoClientes resultado = new ResultadoImportacaoClientes(errosMaximo);
+        List<LinhaImportacaoCliente> bloco = new ArrayList<>(tamanhoBloco);
+        long inicio = System.nanoTime();
+        long ultimoProgresso = inicio;
+
+        while (true) {
+            LinhaImportacaoCliente linha;
+            try {
+                if (!linhas.hasNext()) {
+                    break;
+                }
+                linha = linhas.next();
+            } catch (RuntimeException e) {
+                resultado.interromper("Conteúdo inválido após o registro " + (resultado.getTotal() + bloco.size()) + ": " + e.getMessage());
+                break;
+            }
+            bloco.add(linha);
+            if (bloco.size() >= tamanhoBloco) {
+                processarBloco(bloco, resultado);
+                bloco.clear();
+                if (System.nanoTime() - ultimoProgresso >= INTERVALO_PROGRESSO_NANOS) {
+                    ultimoProgresso = System.nanoTime();
+                    registrarProgresso("Importação de clientes em andamento", resultado, inicio);
+                }
+            }
+        }
+        if (!bloco.isEmpty()) {
+            processarBloco(bloco, resultado);
+        }
+        registrarProgresso("Importação de clientes concluída", resultado, inicio);
+        return resultado;
+    }
+
+    /**
+     * Valida os registros de um bloco, sem acessar o banco de dados: interpreta os CPFs em paralelo, grava-os sem
+     * formatação, aplica as validações do cadastro e rejeita as repetições de e-mail ou CPF dentro do bloco.
+     *
+     * @param bloco     Os registros do bloco.
+     * @param validator O validador dos campos do cliente.
+     * @param falhas    Recebe os registros rejeitados.
+     * @return Os registros aceitos, na ordem do bloco.
+     */
+    static List<LinhaImportacaoCliente> preparar(List<LinhaImportacaoCliente> bloco, Validator validator,
+                                                 List<ResultadoOperacaoLote> falhas) {
+        List<String> cpfs = new ArrayList<>(bloco.size());
+        for (LinhaImportacaoCliente linha : bloco) {
+            cpfs.add(linha.getCliente() == null ? null : linha.getCliente().getCpf());
+        }
+        long[] numerosCpf = ValidadorCPF.interpretar(cpfs);
+
+        List<LinhaImportacaoCliente> aceitos = new ArrayList<>(bloco.size());
+        Set<String> emails = new HashSet<>();
+        Set<Long> cpfsDoBloco = new HashSet<>();
+        for (int i = 0; i < bloco.size(); i++) {
+            LinhaImportacaoCliente linha = bloco.get(i);
+            Clientes cliente = linha.getCliente();
+            String erro = linha.getErro();
+            if (erro == null && numerosCpf[i] == ValidadorCPF.INVALIDO) {
+                erro = "CPF inválido: " + cliente.getCpf();
+            }
+            if (erro == null) {
+                cliente.setClienteID(null);
+                cliente.setCpf(ValidadorCPF.digitos(numerosCpf[i]));
+                erro = validar(cliente, validator);
+            }
+            if (erro == null && !cpfsDoBloco.add(numerosCpf[i])) {
+                erro = "CPF repetido no arquivo.";
+            }
+            if (erro == null && !emails.add(cliente.getEmail().toLowerCase(Locale.ROOT))) {
+                erro = "E-mail repetido no arquivo.";
+            }
+            if (erro == null) {
+                aceitos.add(linha);
+            } else {
+                falhas.add(ResultadoOperacaoLote.falha(linha.getIndice(), erro));
+            }
+        }
+        return aceitos;
+    }
+
+    /**
+     * Grava os registros aceitos de um bloco em uma nova transação: confere os e-mails e CPFs com o cadastro por uma
+     * única consulta e insere os clientes novos com um lote JDBC.
+     *
+     * @param aceitos Os registros aceitos na validação.
+     * @return O resultado de cada registro, na mesma ordem.
+     */
+    @Transactional(Transactional.TxType.REQUIRES_NEW)
+    List<ResultadoOperacaoLote> gravarBloco(List<LinhaImportacaoCliente> aceitos) {
+        List<String> emails = new ArrayList<>(aceitos.size());
+        List<String> cpfs = new ArrayList<>(aceitos.size());
+        for (LinhaImportacaoCliente linha : aceitos) {
+            emails.add(linha.getCliente().getEmail());
+            cpfs.add(linha.getCliente().getCpf());
+        }
+        Set<String> emailsExistentes = new HashSet<>();
+        Set<String> cpfsExistentes = new HashSet<>();
+        for (Object[] existente : clientesRepository.listarEmailsECpfsExistentes(emails, cpfs)) {
+            emailsExistentes.add(((String) existente[0]).toLowerCase(Locale.ROOT));
+            cpfsExistentes.add((String) existente[1]);
+        }
+
+        List<ResultadoOperacaoLote> resultados = new ArrayList<>(aceitos.size());
+        List<Clientes> novos = new ArrayList<>(aceitos.size());
+        for (LinhaImportacaoCliente linha : aceitos) {
+            Clientes cliente = linha.getCliente();
+            if (cpfsExistentes.contains(cliente.getCpf())) {
+                resultados.add(ResultadoOperacaoLote.falha(linha.getIndice(), ClientesService.MENSAGEM_CPF_EXISTENTE));
+            } else if (emailsExistentes.contains(cliente.getEmail().toLowerCase(Locale.ROOT))) {
+                resultados.add(ResultadoOperacaoLote.falha(linha.getIndice(), ClientesService.MENSAGEM_EMAIL_EXISTENTE));
+            } else {
+                novos.add(cliente);
+                resultados.add(ResultadoOperacaoLote.sucesso(linha.getIndice()));
+            }
+        }
+        clientesRepository.inserir(novos);
+        return resultados;
+    }
+
+    private void processarBloco(List<LinhaImportacaoCliente> bloco, ResultadoImportacaoClientes resultado) {
+        List<ResultadoOperacaoLote> resultados = new ArrayList<>(bloco.size());
+        List<LinhaImportacaoCliente> aceitos = preparar(bloco, validator, resultados);
+        if (!aceitos.isEmpty()) {
+            codificarSenhas(aceitos);
+            try {
+                resultados.addAll(gravarBloco(aceitos));
+            } catch (RuntimeException e) {
+                logger.log(Level.WARNING, "Falha no bloco iniciado no registro " + bloco.get(0).getIndice()
+                        + "; gravando os clientes individualmente", e);
+                resultados.addAll(gravarIndividualmente(aceitos));
+            }
+        }
+
+        resultados.sort(Comparator.comparingLong(ResultadoOperacaoLote::getIndice));
+        for (ResultadoOperacaoLote resultadoRegistro : resultados) {
+            if (resultadoRegistro.isSucesso()) {
+                resultado.registrarImportado();
+            } else {
+                resultado.registrarFalha(resultadoRegistro.getIndice(), resultadoRegistro.getMensagem());
+            }
+        }
+        for (LinhaImportacaoCliente linha : aceitos) {
+            // Os clientes gravados têm o ID atribuído; os rejeitados não
+            if (linha.getCliente().getClienteID() != null) {
+                filtroClientesExistentes.registrar(linha.getCliente().getEmail(), linha.getCliente().getCpf());
+            }
+        }
+    }
+
+    private void codificarSenhas(List<LinhaImportacaoCliente> aceitos) {
+        List<String> senhas = new ArrayList<>(aceitos.size());
+        for (LinhaImportacaoCliente linha : aceitos) {
+            senhas.add(linha.getCliente().getSenha());
+        }
+        List<String> codificadas = executorHashSenhas.codificarTodas(senhas);
+        for (int i = 0; i < aceitos.size(); i++) {
+            aceitos.get(i).getCliente().setSenha(codificadas.get(i));
+        }
+    }
+
+    private List<ResultadoOperacaoLote> gravarIndividualmente(List<LinhaImportacaoCliente> aceitos) {
+        List<ResultadoOperacaoLote> resultados = new ArrayList<>(aceitos.size());
+        for (LinhaImportacaoCliente linha : aceitos) {
+            Clientes cliente = linha.getCliente();
+            try {
+                clientesService.criarClienteComSenhaCodificada(cliente);
+                resultados.add(ResultadoOperacaoLote.sucesso(linha.getIndice()));
+            } catch (RuntimeException e) {
+                cliente.setClienteID(null);
+                resultados.add(ResultadoOperacaoLote.falha(linha.getIndice(), e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName()));
+            }
+        }
+        return resultados;
+    }
+
+    private static String validar(Clientes cliente, Validator validator) {
+        Set<ConstraintViolation<Clientes>> violacoes = validator.validate(cliente);
+        if (violacoes.isEmpty()) {
+            return null;
+        }
+        return violacoes.stream()
+                .map(violacao -> violacao.getPropertyPath() + ": " + violacao.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    private static void registrarProgresso(String mensagem, ResultadoImportacaoClientes resultado, long inicio) {
+        double segundos = Math.max((System.nanoTime() - inicio) / 1_000_000_000d, 0.001);
+        logger.log(Level.INFO, mensagem + ": {0,number,#} registros, {1,number,#} importados, {2,number,#} rejeitados, "
+                        + "em {3,number,#.##} s ({4,number,#} registros/s)",
+                new Object[]{resultado.getTotal(), resultado.getImportados(), resultado.getFalhas(), segundos, resultado.getTotal() / segundos});
+    }
+}
@@ -6,6 +6,7 @@ import acc.br.model.Clientes;
 import acc.br.model.Investimentos;
 import acc.br.repository.ClientesRepository;
 import acc.br.repository.InvestimentosRepository;
+import acc.br.util.Monitorado;
 
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
@@ -20,6 +21,7 @@ import java.util.List;
  * Classe de serviço para a entidade Investimentos.
  */
 @ApplicationScoped
+@Monitorado
 public class InvestimentosService {
 
     
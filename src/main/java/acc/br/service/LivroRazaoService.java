@@ -0,0 +1,308 @@
+package acc.br.service;
+
+import acc.br.exception.ContaNaoEncontradaException;
+import acc.br.model.ContaCorrente;
+import acc.br.model.Contas;
+import acc.br.model.LancamentosRazao;
+import acc.br.model.SaldosConsolidados;
+import acc.br.model.Transacoes;
+import acc.br.repository.ContaCorrenteRepository;
+import acc.br.repository.ContasConjuntasRepository;
+import acc.br.repository.LancamentosRazaoRepository;
+import acc.br.repository.PoupancaRepository;
+import acc.br.repository.SaldosConsolidadosRepository;
+import acc.br.util.Monitorado;
+import acc.br.util.NaturezaLancamento;
+import acc.br.util.TipoConta;
+import io.quarkus.scheduler.Scheduled;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+import javax.persistence.EntityManager;
+import javax.persistence.LockModeType;
+import javax.transaction.Transactional;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Livro-razão de partidas dobradas das contas.
+ * <p>
+ * Cada transação registrada gera, na mesma transação do banco de dados, um débito e um crédito de mesmo valor na
+ * tabela LancamentosRazao, que só recebe inserções. O saldo de uma conta no razão é o saldo consolidado em
+ * SaldosConsolidados mais a soma dos lançamentos posteriores a ele; a consolidação periódica incorpora esses
+ * lançamentos ao saldo consolidado, de modo que a consulta soma apenas a cauda recente do razão.
+ * <p>
+ * A consolidação só incorpora lançamentos mais antigos que {@code twobank.razao.consolidacao.margem-segundos}, que
+ * deve ser maior que o timeout das transações: os IDs são atribuídos na inserção, e um lançamento com ID menor que o
+ * último consolidado, ainda não confirmado, seria ignorado. O saldo consolidado de uma conta que ainda não tem
+ * lançamentos consolidados é aberto pela consolidação a partir da posição líquida da conta, com a conta bloqueada, o
+ * que incorpora ao razão a posição anterior à sua criação; a consulta nunca grava nem bloqueia. A posição líquida é a
+ * coluna Saldo menos o limite de crédito utilizado (LimiteCreditoUtilizado, apenas na conta corrente): o saque acima
+ * do saldo zera a coluna Saldo e consome o limite, e o razão registra o débito inteiro, de modo que o saldo do razão
+ * de uma conta corrente fica negativo enquanto o limite está em uso.
+ * <p>
+ * O razão é um registro das operações e uma visão materializada da posição líquida das contas, não a fonte dos
+ * saldos: as regras de débito, os saldos retornados pelas contas e a concorrência entre operações continuam usando as
+ * colunas Saldo e LimiteCredito.
+ */
+@ApplicationScoped
+@Monitorado
+public class LivroRazaoService {
+
+    private static final Logger logger = Logger.getLogger(LivroRazaoService.class.getName());
+
+    @Inject
+    LancamentosRazaoRepository lancamentosRazaoRepository;
+
+    @Inject
+    SaldosConsolidadosRepository saldosConsolidadosRepository;
+
+    @Inject
+    ContaCorrenteRepository contaCorrenteRepository;
+
+    @Inject
+    ContasConjuntasRepository contasConjuntasRepository;
+
+    @Inject
+    PoupancaRepository poupancaRepository;
+
+    @Inject
+    EntityManager entityManager;
+
+    @ConfigProperty(name = "twobank.razao.consolidacao.margem-segundos", defaultValue = "120")
+    long margemSegundos;
+
+    @ConfigProperty(name = "twobank.razao.consolidacao.tamanho-bloco", defaultValue = "10000")
+    long tamanhoBloco;
+
+    /**
+     * Lança no razão as partidas de uma transação já persistida, na transação corrente.
+     *
+     * @param transacao        A transação, com o ID atribuído.
+     * @param tipoContaDestino O tipo da conta de destino, para transferências; null nos demais casos.
+     */
+    public void lancar(Transacoes transacao, TipoConta tipoContaDestino) {
+        // As contas alteradas são gravadas (e bloqueadas) antes dos lançamentos; a abertura do saldo consolidado
+        // depende disso para enxergar todos os lançamentos da conta que bloqueou
+        entityManager.flush();
+        lancamentosRazaoRepository.inserir(partidas(transacao, tipoContaDestino, LocalDateTime.now()));
+    }
+
+    /**
+     * Lança no razão as partidas de depósitos, saques e rendimentos já persistidos, com um único lote, na transação corrente.
+     *
+     * @param transacoes As transações, com os IDs atribuídos.
+     */
+    public void lancar(List<Transacoes> transacoes) {
+        entityManager.flush();
+        LocalDateTime agora = LocalDateTime.now();
+        List<LancamentosRazao> lancamentos = new ArrayList<>(transacoes.size() * 2);
+        for (Transacoes transacao : transacoes) {
+            lancamentos.addAll(partidas(transacao, null, agora));
+        }
+        lancamentosRazaoRepository.inserir(lancamentos);
+    }
+
+    /**
+     * Obtém o saldo de uma conta no razão: o saldo consolidado mais os lançamentos posteriores. Enquanto a
+     * consolidação não abrir o saldo consolidado da conta, o saldo no razão é, por construção, a posição líquida da
+     * conta, lida sem bloqueio.
+     *
+     * @param tipoConta O tipo da conta.
+     * @param contaID   O ID da conta.
+     * @return O saldo da conta no razão.
+     * @throws ContaNaoEncontradaException Se a conta não tiver saldo consolidado e não existir.
+     */
+    @Transactional
+    public BigDecimal consultarSaldo(TipoConta tipoConta, Long contaID) {
+        SaldosConsolidados saldoConsolidado = saldosConsolidadosRepository.buscar(tipoConta, contaID).orElse(null);
+        if (saldoConsolidado == null) {
+            Contas conta = buscarConta(tipoConta, contaID, LockModeType.NONE);
+            if (conta == null) {
+                throw new ContaNaoEncontradaException("Conta não encontrada com ID: " + contaID);
+            }
+            return posicaoLiquida(conta);
+        }
+        return saldoConsolidado.getSaldo().add(
+                lancamentosRazaoRepository.somar(tipoConta, contaID, saldoConsolidado.getUltimoLancamentoID(), Long.MAX_VALUE));
+    }
+
+    /**
+     * Incorpora aos saldos consolidados os lançamentos anteriores à margem de segurança, em blocos de até
+     * {@code twobank.razao.consolidacao.tamanho-bloco} IDs, cada um em sua própria transação.
+     */
+    @Scheduled(every = "{twobank.razao.consolidacao.intervalo}", concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void consolidar() {
+        Long horizonte = buscarHorizonteConsolidacao(LocalDateTime.now().minusSeconds(margemSegundos));
+        if (horizonte == null) {
+            return;
+        }
+        long contas = 0;
+        long inicio = buscarInicioConsolidacao();
+        while (inicio < horizonte) {
+            long fim = Math.min(inicio + tamanhoBloco, horizonte);
+            contas += consolidarBloco(inicio, fim);
+            inicio = fim;
+        }
+        if (contas > 0) {
+            logger.log(Level.INFO, "Saldos consolidados até o lançamento {0,number,#}: {1,number,#} contas", new Object[]{horizonte, contas});
+        }
+    }
+
+    /**
+     * Incorpora aos saldos consolidados os lançamentos com ID no intervalo informado.
+     *
+     * @param inicio O ID a partir do qual os lançamentos são incorporados (exclusive).
+     * @param fim    O ID até o qual os lançamentos são incorporados (inclusive).
+     * @return A quantidade de contas com lançamentos no intervalo.
+     */
+    @Transactional(Transactional.TxType.REQUIRES_NEW)
+    int consolidarBloco(long inicio, long fim) {
+        List<Object[]> somas = lancamentosRazaoRepository.somarPorConta(inicio, fim);
+        LocalDateTime agora = LocalDateTime.now();
+        for (Object[] soma : somas) {
+            TipoConta tipoConta = (TipoConta) soma[0];
+            Long contaID = (Long) soma[1];
+
+            SaldosConsolidados saldoConsolidado = saldosConsolidadosRepository.buscar(tipoConta, contaID).orElse(null);
+            if (saldoConsolidado == null) {
+                saldoConsolidado = abrirSaldo(tipoConta, contaID);
+                if (saldoConsolidado == null) {
+                    // Conta removida: o saldo no razão é apenas a soma dos seus lançamentos
+                    saldoConsolidado = criarSaldo(tipoConta, contaID, BigDecimal.ZERO, 0L);
+                }
+            }
+
+            long ultimo = saldoConsolidado.getUltimoLancamentoID();
+            if (ultimo >= fim) {
+                continue;
+            }
+            BigDecimal valor = ultimo == inicio
+                    ? (BigDecimal) soma[2]
+                    : lancamentosRazaoRepository.somar(tipoConta, contaID, ultimo, fim);
+            saldoConsolidado.setSaldo(saldoConsolidado.getSaldo().add(valor));
+            saldoConsolidado.setUltimoLancamentoID(fim);
+            saldoConsolidado.setDataConsolidacao(agora);
+        }
+        return somas.size();
+    }
+
+    @Transactional
+    Long buscarHorizonteConsolidacao(LocalDateTime limite) {
+        return lancamentosRazaoRepository.buscarUltimoAntesDe(limite);
+    }
+
+    @Transactional
+    long buscarInicioConsolidacao() {
+        return saldosConsolidadosRepository.buscarUltimoLancamentoConsolidado();
+    }
+
+    /**
+     * Monta as partidas de uma transação: o débito e o crédito de mesmo valor. Depósitos e rendimentos debitam o caixa
+     * e creditam a conta, saques debitam a conta e creditam o caixa, e transferências debitam a conta de origem e
+     * creditam a conta de destino.
+     *
+     * @param transacao        A transação.
+     * @param tipoContaDestino O tipo da conta de destino, para transferências.
+     * @param dataHora         A data e hora dos lançamentos.
+     * @return O débito e o crédito da transação.
+     * @throws IllegalArgumentException Se a transferência não informar a conta de destino.
+     */
+    static List<LancamentosRazao> partidas(Transacoes transacao, TipoConta tipoContaDestino, LocalDateTime dataHora) {
+        switch (transacao.getTipoTransacao()) {
+            case DEPOSITO:
+            case RENDIMENTO:
+                return List.of(
+                        lancamento(transacao, null, null, NaturezaLancamento.DEBITO, dataHora),
+                        lancamento(transacao, transacao.getTipoConta(), transacao.getContaID(), NaturezaLancamento.CREDITO, dataHora));
+            case SAQUE:
+                return List.of(
+                        lancamento(transacao, transacao.getTipoConta(), transacao.getContaID(), NaturezaLancamento.DEBITO, dataHora),
+                        lancamento(transacao, null, null, NaturezaLancamento.CREDITO, dataHora));
+            case TRANSFERENCIA:
+                if (tipoContaDestino == null || transacao.getContaDestinoID() == null) {
+                    throw new IllegalArgumentException("A transferência deve informar a conta de destino.");
+                }
+                return List.of(
+                        lancamento(transacao, transacao.getTipoConta(), transacao.getContaID(), NaturezaLancamento.DEBITO, dataHora),
+                        lancamento(transacao, tipoContaDestino, transacao.getContaDestinoID(), NaturezaLancamento.CREDITO, dataHora));
+            default:
+                throw new IllegalArgumentException("Tipo de transação não suportado: " + transacao.getTipoTransacao());
+        }
+    }
+
+    /**
+     * Abre o saldo consolidado de uma conta a partir da sua posição líquida. A conta é bloqueada para que nenhuma
+     * transação em andamento a altere; como as contas são gravadas antes dos lançamentos, todos os lançamentos da conta
+     * já estão confirmados, e o saldo consolidado é a posição líquida menos os lançamentos ainda não consolidados.
+     *
+     * @return O saldo consolidado aberto, ou null se a conta não existir.
+     */
+    private SaldosConsolidados abrirSaldo(TipoConta tipoConta, Long contaID) {
+        Contas conta = buscarConta(tipoConta, contaID, LockModeType.PESSIMISTIC_WRITE);
+        if (conta == null) {
+            return null;
+        }
+        long ultimo = saldosConsolidadosRepository.buscarUltimoLancamentoConsolidado();
+        BigDecimal saldo = posicaoLiquida(conta).subtract(lancamentosRazaoRepository.somar(tipoConta, contaID, ultimo, Long.MAX_VALUE));
+        return criarSaldo(tipoConta, contaID, saldo, ultimo);
+    }
+
+    /**
+     * Obtém a posição líquida de uma conta: a coluna Saldo menos o limite de crédito utilizado, na conta corrente.
+     * Nas contas correntes anteriores ao registro do limite utilizado, a posição é a coluna Saldo.
+     *
+     * @param conta A conta.
+     * @return A posição líquida da conta.
+     */
+    static BigDecimal posicaoLiquida(Contas conta) {
+        if (conta instanceof ContaCorrente) {
+            BigDecimal utilizado = ((ContaCorrente) conta).getLimiteCreditoUtilizado();
+            if (utilizado != null) {
+                return conta.getSaldo().subtract(utilizado);
+            }
+        }
+        return conta.getSaldo();
+    }
+
+    private SaldosConsolidados criarSaldo(TipoConta tipoConta, Long contaID, BigDecimal saldo, long ultimoLancamentoID) {
+        SaldosConsolidados saldoConsolidado = new SaldosConsolidados();
+        saldoConsolidado.setTipoConta(tipoConta);
+        saldoConsolidado.setContaID(contaID);
+        saldoConsolidado.setSaldo(saldo);
+        saldoConsolidado.setUltimoLancamentoID(ultimoLancamentoID);
+        saldoConsolidado.setDataConsolidacao(LocalDateTime.now());
+        saldosConsolidadosRepository.persist(saldoConsolidado);
+        return saldoConsolidado;
+    }
+
+    private Contas buscarConta(TipoConta tipoConta, Long contaID, LockModeType modoBloqueio) {
+        switch (tipoConta) {
+            case CONTA_CORRENTE:
+                return contaCorrenteRepository.findById(contaID, modoBloqueio);
+            case CONTA_CONJUNTA:
+                return contasConjuntasRepository.findById(contaID, modoBloqueio);
+            case CONTA_POUPANCA:
+                return poupancaRepository.findById(contaID, modoBloqueio);
+            default:
+                throw new IllegalArgumentException("Tipo de conta não suportado: " + tipoConta);
+        }
+    }
+
+    private static LancamentosRazao lancamento(Transacoes transacao, TipoConta tipoConta, Long contaID,
+            NaturezaLancamento natureza, LocalDateTime dataHora) {
+        LancamentosRazao lancamento = new LancamentosRazao();
+        lancamento.setTransacaoID(transacao.getTransacaoID());
+        lancamento.setTipoConta(tipoConta);
+        lancamento.setContaID(contaID);
+        lancamento.setNatureza(natureza);
+        lancamento.setValor(transacao.getValor());
+        lancamento.setDataHora(dataHora);
+        return lancamento;
+    }
+}
@@ -0,0 +1,126 @@
+package acc.br.service;
+
+import acc.br.model.Transacoes;
+import acc.br.util.TipoConta;
+import acc.br.util.TipoTransacao;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+
+import javax.annotation.PostConstruct;
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+import javax.transaction.Status;
+import javax.transaction.Synchronization;
+import javax.transaction.TransactionSynchronizationRegistry;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Métricas de negócio do banco publicadas em /q/metrics: transações realizadas por tipo de transação e tipo de conta,
+ * exceções lançadas pelos beans {@link acc.br.util.Monitorado} e o tempo de cada método desses beans.
+ * <p>
+ * Os medidores das filas, dos pools e dos caches internos são registrados pelos próprios componentes. Os tempos dos
+ * endpoints e o uso do pool de conexões são publicados pelas extensões do Micrometer e do Agroal.
+ */
+@ApplicationScoped
+public class MetricasBanco {
+
+    static final String TRANSACOES = "twobank.transacoes";
+    static final String EXCECOES = "twobank.excecoes";
+    static final String SEM_EXCECAO = "none";
+
+    @Inject
+    MeterRegistry registro;
+
+    @Inject
+    TransactionSynchronizationRegistry registroSincronizacao;
+
+    private final Map<TipoTransacao, Map<TipoConta, Counter>> contadoresTransacoes = new EnumMap<>(TipoTransacao.class);
+
+    /**
+     * Exceções já contabilizadas. Uma exceção atravessa vários beans monitorados até ser tratada, possivelmente em
+     * outra thread quando a operação é assíncrona, e deve ser contada apenas uma vez, com o tipo em que foi lançada.
+     * As referências são fracas: cada exceção sai do conjunto quando é descartada.
+     */
+    private final Set<Throwable> excecoesContadas = Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
+
+    @PostConstruct
+    void inicializar() {
+        for (TipoTransacao tipoTransacao : TipoTransacao.values()) {
+            Map<TipoConta, Counter> porTipoConta = new EnumMap<>(TipoConta.class);
+            for (TipoConta tipoConta : TipoConta.values()) {
+                porTipoConta.put(tipoConta, Counter.builder(TRANSACOES)
+                        .description("Transações financeiras registradas")
+                        .tag("tipo_transacao", tipoTransacao.name())
+                        .tag("tipo_conta", tipoConta.name())
+                        .register(registro));
+            }
+            contadoresTransacoes.put(tipoTransacao, porTipoConta);
+        }
+    }
+
+    /**
+     * Contabiliza uma transação financeira registrada. Dentro de uma transação, a contagem ocorre somente
+     * após o commit, para que operações desfeitas e depois repetidas não sejam contadas duas vezes.
+     *
+     * @param transacao A transação registrada.
+     */
+    public void contarTransacao(Transacoes transacao) {
+        if (transacao.getTipoTransacao() == null || transacao.getTipoConta() == null) {
+            return;
+        }
+        Counter contador = contadoresTransacoes.get(transacao.getTipoTransacao()).get(transacao.getTipoConta());
+        if (registroSincronizacao.getTransactionStatus() != Status.STATUS_ACTIVE) {
+            contador.increment();
+            return;
+        }
+        registroSincronizacao.registerInterposedSynchronization(new Synchronization() {
+            @Override
+            public void beforeCompletion() {
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (status == Status.STATUS_COMMITTED) {
+                    contador.increment();
+                }
+            }
+        });
+    }
+
+    /**
+     * Contabiliza uma exceção pelo nome da sua classe, ignorando a mesma instância já contabilizada.
+     *
+     * @param excecao A exceção lançada.
+     */
+    public void contarExcecao(Throwable excecao) {
+        if (excecoesContadas.add(excecao)) {
+            registro.counter(EXCECOES, "excecao", excecao.getClass().getSimpleName()).increment();
+        }
+    }
+
+    /**
+     * Registra o tempo de execução de um método monitorado e a exceção que o encerrou, se houver.
+     *
+     * @param classe O bean que declara o método.
+     * @param metodo O nome do método.
+     * @param nanos  A duração da chamada em nanossegundos.
+     * @param erro   A exceção lançada, ou null se o método terminou normalmente.
+     */
+    public void registrarExecucao(Class<?> classe, String metodo, long nanos, Throwable erro) {
+        if (erro != null) {
+            contarExcecao(erro);
+        }
+        Timer.builder(ConfiguracaoMetricas.METODOS)
+                .tags(Tags.of("classe", classe.getSimpleName(), "metodo", metodo,
+                        "excecao", erro == null ? SEM_EXCECAO : erro.getClass().getSimpleName()))
+                .register(registro)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+}
@@ -0,0 +1,351 @@
+package acc.br.service;
+
+import acc.br.model.AlertasGastosExcessivos;
+import acc.br.model.Notificacoes;
+import acc.br.repository.AlertasGastosExcessivosRepository;
+import acc.br.repository.NotificacoesRepository;
+import acc.br.util.TipoTransacao;
+import acc.br.util.TotaisJanela;
+import io.quarkus.scheduler.Scheduled;
+import org.eclipse.microprofile.context.ManagedExecutor;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+import javax.transaction.Status;
+import javax.transaction.Synchronization;
+import javax.transaction.Transactional;
+import javax.transaction.TransactionSynchronizationRegistry;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Avalia os saques contra os alertas de gastos excessivos configurados por cada cliente.
+ * <p>
+ * Os alertas ativos ficam em memória, indexados pelo ID do cliente. Os alertas sem janela são ordenados pelo valor
+ * limite, de modo que basta comparar a saída com o menor limite; os alertas com janela comparam os totais da janela,
+ * obtidos em tempo constante do {@link AgregadorGastosJanela}, e disparam quando a saída faz o total ultrapassar o
+ * limite. Os totais são obtidos no registro da saída e incluem as saídas simultâneas ainda em curso, de modo que
+ * cada saída recebe totais distintos e exatamente uma ultrapassa cada limite. Nenhuma avaliação acessa o banco de dados.
+ * O índice é atualizado após o commit das alterações feitas por {@link AlertasGastosExcessivosService} e recarregado
+ * por completo a cada {@code twobank.alertas.recarga.intervalo}, o que também incorpora alterações feitas por outras
+ * instâncias da aplicação.
+ * <p>
+ * Quando uma saída (saque ou transferência enviada) excede algum limite, o disparo dos alertas (gravação da notificação
+ * e entrega pelo {@link CanalNotificacao}) é feito em segundo plano após o commit; uma saída desfeita não dispara
+ * alertas.
+ */
+@ApplicationScoped
+public class MotorAlertasGastos {
+
+    private static final Logger logger = Logger.getLogger(MotorAlertasGastos.class.getName());
+
+    private static final int[] SEM_JANELAS = new int[0];
+
+    @Inject
+    AlertasGastosExcessivosRepository alertasGastosExcessivosRepository;
+
+    @Inject
+    NotificacoesRepository notificacoesRepository;
+
+    @Inject
+    CanalNotificacao canalNotificacao;
+
+    @Inject
+    AgregadorGastosJanela agregadorGastosJanela;
+
+    @Inject
+    ManagedExecutor executor;
+
+    @Inject
+    TransactionSynchronizationRegistry registroSincronizacao;
+
+    /**
+     * Regras ativas de cada cliente. As regras de um cliente nunca são alteradas: cada atualização as substitui.
+     */
+    private final Map<Long, RegrasCliente> regrasPorCliente = new ConcurrentHashMap<>();
+
+    /**
+     * Registra a saída nas janelas de gastos do cliente, avalia-a contra os alertas do cliente e agenda o disparo dos
+     * alertas excedidos para após o commit.
+     *
+     * @param clienteID     O ID do cliente da conta.
+     * @param tipoTransacao O tipo da saída (saque ou transferência).
+     * @param valor         O valor da saída.
+     */
+    public void avaliar(Long clienteID, TipoTransacao tipoTransacao, BigDecimal valor) {
+        if (clienteID == null) {
+            return;
+        }
+        RegrasCliente regras = regrasPorCliente.get(clienteID);
+        // Os totais antecedem esta saída e incluem as saídas simultâneas ainda em curso
+        TotaisJanela[] totaisJanelas = agregadorGastosJanela.registrar(clienteID, valor,
+                regras == null ? SEM_JANELAS : regras.janelasMinutos);
+        if (regras == null) {
+            return;
+        }
+        List<String> mensagens = null;
+        for (RegraAlerta regra : regras.individuais) {
+            if (valor.compareTo(regra.valorLimite) <= 0) {
+                break;
+            }
+            mensagens = incluir(mensagens, mensagemIndividual(tipoTransacao, valor, regra));
+        }
+        for (int i = 0; i < regras.janela.length; i++) {
+            RegraAlerta regra = regras.janela[i];
+            TotaisJanela totais = totaisJanelas[i];
+            if (regra.valorLimite != null && totais.getValor().compareTo(regra.valorLimite) <= 0
+                    && totais.getValor().add(valor).compareTo(regra.valorLimite) > 0) {
+                mensagens = incluir(mensagens, mensagemValorJanela(totais.getValor().add(valor), regra));
+            }
+            if (regra.quantidadeMaxima != null && totais.getQuantidade() <= regra.quantidadeMaxima
+                    && totais.getQuantidade() + 1 > regra.quantidadeMaxima) {
+                mensagens = incluir(mensagens, mensagemQuantidadeJanela(totais.getQuantidade() + 1, regra));
+            }
+        }
+        if (mensagens != null) {
+            List<String> disparadas = mensagens;
+            aposCommit(() -> executor.execute(() -> disparar(clienteID, disparadas)));
+        }
+    }
+
+    /**
+     * Atualiza o índice com um alerta criado ou alterado, após o commit da transação corrente.
+     *
+     * @param clienteIDAnterior O ID do cliente ao qual o alerta pertencia antes da alteração, ou null se foi criado.
+     * @param alerta            O alerta criado ou alterado, com o ID atribuído.
+     */
+    public void atualizar(Long clienteIDAnterior, AlertasGastosExcessivos alerta) {
+        RegraAlerta regra = RegraAlerta.de(alerta);
+        boolean ativo = Integer.valueOf(1).equals(alerta.getAtivo()) && regra.isAvaliavel();
+        aposCommit(() -> {
+            if (clienteIDAnterior != null) {
+                removerRegra(clienteIDAnterior, regra.alertaID);
+            }
+            removerRegra(regra.clienteID, regra.alertaID);
+            if (ativo) {
+                regrasPorCliente.compute(regra.clienteID, (cliente, regras) -> RegrasCliente.com(regras, regra));
+            }
+        });
+    }
+
+    /**
+     * Remove um alerta do índice, após o commit da transação corrente.
+     *
+     * @param alerta O alerta removido.
+     */
+    public void remover(AlertasGastosExcessivos alerta) {
+        Long clienteID = alerta.getClienteID();
+        Long alertaID = alerta.getAlertaID();
+        aposCommit(() -> removerRegra(clienteID, alertaID));
+    }
+
+    /**
+     * Recarrega o índice a partir da tabela AlertasGastosExcessivos. A primeira execução ocorre na inicialização.
+     */
+    @Scheduled(every = "{twobank.alertas.recarga.intervalo}", concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    @Transactional
+    void recarregar() {
+        Map<Long, List<RegraAlerta>> agrupadas = new HashMap<>();
+        for (AlertasGastosExcessivos alerta : alertasGastosExcessivosRepository.listarAtivos()) {
+            RegraAlerta regra = RegraAlerta.de(alerta);
+            if (regra.isAvaliavel()) {
+                agrupadas.computeIfAbsent(regra.clienteID, cliente -> new ArrayList<>()).add(regra);
+            }
+        }
+        agrupadas.forEach((clienteID, regras) -> regrasPorCliente.put(clienteID, RegrasCliente.de(regras)));
+        regrasPorCliente.keySet().retainAll(agrupadas.keySet());
+        logger.log(Level.FINE, "Alertas de gastos carregados para {0,number,#} clientes", agrupadas.size());
+    }
+
+    /**
+     * Grava e entrega uma notificação para cada alerta excedido pela saída.
+     */
+    @Transactional
+    void disparar(Long clienteID, List<String> mensagens) {
+        LocalDateTime agora = LocalDateTime.now();
+        for (String mensagem : mensagens) {
+            Notificacoes notificacao = new Notificacoes();
+            notificacao.setClienteID(clienteID);
+            notificacao.setDataHoraNotificacao(agora);
+            notificacao.setMensagemNotificacao(mensagem);
+            notificacao.setEnviada(entregar(notificacao) ? 1 : 0);
+            notificacoesRepository.persist(notificacao);
+        }
+    }
+
+    /**
+     * Monta o texto da notificação de um alerta sem janela excedido por uma saída.
+     *
+     * @param tipoTransacao O tipo da saída.
+     * @param valor         O valor da saída.
+     * @param regra         O alerta excedido.
+     * @return A mensagem da notificação.
+     */
+    static String mensagemIndividual(TipoTransacao tipoTransacao, BigDecimal valor, RegraAlerta regra) {
+        String saida = tipoTransacao == TipoTransacao.TRANSFERENCIA ? "Transferência" : "Saque";
+        return prefixo(regra) + saida + " de R$ " + valor + " excede o limite de R$ " + regra.valorLimite + ".";
+    }
+
+    /**
+     * Monta o texto da notificação de um alerta cuja soma na janela foi ultrapassada.
+     *
+     * @param total O total da janela, incluindo a saída.
+     * @param regra O alerta excedido.
+     * @return A mensagem da notificação.
+     */
+    static String mensagemValorJanela(BigDecimal total, RegraAlerta regra) {
+        return prefixo(regra) + "Saídas de R$ " + total + " nos últimos " + regra.janelaMinutos
+                + " minutos excedem o limite de R$ " + regra.valorLimite + ".";
+    }
+
+    /**
+     * Monta o texto da notificação de um alerta cuja quantidade de saídas na janela foi ultrapassada.
+     *
+     * @param quantidade A quantidade de saídas na janela, incluindo a saída.
+     * @param regra      O alerta excedido.
+     * @return A mensagem da notificação.
+     */
+    static String mensagemQuantidadeJanela(long quantidade, RegraAlerta regra) {
+        return prefixo(regra) + quantidade + " saídas nos últimos " + regra.janelaMinutos
+                + " minutos excedem o máximo de " + regra.quantidadeMaxima + ".";
+    }
+
+    private static String prefixo(RegraAlerta regra) {
+        return regra.tipoAlerta == null ? "Alerta: " : "Alerta (" + regra.tipoAlerta + "): ";
+    }
+
+    private static List<String> incluir(List<String> mensagens, String mensagem) {
+        List<String> lista = mensagens == null ? new ArrayList<>(2) : mensagens;
+        lista.add(mensagem);
+        return lista;
+    }
+
+    private boolean entregar(Notificacoes notificacao) {
+        try {
+            canalNotificacao.entregar(notificacao);
+            return true;
+        } catch (RuntimeException e) {
+            logger.log(Level.WARNING, "Falha na entrega do alerta ao cliente " + notificacao.getClienteID(), e);
+            return false;
+        }
+    }
+
+    private void removerRegra(Long clienteID, Long alertaID) {
+        if (clienteID != null) {
+            regrasPorCliente.computeIfPresent(clienteID, (cliente, regras) -> regras.sem(alertaID));
+        }
+    }
+
+    private void aposCommit(Runnable acao) {
+        if (registroSincronizacao.getTransactionStatus() != Status.STATUS_ACTIVE) {
+            acao.run();
+            return;
+        }
+        registroSincronizacao.registerInterposedSynchronization(new Synchronization() {
+            @Override
+            public void beforeCompletion() {
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (status == Status.STATUS_COMMITTED) {
+                    acao.run();
+                }
+            }
+        });
+    }
+
+    /**
+     * Regras ativas de um cliente: as sem janela, em ordem crescente de valor limite, e as com janela.
+     */
+    static final class RegrasCliente {
+
+        private static final Comparator<RegraAlerta> ORDEM_LIMITE = Comparator.comparing((RegraAlerta regra) -> regra.valorLimite)
+                .thenComparing(regra -> regra.alertaID);
+
+        private final RegraAlerta[] individuais;
+        private final RegraAlerta[] janela;
+        private final int[] janelasMinutos;
+
+        private RegrasCliente(RegraAlerta[] individuais, RegraAlerta[] janela) {
+            this.individuais = individuais;
+            this.janela = janela;
+            this.janelasMinutos = Arrays.stream(janela).mapToInt(regra -> regra.janelaMinutos).toArray();
+        }
+
+        static RegrasCliente de(Collection<RegraAlerta> regras) {
+            RegraAlerta[] individuais = regras.stream().filter(regra -> regra.janelaMinutos == null)
+                    .sorted(ORDEM_LIMITE).toArray(RegraAlerta[]::new);
+            RegraAlerta[] janela = regras.stream().filter(regra -> regra.janelaMinutos != null)
+                    .toArray(RegraAlerta[]::new);
+            return new RegrasCliente(individuais, janela);
+        }
+
+        static RegrasCliente com(RegrasCliente regras, RegraAlerta regra) {
+            List<RegraAlerta> todas = regras == null ? new ArrayList<>() : regras.todas();
+            todas.add(regra);
+            return de(todas);
+        }
+
+        RegrasCliente sem(Long alertaID) {
+            List<RegraAlerta> restantes = todas();
+            restantes.removeIf(regra -> regra.alertaID.equals(alertaID));
+            return restantes.isEmpty() ? null : de(restantes);
+        }
+
+        private List<RegraAlerta> todas() {
+            List<RegraAlerta> todas = new ArrayList<>(individuais.length + janela.length);
+            todas.addAll(Arrays.asList(individuais));
+            todas.addAll(Arrays.asList(janela));
+            return todas;
+        }
+    }
+
+    /**
+     * Cópia imutável de um alerta ativo, mantida no índice.
+     */
+    static final class RegraAlerta {
+
+        private final Long alertaID;
+        private final Long clienteID;
+        private final String tipoAlerta;
+        private final BigDecimal valorLimite;
+        private final Integer janelaMinutos;
+        private final Integer quantidadeMaxima;
+
+        RegraAlerta(Long alertaID, Long clienteID, String tipoAlerta, BigDecimal valorLimite, Integer janelaMinutos,
+                Integer quantidadeMaxima) {
+            this.alertaID = alertaID;
+            this.clienteID = clienteID;
+            this.tipoAlerta = tipoAlerta;
+            this.valorLimite = valorLimite;
+            this.janelaMinutos = janelaMinutos;
+            this.quantidadeMaxima = quantidadeMaxima;
+        }
+
+        static RegraAlerta de(AlertasGastosExcessivos alerta) {
+            return new RegraAlerta(alerta.getAlertaID(), alerta.getClienteID(), alerta.getTipoAlerta(), alerta.getValorLimite(),
+                    alerta.getJanelaMinutos(), alerta.getQuantidadeMaxima());
+        }
+
+        /**
+         * Indica se o alerta tem os limites necessários para ser avaliado.
+         */
+        boolean isAvaliavel() {
+            if (clienteID == null) {
+                return false;
+            }
+            return janelaMinutos == null ? valorLimite != null : valorLimite != null || quantidadeMaxima != null;
+        }
+    }
+}
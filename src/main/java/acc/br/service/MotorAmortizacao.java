@@ -0,0 +1,254 @@
+package acc.br.service;
+
+import acc.br.model.Emprestimos;
+import acc.br.util.ParcelaAmortizacao;
+import acc.br.util.PrecisaoAmortizacao;
+import acc.br.util.SistemaAmortizacao;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.quarkus.runtime.StartupEvent;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import javax.annotation.PostConstruct;
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
+import javax.inject.Inject;
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Calcula as tabelas de amortização dos empréstimos pela Tabela Price ou pelo Sistema de Amortização Constante (SAC).
+ * <p>
+ * A taxa de juros de Emprestimos é anual, em percentual, e é convertida para a taxa mensal proporcional (taxa / 12),
+ * com {@value #ESCALA_TAXA_MENSAL} casas decimais. Os juros de cada mês são calculados sobre o saldo devedor e
+ * arredondados ao centavo; a última parcela absorve a diferença dos arredondamentos e zera o saldo.
+ * <p>
+ * O fator (1 + i)^n da parcela da Tabela Price é guardado em cache por taxa mensal e prazo, até
+ * {@code twobank.emprestimos.amortizacao.fatores-maximo} combinações, de modo que simulações e tabelas repetidas não
+ * recalculam a potência. Com {@code twobank.emprestimos.amortizacao.precisao=RAPIDA}, o padrão, a potência é
+ * calculada com 24 algarismos significativos; com EXATA, com todas as casas, como no cálculo original das parcelas.
+ * As parcelas são geradas sob demanda por {@link #parcelas}, sem montar a tabela inteira em memória.
+ */
+@ApplicationScoped
+public class MotorAmortizacao {
+
+    static final int ESCALA_TAXA_MENSAL = 10;
+
+    private static final MathContext CONTEXTO_RAPIDO = new MathContext(24, RoundingMode.HALF_EVEN);
+    private static final BigDecimal MESES_POR_ANO_EM_PERCENTUAL = BigDecimal.valueOf(1200);
+
+    @Inject
+    MeterRegistry registro;
+
+    @ConfigProperty(name = "twobank.emprestimos.amortizacao.precisao", defaultValue = "RAPIDA")
+    PrecisaoAmortizacao precisao;
+
+    @ConfigProperty(name = "twobank.emprestimos.amortizacao.fatores-maximo", defaultValue = "10000")
+    long fatoresMaximo;
+
+    private Cache<ChaveFator, BigDecimal> fatores;
+
+    @PostConstruct
+    void inicializar() {
+        fatores = Caffeine.newBuilder()
+                .maximumSize(fatoresMaximo)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Converte a taxa de juros anual de um empréstimo, em percentual, para a taxa mensal proporcional.
+     *
+     * @param taxaJurosAnual A taxa de juros anual, em percentual (por exemplo, 12 para 12% ao ano).
+     * @return A taxa mensal em formato decimal (0.01 para o exemplo), com {@value #ESCALA_TAXA_MENSAL} casas.
+     */
+    public static BigDecimal taxaMensal(BigDecimal taxaJurosAnual) {
+        return taxaJurosAnual.divide(MESES_POR_ANO_EM_PERCENTUAL, ESCALA_TAXA_MENSAL, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * Calcula o valor da parcela de um empréstimo pela Tabela Price.
+     *
+     * @param valorEmprestimo O valor do empréstimo.
+     * @param taxaJurosMensal A taxa de juros mensal, em formato decimal (por exemplo, 0.05 para 5%).
+     * @param prazoMeses      O prazo em meses.
+     * @return O valor da parcela, arredondado ao centavo.
+     * @throws IllegalArgumentException Se o valor, a taxa ou o prazo forem inválidos.
+     */
+    public BigDecimal valorParcelaPrice(BigDecimal valorEmprestimo, BigDecimal taxaJurosMensal, int prazoMeses) {
+        validar(valorEmprestimo, taxaJurosMensal, prazoMeses);
+        if (taxaJurosMensal.signum() == 0) {
+            return valorEmprestimo.divide(BigDecimal.valueOf(prazoMeses), 2, RoundingMode.HALF_UP);
+        }
+        BigDecimal fator = fator(taxaJurosMensal, prazoMeses);
+        return valorEmprestimo.multiply(taxaJurosMensal).multiply(fator).divide(fator.subtract(BigDecimal.ONE), 2, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * Gera sob demanda as parcelas da tabela de amortização de um empréstimo.
+     *
+     * @param emprestimo O empréstimo, com o valor, a taxa de juros anual e o prazo.
+     * @param sistema    O sistema de amortização.
+     * @return As parcelas, da primeira à última.
+     * @throws IllegalArgumentException Se o valor, a taxa ou o prazo do empréstimo forem inválidos.
+     */
+    public Iterator<ParcelaAmortizacao> parcelas(Emprestimos emprestimo, SistemaAmortizacao sistema) {
+        if (emprestimo.getTaxaJuros() == null) {
+            throw new IllegalArgumentException("A taxa de juros deve estar entre 0% e 100%.");
+        }
+        return parcelas(emprestimo.getValorEmprestimo(), taxaMensal(emprestimo.getTaxaJuros()), emprestimo.getPrazoMeses(), sistema);
+    }
+
+    /**
+     * Gera sob demanda as parcelas de uma tabela de amortização. Cada parcela é calculada a partir do saldo devedor
+     * da anterior, e nenhuma lista é mantida, de modo que prazos longos são percorridos em memória constante.
+     *
+     * @param valorEmprestimo O valor do empréstimo; é arredondado ao centavo.
+     * @param taxaJurosMensal A taxa de juros mensal, em formato decimal.
+     * @param prazoMeses      O prazo em meses.
+     * @param sistema         O sistema de amortização.
+     * @return As parcelas, da primeira à última.
+     * @throws IllegalArgumentException Se o valor, a taxa ou o prazo forem inválidos.
+     */
+    public Iterator<ParcelaAmortizacao> parcelas(BigDecimal valorEmprestimo, BigDecimal taxaJurosMensal, int prazoMeses,
+                                                 SistemaAmortizacao sistema) {
+        validar(valorEmprestimo, taxaJurosMensal, prazoMeses);
+        BigDecimal valor = valorEmprestimo.setScale(2, RoundingMode.HALF_UP);
+        if (sistema == SistemaAmortizacao.SAC) {
+            BigDecimal amortizacao = valor.divide(BigDecimal.valueOf(prazoMeses), 2, RoundingMode.HALF_UP);
+            return new TabelaParcelas(valor, taxaJurosMensal, prazoMeses, null, amortizacao);
+        }
+        return new TabelaParcelas(valor, taxaJurosMensal, prazoMeses, valorParcelaPrice(valor, taxaJurosMensal, prazoMeses), null);
+    }
+
+    /**
+     * Calcula a tabela de amortização completa de um empréstimo. Para prazos longos transmitidos em uma resposta,
+     * prefira {@link #parcelas(Emprestimos, SistemaAmortizacao)}.
+     *
+     * @param emprestimo O empréstimo, com o valor, a taxa de juros anual e o prazo.
+     * @param sistema    O sistema de amortização.
+     * @return As parcelas, da primeira à última.
+     * @throws IllegalArgumentException Se o valor, a taxa ou o prazo do empréstimo forem inválidos.
+     */
+    public List<ParcelaAmortizacao> tabela(Emprestimos emprestimo, SistemaAmortizacao sistema) {
+        List<ParcelaAmortizacao> tabela = new ArrayList<>(Math.max(emprestimo.getPrazoMeses(), 0));
+        parcelas(emprestimo, sistema).forEachRemaining(tabela::add);
+        return tabela;
+    }
+
+    /**
+     * Registra as métricas do cache de fatores na inicialização da aplicação.
+     */
+    void registrarMedidores(@Observes StartupEvent evento) {
+        CaffeineCacheMetrics.monitor(registro, fatores, "fatores-amortizacao");
+    }
+
+    /**
+     * Obtém o cache dos fatores (1 + i)^n.
+     *
+     * @return O cache.
+     */
+    Cache<?, ?> getCache() {
+        return fatores;
+    }
+
+    private BigDecimal fator(BigDecimal taxaJurosMensal, int prazoMeses) {
+        return fatores.get(new ChaveFator(taxaJurosMensal, prazoMeses), chave -> {
+            BigDecimal base = BigDecimal.ONE.add(taxaJurosMensal);
+            return precisao == PrecisaoAmortizacao.EXATA ? base.pow(prazoMeses) : base.pow(prazoMeses, CONTEXTO_RAPIDO);
+        });
+    }
+
+    private static void validar(BigDecimal valorEmprestimo, BigDecimal taxaJurosMensal, int prazoMeses) {
+        if (valorEmprestimo == null || valorEmprestimo.signum() <= 0) {
+            throw new IllegalArgumentException("O valor do empréstimo deve ser maior que zero.");
+        }
+        if (taxaJurosMensal == null || taxaJurosMensal.signum() < 0) {
+            throw new IllegalArgumentException("A taxa de juros deve estar entre 0% e 100%.");
+        }
+        if (prazoMeses <= 0) {
+            throw new IllegalArgumentException("O prazo em meses deve ser maior que zero.");
+        }
+    }
+
+    /**
+     * Taxa mensal e prazo de um fator em cache. A taxa é comparada pelo valor, sem considerar a escala.
+     */
+    private static final class ChaveFator {
+
+        private final BigDecimal taxaJurosMensal;
+        private final int prazoMeses;
+
+        ChaveFator(BigDecimal taxaJurosMensal, int prazoMeses) {
+            this.taxaJurosMensal = taxaJurosMensal.stripTrailingZeros();
+            this.prazoMeses = prazoMeses;
+        }
+
+        @Override
+        public boolean equals(Object outro) {
+            if (!(outro instanceof ChaveFator)) {
+                return false;
+            }
+            ChaveFator chave = (ChaveFator) outro;
+            return prazoMeses == chave.prazoMeses && taxaJurosMensal.equals(chave.taxaJurosMensal);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * taxaJurosMensal.hashCode() + prazoMeses;
+        }
+    }
+
+    /**
+     * Parcelas de uma tabela, calculadas uma a uma. Na Tabela Price, a parcela é fixa e a amortização é a diferença
+     * para os juros; no SAC, a amortização é fixa. Em ambos, a última parcela amortiza todo o saldo restante.
+     */
+    private static final class TabelaParcelas implements Iterator<ParcelaAmortizacao> {
+
+        private final BigDecimal taxaJurosMensal;
+        private final int prazoMeses;
+        private final BigDecimal parcelaFixa;
+        private final BigDecimal amortizacaoFixa;
+        private BigDecimal saldoDevedor;
+        private int numero;
+
+        TabelaParcelas(BigDecimal valor, BigDecimal taxaJurosMensal, int prazoMeses, BigDecimal parcelaFixa, BigDecimal amortizacaoFixa) {
+            this.saldoDevedor = valor;
+            this.taxaJurosMensal = taxaJurosMensal;
+            this.prazoMeses = prazoMeses;
+            this.parcelaFixa = parcelaFixa;
+            this.amortizacaoFixa = amortizacaoFixa;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return numero < prazoMeses;
+        }
+
+        @Override
+        public ParcelaAmortizacao next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            numero++;
+            BigDecimal juros = saldoDevedor.multiply(taxaJurosMensal).setScale(2, RoundingMode.HALF_UP);
+            BigDecimal amortizacao;
+            if (numero == prazoMeses) {
+                amortizacao = saldoDevedor;
+            } else if (parcelaFixa != null) {
+                amortizacao = parcelaFixa.subtract(juros).min(saldoDevedor);
+            } else {
+                amortizacao = amortizacaoFixa.min(saldoDevedor);
+            }
+            saldoDevedor = saldoDevedor.subtract(amortizacao);
+            return new ParcelaAmortizacao(numero, juros.add(amortizacao), juros, amortizacao, saldoDevedor);
+        }
+    }
+}
@@ -3,6 +3,7 @@ package acc.br.service;
 import acc.br.exception.NotificacaoNaoEncontradaException;
 import acc.br.model.Notificacoes;
 import acc.br.repository.NotificacoesRepository;
+import acc.br.util.Monitorado;
 
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
@@ -15,6 +16,7 @@ import java.util.List;
  * Classe de serviço para a entidade Notificacoes.
  */
 @ApplicationScoped
+@Monitorado
 public class NotificacoesService {
 
     @Inject
@@ -3,6 +3,7 @@ package acc.br.service;
 import acc.br.exception.ParametroConfiguracaoNaoEncontradoException;
 import acc.br.model.ParametrosConfiguracao;
 import acc.br.repository.ParametrosConfiguracaoRepository;
+import acc.br.util.Monitorado;
 
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
@@ -12,8 +13,10 @@ import java.util.List;
 
 /**
  * Classe de serviço para a entidade ParametrosConfiguracao.
+ * As escritas republicam o {@link CacheParametrosConfiguracao} após o commit.
  */
 @ApplicationScoped
+@Monitorado
 public class ParametrosConfiguracaoService {
 
     @Inject
@@ -22,6 +25,9 @@ public class ParametrosConfiguracaoService {
     @Inject
     EntityManager entityManager;
 
+    @Inject
+    CacheParametrosConfiguracao cacheParametrosConfiguracao;
+
     /**
      * Cria um novo registro de parâmetro de configuração.
      *
@@ -31,6 +37,7 @@ public class ParametrosConfiguracaoService {
     public void criarParametrosConfiguracao(ParametrosConfiguracao parametrosConfiguracao) {
          ParametrosConfiguracao parametrosConfiguracaoGerenciado = entityManager.merge(parametrosConfiguracao); // Mescla a entidade no contexto de persistência
         entityManager.persist(parametrosConfiguracaoGerenciado); // Persiste a entidade
+        cacheParametrosConfiguracao.recarregarAposCommit();
     }
 
     /**
@@ -55,6 +62,7 @@ public class ParametrosConfiguracaoService {
 
          ParametrosConfiguracao parametrosConfiguracaoGerenciado = entityManager.merge(entity); // Mescla a entidade no contexto de persistência
         entityManager.persist(parametrosConfiguracaoGerenciado); // Persiste a entidade
+        cacheParametrosConfiguracao.recarregarAposCommit();
     }
 
     /**
@@ -95,5 +103,6 @@ public class ParametrosConfiguracaoService {
             throw new ParametroConfiguracaoNaoEncontradoException("Registro de parâmetro de configuração não encontrado com o ID: " + id);
         }
         parametrosConfiguracaoRepository.delete(parametrosConfiguracao);
+        cacheParametrosConfiguracao.recarregarAposCommit();
     }
 }
@@ -3,10 +3,9 @@ package acc.br.service;
 import acc.br.exception.ContaExistenteException;
 import acc.br.exception.ParametroConfiguracaoNaoEncontradoException;
 import acc.br.exception.PoupancaNaoEncontradaException;
-import acc.br.model.ParametrosConfiguracao;
 import acc.br.model.Poupanca;
-import acc.br.repository.ParametrosConfiguracaoRepository;
 import acc.br.repository.PoupancaRepository;
+import acc.br.util.Monitorado;
 import acc.br.util.PoupancaServiceQualifier;
 import acc.br.util.TipoConta;
 import javax.enterprise.context.ApplicationScoped;
@@ -25,10 +24,11 @@ import java.util.List;
  */
 @ApplicationScoped
 @PoupancaServiceQualifier
+@Monitorado
 public class PoupancaService{
     
     @Inject
-    ParametrosConfiguracaoRepository parametrosConfiguracaoRepository;
+    CacheParametrosConfiguracao cacheParametrosConfiguracao;
     
     @Inject
     PoupancaRepository poupancaRepository;
@@ -69,6 +69,8 @@ public class PoupancaService{
         if (contaPoupancaExistente == null) {
             throw new PoupancaNaoEncontradaException("Conta poupança não encontrada com ID: " + contaID);
         }
+        contaPoupanca.setVersao(contaPoupancaExistente.getVersao()); // A edição cadastral não participa do controle de concorrência dos saldos
+        contaPoupanca.setDataUltimoRendimento(contaPoupancaExistente.getDataUltimoRendimento()); // Mantida pelo rendimento mensal
         contaPoupanca.setTipoConta(TipoConta.CONTA_POUPANCA.toString());
 
         Poupanca contasGerenciada = entityManager.merge(contaPoupanca); // Mescla a entidade no contexto de persistência
@@ -87,26 +89,13 @@ public class PoupancaService{
     }
     
     /**
-     * Obtém a taxa de poupança da tabela de parâmetros de configuração e a converte para BigDecimal.
+     * Obtém a taxa de poupança do cache de parâmetros de configuração, já convertida para BigDecimal.
      *
      * @return A taxa de poupança como um BigDecimal.
      * @throws ParametroConfiguracaoNaoEncontradoException Se a taxa de poupança não for encontrada na tabela de configuração.
      */
     public BigDecimal obterTaxaPoupancaComoBigDecimal() throws ParametroConfiguracaoNaoEncontradoException {
-
-        ParametrosConfiguracao parametrosConfiguracao = parametrosConfiguracaoRepository.find("nomeParametro", "TaxaPoupanca").firstResult();
-
-        if (parametrosConfiguracao == null) {
-            throw new ParametroConfiguracaoNaoEncontradoException("Parâmetro 'TaxaPoupanca' não encontrado na tabela ParametrosConfiguracao.");
-        }
-
-        String taxaPoupancaString = parametrosConfiguracao.getValorParametro();
-
-        try {
-            return new BigDecimal(taxaPoupancaString);
-        } catch (NumberFormatException e) {
-            throw new ParametroConfiguracaoNaoEncontradoException("Erro ao converter 'TaxaPoupanca' para BigDecimal: " + e.getMessage());
-        }
+        return cacheParametrosConfiguracao.obterBigDecimal("TaxaPoupanca");
     }
 
     /**
@@ -119,14 +108,15 @@ public class PoupancaService{
     public BigDecimal calcularAtualizacaoMensal(Poupanca poupanca) throws ParametroConfiguracaoNaoEncontradoException {
         BigDecimal saldoAtual = poupanca.getSaldo();
         BigDecimal taxaPoupanca = obterTaxaPoupancaComoBigDecimal(); 
-        LocalDate dataAniversario = LocalDate.parse(poupanca.getDataAniversario());
+        int diaAniversario = poupanca.getDiaAniversario() != null
+                ? poupanca.getDiaAniversario()
+                : LocalDate.parse(poupanca.getDataAniversario()).getDayOfMonth();
 
         // Verifica se a data atual é a data de aniversário da poupança
         LocalDate dataAtual = LocalDate.now();
-        if (dataAtual.getDayOfMonth() == dataAniversario.getDayOfMonth()) {
+        if (dataAtual.getDayOfMonth() == diaAniversario) {
             // Calcula a atualização mensal do saldo
-            BigDecimal atualizacaoMensal = saldoAtual.multiply(taxaPoupanca.divide(new BigDecimal(100), 4, RoundingMode.HALF_UP));
-            saldoAtual = saldoAtual.add(atualizacaoMensal);
+            saldoAtual = saldoAtual.add(calcularRendimento(saldoAtual, taxaPoupanca));
             
             poupanca.setSaldo(saldoAtual);
         }
@@ -134,6 +124,17 @@ public class PoupancaService{
         return saldoAtual;
     }
 
+    /**
+     * Calcula o rendimento mensal de um saldo, arredondado para centavos.
+     *
+     * @param saldo         O saldo da conta poupança.
+     * @param taxaPoupanca  A taxa de poupança, em percentual ao mês.
+     * @return O rendimento do mês.
+     */
+    static BigDecimal calcularRendimento(BigDecimal saldo, BigDecimal taxaPoupanca) {
+        return saldo.multiply(taxaPoupanca.divide(new BigDecimal(100), 4, RoundingMode.HALF_UP)).setScale(2, RoundingMode.HALF_UP);
+    }
+
 	public void removerPoupanca(Long id) {
 		poupancaRepository.deleteById(id);
 	}
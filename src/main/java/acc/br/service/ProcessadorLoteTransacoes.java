@@ -0,0 +1,335 @@
+package acc.br.service;
+
+import acc.br.model.ContaCorrente;
+import acc.br.model.Contas;
+import acc.br.model.ContasConjuntas;
+import acc.br.model.Poupanca;
+import acc.br.model.Transacoes;
+import acc.br.repository.ContaCorrenteRepository;
+import acc.br.repository.ContasConjuntasRepository;
+import acc.br.repository.PoupancaRepository;
+import acc.br.repository.TransacoesRepository;
+import acc.br.util.ModoConcorrencia;
+import acc.br.util.Monitorado;
+import acc.br.util.OperacaoLote;
+import acc.br.util.ResultadoLote;
+import acc.br.util.ResultadoOperacaoLote;
+import acc.br.util.TipoConta;
+import acc.br.util.TipoDeposito;
+import acc.br.util.TipoTransacao;
+import io.quarkus.hibernate.orm.panache.PanacheQuery;
+import io.quarkus.panache.common.Sort;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+import javax.persistence.EntityManager;
+import javax.persistence.LockModeType;
+import javax.transaction.Transactional;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Processa a importação em lote de depósitos e saques.
+ * <p>
+ * As operações são lidas de forma incremental e aplicadas em blocos (chunks), cada um em sua própria transação.
+ * As contas de um bloco são carregadas com uma consulta por tipo de conta, as regras de saldo são aplicadas em memória,
+ * as atualizações das contas são enviadas pelo Hibernate em lotes JDBC e as transações do ledger e os seus lançamentos
+ * no livro-razão são inseridos com um lote JDBC cada. Se um bloco falhar como um todo, suas operações são reprocessadas uma a uma pelo caminho unitário,
+ * de modo que cada operação recebe o seu próprio resultado.
+ * <p>
+ * Os saques do lote são avaliados pelo {@link MotorAlertasGastos} como os saques unitários, e as notificações das
+ * operações do bloco são gravadas na outbox do {@link DespachanteNotificacoes} com um lote JDBC.
+ */
+@ApplicationScoped
+@Monitorado
+public class ProcessadorLoteTransacoes {
+
+    private static final Logger logger = Logger.getLogger(ProcessadorLoteTransacoes.class.getName());
+
+    @Inject
+    ContaCorrenteRepository contaCorrenteRepository;
+
+    @Inject
+    ContasConjuntasRepository contasConjuntasRepository;
+
+    @Inject
+    PoupancaRepository poupancaRepository;
+
+    @Inject
+    TransacoesRepository transacoesRepository;
+
+    @Inject
+    TransacoesService transacoesService;
+
+    @Inject
+    ExecutorConcorrenciaSaldo executorConcorrenciaSaldo;
+
+    @Inject
+    CacheEstadoContas cacheEstadoContas;
+
+    @Inject
+    MetricasBanco metricasBanco;
+
+    @Inject
+    LivroRazaoService livroRazaoService;
+
+    @Inject
+    MotorAlertasGastos motorAlertasGastos;
+
+    @Inject
+    DespachanteNotificacoes despachanteNotificacoes;
+
+    @Inject
+    EntityManager entityManager;
+
+    @ConfigProperty(name = "twobank.lote.tamanho-chunk", defaultValue = "500")
+    int tamanhoChunk;
+
+    @ConfigProperty(name = "twobank.saldo.concorrencia.modo", defaultValue = "OTIMISTA")
+    ModoConcorrencia modoConcorrencia;
+
+    /**
+     * Processa as operações na ordem recebida. Deve ser chamado fora de qualquer contexto transacional,
+     * pois cada bloco é confirmado de forma independente.
+     *
+     * @param operacoes As operações, lidas sob demanda.
+     * @return O resultado de cada operação e, se a leitura foi interrompida, o erro correspondente.
+     */
+    public ResultadoLote processar(Iterator<OperacaoLote> operacoes) {
+        List<ResultadoOperacaoLote> resultados = new ArrayList<>();
+        List<OperacaoLote> chunk = new ArrayList<>(tamanhoChunk);
+        String erroLeitura = null;
+        long indice = 0;
+
+        while (true) {
+            OperacaoLote operacao;
+            try {
+                if (!operacoes.hasNext()) {
+                    break;
+                }
+                operacao = operacoes.next();
+            } catch (RuntimeException e) {
+                erroLeitura = "Conteúdo inválido após a operação " + (indice + chunk.size()) + ": " + e.getMessage();
+                break;
+            }
+            chunk.add(operacao);
+            if (chunk.size() >= tamanhoChunk) {
+                resultados.addAll(processarChunk(chunk, indice));
+                indice += chunk.size();
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            resultados.addAll(processarChunk(chunk, indice));
+        }
+        return new ResultadoLote(resultados, erroLeitura);
+    }
+
+    /**
+     * Aplica um bloco de operações em uma nova transação.
+     *
+     * @param chunk         As operações do bloco.
+     * @param indiceInicial O índice da primeira operação do bloco no lote.
+     * @return O resultado de cada operação do bloco.
+     */
+    @Transactional(Transactional.TxType.REQUIRES_NEW)
+    List<ResultadoOperacaoLote> aplicarChunk(List<OperacaoLote> chunk, long indiceInicial) {
+        Map<TipoConta, Map<Long, Contas>> contas = carregarContas(chunk);
+        List<ResultadoOperacaoLote> resultados = new ArrayList<>(chunk.size());
+        List<Transacoes> transacoes = new ArrayList<>(chunk.size());
+        List<Long> clientes = new ArrayList<>(chunk.size());
+        Set<Contas> contasAlteradas = new LinkedHashSet<>();
+
+        for (int i = 0; i < chunk.size(); i++) {
+            OperacaoLote operacao = chunk.get(i);
+            long indice = indiceInicial + i;
+
+            String erro = validar(operacao);
+            if (erro == null) {
+                Contas conta = contas.get(operacao.getTipoConta()).get(operacao.getContaID());
+                erro = conta == null ? "Conta não encontrada com ID: " + operacao.getContaID() : aplicar(operacao, conta);
+                if (erro == null) {
+                    contasAlteradas.add(conta);
+                    transacoes.add(criarTransacao(operacao));
+                    clientes.add(conta.getClienteID());
+                    if (operacao.getTipoTransacao() == TipoTransacao.SAQUE) {
+                        motorAlertasGastos.avaliar(conta.getClienteID(), TipoTransacao.SAQUE, operacao.getValor());
+                    }
+                }
+            }
+            resultados.add(erro == null ? ResultadoOperacaoLote.sucesso(indice) : ResultadoOperacaoLote.falha(indice, erro));
+        }
+
+        // As atualizações das contas seguem em lotes JDBC (quarkus.hibernate-orm.jdbc.statement-batch-size)
+        entityManager.flush();
+        transacoesRepository.inserir(transacoes);
+        livroRazaoService.lancar(transacoes);
+        despachanteNotificacoes.registrar(clientes, transacoes);
+        for (Transacoes transacao : transacoes) {
+            metricasBanco.contarTransacao(transacao);
+        }
+        for (Contas conta : contasAlteradas) {
+            cacheEstadoContas.atualizar(conta);
+        }
+        return resultados;
+    }
+
+    /**
+     * Valida os campos obrigatórios de uma operação.
+     *
+     * @param operacao A operação a ser validada.
+     * @return A mensagem de erro, ou null se a operação for válida.
+     */
+    static String validar(OperacaoLote operacao) {
+        if (operacao == null) {
+            return "A operação não pode ser nula.";
+        }
+        if (operacao.getTipoTransacao() != TipoTransacao.DEPOSITO && operacao.getTipoTransacao() != TipoTransacao.SAQUE) {
+            return "Tipo de transação não suportado no lote: " + operacao.getTipoTransacao();
+        }
+        if (operacao.getContaID() == null) {
+            return "O ID da conta não pode ser nulo.";
+        }
+        if (operacao.getTipoConta() == null) {
+            return "O tipo de conta deve ser especificado.";
+        }
+        if (operacao.getValor() == null || operacao.getValor().compareTo(BigDecimal.ZERO) <= 0) {
+            return "O valor da operação deve ser maior que zero.";
+        }
+        if (operacao.getTipoTransacao() == TipoTransacao.DEPOSITO) {
+            if (operacao.getTipoDeposito() == null) {
+                return "O tipo de depósito deve ser especificado (DINHEIRO ou CHEQUE).";
+            }
+            if (operacao.getTipoDeposito() == TipoDeposito.CHEQUE
+                    && (operacao.getNumeroCheque() == null || operacao.getNumeroCheque().isEmpty())) {
+                return "O número do cheque deve ser especificado para depósitos em cheque.";
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Aplica uma operação ao saldo da conta em memória, com a mesma regra de débito do caminho unitário.
+     *
+     * @param operacao A operação validada.
+     * @param conta    A conta carregada no bloco.
+     * @return A mensagem de erro, ou null se a operação foi aplicada.
+     */
+    static String aplicar(OperacaoLote operacao, Contas conta) {
+        if (operacao.getTipoTransacao() == TipoTransacao.DEPOSITO) {
+            conta.setSaldo(conta.getSaldo().add(operacao.getValor()));
+            return null;
+        }
+        RegraDebito regraDebito = RegraDebito.de(operacao.getTipoConta());
+        return regraDebito.debitar(conta, operacao.getValor()) ? null : regraDebito.mensagemSaqueRecusado();
+    }
+
+    private List<ResultadoOperacaoLote> processarChunk(List<OperacaoLote> chunk, long indiceInicial) {
+        try {
+            return executorConcorrenciaSaldo.executar(() -> aplicarChunk(chunk, indiceInicial));
+        } catch (RuntimeException e) {
+            logger.log(Level.WARNING, "Falha no bloco iniciado na operação " + indiceInicial + "; processando as operações individualmente", e);
+            return processarIndividualmente(chunk, indiceInicial);
+        }
+    }
+
+    private List<ResultadoOperacaoLote> processarIndividualmente(List<OperacaoLote> chunk, long indiceInicial) {
+        List<ResultadoOperacaoLote> resultados = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            OperacaoLote operacao = chunk.get(i);
+            long indice = indiceInicial + i;
+
+            String erro = validar(operacao);
+            if (erro == null) {
+                try {
+                    if (operacao.getTipoTransacao() == TipoTransacao.DEPOSITO) {
+                        transacoesService.realizarDeposito(operacao.getContaID(), operacao.getValor(), operacao.getTipoConta(),
+                                operacao.getTipoDeposito(), operacao.getNumeroCheque());
+                    } else {
+                        executorConcorrenciaSaldo.executar(() -> transacoesService.realizarSaque(operacao.getContaID(),
+                                operacao.getValor(), operacao.getTipoConta()));
+                    }
+                } catch (RuntimeException e) {
+                    erro = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+                }
+            }
+            resultados.add(erro == null ? ResultadoOperacaoLote.sucesso(indice) : ResultadoOperacaoLote.falha(indice, erro));
+        }
+        return resultados;
+    }
+
+    /**
+     * Carrega todas as contas referenciadas pelo bloco com uma consulta por tipo de conta, em ordem de ID.
+     * No modo pessimista as contas são bloqueadas nessa mesma ordem, evitando deadlocks entre blocos concorrentes.
+     *
+     * @param chunk As operações do bloco.
+     * @return As contas encontradas, por tipo e ID.
+     */
+    private Map<TipoConta, Map<Long, Contas>> carregarContas(List<OperacaoLote> chunk) {
+        Map<TipoConta, Set<Long>> idsPorTipo = new EnumMap<>(TipoConta.class);
+        for (TipoConta tipoConta : TipoConta.values()) {
+            idsPorTipo.put(tipoConta, new TreeSet<>());
+        }
+        for (OperacaoLote operacao : chunk) {
+            if (operacao != null && operacao.getTipoConta() != null && operacao.getContaID() != null) {
+                idsPorTipo.get(operacao.getTipoConta()).add(operacao.getContaID());
+            }
+        }
+
+        Map<TipoConta, Map<Long, Contas>> contas = new EnumMap<>(TipoConta.class);
+        for (Map.Entry<TipoConta, Set<Long>> entrada : idsPorTipo.entrySet()) {
+            Map<Long, Contas> contasDoTipo = new HashMap<>();
+            if (!entrada.getValue().isEmpty()) {
+                List<Long> ids = new ArrayList<>(entrada.getValue());
+                switch (entrada.getKey()) {
+                    case CONTA_CORRENTE:
+                        for (ContaCorrente conta : bloquear(contaCorrenteRepository.find("contaCorrenteID in ?1", Sort.by("contaCorrenteID"), ids)).list()) {
+                            contasDoTipo.put(conta.getcontaCorrenteID(), conta);
+                        }
+                        break;
+                    case CONTA_CONJUNTA:
+                        for (ContasConjuntas conta : bloquear(contasConjuntasRepository.find("contaConjuntaID in ?1", Sort.by("contaConjuntaID"), ids)).list()) {
+                            contasDoTipo.put(conta.getContaConjuntaID(), conta);
+                        }
+                        break;
+                    case CONTA_POUPANCA:
+                        for (Poupanca conta : bloquear(poupancaRepository.find("poupancaID in ?1", Sort.by("poupancaID"), ids)).list()) {
+                            contasDoTipo.put(conta.getPoupancaID(), conta);
+                        }
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Tipo de conta não suportado: " + entrada.getKey());
+                }
+            }
+            contas.put(entrada.getKey(), contasDoTipo);
+        }
+        return contas;
+    }
+
+    private <T> PanacheQuery<T> bloquear(PanacheQuery<T> consulta) {
+        return modoConcorrencia == ModoConcorrencia.PESSIMISTA ? consulta.withLock(LockModeType.PESSIMISTIC_WRITE) : consulta;
+    }
+
+    private Transacoes criarTransacao(OperacaoLote operacao) {
+        Transacoes transacao = new Transacoes();
+        transacao.setTipoTransacao(operacao.getTipoTransacao());
+        transacao.setDataHoraTransacao(LocalDate.now());
+        transacao.setValor(operacao.getValor());
+        transacao.setContaID(operacao.getContaID());
+        transacao.setTipoConta(operacao.getTipoConta());
+        transacao.setNumeroCheque(operacao.getTipoDeposito() == TipoDeposito.CHEQUE ? operacao.getNumeroCheque() : null);
+        return transacao;
+    }
+}
@@ -0,0 +1,380 @@
+package acc.br.service;
+
+import acc.br.exception.ParametroConfiguracaoNaoEncontradoException;
+import acc.br.model.ExecucoesRendimentoPoupanca;
+import acc.br.model.Poupanca;
+import acc.br.model.Transacoes;
+import acc.br.repository.ExecucoesRendimentoPoupancaRepository;
+import acc.br.repository.PoupancaRepository;
+import acc.br.repository.TransacoesRepository;
+import acc.br.util.Monitorado;
+import acc.br.util.TipoConta;
+import acc.br.util.TipoTransacao;
+import io.quarkus.scheduler.Scheduled;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.context.ManagedExecutor;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+import javax.persistence.EntityManager;
+import javax.transaction.Transactional;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Credita o rendimento mensal das contas poupança que fazem aniversário na data de referência.
+ * <p>
+ * As contas do dia são selecionadas pelo índice da coluna DiaAniversario e percorridas em ordem de ID, em ondas de
+ * até {@code paralelismo} blocos de {@code tamanho-bloco} contas ({@code twobank.poupanca.rendimento.*}). Os blocos de
+ * uma onda são processados em paralelo, cada um em sua própria transação: as contas são bloqueadas em ordem de ID, o
+ * rendimento é calculado em memória, as atualizações dos saldos seguem em lotes JDBC e as transações de rendimento, os
+ * seus lançamentos no livro-razão e as notificações aos clientes são inseridos com um lote JDBC cada.
+ * <p>
+ * Ao fim de cada onda, o ponto de controle em ExecucoesRendimentoPoupanca avança para a última conta da onda; uma
+ * execução interrompida continua desse ponto. Cada conta guarda a data do último rendimento creditado, de modo que os
+ * blocos já confirmados de uma onda interrompida não são creditados novamente. Nos meses mais curtos, o último dia do
+ * mês também credita as contas com aniversário nos dias que o mês não tem.
+ * <p>
+ * Cada execução agendada retoma primeiro as execuções não concluídas e as datas sem execução desde a última data
+ * processada, até {@code twobank.poupanca.rendimento.recuperacao-maxima-dias} dias antes da data atual, e então processa a
+ * data atual, sempre da data mais antiga para a mais recente.
+ */
+@ApplicationScoped
+@Monitorado
+public class ProcessadorRendimentoPoupanca {
+
+    private static final Logger logger = Logger.getLogger(ProcessadorRendimentoPoupanca.class.getName());
+
+    static final String PARAMETRO_TAXA = "TaxaPoupanca";
+
+    @Inject
+    PoupancaRepository poupancaRepository;
+
+    @Inject
+    TransacoesRepository transacoesRepository;
+
+    @Inject
+    ExecucoesRendimentoPoupancaRepository execucoesRendimentoPoupancaRepository;
+
+    @Inject
+    CacheParametrosConfiguracao cacheParametrosConfiguracao;
+
+    @Inject
+    LivroRazaoService livroRazaoService;
+
+    @Inject
+    CacheEstadoContas cacheEstadoContas;
+
+    @Inject
+    MetricasBanco metricasBanco;
+
+    @Inject
+    DespachanteNotificacoes despachanteNotificacoes;
+
+    @Inject
+    ManagedExecutor executor;
+
+    @Inject
+    EntityManager entityManager;
+
+    @ConfigProperty(name = "twobank.poupanca.rendimento.tamanho-bloco", defaultValue = "1000")
+    int tamanhoBloco;
+
+    @ConfigProperty(name = "twobank.poupanca.rendimento.paralelismo", defaultValue = "4")
+    int paralelismo;
+
+    @ConfigProperty(name = "twobank.poupanca.rendimento.recuperacao-maxima-dias", defaultValue = "31")
+    int recuperacaoMaximaDias;
+
+    /**
+     * Processa as datas pendentes e a data atual. Uma falha interrompe a execução, e as datas restantes são retomadas
+     * na próxima execução agendada.
+     */
+    @Scheduled(cron = "{twobank.poupanca.rendimento.cron}", concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void executarAgendado() {
+        LocalDate hoje = LocalDate.now();
+        for (LocalDate referencia : referenciasPendentes(listarNaoConcluidas(), buscarUltimaReferencia(), hoje, recuperacaoMaximaDias)) {
+            try {
+                processar(referencia);
+            } catch (RuntimeException e) {
+                logger.log(Level.SEVERE, "Falha no rendimento da poupança de " + referencia + "; as datas pendentes serão retomadas na próxima execução", e);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Obtém as datas a processar em uma execução agendada: as execuções não concluídas, as datas sem execução após a
+     * última data processada, limitadas aos últimos dias de recuperação, e a data atual.
+     *
+     * @param naoConcluidas         As datas das execuções não concluídas.
+     * @param ultimaReferencia      A data da execução mais recente, ou null se nenhuma foi iniciada.
+     * @param hoje                  A data atual.
+     * @param recuperacaoMaximaDias A quantidade máxima de dias anteriores a recuperar.
+     * @return As datas, da mais antiga para a mais recente, sem repetições.
+     */
+    static List<LocalDate> referenciasPendentes(List<LocalDate> naoConcluidas, LocalDate ultimaReferencia, LocalDate hoje,
+                                                int recuperacaoMaximaDias) {
+        SortedSet<LocalDate> referencias = new TreeSet<>(naoConcluidas);
+        if (ultimaReferencia != null) {
+            LocalDate inicio = ultimaReferencia.plusDays(1);
+            LocalDate limite = hoje.minusDays(recuperacaoMaximaDias);
+            if (inicio.isBefore(limite)) {
+                logger.log(Level.WARNING, "Rendimento da poupança de {0} a {1} não recuperado: anterior a {2} dias",
+                        new Object[]{inicio, limite.minusDays(1), recuperacaoMaximaDias});
+                inicio = limite;
+            }
+            for (LocalDate data = inicio; data.isBefore(hoje); data = data.plusDays(1)) {
+                referencias.add(data);
+            }
+        }
+        referencias.add(hoje);
+        return new ArrayList<>(referencias.headSet(hoje.plusDays(1)));
+    }
+
+    /**
+     * Credita o rendimento das contas com aniversário na data de referência, continuando do ponto de controle de uma
+     * execução anterior da mesma data. Deve ser chamado fora de qualquer contexto transacional.
+     *
+     * @param referencia A data de referência do rendimento.
+     * @return A quantidade de contas que receberam rendimento nesta chamada.
+     */
+    public long processar(LocalDate referencia) {
+        BigDecimal taxaPoupanca;
+        try {
+            taxaPoupanca = cacheParametrosConfiguracao.obterBigDecimal(PARAMETRO_TAXA);
+        } catch (ParametroConfiguracaoNaoEncontradoException e) {
+            logger.log(Level.WARNING, "Rendimento da poupança não processado: {0}", e.getMessage());
+            return 0;
+        }
+
+        int preenchidas = preencherDiaAniversario();
+        if (preenchidas > 0) {
+            logger.log(Level.INFO, "Dia de aniversário preenchido em {0,number,#} contas poupança", preenchidas);
+        }
+
+        ExecucoesRendimentoPoupanca execucao = iniciarExecucao(referencia);
+        if (execucao.getDataConclusao() != null) {
+            return 0;
+        }
+
+        List<Integer> dias = diasAniversario(referencia);
+        long ultimoID = execucao.getUltimoPoupancaID();
+        long processadas = 0;
+        long creditadas = 0;
+        long inicio = System.nanoTime();
+        int limite = tamanhoBloco * paralelismo;
+
+        while (true) {
+            List<Long> ids = listarIDs(dias, ultimoID, referencia, limite);
+            if (ids.isEmpty()) {
+                break;
+            }
+
+            List<CompletableFuture<ResultadoBloco>> blocos = new ArrayList<>();
+            for (int i = 0; i < ids.size(); i += tamanhoBloco) {
+                List<Long> bloco = ids.subList(i, Math.min(i + tamanhoBloco, ids.size()));
+                blocos.add(executor.supplyAsync(() -> creditarBloco(bloco, taxaPoupanca, referencia)));
+            }
+            ResultadoBloco onda = new ResultadoBloco(0, 0, BigDecimal.ZERO);
+            try {
+                for (CompletableFuture<ResultadoBloco> bloco : blocos) {
+                    onda = onda.somar(bloco.join());
+                }
+            } catch (RuntimeException e) {
+                // Os blocos desta onda serão retomados a partir do último ponto de controle
+                logger.log(Level.SEVERE, "Rendimento da poupança de " + referencia + " interrompido após a conta " + ultimoID, e);
+                return creditadas;
+            }
+
+            ultimoID = ids.get(ids.size() - 1);
+            registrarProgresso(referencia, ultimoID, onda.creditadas, onda.valor);
+            processadas += onda.processadas;
+            creditadas += onda.creditadas;
+            if (ids.size() < limite) {
+                break;
+            }
+        }
+
+        concluirExecucao(referencia);
+        double segundos = Math.max((System.nanoTime() - inicio) / 1_000_000_000d, 0.001);
+        logger.log(Level.INFO, "Rendimento da poupança de {0}: {1,number,#} contas processadas, {2,number,#} creditadas, "
+                + "em {3,number,#.##} s ({4,number,#} contas/s)", new Object[]{referencia, processadas, creditadas, segundos, processadas / segundos});
+        return creditadas;
+    }
+
+    /**
+     * Credita o rendimento de um bloco de contas em uma nova transação.
+     *
+     * @param ids          Os IDs das contas do bloco, em ordem crescente.
+     * @param taxaPoupanca A taxa de poupança, em percentual ao mês.
+     * @param referencia   A data de referência do rendimento.
+     * @return As quantidades de contas processadas e creditadas e o valor creditado.
+     */
+    @Transactional(Transactional.TxType.REQUIRES_NEW)
+    ResultadoBloco creditarBloco(List<Long> ids, BigDecimal taxaPoupanca, LocalDate referencia) {
+        List<Poupanca> contas = poupancaRepository.bloquearParaRendimento(ids, referencia);
+        List<Transacoes> transacoes = creditar(contas, taxaPoupanca, referencia);
+
+        // As atualizações das contas seguem em lotes JDBC (quarkus.hibernate-orm.jdbc.statement-batch-size)
+        entityManager.flush();
+        transacoesRepository.inserir(transacoes);
+        livroRazaoService.lancar(transacoes);
+        despachanteNotificacoes.registrar(clientes(contas, transacoes), transacoes);
+
+        BigDecimal valor = BigDecimal.ZERO;
+        for (Transacoes transacao : transacoes) {
+            metricasBanco.contarTransacao(transacao);
+            valor = valor.add(transacao.getValor());
+        }
+        for (Poupanca conta : contas) {
+            cacheEstadoContas.atualizar(conta);
+        }
+        return new ResultadoBloco(contas.size(), transacoes.size(), valor);
+    }
+
+    /**
+     * Aplica o rendimento ao saldo das contas em memória e registra a data de referência em cada uma. Contas sem
+     * rendimento (saldo zerado) são apenas marcadas como processadas.
+     *
+     * @param contas       As contas a serem creditadas.
+     * @param taxaPoupanca A taxa de poupança, em percentual ao mês.
+     * @param referencia   A data de referência do rendimento.
+     * @return As transações de rendimento, uma por conta creditada.
+     */
+    static List<Transacoes> creditar(List<Poupanca> contas, BigDecimal taxaPoupanca, LocalDate referencia) {
+        List<Transacoes> transacoes = new ArrayList<>(contas.size());
+        for (Poupanca conta : contas) {
+            conta.setDataUltimoRendimento(referencia);
+            BigDecimal rendimento = PoupancaService.calcularRendimento(conta.getSaldo(), taxaPoupanca);
+            if (rendimento.signum() <= 0) {
+                continue;
+            }
+            conta.setSaldo(conta.getSaldo().add(rendimento));
+
+            Transacoes transacao = new Transacoes();
+            transacao.setTipoTransacao(TipoTransacao.RENDIMENTO);
+            transacao.setDataHoraTransacao(referencia);
+            transacao.setValor(rendimento);
+            transacao.setContaID(conta.getPoupancaID());
+            transacao.setTipoConta(TipoConta.CONTA_POUPANCA);
+            transacoes.add(transacao);
+        }
+        return transacoes;
+    }
+
+    /**
+     * Obtém o cliente de cada transação de rendimento, na ordem das transações.
+     *
+     * @param contas     As contas do bloco.
+     * @param transacoes As transações de rendimento das contas creditadas.
+     * @return Os IDs dos clientes.
+     */
+    static List<Long> clientes(List<Poupanca> contas, List<Transacoes> transacoes) {
+        Map<Long, Long> clientesPorConta = new HashMap<>(contas.size() * 2);
+        for (Poupanca conta : contas) {
+            clientesPorConta.put(conta.getPoupancaID(), conta.getClienteID());
+        }
+        List<Long> clientes = new ArrayList<>(transacoes.size());
+        for (Transacoes transacao : transacoes) {
+            clientes.add(clientesPorConta.get(transacao.getContaID()));
+        }
+        return clientes;
+    }
+
+    /**
+     * Obtém os dias de aniversário creditados na data de referência: o próprio dia e, no último dia do mês, os dias
+     * seguintes que o mês não tem.
+     *
+     * @param referencia A data de referência do rendimento.
+     * @return Os dias de aniversário.
+     */
+    static List<Integer> diasAniversario(LocalDate referencia) {
+        int ultimoDia = referencia.getDayOfMonth() == referencia.lengthOfMonth() ? 31 : referencia.getDayOfMonth();
+        List<Integer> dias = new ArrayList<>();
+        for (int dia = referencia.getDayOfMonth(); dia <= ultimoDia; dia++) {
+            dias.add(dia);
+        }
+        return dias;
+    }
+
+    @Transactional(Transactional.TxType.REQUIRES_NEW)
+    int preencherDiaAniversario() {
+        return poupancaRepository.preencherDiaAniversario();
+    }
+
+    @Transactional
+    List<LocalDate> listarNaoConcluidas() {
+        return execucoesRendimentoPoupancaRepository.listarNaoConcluidas();
+    }
+
+    @Transactional
+    LocalDate buscarUltimaReferencia() {
+        return execucoesRendimentoPoupancaRepository.buscarUltimaReferencia();
+    }
+
+    @Transactional
+    List<Long> listarIDs(List<Integer> dias, long aposID, LocalDate referencia, int limite) {
+        return poupancaRepository.listarIDsParaRendimento(dias, aposID, referencia, limite);
+    }
+
+    @Transactional(Transactional.TxType.REQUIRES_NEW)
+    ExecucoesRendimentoPoupanca iniciarExecucao(LocalDate referencia) {
+        ExecucoesRendimentoPoupanca execucao = execucoesRendimentoPoupancaRepository.findById(referencia);
+        if (execucao == null) {
+            execucao = new ExecucoesRendimentoPoupanca();
+            execucao.setDataReferencia(referencia);
+            execucao.setUltimoPoupancaID(0L);
+            execucao.setValorCreditado(BigDecimal.ZERO);
+            execucao.setDataInicio(LocalDateTime.now());
+            execucoesRendimentoPoupancaRepository.persist(execucao);
+        } else if (execucao.getDataConclusao() == null) {
+            logger.log(Level.INFO, "Rendimento da poupança de {0} retomado após a conta {1,number,#}",
+                    new Object[]{referencia, execucao.getUltimoPoupancaID()});
+        }
+        return execucao;
+    }
+
+    @Transactional(Transactional.TxType.REQUIRES_NEW)
+    void registrarProgresso(LocalDate referencia, long ultimoID, long creditadas, BigDecimal valor) {
+        ExecucoesRendimentoPoupanca execucao = execucoesRendimentoPoupancaRepository.findById(referencia);
+        execucao.setUltimoPoupancaID(ultimoID);
+        execucao.setContasCreditadas(execucao.getContasCreditadas() + creditadas);
+        execucao.setValorCreditado(execucao.getValorCreditado().add(valor));
+    }
+
+    @Transactional(Transactional.TxType.REQUIRES_NEW)
+    void concluirExecucao(LocalDate referencia) {
+        execucoesRendimentoPoupancaRepository.findById(referencia).setDataConclusao(LocalDateTime.now());
+    }
+
+    /**
+     * Resultado de um bloco ou de uma onda de blocos.
+     */
+    static final class ResultadoBloco {
+
+        private final long processadas;
+        private final long creditadas;
+        private final BigDecimal valor;
+
+        ResultadoBloco(long processadas, long creditadas, BigDecimal valor) {
+            this.processadas = processadas;
+            this.creditadas = creditadas;
+            this.valor = valor;
+        }
+
+        private ResultadoBloco somar(ResultadoBloco outro) {
+            return new ResultadoBloco(processadas + outro.processadas, creditadas + outro.creditadas, valor.add(outro.valor));
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package acc.br.service;
+
+import acc.br.exception.SaldoInsuficienteException;
+import acc.br.model.Contas;
+import acc.br.util.TipoConta;
+
+import java.math.BigDecimal;
+
+/**
+ * Regra de débito de um tipo de conta, aplicada igualmente a saques, transferências e saques em lote.
+ */
+interface RegraDebito {
+
+    /**
+     * Aplica o débito ao saldo da conta em memória. Se o débito for recusado, a conta não é alterada.
+     *
+     * @param conta A conta a ser debitada.
+     * @param valor O valor do débito, maior que zero.
+     * @return true se o débito foi aplicado; false se excede o permitido para a conta.
+     */
+    boolean debitar(Contas conta, BigDecimal valor);
+
+    /**
+     * Obtém a mensagem de recusa de um saque.
+     *
+     * @return A mensagem de recusa.
+     */
+    String mensagemSaqueRecusado();
+
+    /**
+     * Cria a exceção lançada quando um saque é recusado.
+     *
+     * @return A exceção de saque recusado.
+     */
+    RuntimeException saqueRecusado();
+
+    /**
+     * Cria a exceção lançada quando uma transferência é recusada.
+     *
+     * @return A exceção de saldo insuficiente.
+     */
+    SaldoInsuficienteException transferenciaRecusada();
+
+    /**
+     * Obtém a regra de débito de um tipo de conta: a conta corrente pode usar o limite de crédito, e as contas
+     * conjunta e poupança não podem ficar com saldo negativo.
+     *
+     * @param tipoConta O tipo da conta.
+     * @return A regra de débito do tipo de conta.
+     */
+    static RegraDebito de(TipoConta tipoConta) {
+        switch (tipoConta) {
+            case CONTA_CORRENTE:
+                return RegraDebitoLimiteCredito.INSTANCIA;
+            case CONTA_CONJUNTA:
+                return RegraDebitoSemSaldoNegativo.CONTA_CONJUNTA;
+            case CONTA_POUPANCA:
+                return RegraDebitoSemSaldoNegativo.CONTA_POUPANCA;
+            default:
+                throw new IllegalArgumentException("Tipo de conta não suportado: " + tipoConta);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package acc.br.service;
+
+import acc.br.exception.SaldoInsuficienteException;
+import acc.br.exception.SaqueExcedeLimiteException;
+import acc.br.model.ContaCorrente;
+import acc.br.model.Contas;
+
+import java.math.BigDecimal;
+
+/**
+ * Regra de débito da conta corrente: o que exceder o saldo é coberto pelo limite de crédito, que é reduzido,
+ * e o saldo fica zerado. O valor coberto é somado ao limite de crédito utilizado.
+ */
+final class RegraDebitoLimiteCredito implements RegraDebito {
+
+    static final RegraDebitoLimiteCredito INSTANCIA = new RegraDebitoLimiteCredito();
+
+    private RegraDebitoLimiteCredito() {
+    }
+
+    @Override
+    public boolean debitar(Contas conta, BigDecimal valor) {
+        ContaCorrente contaCorrente = (ContaCorrente) conta;
+        BigDecimal saldo = contaCorrente.getSaldo();
+        if (saldo.compareTo(valor) >= 0) {
+            contaCorrente.setSaldo(saldo.subtract(valor));
+            return true;
+        }
+        BigDecimal excedente = valor.subtract(saldo);
+        BigDecimal limiteCredito = contaCorrente.getLimiteCredito().subtract(excedente);
+        if (limiteCredito.compareTo(BigDecimal.ZERO) < 0) {
+            return false;
+        }
+        BigDecimal utilizado = contaCorrente.getLimiteCreditoUtilizado();
+        contaCorrente.setLimiteCredito(limiteCredito);
+        contaCorrente.setLimiteCreditoUtilizado(utilizado == null ? excedente : utilizado.add(excedente));
+        contaCorrente.setSaldo(BigDecimal.ZERO);
+        return true;
+    }
+
+    @Override
+    public String mensagemSaqueRecusado() {
+        return "Saque excede o limite de crédito da conta corrente.";
+    }
+
+    @Override
+    public RuntimeException saqueRecusado() {
+        return new SaqueExcedeLimiteException(mensagemSaqueRecusado());
+    }
+
+    @Override
+    public SaldoInsuficienteException transferenciaRecusada() {
+        return new SaldoInsuficienteException("Saldo e limite de crédito insuficientes na conta de origem.");
+    }
+}
@@ -0,0 +1,47 @@
+package acc.br.service;
+
+import acc.br.exception.SaldoInsuficienteException;
+import acc.br.exception.SaqueExcedeSaldoException;
+import acc.br.model.Contas;
+
+import java.math.BigDecimal;
+
+/**
+ * Regra de débito das contas sem limite de crédito (conjunta e poupança): o débito não pode exceder o saldo.
+ */
+final class RegraDebitoSemSaldoNegativo implements RegraDebito {
+
+    static final RegraDebitoSemSaldoNegativo CONTA_CONJUNTA = new RegraDebitoSemSaldoNegativo("conta conjunta");
+    static final RegraDebitoSemSaldoNegativo CONTA_POUPANCA = new RegraDebitoSemSaldoNegativo("conta poupança");
+
+    private final String mensagemSaqueRecusado;
+
+    private RegraDebitoSemSaldoNegativo(String descricaoConta) {
+        this.mensagemSaqueRecusado = "Saque excede o saldo da " + descricaoConta + ".";
+    }
+
+    @Override
+    public boolean debitar(Contas conta, BigDecimal valor) {
+        BigDecimal saldo = conta.getSaldo();
+        if (saldo.compareTo(valor) < 0) {
+            return false;
+        }
+        conta.setSaldo(saldo.subtract(valor));
+        return true;
+    }
+
+    @Override
+    public String mensagemSaqueRecusado() {
+        return mensagemSaqueRecusado;
+    }
+
+    @Override
+    public RuntimeException saqueRecusado() {
+        return new SaqueExcedeSaldoException(mensagemSaqueRecusado);
+    }
+
+    @Override
+    public SaldoInsuficienteException transferenciaRecusada() {
+        return new SaldoInsuficienteException("Saldo insuficiente na conta de origem.");
+    }
+}
@@ -1,43 +1,63 @@
 package acc.br.service;
 
-import acc.br.exception.AlertaNaoEncontradoException;
 import acc.br.exception.ContaNaoEncontradaException;
 import acc.br.exception.NotificacaoNaoEncontradaException;
 import acc.br.exception.SaldoInsuficienteException;
 import acc.br.exception.SaqueExcedeLimiteException;
 import acc.br.exception.SaqueExcedeSaldoException;
 import acc.br.exception.TransacoesNaoEncontradaException;
-import acc.br.model.AlertasGastosExcessivos;
+import acc.br.exception.ValorMinimoInvalidoException;
 import acc.br.model.ContaCorrente;
 import acc.br.model.Contas;
 import acc.br.model.ContasConjuntas;
-import acc.br.model.Notificacoes;
 import acc.br.model.Poupanca;
 import acc.br.model.Transacoes;
 import acc.br.repository.ContaCorrenteRepository;
 import acc.br.repository.ContasConjuntasRepository;
 import acc.br.repository.PoupancaRepository;
 import acc.br.repository.TransacoesRepository;
+import acc.br.util.EstadoConta;
+import acc.br.util.ModoConcorrencia;
+import acc.br.util.Monitorado;
+import acc.br.util.PaginaTransacoes;
 import acc.br.util.TipoConta;
 import acc.br.util.TipoDeposito;
 import acc.br.util.TipoTransacao;
+import javax.annotation.PostConstruct;
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 import javax.persistence.EntityManager;
+import javax.persistence.LockModeType;
 import javax.transaction.Transactional;
 import javax.validation.constraints.NotNull;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
-import java.time.LocalDateTime;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+import java.util.function.BiPredicate;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 /**
  * Classe de serviço para a entidade Transacoes.
+ * <p>
+ * Saques, depósitos e transferências seguem o mesmo fluxo para todos os tipos de conta: as operações de cada tipo
+ * (repositório e {@link RegraDebito}) são obtidas pelo {@link TipoConta}, e cada conta envolvida é lida uma única vez
+ * por operação.
  */
 @ApplicationScoped
+@Monitorado
 public class TransacoesService {
 
+    /**
+     * Tamanho máximo de página aceito nas listagens paginadas de transações.
+     */
+    public static final int TAMANHO_PAGINA_MAXIMO = 1000;
+
     @Inject
     TransacoesRepository transacoesRepository;
     
@@ -51,19 +71,44 @@ public class TransacoesService {
     PoupancaRepository poupancaRepository;
     
     @Inject
-    AlertasGastosExcessivos alertasGastosExcessivos;
-
-    @Inject
-    AlertasGastosExcessivosService alertasGastosExcessivosService;
+    MotorAlertasGastos motorAlertasGastos;
     
     @Inject
-    Notificacoes notificacoes;
-    
-    @Inject 
-    NotificacoesService notificacoesService;
+    DespachanteNotificacoes despachanteNotificacoes;
 
     @Inject
     EntityManager entityManager;
+
+    @Inject
+    CacheEstadoContas cacheEstadoContas;
+
+    @Inject
+    MetricasBanco metricasBanco;
+
+    @Inject
+    LivroRazaoService livroRazaoService;
+
+    @ConfigProperty(name = "twobank.saldo.concorrencia.modo", defaultValue = "OTIMISTA")
+    ModoConcorrencia modoConcorrencia;
+
+    private final Map<TipoConta, OperacoesConta> operacoesPorTipoConta = new EnumMap<>(TipoConta.class);
+
+    /**
+     * Associa cada tipo de conta ao seu repositório e à sua regra de débito, usados por saques, depósitos
+     * e transferências.
+     */
+    @PostConstruct
+    void inicializar() {
+        operacoesPorTipoConta.put(TipoConta.CONTA_CORRENTE, new OperacoesConta(contaCorrenteRepository::findById,
+                conta -> contaCorrenteRepository.persist((ContaCorrente) conta), conta -> contaCorrenteRepository.gravarSaldo((ContaCorrente) conta),
+                contaCorrenteRepository::creditarSaldo, RegraDebito.de(TipoConta.CONTA_CORRENTE)));
+        operacoesPorTipoConta.put(TipoConta.CONTA_CONJUNTA, new OperacoesConta(contasConjuntasRepository::findById,
+                conta -> contasConjuntasRepository.persist((ContasConjuntas) conta), conta -> contasConjuntasRepository.gravarSaldo((ContasConjuntas) conta),
+                contasConjuntasRepository::creditarSaldo, RegraDebito.de(TipoConta.CONTA_CONJUNTA)));
+        operacoesPorTipoConta.put(TipoConta.CONTA_POUPANCA, new OperacoesConta(poupancaRepository::findById,
+                conta -> poupancaRepository.persist((Poupanca) conta), conta -> poupancaRepository.gravarSaldo((Poupanca) conta),
+                poupancaRepository::creditarSaldo, RegraDebito.de(TipoConta.CONTA_POUPANCA)));
+    }
     
    
     /**
@@ -118,12 +163,64 @@ public class TransacoesService {
     }
 
     /**
-     * Lista todas as transações financeiras.
+     * Lista uma página de transações financeiras a partir de um cursor.
+     * Cada chamada carrega no máximo uma página, de modo que o ledger inteiro pode ser percorrido
+     * com memória constante encadeando o cursor retornado.
      *
-     * @return Uma lista de todas as transações financeiras.
+     * @param cursor        O cursor retornado pela página anterior, ou null para a primeira página.
+     * @param tamanhoPagina A quantidade de transações desejada (limitada a {@link #TAMANHO_PAGINA_MAXIMO}).
+     * @return A página de transações e o cursor da próxima página.
      */
-    public List<Transacoes> listarTransacoes() {
-        return transacoesRepository.listAll();
+    @Transactional
+    public PaginaTransacoes listarTransacoes(Long cursor, int tamanhoPagina) {
+        int tamanho = limitarTamanhoPagina(tamanhoPagina);
+        return montarPagina(transacoesRepository.listarAposCursor(cursor, tamanho + 1), tamanho);
+    }
+
+    /**
+     * Lista uma página de uma busca ordenada por outra chave que não o ID. O cursor é o ID da última transação da
+     * página anterior, e a transação é lida pela chave primária para obter os valores a partir dos quais a busca
+     * continua.
+     *
+     * @param cursor        O cursor retornado pela página anterior, ou null para a primeira página.
+     * @param tamanhoPagina A quantidade de transações desejada (limitada a {@link #TAMANHO_PAGINA_MAXIMO}).
+     * @param busca         A busca, que recebe a última transação da página anterior e a quantidade máxima de transações.
+     * @return A página de transações e o cursor da próxima página.
+     * @throws IllegalArgumentException Se o tamanho da página for inválido ou o cursor não corresponder a uma transação.
+     */
+    private PaginaTransacoes listarPagina(Long cursor, int tamanhoPagina, BiFunction<Transacoes, Integer, List<Transacoes>> busca) {
+        int tamanho = limitarTamanhoPagina(tamanhoPagina);
+        Transacoes ultima = null;
+        if (cursor != null) {
+            ultima = transacoesRepository.findById(cursor);
+            if (ultima == null) {
+                throw new IllegalArgumentException("Cursor inválido: " + cursor);
+            }
+        }
+        return montarPagina(busca.apply(ultima, tamanho + 1), tamanho);
+    }
+
+    private static void validarValorMinimo(BigDecimal valorMinimo) {
+        if (valorMinimo == null || valorMinimo.signum() < 0) {
+            throw new ValorMinimoInvalidoException("O valor mínimo deve ser informado e não pode ser negativo.");
+        }
+    }
+
+    private static int limitarTamanhoPagina(int tamanhoPagina) {
+        if (tamanhoPagina <= 0) {
+            throw new IllegalArgumentException("O tamanho da página deve ser maior que zero.");
+        }
+        return Math.min(tamanhoPagina, TAMANHO_PAGINA_MAXIMO);
+    }
+
+    private static PaginaTransacoes montarPagina(List<Transacoes> transacoes, int tamanho) {
+        // A busca traz um registro a mais para saber se existe próxima página sem uma consulta adicional
+        Long proximoCursor = null;
+        if (transacoes.size() > tamanho) {
+            transacoes = transacoes.subList(0, tamanho);
+            proximoCursor = transacoes.get(tamanho - 1).getTransacaoID();
+        }
+        return new PaginaTransacoes(transacoes, proximoCursor);
     }
 
     /**
@@ -145,74 +242,101 @@ public class TransacoesService {
      * Lista todas as transferências de uma determinada conta com base no ID da conta.
      *
      * @param contaID O ID da conta para a qual deseja listar as transferências.
-     * @return Uma lista de transferências associadas à conta.
+     * @param cursor        O cursor retornado pela página anterior, ou null para a primeira página.
+     * @param tamanhoPagina A quantidade de transações desejada (limitada a {@link #TAMANHO_PAGINA_MAXIMO}).
+     * @return Uma página das transferências da conta, da mais recente para a mais antiga, e o cursor da próxima página.
      */
-    public List<Transacoes> listarTransferenciasPorConta(Long contaID) {
-        return transacoesRepository.find("tipoTransacao = ?1 and contaID = ?2",
-                TipoTransacao.TRANSFERENCIA, contaID).list();
+    public PaginaTransacoes listarTransferenciasPorConta(Long contaID, Long cursor, int tamanhoPagina) {
+        return listarPagina(cursor, tamanhoPagina,
+                (ultima, limite) -> transacoesRepository.listarPorContaETipo(contaID, TipoTransacao.TRANSFERENCIA, ultima, limite));
     }
     
     /**
      * Lista todos os saques de uma determinada conta com base no ID da conta.
      *
      * @param contaID O ID da conta para a qual deseja listar os saques.
-     * @return Uma lista de saques associadas à conta.
+     * @param cursor        O cursor retornado pela página anterior, ou null para a primeira página.
+     * @param tamanhoPagina A quantidade de transações desejada (limitada a {@link #TAMANHO_PAGINA_MAXIMO}).
+     * @return Uma página dos saques da conta, do mais recente para o mais antigo, e o cursor da próxima página.
      */
-    public List<Transacoes> listarSaquesPorConta(Long contaID) {
-        return transacoesRepository.find("tipoTransacao = ?1 and contaID = ?2",
-                TipoTransacao.SAQUE, contaID).list();
+    public PaginaTransacoes listarSaquesPorConta(Long contaID, Long cursor, int tamanhoPagina) {
+        return listarPagina(cursor, tamanhoPagina,
+                (ultima, limite) -> transacoesRepository.listarPorContaETipo(contaID, TipoTransacao.SAQUE, ultima, limite));
     }
     
     /**
      * Lista todos os depositos de uma determinada conta com base no ID da conta.
      *
      * @param contaID O ID da conta para a qual deseja listar os saques.
-     * @return Uma lista de depositos associadas à conta.
+     * @param cursor        O cursor retornado pela página anterior, ou null para a primeira página.
+     * @param tamanhoPagina A quantidade de transações desejada (limitada a {@link #TAMANHO_PAGINA_MAXIMO}).
+     * @return Uma página dos depósitos da conta, do mais recente para o mais antigo, e o cursor da próxima página.
      */
-    public List<Transacoes> listarDepositosPorConta(Long contaID) {
-        return transacoesRepository.find("tipoTransacao = ?1 and contaID = ?2",
-                TipoTransacao.DEPOSITO, contaID).list();
+    public PaginaTransacoes listarDepositosPorConta(Long contaID, Long cursor, int tamanhoPagina) {
+        return listarPagina(cursor, tamanhoPagina,
+                (ultima, limite) -> transacoesRepository.listarPorContaETipo(contaID, TipoTransacao.DEPOSITO, ultima, limite));
     }
 
     /**
      * Lista todas as transferências a partir de um valor mínimo.
      *
      * @param valorMinimo O valor mínimo das transferências desejadas.
-     * @return Uma lista de transferências com valores maiores ou iguais ao valor mínimo.
+     * @param cursor        O cursor retornado pela página anterior, ou null para a primeira página.
+     * @param tamanhoPagina A quantidade de transações desejada (limitada a {@link #TAMANHO_PAGINA_MAXIMO}).
+     * @return Uma página das transferências com valor maior ou igual ao mínimo, do maior para o menor valor,
+     *         e o cursor da próxima página.
+     * @throws ValorMinimoInvalidoException Se o valor mínimo não for informado ou for negativo.
      */
-    public List<Transacoes> listarTransferenciasPorValorMinimo(BigDecimal valorMinimo) {
-        return transacoesRepository.find("tipoTransacao = ?1 and valor >= ?2",
-                TipoTransacao.TRANSFERENCIA, valorMinimo).list();
+    public PaginaTransacoes listarTransferenciasPorValorMinimo(BigDecimal valorMinimo, Long cursor, int tamanhoPagina) {
+        validarValorMinimo(valorMinimo);
+        return listarPagina(cursor, tamanhoPagina,
+                (ultima, limite) -> transacoesRepository.listarPorTipoEValorMinimo(TipoTransacao.TRANSFERENCIA, valorMinimo, ultima, limite));
     }
     
     /**
      * Lista todos os saques a partir de um valor mínimo.
      *
      * @param valorMinimo O valor mínimo dos saques desejadas.
-     * @return Uma lista de saques com valores maiores ou iguais ao valor mínimo.
+     * @param cursor        O cursor retornado pela página anterior, ou null para a primeira página.
+     * @param tamanhoPagina A quantidade de transações desejada (limitada a {@link #TAMANHO_PAGINA_MAXIMO}).
+     * @return Uma página dos saques com valor maior ou igual ao mínimo, do maior para o menor valor,
+     *         e o cursor da próxima página.
+     * @throws ValorMinimoInvalidoException Se o valor mínimo não for informado ou for negativo.
      */
-    public List<Transacoes> listarSaquesPorValorMinimo(BigDecimal valorMinimo) {
-        return transacoesRepository.find("tipoTransacao = ?1 and valor >= ?2",
-                TipoTransacao.SAQUE, valorMinimo).list();
+    public PaginaTransacoes listarSaquesPorValorMinimo(BigDecimal valorMinimo, Long cursor, int tamanhoPagina) {
+        validarValorMinimo(valorMinimo);
+        return listarPagina(cursor, tamanhoPagina,
+                (ultima, limite) -> transacoesRepository.listarPorTipoEValorMinimo(TipoTransacao.SAQUE, valorMinimo, ultima, limite));
     }
     
     /**
      * Lista todos os depositos a partir de um valor mínimo.
      *
      * @param valorMinimo O valor mínimo dos saques desejadas.
-     * @return Uma lista de depositos com valores maiores ou iguais ao valor mínimo.
+     * @param cursor        O cursor retornado pela página anterior, ou null para a primeira página.
+     * @param tamanhoPagina A quantidade de transações desejada (limitada a {@link #TAMANHO_PAGINA_MAXIMO}).
+     * @return Uma página dos depósitos com valor maior ou igual ao mínimo, do maior para o menor valor,
+     *         e o cursor da próxima página.
+     * @throws ValorMinimoInvalidoException Se o valor mínimo não for informado ou for negativo.
      */
-    public List<Transacoes> listarDepositosPorValorMinimo(BigDecimal valorMinimo) {
-        return transacoesRepository.find("tipoTransacao = ?1 and valor >= ?2",
-                TipoTransacao.DEPOSITO, valorMinimo).list();
+    public PaginaTransacoes listarDepositosPorValorMinimo(BigDecimal valorMinimo, Long cursor, int tamanhoPagina) {
+        validarValorMinimo(valorMinimo);
+        return listarPagina(cursor, tamanhoPagina,
+                (ultima, limite) -> transacoesRepository.listarPorTipoEValorMinimo(TipoTransacao.DEPOSITO, valorMinimo, ultima, limite));
     }
     
     /**
      * Realiza um saque em uma conta e verifica o limite permitido.
+     * <p>
+     * No modo otimista, o saque parte do estado da conta no {@link CacheEstadoContas}: a regra de débito é aplicada ao
+     * estado em cache e o novo saldo é gravado com um UPDATE condicionado à versão em cache, sem ler a conta. Se a
+     * conta não estiver no banco de dados com essa versão, ou se o estado em cache recusar o saque, a conta é lida e o
+     * saque é decidido pelo saldo atual.
      *
      * @param contaID O ID da conta.
      * @param valor   O valor a ser sacado.
-     * @throws SaqueExcedeLimiteException Se o saque exceder o limite da conta.
+     * @throws SaqueExcedeLimiteException Se o saque exceder o limite da conta corrente.
+     * @throws SaqueExcedeSaldoException Se o saque exceder o saldo da conta conjunta ou poupança.
      * @throws ContaNaoEncontradaException Se a conta não for encontrada.
      * @throws NotificacaoNaoEncontradaException Se houver um problema com o serviço de notificações.
      */
@@ -229,33 +353,27 @@ public class TransacoesService {
         if (tipoConta == null) {
             throw new IllegalArgumentException("O Tipo Conta não pode ser nulo.");
         }
-        
-        if(tipoConta.equals(TipoConta.CONTA_CORRENTE)) {
-            ContaCorrente contaCorrente = contaCorrenteRepository.findById(contaID);
-            if (contaCorrente != null) {
-                realizarSaqueContaCorrente(contaCorrente, valor);
-                return;
-            }
-        }
 
-        else if(tipoConta.equals(TipoConta.CONTA_CONJUNTA)) {
-            ContasConjuntas contasConjuntas = contasConjuntasRepository.findById(contaID);
-            if (contasConjuntas != null) {
-                realizarSaqueContasConjuntas(contasConjuntas, valor);
-                return;
+        OperacoesConta operacoes = operacoesConta(tipoConta);
+        Contas conta = modoConcorrencia == ModoConcorrencia.OTIMISTA ? debitarPeloCache(operacoes, tipoConta, contaID, valor) : null;
+        if (conta == null) {
+            conta = operacoes.buscar(contaID, modoBloqueio());
+            if (conta == null) {
+                throw new ContaNaoEncontradaException("Conta não encontrada com ID: " + contaID);
             }
-        }
-        
-        else if(tipoConta.equals(TipoConta.CONTA_POUPANCA))
-        {
-            Poupanca poupanca = poupancaRepository.findById(contaID);
-            if (poupanca != null) {
-                realizarSaquePoupanca(poupanca, valor);
-                return;
+
+            if (!operacoes.regraDebito.debitar(conta, valor)) {
+                throw operacoes.regraDebito.saqueRecusado();
             }
+            operacoes.persistir(conta);
         }
-        
-        throw new ContaNaoEncontradaException("Conta não encontrada com ID: " + contaID);
+        verificarGastoExcessivo(conta, TipoTransacao.SAQUE, valor);
+
+        Transacoes transacao = registrarTransacao(TipoTransacao.SAQUE, valor, tipoConta, contaID, null, null, null);
+        notificar(conta, transacao);
+
+        entityManager.flush();
+        cacheEstadoContas.atualizar(conta);
     }
     
     /**
@@ -293,44 +411,32 @@ public class TransacoesService {
             throw new IllegalArgumentException("O ID da conta não pode ser nulo.");
         }
 
-        
-        if(tipoConta.equals(TipoConta.CONTA_CORRENTE)) {
-            ContaCorrente contaCorrente = contaCorrenteRepository.findById(contaID);
-            if (contaCorrente != null) {
-                realizarDepositoContaCorrente(contaCorrente, valor, tipoDeposito, numeroCheque);
-                return;
-            }
+        // O crédito é aplicado pelo próprio banco de dados, sem leitura prévia da conta
+        if (!operacoesConta(tipoConta).creditar(contaID, valor)) {
+            throw new ContaNaoEncontradaException("Conta não encontrada com ID: " + contaID);
         }
 
-        else if(tipoConta.equals(TipoConta.CONTA_CONJUNTA)) {
-            ContasConjuntas contasConjuntas = contasConjuntasRepository.findById(contaID);
-            if (contasConjuntas != null) {
-                realizarDepositoContasConjuntas(contasConjuntas, valor, tipoDeposito, numeroCheque);
-                return;
-            }
-        }
-        
-        else if(tipoConta.equals(TipoConta.CONTA_POUPANCA))
-        {
-            Poupanca poupanca = poupancaRepository.findById(contaID);
-            if (poupanca != null) {
-                realizarDepositoPoupanca(poupanca, valor, tipoDeposito, numeroCheque);
-                return;
-            }
-        }
-        
-        throw new ContaNaoEncontradaException("Conta não encontrada com ID: " + contaID);
+        Transacoes transacao = registrarTransacao(TipoTransacao.DEPOSITO, valor, tipoConta, contaID, null, null,
+                tipoDeposito == TipoDeposito.CHEQUE ? numeroCheque : null);
+        // O cliente da conta é obtido no despacho da notificação
+        despachanteNotificacoes.registrar(null, transacao);
+
+        // O novo saldo foi calculado pelo banco de dados; a próxima consulta recarrega a conta
+        cacheEstadoContas.invalidar(tipoConta, contaID);
     }
     
     /**
-     * Realiza uma transferência entre duas contas.
+     * Realiza uma transferência entre duas contas. Cada conta é lida uma única vez; a conta de origem é debitada
+     * pela regra do seu tipo e a conta de destino é creditada.
      *
      * @param contaOrigemID O ID da conta de origem.
      * @param contaDestinoID O ID da conta de destino.
      * @param valor O valor a ser transferido.
-     * @param tipoConta o tipo de conta da origem.
+     * @param tipoContaOrigem O tipo da conta de origem.
+     * @param tipoContaDestino O tipo da conta de destino.
      * @throws ContaNaoEncontradaException Se uma das contas não for encontrada.
-     * @throws IllegalArgumentException Se o valor da transferência for negativo ou nulo.
+     * @throws IllegalArgumentException Se o valor da transferência for negativo ou nulo, ou se as contas de origem e
+     *                                  destino forem a mesma.
      * @throws SaldoInsuficienteException Se a conta de origem não tiver saldo suficiente para a transferência.
      */
     @Transactional
@@ -345,504 +451,208 @@ public class TransacoesService {
             throw new IllegalArgumentException("Os IDs da conta de origem e destino não podem ser nulos.");
         }
         
-        if (tipoContaOrigem == null && tipoContaDestino == null) {
+        if (tipoContaOrigem == null || tipoContaDestino == null) {
             throw new IllegalArgumentException("O tipo de conta deve ser especificado.");
         }
-        
-		if (tipoContaOrigem.equals(TipoConta.CONTA_CORRENTE)) {
-			ContaCorrente contaCorrenteOrigem = contaCorrenteRepository.findById(contaOrigemID);
-			ContaCorrente contaCorrenteDestino = contaCorrenteRepository.findById(contaDestinoID);
-
-			if (contaCorrenteOrigem == null || contaCorrenteDestino == null) {
-				throw new ContaNaoEncontradaException("Uma das contas não foi encontrada.");
-			} else {
-				realizarTransferenciaContaCorrente(contaOrigemID, contaDestinoID, valor, tipoContaDestino);
-				return;
-			}
-		}
-    
-        else if(tipoContaOrigem.equals(TipoConta.CONTA_CONJUNTA)) {
-        	ContasConjuntas contaConjuntaOrigem = contasConjuntasRepository.findById(contaOrigemID);
-			ContasConjuntas contaConjuntaDestino = contasConjuntasRepository.findById(contaDestinoID);
-			
-			if (contaConjuntaOrigem == null || contaConjuntaDestino == null) {
-				throw new ContaNaoEncontradaException("Uma das contas não foi encontrada.");
-			} else {
-				realizarTransferenciaContaConjunta(contaOrigemID, contaDestinoID, valor, tipoContaDestino);
-				return;
-			}
-        }
-        
-        else if(tipoContaOrigem.equals(TipoConta.CONTA_POUPANCA)){
-        	Poupanca contaPoupancaOrigem = poupancaRepository.findById(contaOrigemID);
-        	Poupanca contaPoupancaDestino = poupancaRepository.findById(contaDestinoID);
-			
-			if (contaPoupancaOrigem == null || contaPoupancaDestino == null) {
-				throw new ContaNaoEncontradaException("Uma das contas não foi encontrada.");
-			} else {
-				realizarTransferenciaPoupanca(contaOrigemID, contaDestinoID, valor, tipoContaDestino);
-				return;
-			}
-        }
-        
-        throw new ContaNaoEncontradaException("Conta origem não encontrada com ID: " + contaOrigemID);
-    }
-    
-    
-    /**
-     * Cria uma notificação de gasto excessivo.
-     *
-     * @param conta       A conta do cliente que realizou o saque.
-     * @param valorSaque  O valor do saque que excede o limite.
-     * @throws NotificacaoNaoEncontradaException Se houver um problema com o serviço de notificações.
-     */
-    private void criarNotificacaoGastoExcessivo(Contas conta, BigDecimal valorSaque) throws AlertaNaoEncontradoException {
-        String mensagem = "Alerta: Saque de R$ " + valorSaque + " excede o limite da conta.";
-        
-        alertasGastosExcessivos.setClienteID(conta.getClienteID());
-        alertasGastosExcessivos.setTipoAlerta(mensagem);
 
-        try {
-            alertasGastosExcessivosService.criarAlerta(alertasGastosExcessivos); 
-        } catch (AlertaNaoEncontradoException e) {
-            throw e;
+        // Na mesma conta, o débito pela regra do tipo e o crédito no saldo transformariam o limite de crédito em saldo
+        if (tipoContaOrigem == tipoContaDestino && contaOrigemID.equals(contaDestinoID)) {
+            throw new IllegalArgumentException("A conta de origem e a conta de destino devem ser diferentes.");
         }
-    }
 
-    /**
-     * Realiza o saque em uma conta corrente.
-     *
-     * @param contaCorrente A conta corrente.
-     * @param valor O valor a ser sacado.
-     * @throws SaqueExcedeLimiteException Se o saque exceder o limite da conta corrente.
-     * @throws NotificacaoNaoEncontradaException Se houver um problema com o serviço de notificações.
-     */
-    private void realizarSaqueContaCorrente(ContaCorrente contaCorrente, BigDecimal valor) throws SaqueExcedeLimiteException, NotificacaoNaoEncontradaException {
-        BigDecimal saldoConta = contaCorrente.getSaldo();
-        BigDecimal limiteCredito = contaCorrente.getLimiteCredito();
-        
-
-        // Verifica se o saque excede o saldo e usa o limite de crédito
-        if (saldoConta.compareTo(valor) < 0) {
-            BigDecimal valorRestante = valor.subtract(saldoConta);
-            saldoConta = BigDecimal.ZERO; // Esvazia o saldo
-            limiteCredito = limiteCredito.subtract(valorRestante);
-            contaCorrente.setLimiteCredito(limiteCredito);
+        OperacoesConta operacoesOrigem = operacoesConta(tipoContaOrigem);
+        OperacoesConta operacoesDestino = operacoesConta(tipoContaDestino);
 
-            // Verifica se o saque excede o limite de crédito
-            if (limiteCredito.compareTo(BigDecimal.ZERO) < 0) {
-                throw new SaqueExcedeLimiteException("Saque excede o limite de crédito da conta corrente.");
-            }
+        // As contas são lidas sempre na mesma ordem (tipo de conta, ID): no modo pessimista, duas transferências
+        // concorrentes entre as mesmas contas, em sentidos opostos, adquirem os bloqueios na mesma sequência e por
+        // isso não entram em deadlock
+        LockModeType modoBloqueio = modoBloqueio();
+        Contas contaOrigem;
+        Contas contaDestino;
+        if (isOrigemPrimeiro(contaOrigemID, tipoContaOrigem, contaDestinoID, tipoContaDestino)) {
+            contaOrigem = operacoesOrigem.buscar(contaOrigemID, modoBloqueio);
+            contaDestino = operacoesDestino.buscar(contaDestinoID, modoBloqueio);
         } else {
-            saldoConta = saldoConta.subtract(valor);
+            contaDestino = operacoesDestino.buscar(contaDestinoID, modoBloqueio);
+            contaOrigem = operacoesOrigem.buscar(contaOrigemID, modoBloqueio);
+        }
+        if (contaOrigem == null || contaDestino == null) {
+            throw new ContaNaoEncontradaException("Uma das contas não foi encontrada.");
         }
 
-        // Atualiza o saldo da conta
-        contaCorrente.setSaldo(saldoConta);
-        contaCorrenteRepository.persist(contaCorrente);
-
-        Transacoes transacao = new Transacoes();
-        transacao.setTipoTransacao(TipoTransacao.SAQUE);
-        transacao.setDataHoraTransacao(LocalDate.now());
-        transacao.setValor(valor);
-        transacao.setContaID(contaCorrente.getcontaCorrenteID());
-        transacao.setTipoConta(TipoConta.CONTA_CORRENTE);
-        transacoesRepository.persist(transacao);
+        if (!operacoesOrigem.regraDebito.debitar(contaOrigem, valor)) {
+            throw operacoesOrigem.regraDebito.transferenciaRecusada();
+        }
+        operacoesOrigem.persistir(contaOrigem);
+        contaDestino.setSaldo(contaDestino.getSaldo().add(valor));
+        operacoesDestino.persistir(contaDestino);
+        verificarGastoExcessivo(contaOrigem, TipoTransacao.TRANSFERENCIA, valor);
 
-        notificacoes.setClienteID(contaCorrente.getClienteID());
-        notificacoes.setDataHoraNotificacao(LocalDateTime.now());
-        notificacoes.setEnviada(1);
-        notificacoes.setMensagemNotificacao("O Cliente: " + contaCorrente.getClienteID() + " realizou um Tipo de Transação: " + transacao.getTipoTransacao() + " na data e hora: " + transacao.getDataHoraTransacao() + " no valor de: R$ " + transacao.getValor());
-        
-        
-        //notificacoesService.criarNotificacao(notificacoes);
+        Transacoes transacao = registrarTransacao(TipoTransacao.TRANSFERENCIA, valor, tipoContaOrigem, contaOrigemID,
+                contaDestinoID, tipoContaDestino, null);
+        notificar(contaOrigem, transacao);
 
+        entityManager.flush();
+        cacheEstadoContas.atualizar(contaOrigem);
+        cacheEstadoContas.atualizar(contaDestino);
     }
-
-
+    
+    
     /**
-     * Realiza o saque em uma conta conjunta.
+     * Debita uma conta a partir do seu estado em cache, com um UPDATE condicionado à versão em cache.
      *
-     * @param contasConjuntas A conta conjunta.
-     * @param valor O valor a ser sacado.
-     * @throws SaqueExcedeSaldoException Se o saque exceder o saldo da conta conjunta.
-     * @throws NotificacaoNaoEncontradaException Se houver um problema com o serviço de notificações.
+     * @param operacoes As operações do tipo de conta.
+     * @param tipoConta O tipo da conta.
+     * @param contaID   O ID da conta.
+     * @param valor     O valor do débito.
+     * @return A conta debitada, fora do contexto de persistência; ou null se a conta não existir, se o estado em cache
+     *         recusar o débito ou se a versão no banco de dados for outra, casos em que nada foi gravado.
      */
-    private void realizarSaqueContasConjuntas(ContasConjuntas contasConjuntas, BigDecimal valor) throws SaqueExcedeSaldoException, NotificacaoNaoEncontradaException {
-        BigDecimal saldoConta = contasConjuntas.getSaldo();
-
-        // Verifica se o saque excede o saldo
-        if (saldoConta.compareTo(valor) < 0) {
-            throw new SaqueExcedeSaldoException("Saque excede o saldo da conta conjunta.");
-        } else {
-            saldoConta = saldoConta.subtract(valor);
+    private Contas debitarPeloCache(OperacoesConta operacoes, TipoConta tipoConta, Long contaID, BigDecimal valor) {
+        EstadoConta estado = cacheEstadoContas.obter(tipoConta, contaID);
+        if (estado == null) {
+            return null;
         }
-
-        // Atualiza o saldo da conta conjunta
-        contasConjuntas.setSaldo(saldoConta);
-        contasConjuntasRepository.persist(contasConjuntas);
-
-        BigDecimal limiteSaque = alertasGastosExcessivos.getValorLimite();
-
-        if (valor.compareTo(limiteSaque) > 0) {
-            // O saque excede o limite, crie uma notificação de gasto excessivo
-            criarNotificacaoGastoExcessivo(contasConjuntas, valor);
+        Contas conta = estado.paraConta();
+        if (!operacoes.regraDebito.debitar(conta, valor)) {
+            return null;
         }
-
-        Transacoes transacao = new Transacoes();
-        transacao.setTipoTransacao(TipoTransacao.SAQUE);
-        transacao.setDataHoraTransacao(LocalDate.now());
-        transacao.setValor(valor);
-        transacao.setContaID(contasConjuntas.getContaConjuntaID());
-        transacao.setTipoConta(TipoConta.CONTA_CONJUNTA);
-        transacoesRepository.persist(transacao);
-
-        notificacoes.setClienteID(contasConjuntas.getClienteID());
-        notificacoes.setDataHoraNotificacao(LocalDateTime.now());
-        notificacoes.setEnviada(1);
-        notificacoes.setMensagemNotificacao("O Cliente: " + contasConjuntas.getClienteID().toString() + " realizou um Tipo de Transação: " + transacao.getTipoTransacao() + " na data e hora: " + transacao.getDataHoraTransacao() + " no valor de: R$ " + transacao.getValor());
-
-        //notificacoesService.criarNotificacao(notificacoes);
+        if (!operacoes.gravarSeVersao(conta)) {
+            // O estado em cache está defasado
+            cacheEstadoContas.invalidar(tipoConta, contaID);
+            return null;
+        }
+        return conta;
     }
 
-
     /**
-     * Realiza o saque em uma conta poupança.
+     * Obtém o modo de bloqueio usado na leitura das contas cujo saldo será alterado.
      *
-     * @param poupanca A conta poupança.
-     * @param valor O valor a ser sacado.
-     * @throws SaqueExcedeSaldoException Se o saque exceder o saldo da conta poupança.
-     * @throws NotificacaoNaoEncontradaException Se houver um problema com o serviço de notificações.
+     * @return PESSIMISTIC_WRITE (SELECT ... FOR UPDATE) no modo pessimista; NONE no modo otimista,
+     *         em que o conflito é detectado pela coluna de versão.
      */
-    private void realizarSaquePoupanca(Poupanca poupanca, BigDecimal valor) throws SaqueExcedeSaldoException, NotificacaoNaoEncontradaException {
-        BigDecimal saldoConta = poupanca.getSaldo();
-
-        // Verifica se o saque excede o saldo
-        if (saldoConta.compareTo(valor) < 0) {
-            throw new SaqueExcedeSaldoException("Saque excede o saldo da conta poupança.");
-        } else {
-            saldoConta = saldoConta.subtract(valor);
-        }
-
-        // Atualiza o saldo da conta poupança
-        poupanca.setSaldo(saldoConta);
-        poupancaRepository.persist(poupanca);
-
-        BigDecimal limiteSaque = alertasGastosExcessivos.getValorLimite();
-
-        if (valor.compareTo(limiteSaque) > 0) {
-            // O saque excede o limite, crie uma notificação de gasto excessivo
-            criarNotificacaoGastoExcessivo(poupanca, valor);
-        }
-
-        Transacoes transacao = new Transacoes();
-        transacao.setTipoTransacao(TipoTransacao.SAQUE);
-        transacao.setDataHoraTransacao(LocalDate.now());
-        transacao.setValor(valor);
-        transacao.setContaID(poupanca.getPoupancaID());
-        transacao.setTipoConta(TipoConta.CONTA_POUPANCA);
-        transacoesRepository.persist(transacao);
-
-        notificacoes.setClienteID(poupanca.getClienteID());
-        notificacoes.setDataHoraNotificacao(LocalDateTime.now());
-        notificacoes.setEnviada(1);
-        notificacoes.setMensagemNotificacao("O Cliente: " + poupanca.getClienteID() + " realizou um Tipo de Transação: " + transacao.getTipoTransacao() + " na data e hora: " + transacao.getDataHoraTransacao() + " no valor de: R$ " + transacao.getValor());
-
-        //notificacoesService.criarNotificacao(notificacoes);
+    private LockModeType modoBloqueio() {
+        return modoConcorrencia == ModoConcorrencia.PESSIMISTA ? LockModeType.PESSIMISTIC_WRITE : LockModeType.NONE;
     }
 
     /**
-     * Realiza um depósito em uma conta corrente.
+     * Indica se a conta de origem de uma transferência vem antes da conta de destino na ordem de leitura
+     * (tipo de conta, ID).
      *
-     * @param contaCorrente A conta corrente.
-     * @param valor O valor a ser depositado.
-     * @param tipoDeposito O tipo de depósito (DINHEIRO ou CHEQUE).
-     * @param numeroCheque O número do cheque (somente se tipoDeposito for CHEQUE).
+     * @param contaOrigemID    O ID da conta de origem.
+     * @param tipoContaOrigem  O tipo da conta de origem.
+     * @param contaDestinoID   O ID da conta de destino.
+     * @param tipoContaDestino O tipo da conta de destino.
+     * @return true se a conta de origem deve ser lida primeiro.
      */
-    private void realizarDepositoContaCorrente(ContaCorrente contaCorrente, BigDecimal valor,
-            TipoDeposito tipoDeposito, String numeroCheque) {
-        BigDecimal saldoConta = contaCorrente.getSaldo();
-
-        if (tipoDeposito == TipoDeposito.CHEQUE) {
-            contaCorrente.setSaldo(contaCorrente.getSaldo().add(valor));
-            
-        } else if (tipoDeposito == TipoDeposito.DINHEIRO) {
-            BigDecimal novoSaldo = saldoConta.add(valor);
-            contaCorrente.setSaldo(novoSaldo);
-        }
-
-        // Persiste a conta corrente após o depósito
-        contaCorrenteRepository.persist(contaCorrente);
-
-        // Registre a transação de depósito
-        Transacoes transacao = new Transacoes();
-        transacao.setTipoTransacao(TipoTransacao.DEPOSITO);
-        transacao.setDataHoraTransacao(LocalDate.now());
-        transacao.setValor(valor);
-        transacao.setTipoConta(TipoConta.CONTA_CORRENTE);
-        transacao.setNumeroCheque(tipoDeposito == TipoDeposito.CHEQUE ? numeroCheque : null);
-        transacao.setContaID(contaCorrente.getcontaCorrenteID());
-
-        // Persiste a transação
-        transacoesRepository.persist(transacao);
-
-        notificacoes.setMensagemNotificacao("O Cliente: " + contaCorrente.getClienteID() + " realizou um Tipo de Transação: " + transacao.getTipoTransacao() + " na data e hora: " + transacao.getDataHoraTransacao() + " no valor de: R$ " + transacao.getValor());
+    private static boolean isOrigemPrimeiro(Long contaOrigemID, TipoConta tipoContaOrigem, Long contaDestinoID, TipoConta tipoContaDestino) {
+        int ordem = tipoContaOrigem != tipoContaDestino
+                ? tipoContaOrigem.compareTo(tipoContaDestino)
+                : contaOrigemID.compareTo(contaDestinoID);
+        return ordem <= 0;
     }
 
     /**
-     * Realiza um depósito em uma conta conjunta.
+     * Obtém as operações de saldo de um tipo de conta.
      *
-     * @param contaConjunta A conta conjunta.
-     * @param valor O valor a ser depositado.
-     * @param tipoDeposito O tipo de depósito (DINHEIRO ou CHEQUE).
-     * @param numeroCheque O número do cheque (somente se tipoDeposito for CHEQUE).
+     * @param tipoConta O tipo da conta.
+     * @return As operações do tipo de conta.
+     * @throws IllegalArgumentException Se o tipo de conta não for suportado.
      */
-    private void realizarDepositoContasConjuntas(ContasConjuntas contasConjuntas, BigDecimal valor,
-            TipoDeposito tipoDeposito, String numeroCheque) {
-        BigDecimal saldoConta = contasConjuntas.getSaldo();
-
-        if (tipoDeposito == TipoDeposito.CHEQUE) {
-        	contasConjuntas.setSaldo(contasConjuntas.getSaldo().add(valor));
-            
-        } else if (tipoDeposito == TipoDeposito.DINHEIRO) {
-            BigDecimal novoSaldo = saldoConta.add(valor);
-            contasConjuntas.setSaldo(novoSaldo);
+    private OperacoesConta operacoesConta(TipoConta tipoConta) {
+        OperacoesConta operacoes = operacoesPorTipoConta.get(tipoConta);
+        if (operacoes == null) {
+            throw new IllegalArgumentException("Tipo de conta não suportado: " + tipoConta);
         }
-
-        // Persiste a conta corrente após o depósito
-        contasConjuntasRepository.persist(contasConjuntas);
-
-        // Registre a transação de depósito
-        Transacoes transacao = new Transacoes();
-        transacao.setTipoTransacao(TipoTransacao.DEPOSITO);
-        transacao.setDataHoraTransacao(LocalDate.now());
-        transacao.setValor(valor);
-        transacao.setTipoConta(TipoConta.CONTA_CONJUNTA);
-        transacao.setNumeroCheque(tipoDeposito == TipoDeposito.CHEQUE ? numeroCheque : null);
-        transacao.setContaID(contasConjuntas.getContaConjuntaID());
-
-        // Persiste a transação
-        transacoesRepository.persist(transacao);
-
-        notificacoes.setMensagemNotificacao("O Cliente: " + contasConjuntas.getClienteID().toString() + " realizou um Tipo de Transação: " + transacao.getTipoTransacao() + " na data e hora: " + transacao.getDataHoraTransacao() + " no valor de: R$ " + transacao.getValor());
+        return operacoes;
     }
 
     /**
-     * Realiza um depósito em uma conta poupanca.
+     * Registra a transação no ledger, nas métricas e no livro-razão, na transação corrente.
      *
-     * @param contaConjunta A conta poupanca.
-     * @param valor O valor a ser depositado.
-     * @param tipoDeposito O tipo de depósito (DINHEIRO ou CHEQUE).
-     * @param numeroCheque O número do cheque (somente se tipoDeposito for CHEQUE).
+     * @param tipoTransacao    O tipo da transação.
+     * @param valor            O valor da transação.
+     * @param tipoConta        O tipo da conta (de origem, nas transferências).
+     * @param contaID          O ID da conta (de origem, nas transferências).
+     * @param contaDestinoID   O ID da conta de destino, somente em transferências.
+     * @param tipoContaDestino O tipo da conta de destino, somente em transferências.
+     * @param numeroCheque     O número do cheque, somente em depósitos em cheque.
+     * @return A transação persistida.
      */
-    private void realizarDepositoPoupanca(Poupanca contaPoupanca, BigDecimal valor,
-            TipoDeposito tipoDeposito, String numeroCheque) {
-        BigDecimal saldoConta = contaPoupanca.getSaldo();
-
-        if (tipoDeposito == TipoDeposito.CHEQUE) {
-        	contaPoupanca.setSaldo(contaPoupanca.getSaldo().add(valor));
-            
-        } else if (tipoDeposito == TipoDeposito.DINHEIRO) {
-            BigDecimal novoSaldo = saldoConta.add(valor);
-            contaPoupanca.setSaldo(novoSaldo);
-        }
-
-        // Persiste a conta corrente após o depósito
-        poupancaRepository.persist(contaPoupanca);
-
-        // Registre a transação de depósito
+    private Transacoes registrarTransacao(TipoTransacao tipoTransacao, BigDecimal valor, TipoConta tipoConta, Long contaID,
+            Long contaDestinoID, TipoConta tipoContaDestino, String numeroCheque) {
         Transacoes transacao = new Transacoes();
-        transacao.setTipoTransacao(TipoTransacao.DEPOSITO);
+        transacao.setTipoTransacao(tipoTransacao);
         transacao.setDataHoraTransacao(LocalDate.now());
         transacao.setValor(valor);
-        transacao.setTipoConta(TipoConta.CONTA_POUPANCA);
-        transacao.setNumeroCheque(tipoDeposito == TipoDeposito.CHEQUE ? numeroCheque : null);
-        transacao.setContaID(contaPoupanca.getPoupancaID());
+        transacao.setTipoConta(tipoConta);
+        transacao.setContaID(contaID);
+        transacao.setContaDestinoID(contaDestinoID);
+        transacao.setNumeroCheque(numeroCheque);
 
-        // Persiste a transação
         transacoesRepository.persist(transacao);
-
-        notificacoes.setMensagemNotificacao("O Cliente: " + contaPoupanca.getClienteID().toString() + " realizou um Tipo de Transação: " + transacao.getTipoTransacao() + " na data e hora: " + transacao.getDataHoraTransacao() + " no valor de: R$ " + transacao.getValor());
+        metricasBanco.contarTransacao(transacao);
+        livroRazaoService.lancar(transacao, tipoContaDestino);
+        return transacao;
     }
-    
+
     /**
-     * Realiza uma transferência entre duas contas correntes.
+     * Avalia a saída (saque ou transferência enviada) contra os alertas de gastos excessivos do cliente da conta e a
+     * registra nas janelas de gastos do cliente; os alertas excedidos são disparados em segundo plano, após o commit.
      *
-     * @param contaOrigemID O ID da conta de origem.
-     * @param contaDestinoID O ID da conta de destino.
-     * @param valor O valor a ser transferido.
-     * @throws ContaNaoEncontradaException Se uma das contas não for encontrada.
-     * @throws IllegalArgumentException Se o valor da transferência for negativo ou nulo.
-     * @throws SaldoInsuficienteException Se a conta de origem não tiver saldo suficiente para a transferência.
+     * @param conta         A conta do cliente que realizou a saída.
+     * @param tipoTransacao O tipo da saída.
+     * @param valor         O valor da saída.
      */
-    @Transactional
-    public void realizarTransferenciaContaCorrente(Long contaOrigemID, Long contaDestinoID, @NotNull BigDecimal valor, @NotNull TipoConta tipoContaDestino)
-            throws ContaNaoEncontradaException, IllegalArgumentException, SaldoInsuficienteException {
-
-        ContaCorrente contaOrigem = contaCorrenteRepository.findById(contaOrigemID);
-        
-        BigDecimal saldoOrigem = contaOrigem.getSaldo();
-        BigDecimal limiteCreditoOrigem = contaOrigem.getLimiteCredito();
-
-        // Verifica se a transferência excede o saldo e o limite de crédito da conta de origem
-        if (valor.compareTo(saldoOrigem.add(limiteCreditoOrigem)) > 0) {
-            throw new SaldoInsuficienteException("Saldo e limite de crédito insuficientes na conta de origem.");
-        }
-
-        BigDecimal novoSaldoOrigem = saldoOrigem.subtract(valor);
-        contaOrigem.setSaldo(novoSaldoOrigem);
-        contaCorrenteRepository.persist(contaOrigem);
-        
-        if(tipoContaDestino.equals(TipoConta.CONTA_CONJUNTA)) {
-        	ContasConjuntas contaDestino = contasConjuntasRepository.findById(contaDestinoID);
-        	BigDecimal novoSaldoDestino = contaDestino.getSaldo().add(valor);
-        	contaDestino.setSaldo(novoSaldoDestino);
-        	contasConjuntasRepository.persist(contaDestino);
-        }
-        else if(tipoContaDestino.equals(TipoConta.CONTA_POUPANCA)) {
-        	Poupanca contaDestino = poupancaRepository.findById(contaDestinoID);
-        	BigDecimal novoSaldoDestino = contaDestino.getSaldo().add(valor);
-        	contaDestino.setSaldo(novoSaldoDestino);
-        	poupancaRepository.persist(contaDestino);
-        }
-        else if(tipoContaDestino.equals(TipoConta.CONTA_CORRENTE)) {
-        	ContaCorrente contaDestino = contaCorrenteRepository.findById(contaDestinoID);
-        	BigDecimal novoSaldoDestino = contaDestino.getSaldo().add(valor);
-        	contaDestino.setSaldo(novoSaldoDestino);
-        	contaCorrenteRepository.persist(contaDestino);
-        }
-
-        // Registre a transação de depósito
-        Transacoes transacao = new Transacoes();
-        transacao.setTipoTransacao(TipoTransacao.TRANSFERENCIA);
-        transacao.setDataHoraTransacao(LocalDate.now());
-        transacao.setValor(valor);
-        transacao.setTipoConta(TipoConta.CONTA_CORRENTE);
-        transacao.setContaID(contaOrigem.getcontaCorrenteID());
-
-        // Persiste a transação
-        transacoesRepository.persist(transacao);
-
-        notificacoes.setMensagemNotificacao("O Cliente: " + contaOrigem.getClienteID().toString() + " realizou um Tipo de Transação: " + transacao.getTipoTransacao() + " na data e hora: " + transacao.getDataHoraTransacao() + " no valor de: R$ " + transacao.getValor());
-    
+    private void verificarGastoExcessivo(Contas conta, TipoTransacao tipoTransacao, BigDecimal valor) {
+        motorAlertasGastos.avaliar(conta.getClienteID(), tipoTransacao, valor);
     }
 
     /**
-     * Realiza uma transferência entre duas contas conjuntas.
+     * Grava a notificação da operação realizada pelo cliente da conta, na transação corrente.
      *
-     * @param contaOrigemID O ID da conta de origem.
-     * @param contaDestinoID O ID da conta de destino.
-     * @param valor O valor a ser transferido.
-     * @throws ContaNaoEncontradaException Se uma das contas não for encontrada.
-     * @throws IllegalArgumentException Se o valor da transferência for negativo ou nulo.
-     * @throws SaldoInsuficienteException Se a conta de origem não tiver saldo suficiente para a transferência.
+     * @param conta     A conta do cliente.
+     * @param transacao A transação realizada.
      */
-    @Transactional
-    public void realizarTransferenciaContaConjunta(Long contaOrigemID, Long contaDestinoID, @NotNull BigDecimal valor, @NotNull TipoConta tipoContaDestino)
-            throws ContaNaoEncontradaException, IllegalArgumentException, SaldoInsuficienteException {
-        ContasConjuntas contasConjuntasOrigem = contasConjuntasRepository.findById(contaOrigemID);
-
-        BigDecimal saldoOrigem = contasConjuntasOrigem.getSaldo();
-        
-        // Verifica se a transferência excede o saldo
-        if (valor.compareTo(saldoOrigem) > 0) {
-            throw new SaldoInsuficienteException("Saldo insuficiente na conta de origem.");
-        }
-
-        BigDecimal novoSaldoOrigem = saldoOrigem.subtract(valor);
-        contasConjuntasOrigem.setSaldo(novoSaldoOrigem);
-        contasConjuntasRepository.persist(contasConjuntasOrigem);
-        
-        if(tipoContaDestino.equals(TipoConta.CONTA_CONJUNTA)) {
-        	ContasConjuntas contaDestino = contasConjuntasRepository.findById(contaDestinoID);
-        	BigDecimal novoSaldoDestino = contaDestino.getSaldo().add(valor);
-        	contaDestino.setSaldo(novoSaldoDestino);
-        	contasConjuntasRepository.persist(contaDestino);
-        }
-        else if(tipoContaDestino.equals(TipoConta.CONTA_POUPANCA)) {
-        	Poupanca contaDestino = poupancaRepository.findById(contaDestinoID);
-        	BigDecimal novoSaldoDestino = contaDestino.getSaldo().add(valor);
-        	contaDestino.setSaldo(novoSaldoDestino);
-        	poupancaRepository.persist(contaDestino);
-        }
-        else if(tipoContaDestino.equals(TipoConta.CONTA_CORRENTE)) {
-        	ContaCorrente contaDestino = contaCorrenteRepository.findById(contaDestinoID);
-        	BigDecimal novoSaldoDestino = contaDestino.getSaldo().add(valor);
-        	contaDestino.setSaldo(novoSaldoDestino);
-        	contaCorrenteRepository.persist(contaDestino);
-        }
-
-        // Registre a transação de depósito
-        Transacoes transacao = new Transacoes();
-        transacao.setTipoTransacao(TipoTransacao.TRANSFERENCIA);
-        transacao.setDataHoraTransacao(LocalDate.now());
-        transacao.setValor(valor);
-        transacao.setTipoConta(TipoConta.CONTA_CONJUNTA);
-        transacao.setContaID(contasConjuntasOrigem.getContaConjuntaID());
-
-        // Persiste a transação
-        transacoesRepository.persist(transacao);
-
-        notificacoes.setMensagemNotificacao("O Cliente: " + contasConjuntasOrigem.getClienteID().toString() + " realizou um Tipo de Transação: " + transacao.getTipoTransacao() + " na data e hora: " + transacao.getDataHoraTransacao() + " no valor de: R$ " + transacao.getValor());
+    private void notificar(Contas conta, Transacoes transacao) {
+        despachanteNotificacoes.registrar(conta.getClienteID(), transacao);
     }
 
     /**
-     * Realiza uma transferência entre uma conta poupança e outra conta.
-     *
-     * @param contaOrigemID O ID da conta de origem (poupança).
-     * @param contaDestinoID O ID da conta de destino.
-     * @param valor O valor a ser transferido.
-     * @throws ContaNaoEncontradaException Se uma das contas não for encontrada.
-     * @throws IllegalArgumentException Se o valor da transferência for negativo ou nulo.
-     * @throws SaldoInsuficienteException Se a conta de origem não tiver saldo suficiente para a transferência.
+     * Operações de saldo de um tipo de conta: o acesso ao repositório correspondente e a regra de débito.
      */
-    @Transactional
-    public void realizarTransferenciaPoupanca(Long contaOrigemID, Long contaDestinoID, @NotNull BigDecimal valor, @NotNull TipoConta tipoContaDestino)
-            throws ContaNaoEncontradaException, IllegalArgumentException, SaldoInsuficienteException {
-    	
-        Poupanca poupancaOrigem = poupancaRepository.findById(contaOrigemID);
-        BigDecimal saldoOrigem = poupancaOrigem.getSaldo();
-        
-        // Verifica se a transferência excede o saldo
-        if (valor.compareTo(saldoOrigem) > 0) {
-            throw new SaldoInsuficienteException("Saldo insuficiente na conta de origem.");
+    private static final class OperacoesConta {
+
+        private final BiFunction<Long, LockModeType, ? extends Contas> busca;
+        private final Consumer<Contas> persistencia;
+        private final Predicate<Contas> gravacaoCondicional;
+        private final BiPredicate<Long, BigDecimal> credito;
+        private final RegraDebito regraDebito;
+
+        private OperacoesConta(BiFunction<Long, LockModeType, ? extends Contas> busca, Consumer<Contas> persistencia,
+                Predicate<Contas> gravacaoCondicional, BiPredicate<Long, BigDecimal> credito, RegraDebito regraDebito) {
+            this.busca = busca;
+            this.persistencia = persistencia;
+            this.gravacaoCondicional = gravacaoCondicional;
+            this.credito = credito;
+            this.regraDebito = regraDebito;
         }
 
-        BigDecimal novoSaldoOrigem = saldoOrigem.subtract(valor);
-        poupancaOrigem.setSaldo(novoSaldoOrigem);
-        poupancaRepository.persist(poupancaOrigem);
-        
-        if(tipoContaDestino.equals(TipoConta.CONTA_CONJUNTA)) {
-        	ContasConjuntas contaDestino = contasConjuntasRepository.findById(contaDestinoID);
-        	BigDecimal novoSaldoDestino = contaDestino.getSaldo().add(valor);
-        	contaDestino.setSaldo(novoSaldoDestino);
-        	contasConjuntasRepository.persist(contaDestino);
-        }
-        else if(tipoContaDestino.equals(TipoConta.CONTA_POUPANCA)) {
-        	Poupanca contaDestino = poupancaRepository.findById(contaDestinoID);
-        	BigDecimal novoSaldoDestino = contaDestino.getSaldo().add(valor);
-        	contaDestino.setSaldo(novoSaldoDestino);
-        	poupancaRepository.persist(contaDestino);
-        }
-        else if(tipoContaDestino.equals(TipoConta.CONTA_CORRENTE)) {
-        	ContaCorrente contaDestino = contaCorrenteRepository.findById(contaDestinoID);
-        	BigDecimal novoSaldoDestino = contaDestino.getSaldo().add(valor);
-        	contaDestino.setSaldo(novoSaldoDestino);
-        	contaCorrenteRepository.persist(contaDestino);
-        }
-
-        // Registre a transação de depósito
-        Transacoes transacao = new Transacoes();
-        transacao.setTipoTransacao(TipoTransacao.TRANSFERENCIA);
-        transacao.setDataHoraTransacao(LocalDate.now());
-        transacao.setValor(valor);
-        transacao.setTipoConta(TipoConta.CONTA_POUPANCA);
-        transacao.setContaID(poupancaOrigem.getPoupancaID());
+        private Contas buscar(Long contaID, LockModeType modoBloqueio) {
+            return busca.apply(contaID, modoBloqueio);
+        }
 
-        // Persiste a transação
-        transacoesRepository.persist(transacao);
+        private void persistir(Contas conta) {
+            persistencia.accept(conta);
+        }
 
-        notificacoes.setMensagemNotificacao("O Cliente: " + poupancaOrigem.getClienteID().toString() + " realizou um Tipo de Transação: " + transacao.getTipoTransacao() + " na data e hora: " + transacao.getDataHoraTransacao() + " no valor de: R$ " + transacao.getValor());
+        private boolean gravarSeVersao(Contas conta) {
+            return gravacaoCondicional.test(conta);
+        }
+
+        private boolean creditar(Long contaID, BigDecimal valor) {
+            return credito.test(contaID, valor);
+        }
     }
 
-}
\ No newline at end of file
+}
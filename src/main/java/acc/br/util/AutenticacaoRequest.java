@@ -0,0 +1,55 @@
+package acc.br.util;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import javax.validation.constraints.NotBlank;
+
+/**
+ * Representa a solicitação de autenticação de um cliente, contendo o e-mail e a senha.
+ */
+public class AutenticacaoRequest {
+
+    @JsonProperty("email")
+    @NotBlank
+    private String email;
+
+    @JsonProperty("senha")
+    @NotBlank
+    private String senha;
+
+    /**
+     * Obtém o e-mail do cliente.
+     *
+     * @return O e-mail do cliente.
+     */
+    public String getEmail() {
+        return email;
+    }
+
+    /**
+     * Define o e-mail do cliente.
+     *
+     * @param email O e-mail do cliente.
+     */
+    public void setEmail(String email) {
+        this.email = email;
+    }
+
+    /**
+     * Obtém a senha informada.
+     *
+     * @return A senha informada.
+     */
+    public String getSenha() {
+        return senha;
+    }
+
+    /**
+     * Define a senha informada.
+     *
+     * @param senha A senha informada.
+     */
+    public void setSenha(String senha) {
+        this.senha = senha;
+    }
+}
@@ -0,0 +1,52 @@
+package acc.br.util;
+
+import acc.br.model.Clientes;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Representa a resposta de uma autenticação bem-sucedida, com a identificação do cliente e sem a senha.
+ */
+public class AutenticacaoResponse {
+
+    @JsonProperty("clienteID")
+    private final Long clienteID;
+
+    @JsonProperty("nome")
+    private final String nome;
+
+    @JsonProperty("email")
+    private final String email;
+
+    public AutenticacaoResponse(Clientes cliente) {
+        this.clienteID = cliente.getClienteID();
+        this.nome = cliente.getNome();
+        this.email = cliente.getEmail();
+    }
+
+    /**
+     * Obtém o ID do cliente autenticado.
+     *
+     * @return O ID do cliente.
+     */
+    public Long getClienteID() {
+        return clienteID;
+    }
+
+    /**
+     * Obtém o nome do cliente autenticado.
+     *
+     * @return O nome do cliente.
+     */
+    public String getNome() {
+        return nome;
+    }
+
+    /**
+     * Obtém o e-mail do cliente autenticado.
+     *
+     * @return O e-mail do cliente.
+     */
+    public String getEmail() {
+        return email;
+    }
+}
@@ -0,0 +1,145 @@
+package acc.br.util;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * Codificação de senhas com PBKDF2-HMAC-SHA256.
+ * <p>
+ * A senha codificada guarda os parâmetros com que foi gerada, no formato
+ * {@code $pbkdf2-sha256$<iterações>$<salt>$<hash>} (salt e hash em Base64 sem preenchimento), de modo que uma senha
+ * gerada com parâmetros anteriores continua verificável e pode ser identificada para recodificação. Com os tamanhos
+ * usuais de salt, o resultado tem menos de 100 caracteres e cabe na coluna Senha de Clientes.
+ */
+public final class CodificadorSenha {
+
+    private static final String PREFIXO = "$pbkdf2-sha256$";
+    private static final String ALGORITMO = "PBKDF2WithHmacSHA256";
+    private static final int TAMANHO_HASH_BITS = 256;
+
+    private CodificadorSenha() {
+    }
+
+    /**
+     * Codifica uma senha.
+     *
+     * @param senha     A senha.
+     * @param iteracoes A quantidade de iterações do PBKDF2.
+     * @param salt      O salt, aleatório e exclusivo da senha.
+     * @return A senha codificada.
+     */
+    public static String codificar(CharSequence senha, int iteracoes, byte[] salt) {
+        Base64.Encoder base64 = Base64.getEncoder().withoutPadding();
+        return PREFIXO + iteracoes + '$' + base64.encodeToString(salt) + '$' + base64.encodeToString(derivar(senha, iteracoes, salt, TAMANHO_HASH_BITS));
+    }
+
+    /**
+     * Verifica uma senha contra a senha codificada, em tempo constante em relação ao conteúdo do hash.
+     *
+     * @param senha      A senha informada.
+     * @param codificada A senha codificada.
+     * @return true se a senha confere; false se não confere ou se a senha codificada não está no formato esperado.
+     */
+    public static boolean verificar(CharSequence senha, String codificada) {
+        String[] partes = separar(codificada);
+        if (partes == null) {
+            return false;
+        }
+        Base64.Decoder base64 = Base64.getDecoder();
+        byte[] salt = base64.decode(partes[1]);
+        byte[] esperado = base64.decode(partes[2]);
+        return MessageDigest.isEqual(esperado, derivar(senha, Integer.parseInt(partes[0]), salt, esperado.length * 8));
+    }
+
+    /**
+     * Verifica se um texto é uma senha codificada por esta classe.
+     *
+     * @param senha O texto.
+     * @return true se o texto está no formato das senhas codificadas.
+     */
+    public static boolean isCodificada(String senha) {
+        return separar(senha) != null;
+    }
+
+    /**
+     * Obtém a quantidade de iterações com que uma senha foi codificada.
+     *
+     * @param codificada A senha codificada.
+     * @return A quantidade de iterações, ou 0 se o texto não for uma senha codificada.
+     */
+    public static int iteracoes(String codificada) {
+        String[] partes = separar(codificada);
+        return partes == null ? 0 : Integer.parseInt(partes[0]);
+    }
+
+    /**
+     * Obtém o tamanho do salt de uma senha codificada.
+     *
+     * @param codificada A senha codificada.
+     * @return O tamanho do salt em bytes, ou 0 se o texto não for uma senha codificada.
+     */
+    public static int tamanhoSalt(String codificada) {
+        String[] partes = separar(codificada);
+        return partes == null ? 0 : Base64.getDecoder().decode(partes[1]).length;
+    }
+
+    /**
+     * Compara uma senha com uma senha armazenada sem codificação, de cadastros anteriores à codificação, em tempo
+     * constante em relação ao conteúdo.
+     *
+     * @param senha      A senha informada.
+     * @param armazenada A senha armazenada sem codificação.
+     * @return true se as senhas são iguais.
+     */
+    public static boolean compararSemCodificacao(CharSequence senha, String armazenada) {
+        return MessageDigest.isEqual(senha.toString().getBytes(StandardCharsets.UTF_8), armazenada.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static byte[] derivar(CharSequence senha, int iteracoes, byte[] salt, int tamanhoBits) {
+        char[] caracteres = new char[senha.length()];
+        for (int i = 0; i < caracteres.length; i++) {
+            caracteres[i] = senha.charAt(i);
+        }
+        PBEKeySpec especificacao = new PBEKeySpec(caracteres, salt, iteracoes, tamanhoBits);
+        try {
+            return SecretKeyFactory.getInstance(ALGORITMO).generateSecret(especificacao).getEncoded();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Falha ao codificar a senha", e);
+        } finally {
+            especificacao.clearPassword();
+            Arrays.fill(caracteres, '\0');
+        }
+    }
+
+    /**
+     * Separa as iterações, o salt e o hash de uma senha codificada.
+     *
+     * @return As três partes, ou null se o texto não estiver no formato esperado.
+     */
+    private static String[] separar(String codificada) {
+        if (codificada == null || !codificada.startsWith(PREFIXO)) {
+            return null;
+        }
+        String[] partes = codificada.substring(PREFIXO.length()).split("\\$", -1);
+        if (partes.length != 3 || partes[0].isEmpty() || partes[0].length() > 9 || partes[1].isEmpty() || partes[2].isEmpty()) {
+            return null;
+        }
+        for (int i = 0; i < partes[0].length(); i++) {
+            if (partes[0].charAt(i) < '0' || partes[0].charAt(i) > '9') {
+                return null;
+            }
+        }
+        try {
+            Base64.getDecoder().decode(partes[1]);
+            Base64.getDecoder().decode(partes[2]);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        return Integer.parseInt(partes[0]) > 0 ? partes : null;
+    }
+}
@@ -3,6 +3,7 @@ package acc.br.util;
 import io.quarkus.runtime.StartupEvent;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 import org.hibernate.event.spi.PostDeleteEvent;
 import org.hibernate.event.spi.PostDeleteEventListener;
@@ -13,10 +14,13 @@ import org.hibernate.event.spi.PostUpdateEventListener;
 import org.hibernate.persister.entity.EntityPersister;
 
 import acc.br.model.AuditoriaBancoDados;
+import acc.br.model.ChavesIdempotencia;
+import acc.br.model.NotificacoesPendentes;
+import acc.br.model.SaldosConsolidados;
+import acc.br.service.GravadorAuditoria;
 import javax.enterprise.context.ApplicationScoped;
 import javax.enterprise.event.Observes;
 import javax.inject.Inject;
-import javax.persistence.EntityManager;
 import javax.transaction.Transactional;
 
 @ApplicationScoped
@@ -27,7 +31,7 @@ public class DatabaseAuditListener implements PostInsertEventListener, PostUpdat
 	 */
 	private static final long serialVersionUID = 1L;
 	@Inject
-    EntityManager entityManager;
+    GravadorAuditoria gravadorAuditoria;
 
     @Override
     public void onPostInsert(PostInsertEvent event) {
@@ -44,13 +48,38 @@ public class DatabaseAuditListener implements PostInsertEventListener, PostUpdat
         createAuditRecord(event.getEntity(), "DELETE");
     }
 
+    /**
+     * Audita a inserção de entidades gravadas diretamente por lotes JDBC, que não passam pelos eventos do Hibernate.
+     *
+     * @param entities As entidades inseridas.
+     */
+    public void onJdbcInsert(List<?> entities) {
+        for (Object entity : entities) {
+            createAuditRecord(entity, "INSERT");
+        }
+    }
+
+    /**
+     * Audita a alteração de uma entidade gravada por um UPDATE em massa, que não passa pelos eventos do Hibernate.
+     *
+     * @param entity A entidade com os valores gravados.
+     */
+    public void onBulkUpdate(Object entity) {
+        createAuditRecord(entity, "UPDATE");
+    }
+
     private void createAuditRecord(Object entity, String action) {
+        if (entity instanceof AuditoriaBancoDados || entity instanceof ChavesIdempotencia || entity instanceof SaldosConsolidados
+                || entity instanceof NotificacoesPendentes) {
+            return; // O próprio registro de auditoria, as chaves de idempotência, os saldos consolidados do razão e a outbox de notificações não são auditados
+        }
         AuditoriaBancoDados auditoriaBd = new AuditoriaBancoDados();
         auditoriaBd.setNomeEntidade(entity.getClass().getName());
         auditoriaBd.setAcao(action);
         auditoriaBd.setDataHora(LocalDateTime.now());
 
-        entityManager.persist(auditoriaBd);
+        // A gravação fica fora do caminho crítico da operação, conforme o modo de durabilidade configurado
+        gravadorAuditoria.registrar(auditoriaBd);
     }
 
     // Método de inicialização
@@ -0,0 +1,133 @@
+package acc.br.util;
+
+import acc.br.model.ContaCorrente;
+import acc.br.model.Contas;
+import acc.br.model.ContasConjuntas;
+import acc.br.model.Poupanca;
+
+import java.math.BigDecimal;
+
+/**
+ * Retrato imutável do estado financeiro de uma conta, mantido em cache para evitar leituras
+ * ao banco de dados apenas para consultar saldo e limite de crédito. A versão permite gravar um novo saldo
+ * calculado a partir do retrato com um UPDATE condicionado a ela, sem reler a conta.
+ */
+public final class EstadoConta {
+
+    private final TipoConta tipoConta;
+    private final Long contaID;
+    private final Long clienteID;
+    private final BigDecimal saldo;
+    private final BigDecimal limiteCredito;
+    private final BigDecimal limiteCreditoUtilizado;
+    private final long versao;
+
+    public EstadoConta(TipoConta tipoConta, Long contaID, Long clienteID, BigDecimal saldo, BigDecimal limiteCredito,
+                       BigDecimal limiteCreditoUtilizado, long versao) {
+        this.tipoConta = tipoConta;
+        this.contaID = contaID;
+        this.clienteID = clienteID;
+        this.saldo = saldo;
+        this.limiteCredito = limiteCredito;
+        this.limiteCreditoUtilizado = limiteCreditoUtilizado;
+        this.versao = versao;
+    }
+
+    /**
+     * Cria o retrato a partir de uma entidade de conta.
+     *
+     * @param conta A conta corrente, conjunta ou poupança.
+     * @return O estado da conta.
+     */
+    public static EstadoConta de(Contas conta) {
+        if (conta instanceof ContaCorrente) {
+            ContaCorrente contaCorrente = (ContaCorrente) conta;
+            return new EstadoConta(TipoConta.CONTA_CORRENTE, contaCorrente.getcontaCorrenteID(), contaCorrente.getClienteID(),
+                    contaCorrente.getSaldo(), contaCorrente.getLimiteCredito(), contaCorrente.getLimiteCreditoUtilizado(),
+                    contaCorrente.getVersao());
+        }
+        if (conta instanceof ContasConjuntas) {
+            ContasConjuntas contasConjuntas = (ContasConjuntas) conta;
+            return new EstadoConta(TipoConta.CONTA_CONJUNTA, contasConjuntas.getContaConjuntaID(), contasConjuntas.getClienteID(),
+                    contasConjuntas.getSaldo(), null, null, contasConjuntas.getVersao());
+        }
+        if (conta instanceof Poupanca) {
+            Poupanca poupanca = (Poupanca) conta;
+            return new EstadoConta(TipoConta.CONTA_POUPANCA, poupanca.getPoupancaID(), poupanca.getClienteID(),
+                    poupanca.getSaldo(), null, null, poupanca.getVersao());
+        }
+        throw new IllegalArgumentException("Tipo de conta não suportado: " + conta.getClass().getName());
+    }
+
+    /**
+     * Cria uma entidade de conta, fora do contexto de persistência, com o estado do retrato.
+     *
+     * @return A conta corrente, conjunta ou poupança, com o saldo, o limite de crédito (e a parte utilizada) e a
+     * versão do retrato.
+     */
+    public Contas paraConta() {
+        Contas conta;
+        switch (tipoConta) {
+            case CONTA_CORRENTE:
+                ContaCorrente contaCorrente = new ContaCorrente();
+                contaCorrente.setcontaCorrenteID(contaID);
+                contaCorrente.setLimiteCredito(limiteCredito);
+                contaCorrente.setLimiteCreditoUtilizado(limiteCreditoUtilizado);
+                conta = contaCorrente;
+                break;
+            case CONTA_CONJUNTA:
+                ContasConjuntas contasConjuntas = new ContasConjuntas();
+                contasConjuntas.setContaConjuntaID(contaID);
+                conta = contasConjuntas;
+                break;
+            case CONTA_POUPANCA:
+                Poupanca poupanca = new Poupanca();
+                poupanca.setPoupancaID(contaID);
+                conta = poupanca;
+                break;
+            default:
+                throw new IllegalArgumentException("Tipo de conta não suportado: " + tipoConta);
+        }
+        conta.setClienteID(clienteID);
+        conta.setSaldo(saldo);
+        conta.setVersao(versao);
+        return conta;
+    }
+
+    /**
+     * Obtém o valor disponível para débito: o saldo somado ao limite de crédito, quando houver.
+     *
+     * @return O valor disponível.
+     */
+    public BigDecimal getDisponivel() {
+        return limiteCredito == null ? saldo : saldo.add(limiteCredito);
+    }
+
+    public TipoConta getTipoConta() {
+        return tipoConta;
+    }
+
+    public Long getContaID() {
+        return contaID;
+    }
+
+    public Long getClienteID() {
+        return clienteID;
+    }
+
+    public BigDecimal getSaldo() {
+        return saldo;
+    }
+
+    public BigDecimal getLimiteCredito() {
+        return limiteCredito;
+    }
+
+    public BigDecimal getLimiteCreditoUtilizado() {
+        return limiteCreditoUtilizado;
+    }
+
+    public long getVersao() {
+        return versao;
+    }
+}
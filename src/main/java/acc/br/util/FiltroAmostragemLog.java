@@ -0,0 +1,69 @@
+package acc.br.util;
+
+import org.eclipse.microprofile.config.ConfigProvider;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Filter;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+/**
+ * Filtro de amostragem dos registros INFO dos controladores.
+ * <p>
+ * Cada mensagem parametrizada (o modelo antes da formatação, que identifica o endpoint) é amostrada de forma
+ * independente: de cada {@code taxa} registros, apenas o primeiro é publicado. Registros de aviso e erro nunca são
+ * descartados, e os de depuração, quando habilitados, também são publicados integralmente.
+ * <p>
+ * A taxa é lida de {@code twobank.log.amostragem.taxa} e pode ser alterada para um controlador específico com
+ * {@code twobank.log.amostragem.taxa.<NomeDoControlador>}. Taxa 1 desativa a amostragem.
+ */
+public final class FiltroAmostragemLog implements Filter {
+
+    private static final String PROPRIEDADE_TAXA = "twobank.log.amostragem.taxa";
+
+    /**
+     * Limite de modelos de mensagem acompanhados por logger; acima dele os registros são publicados sem amostragem.
+     */
+    static final int MAXIMO_MODELOS = 1024;
+
+    private final int taxa;
+    private final ConcurrentMap<String, AtomicLong> contadores = new ConcurrentHashMap<>();
+
+    FiltroAmostragemLog(int taxa) {
+        this.taxa = taxa;
+    }
+
+    /**
+     * Obtém o logger da classe com o filtro de amostragem configurado para ela.
+     *
+     * @param classe A classe dona do logger.
+     * @return O logger da classe.
+     */
+    public static Logger getLogger(Class<?> classe) {
+        Logger logger = Logger.getLogger(classe.getName());
+        int taxa = ConfigProvider.getConfig().getOptionalValue(PROPRIEDADE_TAXA + "." + classe.getSimpleName(), Integer.class)
+                .orElseGet(() -> ConfigProvider.getConfig().getOptionalValue(PROPRIEDADE_TAXA, Integer.class).orElse(1));
+        if (taxa > 1) {
+            logger.setFilter(new FiltroAmostragemLog(taxa));
+        }
+        return logger;
+    }
+
+    @Override
+    public boolean isLoggable(LogRecord registro) {
+        if (registro.getLevel() != Level.INFO || registro.getMessage() == null) {
+            return true;
+        }
+        AtomicLong contador = contadores.get(registro.getMessage());
+        if (contador == null) {
+            if (contadores.size() >= MAXIMO_MODELOS) {
+                return true;
+            }
+            contador = contadores.computeIfAbsent(registro.getMessage(), modelo -> new AtomicLong());
+        }
+        return contador.getAndIncrement() % taxa == 0;
+    }
+}
@@ -0,0 +1,116 @@
+package acc.br.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Filtro de Bloom de textos, seguro para uso concorrente.
+ * <p>
+ * Responde se um texto pode ter sido adicionado: a resposta negativa é exata, e a positiva pode ser um falso positivo
+ * com a probabilidade informada na criação, enquanto a quantidade de textos adicionados não passar da capacidade.
+ * Os textos não podem ser removidos. As posições dos bits são obtidas por hash duplo, a partir de um hash de 64 bits
+ * (FNV-1a seguido da mistura final do MurmurHash3) e de uma segunda mistura dele.
+ */
+public class FiltroBloom {
+
+    private final AtomicLongArray bits;
+    private final long quantidadeBits;
+    private final int quantidadeHashes;
+
+    /**
+     * Cria um filtro dimensionado para a capacidade e a taxa de falsos positivos informadas.
+     *
+     * @param capacidade              A quantidade esperada de textos.
+     * @param taxaFalsosPositivos     A probabilidade de falso positivo desejada, entre 0 e 1 (exclusive).
+     * @throws IllegalArgumentException Se a capacidade ou a taxa forem inválidas.
+     */
+    public FiltroBloom(long capacidade, double taxaFalsosPositivos) {
+        if (capacidade <= 0) {
+            throw new IllegalArgumentException("A capacidade do filtro deve ser maior que zero.");
+        }
+        if (taxaFalsosPositivos <= 0 || taxaFalsosPositivos >= 1) {
+            throw new IllegalArgumentException("A taxa de falsos positivos deve estar entre 0 e 1.");
+        }
+        long bitsNecessarios = (long) Math.ceil(-capacidade * Math.log(taxaFalsosPositivos) / (Math.log(2) * Math.log(2)));
+        int palavras = (int) Math.min(Integer.MAX_VALUE - 8, (bitsNecessarios + 63) / 64);
+        this.bits = new AtomicLongArray(palavras);
+        this.quantidadeBits = (long) palavras * 64;
+        this.quantidadeHashes = Math.max(1, (int) Math.round((double) quantidadeBits / capacidade * Math.log(2)));
+    }
+
+    /**
+     * Adiciona um texto ao filtro.
+     *
+     * @param texto O texto a ser adicionado.
+     */
+    public void adicionar(CharSequence texto) {
+        long hash1 = hash(texto);
+        long hash2 = misturar(hash1 ^ 0x9e3779b97f4a7c15L);
+        for (int i = 1; i <= quantidadeHashes; i++) {
+            long posicao = posicao(hash1, hash2, i);
+            int palavra = (int) (posicao >>> 6);
+            long mascara = 1L << posicao;
+            long atual = bits.get(palavra);
+            while ((atual & mascara) == 0 && !bits.compareAndSet(palavra, atual, atual | mascara)) {
+                atual = bits.get(palavra);
+            }
+        }
+    }
+
+    /**
+     * Verifica se um texto pode ter sido adicionado ao filtro.
+     *
+     * @param texto O texto a ser verificado.
+     * @return false se o texto certamente não foi adicionado; true se ele pode ter sido adicionado.
+     */
+    public boolean talvezContenha(CharSequence texto) {
+        long hash1 = hash(texto);
+        long hash2 = misturar(hash1 ^ 0x9e3779b97f4a7c15L);
+        for (int i = 1; i <= quantidadeHashes; i++) {
+            long posicao = posicao(hash1, hash2, i);
+            if ((bits.get((int) (posicao >>> 6)) & (1L << posicao)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Obtém a quantidade de funções de hash aplicadas a cada texto.
+     *
+     * @return A quantidade de hashes.
+     */
+    public int getQuantidadeHashes() {
+        return quantidadeHashes;
+    }
+
+    /**
+     * Obtém o tamanho do filtro, em bits.
+     *
+     * @return A quantidade de bits.
+     */
+    public long getQuantidadeBits() {
+        return quantidadeBits;
+    }
+
+    private long posicao(long hash1, long hash2, int i) {
+        return Math.floorMod(hash1 + i * hash2, quantidadeBits);
+    }
+
+    private static long hash(CharSequence texto) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < texto.length(); i++) {
+            hash ^= texto.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return misturar(hash);
+    }
+
+    private static long misturar(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb33d1f3a85d3L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,43 @@
+package acc.br.util;
+
+import io.quarkus.arc.Arc;
+import io.quarkus.arc.ArcContainer;
+import org.hibernate.boot.Metadata;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+
+import java.util.logging.Logger;
+
+/**
+ * Registra o {@link DatabaseAuditListener} nos eventos de inserção, alteração e exclusão do Hibernate.
+ * <p>
+ * O Quarkus não aceita ouvintes de eventos do Hibernate por configuração; os integradores declarados em
+ * {@code META-INF/services/org.hibernate.integrator.spi.Integrator} são carregados na criação da SessionFactory.
+ * O ouvinte é o bean CDI da aplicação, para que a gravação use o {@link acc.br.service.GravadorAuditoria} injetado.
+ * Fora do contêiner (como nos benchmarks com o Hibernate puro), nenhum ouvinte é registrado.
+ */
+public class IntegradorAuditoria implements Integrator {
+
+    private static final Logger logger = Logger.getLogger(IntegradorAuditoria.class.getName());
+
+    @Override
+    public void integrate(Metadata metadata, SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
+        ArcContainer container = Arc.container();
+        if (container == null) {
+            logger.fine("Contêiner CDI indisponível; a auditoria do banco de dados não será registrada");
+            return;
+        }
+        DatabaseAuditListener databaseAuditListener = container.instance(DatabaseAuditListener.class).get();
+        EventListenerRegistry registro = serviceRegistry.getService(EventListenerRegistry.class);
+        registro.appendListeners(EventType.POST_INSERT, databaseAuditListener);
+        registro.appendListeners(EventType.POST_UPDATE, databaseAuditListener);
+        registro.appendListeners(EventType.POST_DELETE, databaseAuditListener);
+    }
+
+    @Override
+    public void disintegrate(SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
+    }
+}
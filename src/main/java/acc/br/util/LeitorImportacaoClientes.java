@@ -0,0 +1,232 @@
+package acc.br.util;
+
+import acc.br.model.Clientes;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Lê, sob demanda, os clientes de um arquivo de importação em CSV ou NDJSON (um objeto JSON por linha).
+ * <p>
+ * O arquivo é lido linha a linha, sem ser carregado por inteiro; linhas em branco são ignoradas. Um registro que não
+ * pode ser interpretado é devolvido com o motivo, e a leitura continua no registro seguinte. No CSV, a primeira linha é
+ * o cabeçalho, com os nomes dos campos de {@link Clientes} em qualquer ordem, separados por vírgula ou ponto e vírgula;
+ * os valores podem estar entre aspas duplas, mas não podem conter quebras de linha. Valores vazios ficam nulos, e as
+ * datas seguem o formato AAAA-MM-DD.
+ */
+public class LeitorImportacaoClientes implements Iterator<LinhaImportacaoCliente>, Closeable {
+
+    private static final Map<String, BiConsumer<Clientes, String>> CAMPOS_CSV = new HashMap<>();
+
+    static {
+        CAMPOS_CSV.put("nome", Clientes::setNome);
+        CAMPOS_CSV.put("email", Clientes::setEmail);
+        CAMPOS_CSV.put("senha", Clientes::setSenha);
+        CAMPOS_CSV.put("datanascimento", (cliente, valor) -> cliente.setDataNascimento(LocalDate.parse(valor)));
+        CAMPOS_CSV.put("cpf", Clientes::setCpf);
+        CAMPOS_CSV.put("endereco", Clientes::setEndereco);
+        CAMPOS_CSV.put("telefone", Clientes::setTelefone);
+        CAMPOS_CSV.put("nacionalidade", Clientes::setNacionalidade);
+        CAMPOS_CSV.put("estadocivil", Clientes::setEstadoCivil);
+        CAMPOS_CSV.put("genero", Clientes::setGenero);
+        CAMPOS_CSV.put("profissao", Clientes::setProfissao);
+        CAMPOS_CSV.put("dataregistro", (cliente, valor) -> cliente.setDataRegistro(LocalDate.parse(valor)));
+        CAMPOS_CSV.put("ativo", (cliente, valor) -> cliente.setAtivo(interpretarBooleano(valor)));
+    }
+
+    private final BufferedReader leitor;
+    private final Function<String, Clientes> conversor;
+    private long indice;
+    private String proximaLinha;
+
+    private LeitorImportacaoClientes(BufferedReader leitor, Function<String, Clientes> conversor) {
+        this.leitor = leitor;
+        this.conversor = conversor;
+    }
+
+    /**
+     * Cria um leitor de CSV. O cabeçalho é lido e conferido imediatamente.
+     *
+     * @param leitor O conteúdo do arquivo.
+     * @return O leitor.
+     * @throws IllegalArgumentException Se o cabeçalho estiver ausente ou tiver um campo desconhecido.
+     * @throws UncheckedIOException     Se o cabeçalho não puder ser lido.
+     */
+    public static LeitorImportacaoClientes csv(Reader leitor) {
+        BufferedReader bufferizado = bufferizar(leitor);
+        String cabecalho = proximaLinhaPreenchida(bufferizado);
+        if (cabecalho == null) {
+            throw new IllegalArgumentException("O arquivo não tem cabeçalho.");
+        }
+        if (cabecalho.startsWith("\uFEFF")) {
+            cabecalho = cabecalho.substring(1);
+        }
+        char separador = cabecalho.indexOf(';') >= 0 ? ';' : ',';
+        List<String> nomes = separarCampos(cabecalho, separador);
+        List<BiConsumer<Clientes, String>> campos = new ArrayList<>(nomes.size());
+        for (String nome : nomes) {
+            BiConsumer<Clientes, String> campo = CAMPOS_CSV.get(nome.trim().toLowerCase(Locale.ROOT));
+            if (campo == null) {
+                throw new IllegalArgumentException("Campo desconhecido no cabeçalho: " + nome);
+            }
+            campos.add(campo);
+        }
+        return new LeitorImportacaoClientes(bufferizado, linha -> {
+            List<String> valores = separarCampos(linha, separador);
+            if (valores.size() != campos.size()) {
+                throw new IllegalArgumentException("O registro tem " + valores.size() + " campos; o cabeçalho tem " + campos.size() + ".");
+            }
+            Clientes cliente = new Clientes();
+            for (int i = 0; i < valores.size(); i++) {
+                String valor = valores.get(i).trim();
+                if (!valor.isEmpty()) {
+                    campos.get(i).accept(cliente, valor);
+                }
+            }
+            return cliente;
+        });
+    }
+
+    /**
+     * Cria um leitor de NDJSON.
+     *
+     * @param leitor       O conteúdo do arquivo.
+     * @param objectMapper O ObjectMapper da aplicação.
+     * @return O leitor.
+     */
+    public static LeitorImportacaoClientes ndjson(Reader leitor, ObjectMapper objectMapper) {
+        ObjectReader leitorJson = objectMapper.readerFor(Clientes.class);
+        return new LeitorImportacaoClientes(bufferizar(leitor), linha -> {
+            try {
+                return leitorJson.readValue(linha);
+            } catch (JsonProcessingException e) {
+                throw new IllegalArgumentException("JSON inválido: " + e.getOriginalMessage(), e);
+            }
+        });
+    }
+
+    /**
+     * Verifica se há outro registro.
+     *
+     * @return true se há outro registro.
+     * @throws UncheckedIOException Se o arquivo não puder ser lido.
+     */
+    @Override
+    public boolean hasNext() {
+        if (proximaLinha == null) {
+            proximaLinha = proximaLinhaPreenchida(leitor);
+        }
+        return proximaLinha != null;
+    }
+
+    /**
+     * Lê o próximo registro.
+     *
+     * @return O cliente lido ou o motivo pelo qual o registro não pôde ser interpretado.
+     * @throws UncheckedIOException Se o arquivo não puder ser lido.
+     */
+    @Override
+    public LinhaImportacaoCliente next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        String linha = proximaLinha;
+        proximaLinha = null;
+        long atual = indice++;
+        try {
+            return LinhaImportacaoCliente.cliente(atual, conversor.apply(linha));
+        } catch (DateTimeParseException e) {
+            return LinhaImportacaoCliente.erro(atual, "Data inválida: " + e.getParsedString());
+        } catch (IllegalArgumentException e) {
+            return LinhaImportacaoCliente.erro(atual, e.getMessage());
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        leitor.close();
+    }
+
+    /**
+     * Separa os campos de uma linha de CSV. Aspas duplas delimitam um valor, e duas aspas seguidas dentro dele
+     * representam uma aspa.
+     *
+     * @param linha     A linha.
+     * @param separador O separador de campos.
+     * @return Os valores, na ordem da linha.
+     * @throws IllegalArgumentException Se houver aspas sem fechamento.
+     */
+    static List<String> separarCampos(String linha, char separador) {
+        List<String> campos = new ArrayList<>();
+        StringBuilder campo = new StringBuilder();
+        boolean entreAspas = false;
+        for (int i = 0; i < linha.length(); i++) {
+            char c = linha.charAt(i);
+            if (entreAspas) {
+                if (c != '"') {
+                    campo.append(c);
+                } else if (i + 1 < linha.length() && linha.charAt(i + 1) == '"') {
+                    campo.append('"');
+                    i++;
+                } else {
+                    entreAspas = false;
+                }
+            } else if (c == '"') {
+                entreAspas = true;
+            } else if (c == separador) {
+                campos.add(campo.toString());
+                campo.setLength(0);
+            } else {
+                campo.append(c);
+            }
+        }
+        if (entreAspas) {
+            throw new IllegalArgumentException("Valor entre aspas sem fechamento.");
+        }
+        campos.add(campo.toString());
+        return campos;
+    }
+
+    private static boolean interpretarBooleano(String valor) {
+        if ("true".equalsIgnoreCase(valor) || "1".equals(valor)) {
+            return true;
+        }
+        if ("false".equalsIgnoreCase(valor) || "0".equals(valor)) {
+            return false;
+        }
+        throw new IllegalArgumentException("Valor inválido para ativo: " + valor);
+    }
+
+    private static BufferedReader bufferizar(Reader leitor) {
+        return leitor instanceof BufferedReader ? (BufferedReader) leitor : new BufferedReader(leitor, 64 * 1024);
+    }
+
+    private static String proximaLinhaPreenchida(BufferedReader leitor) {
+        try {
+            String linha;
+            do {
+                linha = leitor.readLine();
+            } while (linha != null && linha.isBlank());
+            return linha;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
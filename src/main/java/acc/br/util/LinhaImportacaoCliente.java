@@ -0,0 +1,69 @@
+package acc.br.util;
+
+import acc.br.model.Clientes;
+
+/**
+ * Um registro lido na importação de clientes: o cliente interpretado ou o motivo pelo qual o registro não pôde ser
+ * interpretado.
+ */
+public class LinhaImportacaoCliente {
+
+    private final long indice;
+    private final Clientes cliente;
+    private final String erro;
+
+    private LinhaImportacaoCliente(long indice, Clientes cliente, String erro) {
+        this.indice = indice;
+        this.cliente = cliente;
+        this.erro = erro;
+    }
+
+    /**
+     * Cria um registro interpretado.
+     *
+     * @param indice  A posição do registro no arquivo, a partir de zero.
+     * @param cliente O cliente lido.
+     * @return O registro.
+     */
+    public static LinhaImportacaoCliente cliente(long indice, Clientes cliente) {
+        return new LinhaImportacaoCliente(indice, cliente, null);
+    }
+
+    /**
+     * Cria um registro que não pôde ser interpretado.
+     *
+     * @param indice A posição do registro no arquivo, a partir de zero.
+     * @param erro   O motivo.
+     * @return O registro.
+     */
+    public static LinhaImportacaoCliente erro(long indice, String erro) {
+        return new LinhaImportacaoCliente(indice, null, erro);
+    }
+
+    /**
+     * Obtém a posição do registro no arquivo, a partir de zero, desconsiderando o cabeçalho e as linhas em branco.
+     *
+     * @return O índice do registro.
+     */
+    public long getIndice() {
+        return indice;
+    }
+
+    /**
+     * Obtém o cliente lido.
+     *
+     * @return O cliente, ou null se o registro não pôde ser interpretado.
+     */
+    public Clientes getCliente() {
+        return cliente;
+    }
+
+    /**
+     * Obtém o motivo pelo qual o registro não pôde ser interpretado.
+     *
+     * @return A mensagem de erro, ou null se o registro foi interpretado.
+     */
+    public String getErro() {
+        return erro;
+    }
+}
@@ -0,0 +1,18 @@
+package acc.br.util;
+
+/**
+ * Enum que define os modos de controle de concorrência aplicados às alterações de saldo das contas.
+ */
+public enum ModoConcorrencia {
+    /**
+     * Controle otimista: as contas são lidas sem bloqueio e a coluna de versão detecta alterações concorrentes.
+     * A operação em conflito é desfeita e repetida automaticamente até o número máximo de tentativas.
+     */
+    OTIMISTA,
+
+    /**
+     * Controle pessimista: as contas são lidas com SELECT ... FOR UPDATE, sempre na ordem (tipo de conta, ID),
+     * de modo que transferências concorrentes entre as mesmas contas não entrem em deadlock.
+     */
+    PESSIMISTA
+}
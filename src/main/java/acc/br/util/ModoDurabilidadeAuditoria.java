@@ -0,0 +1,23 @@
+package acc.br.util;
+
+/**
+ * Enum que define como os registros de auditoria do banco de dados são gravados.
+ */
+public enum ModoDurabilidadeAuditoria {
+    /**
+     * Gravação síncrona: o registro é inserido na mesma transação da operação auditada.
+     */
+    SINCRONO,
+
+    /**
+     * Gravação assíncrona: após o commit, o registro entra em uma fila em memória e é gravado em lote
+     * por uma thread em segundo plano. Registros ainda na fila são perdidos se o processo cair.
+     */
+    ASSINCRONO,
+
+    /**
+     * Gravação assíncrona com arquivo de log antecipado (write-ahead): o registro é gravado no arquivo local
+     * antes de entrar na fila, e o arquivo é reprocessado na inicialização se a aplicação cair antes de esvaziá-la.
+     */
+    ASSINCRONO_WAL
+}
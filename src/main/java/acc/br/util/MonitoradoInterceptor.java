@@ -0,0 +1,51 @@
+package acc.br.util;
+
+import acc.br.service.MetricasBanco;
+
+import javax.annotation.Priority;
+import javax.inject.Inject;
+import javax.interceptor.AroundInvoke;
+import javax.interceptor.Interceptor;
+import javax.interceptor.InvocationContext;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Interceptor dos beans {@link Monitorado}: mede cada chamada e contabiliza a exceção que a encerrou.
+ * Executa antes do interceptor transacional, de modo que o tempo inclui o commit e as falhas dele.
+ */
+@Monitorado
+@Interceptor
+@Priority(Interceptor.Priority.PLATFORM_BEFORE)
+public class MonitoradoInterceptor {
+
+    @Inject
+    MetricasBanco metricasBanco;
+
+    @AroundInvoke
+    Object medir(InvocationContext contexto) throws Exception {
+        long inicio = System.nanoTime();
+        Object resultado;
+        try {
+            resultado = contexto.proceed();
+        } catch (Exception | Error e) {
+            registrar(contexto, inicio, e);
+            throw e;
+        }
+        if (resultado instanceof CompletionStage) {
+            // Métodos assíncronos são medidos até a conclusão do resultado, não apenas até o retorno. O próprio
+            // resultado é devolvido, e não o estágio dependente, para que a exceção não chegue envolvida em
+            // CompletionException aos mapeadores de exceção
+            ((CompletionStage<?>) resultado).whenComplete((valor, erro) -> registrar(contexto, inicio,
+                    erro instanceof CompletionException && erro.getCause() != null ? erro.getCause() : erro));
+            return resultado;
+        }
+        registrar(contexto, inicio, null);
+        return resultado;
+    }
+
+    private void registrar(InvocationContext contexto, long inicio, Throwable erro) {
+        metricasBanco.registrarExecucao(contexto.getMethod().getDeclaringClass(), contexto.getMethod().getName(),
+                System.nanoTime() - inicio, erro);
+    }
+}
@@ -0,0 +1,16 @@
+package acc.br.util;
+
+/**
+ * Enum que define a natureza de um lançamento do livro-razão.
+ */
+public enum NaturezaLancamento {
+    /**
+     * Representa um débito: reduz o saldo da conta lançada.
+     */
+    DEBITO,
+
+    /**
+     * Representa um crédito: aumenta o saldo da conta lançada.
+     */
+    CREDITO
+}
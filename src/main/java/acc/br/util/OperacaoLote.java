@@ -0,0 +1,137 @@
+package acc.br.util;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.math.BigDecimal;
+
+/**
+ * Representa uma operação de depósito ou saque recebida na importação em lote de transações.
+ */
+public class OperacaoLote {
+
+    @JsonProperty("tipoTransacao")
+    private TipoTransacao tipoTransacao;
+
+    @JsonProperty("contaID")
+    private Long contaID;
+
+    @JsonProperty("tipoConta")
+    private TipoConta tipoConta;
+
+    @JsonProperty("valor")
+    private BigDecimal valor;
+
+    @JsonProperty("tipoDeposito")
+    private TipoDeposito tipoDeposito;
+
+    @JsonProperty("numeroCheque")
+    private String numeroCheque;
+
+    /**
+     * Obtém o tipo da operação (DEPOSITO ou SAQUE).
+     *
+     * @return O tipo da operação.
+     */
+    public TipoTransacao getTipoTransacao() {
+        return tipoTransacao;
+    }
+
+    /**
+     * Define o tipo da operação (DEPOSITO ou SAQUE).
+     *
+     * @param tipoTransacao O tipo da operação.
+     */
+    public void setTipoTransacao(TipoTransacao tipoTransacao) {
+        this.tipoTransacao = tipoTransacao;
+    }
+
+    /**
+     * Obtém o ID da conta.
+     *
+     * @return O ID da conta.
+     */
+    public Long getContaID() {
+        return contaID;
+    }
+
+    /**
+     * Define o ID da conta.
+     *
+     * @param contaID O ID da conta.
+     */
+    public void setContaID(Long contaID) {
+        this.contaID = contaID;
+    }
+
+    /**
+     * Obtém o tipo da conta.
+     *
+     * @return O tipo da conta.
+     */
+    public TipoConta getTipoConta() {
+        return tipoConta;
+    }
+
+    /**
+     * Define o tipo da conta.
+     *
+     * @param tipoConta O tipo da conta.
+     */
+    public void setTipoConta(TipoConta tipoConta) {
+        this.tipoConta = tipoConta;
+    }
+
+    /**
+     * Obtém o valor da operação.
+     *
+     * @return O valor da operação.
+     */
+    public BigDecimal getValor() {
+        return valor;
+    }
+
+    /**
+     * Define o valor da operação.
+     *
+     * @param valor O valor da operação.
+     */
+    public void setValor(BigDecimal valor) {
+        this.valor = valor;
+    }
+
+    /**
+     * Obtém o tipo de depósito (DINHEIRO ou CHEQUE), usado apenas em depósitos.
+     *
+     * @return O tipo de depósito.
+     */
+    public TipoDeposito getTipoDeposito() {
+        return tipoDeposito;
+    }
+
+    /**
+     * Define o tipo de depósito (DINHEIRO ou CHEQUE).
+     *
+     * @param tipoDeposito O tipo de depósito.
+     */
+    public void setTipoDeposito(TipoDeposito tipoDeposito) {
+        this.tipoDeposito = tipoDeposito;
+    }
+
+    /**
+     * Obtém o número do cheque (somente para depósitos em cheque).
+     *
+     * @return O número do cheque.
+     */
+    public String getNumeroCheque() {
+        return numeroCheque;
+    }
+
+    /**
+     * Define o número do cheque (somente para depósitos em cheque).
+     *
+     * @param numeroCheque O número do cheque.
+     */
+    public void setNumeroCheque(String numeroCheque) {
+        this.numeroCheque = numeroCheque;
+    }
+}
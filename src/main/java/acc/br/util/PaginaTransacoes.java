@@ -0,0 +1,48 @@
+package acc.br.util;
+
+import acc.br.model.Transacoes;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+/**
+ * Representa uma página de transações obtida por paginação com cursor (keyset), contendo as transações
+ * da página e o cursor para a próxima página.
+ */
+public class PaginaTransacoes {
+
+    @JsonProperty("transacoes")
+    private List<Transacoes> transacoes;
+
+    @JsonProperty("proximoCursor")
+    private Long proximoCursor;
+
+    /**
+     * Cria uma página de transações.
+     *
+     * @param transacoes    As transações da página.
+     * @param proximoCursor O cursor da próxima página, ou null se esta for a última.
+     */
+    public PaginaTransacoes(List<Transacoes> transacoes, Long proximoCursor) {
+        this.transacoes = transacoes;
+        this.proximoCursor = proximoCursor;
+    }
+
+    /**
+     * Obtém as transações da página.
+     *
+     * @return As transações da página.
+     */
+    public List<Transacoes> getTransacoes() {
+        return transacoes;
+    }
+
+    /**
+     * Obtém o cursor da próxima página.
+     *
+     * @return O ID da última transação desta página, ou null se não houver próxima página.
+     */
+    public Long getProximoCursor() {
+        return proximoCursor;
+    }
+}
@@ -0,0 +1,80 @@
+package acc.br.util;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.math.BigDecimal;
+
+/**
+ * Parcela de uma tabela de amortização: o valor pago no mês, dividido em juros e amortização, e o saldo devedor
+ * após o pagamento. Todos os valores estão em centavos exatos.
+ */
+public class ParcelaAmortizacao {
+
+    @JsonProperty("numero")
+    private final int numero;
+
+    @JsonProperty("valorParcela")
+    private final BigDecimal valorParcela;
+
+    @JsonProperty("juros")
+    private final BigDecimal juros;
+
+    @JsonProperty("amortizacao")
+    private final BigDecimal amortizacao;
+
+    @JsonProperty("saldoDevedor")
+    private final BigDecimal saldoDevedor;
+
+    public ParcelaAmortizacao(int numero, BigDecimal valorParcela, BigDecimal juros, BigDecimal amortizacao, BigDecimal saldoDevedor) {
+        this.numero = numero;
+        this.valorParcela = valorParcela;
+        this.juros = juros;
+        this.amortizacao = amortizacao;
+        this.saldoDevedor = saldoDevedor;
+    }
+
+    /**
+     * Obtém o número da parcela, a partir de 1.
+     *
+     * @return O número da parcela.
+     */
+    public int getNumero() {
+        return numero;
+    }
+
+    /**
+     * Obtém o valor pago no mês.
+     *
+     * @return A soma dos juros e da amortização.
+     */
+    public BigDecimal getValorParcela() {
+        return valorParcela;
+    }
+
+    /**
+     * Obtém os juros do mês, sobre o saldo devedor anterior.
+     *
+     * @return Os juros.
+     */
+    public BigDecimal getJuros() {
+        return juros;
+    }
+
+    /**
+     * Obtém a parte da parcela que reduz o saldo devedor.
+     *
+     * @return A amortização.
+     */
+    public BigDecimal getAmortizacao() {
+        return amortizacao;
+    }
+
+    /**
+     * Obtém o saldo devedor após o pagamento da parcela.
+     *
+     * @return O saldo devedor; zero na última parcela.
+     */
+    public BigDecimal getSaldoDevedor() {
+        return saldoDevedor;
+    }
+}
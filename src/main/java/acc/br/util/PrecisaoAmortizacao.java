@@ -0,0 +1,18 @@
+package acc.br.util;
+
+/**
+ * Enum que define como o fator (1 + i)^n das parcelas da Tabela Price é calculado.
+ */
+public enum PrecisaoAmortizacao {
+    /**
+     * Potência calculada com 24 algarismos significativos. O erro fica muitas ordens de grandeza abaixo do centavo
+     * para os valores e prazos aceitos em Emprestimos, e o custo não cresce com a quantidade de casas da taxa.
+     */
+    RAPIDA,
+
+    /**
+     * Potência exata, com todas as casas decimais, como no cálculo original das parcelas. O tamanho do resultado cresce
+     * com o prazo; serve de referência para a precisão RAPIDA.
+     */
+    EXATA
+}
@@ -0,0 +1,115 @@
+package acc.br.util;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Resultado da importação de clientes: totais e os registros rejeitados.
+ * <p>
+ * Apenas os registros rejeitados são guardados, até o limite informado na criação, para que o resultado de um arquivo
+ * grande não ocupe memória proporcional ao arquivo; as falhas além do limite são apenas contadas.
+ */
+public class ResultadoImportacaoClientes {
+
+    @JsonProperty("total")
+    private long total;
+
+    @JsonProperty("importados")
+    private long importados;
+
+    @JsonProperty("falhas")
+    private long falhas;
+
+    @JsonProperty("erros")
+    private final List<ResultadoOperacaoLote> erros = new ArrayList<>();
+
+    @JsonProperty("erroLeitura")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String erroLeitura;
+
+    private final int errosMaximo;
+
+    public ResultadoImportacaoClientes(int errosMaximo) {
+        this.errosMaximo = errosMaximo;
+    }
+
+    /**
+     * Registra um cliente importado.
+     */
+    public void registrarImportado() {
+        total++;
+        importados++;
+    }
+
+    /**
+     * Registra um registro rejeitado.
+     *
+     * @param indice   A posição do registro no arquivo, a partir de zero.
+     * @param mensagem O motivo da rejeição.
+     */
+    public void registrarFalha(long indice, String mensagem) {
+        total++;
+        falhas++;
+        if (erros.size() < errosMaximo) {
+            erros.add(ResultadoOperacaoLote.falha(indice, mensagem));
+        }
+    }
+
+    /**
+     * Registra o erro que interrompeu a leitura do arquivo.
+     *
+     * @param erroLeitura A descrição do erro.
+     */
+    public void interromper(String erroLeitura) {
+        this.erroLeitura = erroLeitura;
+    }
+
+    /**
+     * Obtém a quantidade de registros processados.
+     *
+     * @return O total de registros.
+     */
+    public long getTotal() {
+        return total;
+    }
+
+    /**
+     * Obtém a quantidade de clientes importados.
+     *
+     * @return A quantidade de clientes importados.
+     */
+    public long getImportados() {
+        return importados;
+    }
+
+    /**
+     * Obtém a quantidade de registros rejeitados.
+     *
+     * @return A quantidade de falhas.
+     */
+    public long getFalhas() {
+        return falhas;
+    }
+
+    /**
+     * Obtém os registros rejeitados, na ordem do arquivo, até o limite informado na criação.
+     *
+     * @return Os resultados dos registros rejeitados.
+     */
+    public List<ResultadoOperacaoLote> getErros() {
+        return erros;
+    }
+
+    /**
+     * Obtém o erro que interrompeu a leitura do arquivo. Os registros anteriores ao erro já foram processados e
+     * constam nos totais.
+     *
+     * @return A descrição do erro de leitura, ou null se o arquivo foi lido por completo.
+     */
+    public String getErroLeitura() {
+        return erroLeitura;
+    }
+}
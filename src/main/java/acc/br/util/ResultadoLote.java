@@ -0,0 +1,83 @@
+package acc.br.util;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+/**
+ * Resultado da importação em lote de transações: totais e o resultado de cada operação.
+ */
+public class ResultadoLote {
+
+    @JsonProperty("total")
+    private final long total;
+
+    @JsonProperty("sucessos")
+    private final long sucessos;
+
+    @JsonProperty("falhas")
+    private final long falhas;
+
+    @JsonProperty("resultados")
+    private final List<ResultadoOperacaoLote> resultados;
+
+    @JsonProperty("erroLeitura")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private final String erroLeitura;
+
+    public ResultadoLote(List<ResultadoOperacaoLote> resultados, String erroLeitura) {
+        long quantidadeSucessos = resultados.stream().filter(ResultadoOperacaoLote::isSucesso).count();
+        this.total = resultados.size();
+        this.sucessos = quantidadeSucessos;
+        this.falhas = total - quantidadeSucessos;
+        this.resultados = resultados;
+        this.erroLeitura = erroLeitura;
+    }
+
+    /**
+     * Obtém a quantidade de operações recebidas.
+     *
+     * @return O total de operações.
+     */
+    public long getTotal() {
+        return total;
+    }
+
+    /**
+     * Obtém a quantidade de operações concluídas.
+     *
+     * @return A quantidade de sucessos.
+     */
+    public long getSucessos() {
+        return sucessos;
+    }
+
+    /**
+     * Obtém a quantidade de operações rejeitadas.
+     *
+     * @return A quantidade de falhas.
+     */
+    public long getFalhas() {
+        return falhas;
+    }
+
+    /**
+     * Obtém o resultado de cada operação, na ordem em que foram recebidas.
+     *
+     * @return Os resultados por operação.
+     */
+    public List<ResultadoOperacaoLote> getResultados() {
+        return resultados;
+    }
+
+    /**
+     * Obtém o erro que interrompeu a leitura do lote. As operações anteriores ao erro já foram processadas
+     * e constam nos resultados.
+     *
+     * @return A descrição do erro de leitura, ou null se o lote foi lido por completo.
+     */
+    public String getErroLeitura() {
+        return erroLeitura;
+    }
+}
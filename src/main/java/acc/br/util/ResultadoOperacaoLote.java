@@ -0,0 +1,72 @@
+package acc.br.util;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Resultado do processamento de uma operação da importação em lote.
+ */
+public class ResultadoOperacaoLote {
+
+    @JsonProperty("indice")
+    private final long indice;
+
+    @JsonProperty("sucesso")
+    private final boolean sucesso;
+
+    @JsonProperty("mensagem")
+    private final String mensagem;
+
+    public ResultadoOperacaoLote(long indice, boolean sucesso, String mensagem) {
+        this.indice = indice;
+        this.sucesso = sucesso;
+        this.mensagem = mensagem;
+    }
+
+    /**
+     * Cria o resultado de uma operação concluída.
+     *
+     * @param indice A posição da operação no lote, a partir de zero.
+     * @return O resultado de sucesso.
+     */
+    public static ResultadoOperacaoLote sucesso(long indice) {
+        return new ResultadoOperacaoLote(indice, true, null);
+    }
+
+    /**
+     * Cria o resultado de uma operação rejeitada.
+     *
+     * @param indice   A posição da operação no lote, a partir de zero.
+     * @param mensagem O motivo da rejeição.
+     * @return O resultado de falha.
+     */
+    public static ResultadoOperacaoLote falha(long indice, String mensagem) {
+        return new ResultadoOperacaoLote(indice, false, mensagem);
+    }
+
+    /**
+     * Obtém a posição da operação no lote, a partir de zero.
+     *
+     * @return O índice da operação.
+     */
+    public long getIndice() {
+        return indice;
+    }
+
+    /**
+     * Indica se a operação foi concluída.
+     *
+     * @return true se a operação foi concluída.
+     */
+    public boolean isSucesso() {
+        return sucesso;
+    }
+
+    /**
+     * Obtém o motivo da rejeição da operação.
+     *
+     * @return A mensagem de erro, ou null em caso de sucesso.
+     */
+    public String getMensagem() {
+        return mensagem;
+    }
+}
@@ -0,0 +1,109 @@
+package acc.br.util;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import javax.validation.constraints.DecimalMax;
+import javax.validation.constraints.DecimalMin;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+import java.math.BigDecimal;
+
+/**
+ * Representa a solicitação de simulação de um empréstimo, contendo o valor, a taxa de juros anual, o prazo e o
+ * sistema de amortização.
+ */
+public class SimulacaoEmprestimoRequest {
+
+    @JsonProperty("valorEmprestimo")
+    @NotNull
+    @DecimalMin(value = "0.01")
+    @DecimalMax(value = "9999999.99")
+    private BigDecimal valorEmprestimo;
+
+    @JsonProperty("taxaJuros")
+    @NotNull
+    @DecimalMin(value = "0.00")
+    @DecimalMax(value = "100.00")
+    private BigDecimal taxaJuros;
+
+    @JsonProperty("prazoMeses")
+    @Min(1)
+    @Max(999)
+    private int prazoMeses;
+
+    @JsonProperty("sistema")
+    private SistemaAmortizacao sistema = SistemaAmortizacao.PRICE;
+
+    /**
+     * Obtém o valor do empréstimo.
+     *
+     * @return O valor do empréstimo.
+     */
+    public BigDecimal getValorEmprestimo() {
+        return valorEmprestimo;
+    }
+
+    /**
+     * Define o valor do empréstimo.
+     *
+     * @param valorEmprestimo O valor do empréstimo.
+     */
+    public void setValorEmprestimo(BigDecimal valorEmprestimo) {
+        this.valorEmprestimo = valorEmprestimo;
+    }
+
+    /**
+     * Obtém a taxa de juros anual, em percentual, como em Emprestimos.
+     *
+     * @return A taxa de juros anual.
+     */
+    public BigDecimal getTaxaJuros() {
+        return taxaJuros;
+    }
+
+    /**
+     * Define a taxa de juros anual, em percentual.
+     *
+     * @param taxaJuros A taxa de juros anual.
+     */
+    public void setTaxaJuros(BigDecimal taxaJuros) {
+        this.taxaJuros = taxaJuros;
+    }
+
+    /**
+     * Obtém o prazo em meses.
+     *
+     * @return O prazo em meses.
+     */
+    public int getPrazoMeses() {
+        return prazoMeses;
+    }
+
+    /**
+     * Define o prazo em meses.
+     *
+     * @param prazoMeses O prazo em meses.
+     */
+    public void setPrazoMeses(int prazoMeses) {
+        this.prazoMeses = prazoMeses;
+    }
+
+    /**
+     * Obtém o sistema de amortização.
+     *
+     * @return O sistema de amortização; PRICE se não for informado.
+     */
+    public SistemaAmortizacao getSistema() {
+        return sistema;
+    }
+
+    /**
+     * Define o sistema de amortização.
+     *
+     * @param sistema O sistema de amortização.
+     */
+    public void setSistema(SistemaAmortizacao sistema) {
+        this.sistema = sistema;
+    }
+}
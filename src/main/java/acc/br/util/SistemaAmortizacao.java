@@ -0,0 +1,16 @@
+package acc.br.util;
+
+/**
+ * Enum que define o sistema de amortização da tabela de parcelas de um empréstimo.
+ */
+public enum SistemaAmortizacao {
+    /**
+     * Tabela Price: parcelas iguais; a parte de juros diminui e a de amortização cresce ao longo do prazo.
+     */
+    PRICE,
+
+    /**
+     * Sistema de Amortização Constante: amortizações iguais; a parcela diminui junto com os juros sobre o saldo.
+     */
+    SAC
+}
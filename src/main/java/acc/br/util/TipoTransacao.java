@@ -17,5 +17,10 @@ public enum TipoTransacao {
     /**
      * Representa uma transação de transferência.
      */
-    TRANSFERENCIA
+    TRANSFERENCIA,
+
+    /**
+     * Representa o crédito do rendimento mensal de uma conta poupança.
+     */
+    RENDIMENTO
 }
@@ -0,0 +1,30 @@
+package acc.br.util;
+
+import java.math.BigDecimal;
+
+/**
+ * Soma e quantidade das saídas (saques e transferências enviadas) de um cliente em uma janela de tempo.
+ */
+public final class TotaisJanela {
+
+    /**
+     * Totais de uma janela sem saídas.
+     */
+    public static final TotaisJanela VAZIO = new TotaisJanela(BigDecimal.ZERO.setScale(2), 0);
+
+    private final BigDecimal valor;
+    private final long quantidade;
+
+    public TotaisJanela(BigDecimal valor, long quantidade) {
+        this.valor = valor;
+        this.quantidade = quantidade;
+    }
+
+    public BigDecimal getValor() {
+        return valor;
+    }
+
+    public long getQuantidade() {
+        return quantidade;
+    }
+}
@@ -0,0 +1,206 @@
+package acc.br.util;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Validação, interpretação e formatação de CPFs sem alocação de memória.
+ * <p>
+ * Os CPFs são aceitos sem formatação (11 dígitos) ou formatados (000.000.000-00), como texto ou como bytes ASCII, e
+ * percorridos uma única vez: os dígitos são conferidos e os dois dígitos verificadores são acumulados na mesma
+ * passagem. CPFs com todos os dígitos iguais são inválidos. O CPF interpretado é devolvido como um long com os 11
+ * dígitos, de modo que a validação de um arquivo inteiro não cria objetos; apenas a formatação cria a String final.
+ */
+public final class ValidadorCPF {
+
+    /**
+     * Resultado da interpretação de um CPF inválido.
+     */
+    public static final long INVALIDO = -1L;
+
+    private static final int TAMANHO = 11;
+    private static final int TAMANHO_FORMATADO = 14;
+
+    private ValidadorCPF() {
+    }
+
+    /**
+     * Verifica se um CPF sem formatação, com 11 dígitos, é válido.
+     *
+     * @param cpf O CPF.
+     * @return true se o CPF tem 11 dígitos e os dígitos verificadores conferem.
+     */
+    public static boolean isValido(CharSequence cpf) {
+        return cpf != null && cpf.length() == TAMANHO && interpretar(cpf) != INVALIDO;
+    }
+
+    /**
+     * Interpreta um CPF com ou sem formatação.
+     *
+     * @param cpf O CPF, com 11 dígitos ou no formato 000.000.000-00.
+     * @return Os 11 dígitos do CPF como um número, ou {@link #INVALIDO} se o formato ou os dígitos verificadores não
+     *         conferirem.
+     */
+    public static long interpretar(CharSequence cpf) {
+        if (cpf == null) {
+            return INVALIDO;
+        }
+        return interpretar(cpf, null, 0, cpf.length());
+    }
+
+    /**
+     * Interpreta um CPF com ou sem formatação em um trecho de bytes ASCII, como uma coluna de um arquivo CSV.
+     *
+     * @param ascii  Os bytes.
+     * @param inicio A posição do primeiro byte do CPF (inclusive).
+     * @param fim    A posição do último byte do CPF (exclusive).
+     * @return Os 11 dígitos do CPF como um número, ou {@link #INVALIDO} se o formato ou os dígitos verificadores não
+     *         conferirem.
+     */
+    public static long interpretar(byte[] ascii, int inicio, int fim) {
+        return interpretar(null, ascii, inicio, fim - inicio);
+    }
+
+    /**
+     * Valida uma coluna de CPFs, com ou sem formatação, em paralelo.
+     *
+     * @param cpfs Os CPFs.
+     * @return Para cada CPF, na mesma posição, se ele é válido.
+     */
+    public static boolean[] validar(List<? extends CharSequence> cpfs) {
+        boolean[] validos = new boolean[cpfs.size()];
+        IntStream.range(0, validos.length).parallel().forEach(i -> validos[i] = interpretar(cpfs.get(i)) != INVALIDO);
+        return validos;
+    }
+
+    /**
+     * Interpreta uma coluna de CPFs, com ou sem formatação, em paralelo.
+     *
+     * @param cpfs Os CPFs; os nulos são inválidos.
+     * @return Para cada CPF, na mesma posição, os seus 11 dígitos como um número, ou {@link #INVALIDO}.
+     */
+    public static long[] interpretar(List<? extends CharSequence> cpfs) {
+        long[] numeros = new long[cpfs.size()];
+        IntStream.range(0, numeros.length).parallel().forEach(i -> numeros[i] = interpretar(cpfs.get(i)));
+        return numeros;
+    }
+
+    /**
+     * Obtém os 11 dígitos de um CPF interpretado, sem formatação, como são gravados no cadastro de clientes.
+     *
+     * @param numero Os 11 dígitos do CPF, como devolvidos por {@link #interpretar(CharSequence)}.
+     * @return O CPF com 11 dígitos.
+     * @throws IllegalArgumentException Se o número não tiver até 11 dígitos.
+     */
+    public static String digitos(long numero) {
+        if (numero < 0 || numero > 99_999_999_999L) {
+            throw new IllegalArgumentException("CPF inválido: " + numero);
+        }
+        char[] digitos = new char[TAMANHO];
+        for (int i = TAMANHO - 1; i >= 0; i--) {
+            digitos[i] = (char) ('0' + numero % 10);
+            numero /= 10;
+        }
+        return new String(digitos);
+    }
+
+    /**
+     * Formata um CPF interpretado.
+     *
+     * @param numero Os 11 dígitos do CPF, como devolvidos por {@link #interpretar(CharSequence)}.
+     * @return O CPF no formato 000.000.000-00.
+     * @throws IllegalArgumentException Se o número não tiver até 11 dígitos.
+     */
+    public static String formatar(long numero) {
+        if (numero < 0 || numero > 99_999_999_999L) {
+            throw new IllegalArgumentException("CPF inválido: " + numero);
+        }
+        char[] formatado = new char[TAMANHO_FORMATADO];
+        for (int i = TAMANHO_FORMATADO - 1; i >= 0; i--) {
+            if (i == 3 || i == 7) {
+                formatado[i] = '.';
+            } else if (i == 11) {
+                formatado[i] = '-';
+            } else {
+                formatado[i] = (char) ('0' + numero % 10);
+                numero /= 10;
+            }
+        }
+        return new String(formatado);
+    }
+
+    /**
+     * Formata um CPF sem formatação, sem conferir os dígitos verificadores.
+     *
+     * @param cpf O CPF com 11 caracteres.
+     * @return O CPF no formato 000.000.000-00.
+     * @throws IllegalArgumentException Se o CPF não tiver 11 caracteres.
+     */
+    public static String formatar(CharSequence cpf) {
+        if (cpf == null || cpf.length() != TAMANHO) {
+            throw new IllegalArgumentException("O CPF deve ter " + TAMANHO + " caracteres.");
+        }
+        char[] formatado = new char[TAMANHO_FORMATADO];
+        for (int i = 0, k = 0; i < TAMANHO_FORMATADO; i++) {
+            formatado[i] = i == 3 || i == 7 ? '.' : i == 11 ? '-' : cpf.charAt(k++);
+        }
+        return new String(formatado);
+    }
+
+    /**
+     * Percorre o CPF em texto ou, se o texto for null, no trecho de bytes ASCII, sem criar objetos.
+     */
+    private static long interpretar(CharSequence texto, byte[] ascii, int inicio, int tamanho) {
+        boolean formatado = tamanho == TAMANHO_FORMATADO;
+        if (!formatado && tamanho != TAMANHO) {
+            return INVALIDO;
+        }
+        long numero = 0;
+        int soma1 = 0;
+        int soma2 = 0;
+        int primeiro = caractere(texto, ascii, inicio, 0) - '0';
+        boolean repetidos = true;
+        int k = 0;
+        for (int i = 0; i < tamanho; i++) {
+            char c = caractere(texto, ascii, inicio, i);
+            if (formatado && (i == 3 || i == 7 || i == 11)) {
+                if (c != (i == 11 ? '-' : '.')) {
+                    return INVALIDO;
+                }
+                continue;
+            }
+            int d = c - '0';
+            if (d < 0 || d > 9) {
+                return INVALIDO;
+            }
+            if (k < 9) {
+                soma1 += d * (10 - k);
+            }
+            if (k < 10) {
+                soma2 += d * (11 - k);
+            }
+            repetidos &= d == primeiro;
+            numero = numero * 10 + d;
+            k++;
+        }
+        return concluir(numero, soma1, soma2, repetidos);
+    }
+
+    private static char caractere(CharSequence texto, byte[] ascii, int inicio, int i) {
+        return texto != null ? texto.charAt(i) : (char) (ascii[inicio + i] & 0xFF);
+    }
+
+    private static long concluir(long numero, int soma1, int soma2, boolean repetidos) {
+        if (repetidos) {
+            return INVALIDO;
+        }
+        int digito10 = (int) (numero / 10 % 10);
+        int digito11 = (int) (numero % 10);
+        return digitoVerificador(soma1) == digito10 && digitoVerificador(soma2) == digito11 ? numero : INVALIDO;
+    }
+
+    private static int digitoVerificador(int soma) {
+        int resto = soma % 11;
+        return resto < 2 ? 0 : 11 - resto;
+    }
+}
@@ -0,0 +1,126 @@
+package acc.br.controllers;
+
+import acc.br.exception.ValorMinimoInvalidoException;
+import acc.br.model.Transacoes;
+import acc.br.service.TransacoesService;
+import acc.br.util.PaginaTransacoes;
+import org.jboss.resteasy.mock.MockDispatcherFactory;
+import org.jboss.resteasy.mock.MockHttpRequest;
+import org.jboss.resteasy.mock.MockHttpResponse;
+import org.jboss.resteasy.plugins.providers.jackson.ResteasyJackson2Provider;
+import org.jboss.resteasy.spi.Dispatcher;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransacoesControllerTest {
+
+    private final List<String> buscas = new ArrayList<>();
+    private Dispatcher dispatcher;
+
+    @BeforeEach
+    public void setUp() {
+        TransacoesService transacoesService = new TransacoesService() {
+            @Override
+            public PaginaTransacoes listarTransferenciasPorConta(Long contaID, Long cursor, int tamanhoPagina) {
+                return buscar("transferencias conta " + contaID, cursor, tamanhoPagina);
+            }
+
+            @Override
+            public PaginaTransacoes listarSaquesPorConta(Long contaID, Long cursor, int tamanhoPagina) {
+                return buscar("saques conta " + contaID, cursor, tamanhoPagina);
+            }
+
+            @Override
+            public PaginaTransacoes listarDepositosPorConta(Long contaID, Long cursor, int tamanhoPagina) {
+                return buscar("depositos conta " + contaID, cursor, tamanhoPagina);
+            }
+
+            @Override
+            public PaginaTransacoes listarTransferenciasPorValorMinimo(BigDecimal valorMinimo, Long cursor, int tamanhoPagina) {
+                return buscar("transferencias valor " + valorMinimo, cursor, tamanhoPagina);
+            }
+
+            @Override
+            public PaginaTransacoes listarSaquesPorValorMinimo(BigDecimal valorMinimo, Long cursor, int tamanhoPagina) {
+                return buscar("saques valor " + valorMinimo, cursor, tamanhoPagina);
+            }
+
+            @Override
+            public PaginaTransacoes listarDepositosPorValorMinimo(BigDecimal valorMinimo, Long cursor, int tamanhoPagina) {
+                if (valorMinimo == null) {
+                    throw new ValorMinimoInvalidoException("O valor mínimo deve ser informado e não pode ser negativo.");
+                }
+                return buscar("depositos valor " + valorMinimo, cursor, tamanhoPagina);
+            }
+        };
+        TransacoesController controller = new TransacoesController();
+        controller.transacoesService = transacoesService;
+
+        dispatcher = MockDispatcherFactory.createDispatcher();
+        dispatcher.getProviderFactory().registerProvider(ResteasyJackson2Provider.class);
+        dispatcher.getRegistry().addSingletonResource(controller);
+    }
+
+    @Test
+    public void testListaSaquesDaContaComCursorETamanho() throws Exception {
+        MockHttpResponse resposta = get("/transacoes/conta/7/saques?cursor=42&tamanho=2");
+
+        assertEquals(200, resposta.getStatus());
+        assertEquals(List.of("saques conta 7 cursor 42 tamanho 2"), buscas);
+        assertTrue(resposta.getContentAsString().contains("\"proximoCursor\":41"));
+        assertTrue(resposta.getContentAsString().contains("\"transacaoID\":42"));
+    }
+
+    @Test
+    public void testListagensPorContaUsamTamanhoPadraoSemCursor() throws URISyntaxException {
+        assertEquals(200, get("/transacoes/conta/7/depositos").getStatus());
+        assertEquals(200, get("/transacoes/conta/8/transferencias").getStatus());
+
+        assertEquals(List.of("depositos conta 7 cursor null tamanho 100", "transferencias conta 8 cursor null tamanho 100"), buscas);
+    }
+
+    @Test
+    public void testListagensPorValorMinimo() throws URISyntaxException {
+        assertEquals(200, get("/transacoes/transferencias?valorMinimo=150.50&cursor=3&tamanho=10").getStatus());
+        assertEquals(200, get("/transacoes/saques?valorMinimo=10").getStatus());
+        assertEquals(200, get("/transacoes/depositos?valorMinimo=0").getStatus());
+
+        assertEquals(List.of("transferencias valor 150.50 cursor 3 tamanho 10", "saques valor 10 cursor null tamanho 100",
+                "depositos valor 0 cursor null tamanho 100"), buscas);
+    }
+
+    @Test
+    public void testParametrosInvalidosRetornamBadRequest() throws URISyntaxException {
+        assertEquals(400, get("/transacoes/depositos").getStatus());
+        assertEquals(400, get("/transacoes/conta/7/saques?tamanho=0").getStatus());
+        assertEquals(404, get("/transacoes/conta/7/saques?cursor=abc").getStatus());
+
+        assertTrue(buscas.isEmpty());
+    }
+
+    private MockHttpResponse get(String uri) throws URISyntaxException {
+        MockHttpResponse resposta = new MockHttpResponse();
+        dispatcher.invoke(MockHttpRequest.get(uri), resposta);
+        return resposta;
+    }
+
+    /**
+     * Registra os parâmetros recebidos pelo serviço e devolve uma página com uma transação, como o serviço faria.
+     */
+    private PaginaTransacoes buscar(String busca, Long cursor, int tamanhoPagina) {
+        if (tamanhoPagina <= 0) {
+            throw new IllegalArgumentException("O tamanho da página deve ser maior que zero.");
+        }
+        buscas.add(busca + " cursor " + cursor + " tamanho " + tamanhoPagina);
+        Transacoes transacao = new Transacoes();
+        transacao.setTransacaoID(cursor == null ? 1L : cursor);
+        return new PaginaTransacoes(List.of(transacao), cursor == null ? null : cursor - 1);
+    }
+}
@@ -1,5 +1,6 @@
 package acc.br.model;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
 
 import java.time.LocalDate;
@@ -228,4 +229,17 @@ class ClientesTest {
         cliente.setAtivo(true);
         assertEquals(true,cliente.isAtivo());
     }
-}
\ No newline at end of file
+
+    @Test
+    void senhaNaoSerializada() throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+        Clientes cliente = new Clientes();
+        cliente.setNome("Rafael");
+        cliente.setSenha("$pbkdf2-sha256$1000$AQID$AQID");
+
+        String json = objectMapper.writeValueAsString(cliente);
+
+        assertFalse(json.contains("senha"));
+        assertEquals("segredo1", objectMapper.readValue("{\"senha\":\"segredo1\"}", Clientes.class).getSenha());
+    }
+}
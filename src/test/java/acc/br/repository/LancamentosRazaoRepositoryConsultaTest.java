@@ -0,0 +1,137 @@
+package acc.br.repository;
+
+import acc.br.model.ContaCorrente;
+import acc.br.model.LancamentosRazao;
+import acc.br.util.NaturezaLancamento;
+import acc.br.util.TipoConta;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.hibernate.dialect.H2Dialect;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Teste das consultas do {@link LancamentosRazaoRepository}, executadas pelo Hibernate em um H2 em memória
+ * com o esquema criado a partir do mapeamento de {@link LancamentosRazao}. Os lançamentos são inseridos com o mesmo
+ * SQL do lote do repositório.
+ */
+class LancamentosRazaoRepositoryConsultaTest {
+
+    private static SessionFactory sessionFactory;
+
+    @BeforeAll
+    public static void setUp() {
+        sessionFactory = new Configuration()
+                .addAnnotatedClass(LancamentosRazao.class)
+                .addAnnotatedClass(ContaCorrente.class)
+                .setProperty(AvailableSettings.URL, "jdbc:h2:mem:consulta_razao;DB_CLOSE_DELAY=-1")
+                .setProperty(AvailableSettings.DIALECT, H2Dialect.class.getName())
+                .setProperty(AvailableSettings.HBM2DDL_AUTO, "create-drop")
+                .setProperty(AvailableSettings.JPA_VALIDATION_MODE, "none")
+                .buildSessionFactory();
+
+        try (Session session = sessionFactory.openSession()) {
+            session.doWork(conexao -> {
+                try (PreparedStatement insercao = conexao.prepareStatement(LancamentosRazaoRepository.SQL_INSERCAO_LANCAMENTO)) {
+                    // Depósito de 100 e saque de 30 na conta corrente 1; transferência de 20 para a poupança 1
+                    adicionar(insercao, 1L, null, null, NaturezaLancamento.DEBITO, "100.00");
+                    adicionar(insercao, 1L, TipoConta.CONTA_CORRENTE, 1L, NaturezaLancamento.CREDITO, "100.00");
+                    adicionar(insercao, 2L, TipoConta.CONTA_CORRENTE, 1L, NaturezaLancamento.DEBITO, "30.00");
+                    adicionar(insercao, 2L, null, null, NaturezaLancamento.CREDITO, "30.00");
+                    adicionar(insercao, 3L, TipoConta.CONTA_CORRENTE, 1L, NaturezaLancamento.DEBITO, "20.00");
+                    adicionar(insercao, 3L, TipoConta.CONTA_POUPANCA, 1L, NaturezaLancamento.CREDITO, "20.00");
+                    insercao.executeBatch();
+                }
+                try (PreparedStatement insercao = conexao.prepareStatement("INSERT INTO ContaCorrente (ContaCorrenteID, ClienteID, Versao) VALUES (1, 7, 0)")) {
+                    insercao.executeUpdate();
+                }
+            });
+        }
+    }
+
+    @AfterAll
+    public static void tearDown() {
+        sessionFactory.close();
+    }
+
+    @Test
+    public void testSomaDaContaConsideraApenasOIntervaloEOTipoDeConta() {
+        assertEquals(0, new BigDecimal("50.00").compareTo(somar(TipoConta.CONTA_CORRENTE, 0, Long.MAX_VALUE)));
+        assertEquals(0, new BigDecimal("-50.00").compareTo(somar(TipoConta.CONTA_CORRENTE, 2, Long.MAX_VALUE)));
+        assertEquals(0, new BigDecimal("100.00").compareTo(somar(TipoConta.CONTA_CORRENTE, 0, 2)));
+        assertEquals(0, new BigDecimal("20.00").compareTo(somar(TipoConta.CONTA_POUPANCA, 0, Long.MAX_VALUE)));
+        assertEquals(0, BigDecimal.ZERO.compareTo(somar(TipoConta.CONTA_CONJUNTA, 0, Long.MAX_VALUE)));
+    }
+
+    @Test
+    public void testSomaPorContaIgnoraOCaixa() {
+        try (Session session = sessionFactory.openSession()) {
+            List<Object[]> somas = session.createQuery(LancamentosRazaoRepository.CONSULTA_SOMA_POR_CONTA, Object[].class)
+                    .setParameter("credito", NaturezaLancamento.CREDITO)
+                    .setParameter("inicio", 0L)
+                    .setParameter("fim", 6L)
+                    .list();
+
+            assertEquals(2, somas.size());
+            for (Object[] soma : somas) {
+                BigDecimal esperado = soma[0] == TipoConta.CONTA_CORRENTE ? new BigDecimal("50.00") : new BigDecimal("20.00");
+                assertEquals(1L, soma[1]);
+                assertEquals(0, esperado.compareTo((BigDecimal) soma[2]));
+            }
+        }
+    }
+
+    @Test
+    public void testDebitosDasContasComOCliente() {
+        try (Session session = sessionFactory.openSession()) {
+            List<Object[]> debitos = session.createQuery(LancamentosRazaoRepository.consultaDebitosClientes(TipoConta.CONTA_CORRENTE), Object[].class)
+                    .setParameter("tipoConta", TipoConta.CONTA_CORRENTE)
+                    .setParameter("debito", NaturezaLancamento.DEBITO)
+                    .setParameter("inicio", LocalDateTime.now().minusHours(1))
+                    .list();
+
+            assertEquals(2, debitos.size());
+            for (Object[] debito : debitos) {
+                assertEquals(7L, debito[0]);
+            }
+            assertEquals(0, new BigDecimal("50.00").compareTo(debitos.stream()
+                    .map(debito -> (BigDecimal) debito[1]).reduce(BigDecimal.ZERO, BigDecimal::add)));
+        }
+    }
+
+    private static BigDecimal somar(TipoConta tipoConta, long inicio, long fim) {
+        try (Session session = sessionFactory.openSession()) {
+            return session.createQuery(LancamentosRazaoRepository.CONSULTA_SOMA_CONTA, BigDecimal.class)
+                    .setParameter("credito", NaturezaLancamento.CREDITO)
+                    .setParameter("tipoConta", tipoConta)
+                    .setParameter("contaID", 1L)
+                    .setParameter("inicio", inicio)
+                    .setParameter("fim", fim)
+                    .getSingleResult();
+        }
+    }
+
+    private static void adicionar(PreparedStatement insercao, Long transacaoID, TipoConta tipoConta, Long contaID,
+            NaturezaLancamento natureza, String valor) throws SQLException {
+        insercao.setObject(1, transacaoID, Types.BIGINT);
+        insercao.setString(2, tipoConta == null ? null : tipoConta.name());
+        insercao.setObject(3, contaID, Types.BIGINT);
+        insercao.setString(4, natureza.name());
+        insercao.setBigDecimal(5, new BigDecimal(valor));
+        insercao.setTimestamp(6, Timestamp.valueOf(LocalDateTime.now()));
+        insercao.addBatch();
+    }
+}
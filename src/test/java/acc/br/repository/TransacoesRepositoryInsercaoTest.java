@@ -0,0 +1,55 @@
+package acc.br.repository;
+
+import acc.br.model.Transacoes;
+import acc.br.util.DatabaseAuditListener;
+import acc.br.util.TipoConta;
+import acc.br.util.TipoTransacao;
+import org.hibernate.validator.messageinterpolation.ParameterMessageInterpolator;
+import org.junit.jupiter.api.Test;
+
+import javax.validation.ConstraintViolationException;
+import javax.validation.Validation;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransacoesRepositoryInsercaoTest {
+
+    @Test
+    public void testLoteComTransacaoInvalidaNaoEInseridoNemAuditado() {
+        List<Object> auditadas = new ArrayList<>();
+        TransacoesRepository repositorio = new TransacoesRepository();
+        repositorio.validator = Validation.byDefaultProvider().configure()
+                .messageInterpolator(new ParameterMessageInterpolator())
+                .buildValidatorFactory()
+                .getValidator();
+        repositorio.databaseAuditListener = new DatabaseAuditListener() {
+            @Override
+            public void onJdbcInsert(List<?> entities) {
+                auditadas.addAll(entities);
+            }
+        };
+        Transacoes invalida = criarTransacao(BigDecimal.ZERO);
+
+        ConstraintViolationException excecao = assertThrows(ConstraintViolationException.class,
+                () -> repositorio.inserir(Arrays.asList(criarTransacao(BigDecimal.TEN), invalida)));
+
+        assertEquals(1, excecao.getConstraintViolations().size());
+        assertSame(invalida, excecao.getConstraintViolations().iterator().next().getRootBean());
+        assertTrue(auditadas.isEmpty());
+    }
+
+    private Transacoes criarTransacao(BigDecimal valor) {
+        Transacoes transacao = new Transacoes();
+        transacao.setTipoTransacao(TipoTransacao.DEPOSITO);
+        transacao.setValor(valor);
+        transacao.setDataHoraTransacao(LocalDate.now());
+        transacao.setContaID(1L);
+        transacao.setTipoConta(TipoConta.CONTA_CORRENTE);
+        return transacao;
+    }
+}
@@ -0,0 +1,129 @@
+package acc.br.repository;
+
+import acc.br.model.Transacoes;
+import acc.br.util.TipoTransacao;
+import io.quarkus.panache.common.Sort;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.hibernate.dialect.H2Dialect;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Teste de regressão dos planos de consulta das buscas do {@link TransacoesRepository}.
+ * <p>
+ * O esquema é criado pelo Hibernate a partir dos mapeamentos de {@link Transacoes}, incluindo os índices, em um H2 em
+ * memória. Cada busca é executada com o filtro e a ordenação usados pelo repositório, e o SQL gerado é submetido ao
+ * EXPLAIN do H2, que deve usar o índice esperado em vez de percorrer a tabela inteira.
+ */
+class TransacoesRepositoryPlanoConsultaTest {
+
+    private static final List<String> sqlExecutado = new ArrayList<>();
+    private static SessionFactory sessionFactory;
+
+    @BeforeAll
+    public static void setUp() {
+        Configuration configuracao = new Configuration()
+                .addAnnotatedClass(Transacoes.class)
+                .setProperty(AvailableSettings.URL, "jdbc:h2:mem:plano_transacoes;DB_CLOSE_DELAY=-1")
+                .setProperty(AvailableSettings.DIALECT, H2Dialect.class.getName())
+                .setProperty(AvailableSettings.HBM2DDL_AUTO, "create-drop")
+                .setProperty(AvailableSettings.JPA_VALIDATION_MODE, "none");
+        configuracao.getProperties().put(AvailableSettings.STATEMENT_INSPECTOR, (StatementInspector) sql -> {
+            sqlExecutado.add(sql);
+            return sql;
+        });
+        sessionFactory = configuracao.buildSessionFactory();
+    }
+
+    @AfterAll
+    public static void tearDown() {
+        sessionFactory.close();
+    }
+
+    @Test
+    public void testListarPorContaETipoUsaIndiceContaTipoData() {
+        String plano = explicar(TransacoesRepository.FILTRO_CONTA_E_TIPO, TransacoesRepository.ORDEM_CONTA_E_TIPO,
+                42L, TipoTransacao.SAQUE);
+
+        assertUsaIndice(plano, "IX_TRANSACOES_CONTA_TIPO_DATA");
+    }
+
+    @Test
+    public void testListarPorTipoEValorMinimoUsaIndiceTipoValor() {
+        String plano = explicar(TransacoesRepository.FILTRO_TIPO_E_VALOR_MINIMO, TransacoesRepository.ORDEM_TIPO_E_VALOR_MINIMO,
+                TipoTransacao.TRANSFERENCIA, new BigDecimal("1000.00"));
+
+        assertUsaIndice(plano, "IX_TRANSACOES_TIPO_VALOR");
+    }
+
+    @Test
+    public void testListarPorContaETipoAposCursorUsaIndiceContaTipoData() {
+        String plano = explicar(TransacoesRepository.FILTRO_CONTA_E_TIPO_APOS_CURSOR, TransacoesRepository.ORDEM_CONTA_E_TIPO,
+                42L, TipoTransacao.SAQUE, LocalDate.of(2024, 1, 31), 500L);
+
+        assertUsaIndice(plano, "IX_TRANSACOES_CONTA_TIPO_DATA");
+    }
+
+    @Test
+    public void testListarPorTipoEValorMinimoAposCursorUsaIndiceTipoValor() {
+        String plano = explicar(TransacoesRepository.FILTRO_TIPO_E_VALOR_MINIMO_APOS_CURSOR, TransacoesRepository.ORDEM_TIPO_E_VALOR_MINIMO,
+                TipoTransacao.TRANSFERENCIA, new BigDecimal("1000.00"), new BigDecimal("2500.00"), 500L);
+
+        assertUsaIndice(plano, "IX_TRANSACOES_TIPO_VALOR");
+    }
+
+    private static void assertUsaIndice(String plano, String indice) {
+        assertFalse(plano.contains("tableScan"), "Consulta percorre a tabela inteira: " + plano);
+        assertTrue(plano.contains(indice), "Consulta não usa o índice " + indice + ": " + plano);
+    }
+
+    /**
+     * Executa a busca com o filtro e a ordenação do repositório e retorna o plano do SQL gerado pelo Hibernate.
+     */
+    private static String explicar(String filtro, Sort ordem, Object... parametros) {
+        try (Session session = sessionFactory.openSession()) {
+            sqlExecutado.clear();
+            org.hibernate.query.Query<Transacoes> consulta = session.createQuery(
+                    "from Transacoes where " + filtro + " order by " + ordenacao(ordem), Transacoes.class);
+            for (int i = 0; i < parametros.length; i++) {
+                consulta.setParameter(i + 1, parametros[i]);
+            }
+            consulta.setMaxResults(100).list();
+            assertEquals(1, sqlExecutado.size());
+
+            return session.doReturningWork(conexao -> {
+                try (PreparedStatement explain = conexao.prepareStatement("EXPLAIN " + sqlExecutado.get(0))) {
+                    for (int i = 0; i < explain.getParameterMetaData().getParameterCount(); i++) {
+                        Object parametro = i < parametros.length ? parametros[i] : 100;
+                        explain.setObject(i + 1, parametro instanceof Enum ? ((Enum<?>) parametro).name() : parametro);
+                    }
+                    try (ResultSet resultado = explain.executeQuery()) {
+                        resultado.next();
+                        return resultado.getString(1);
+                    }
+                }
+            });
+        }
+    }
+
+    private static String ordenacao(Sort ordem) {
+        return ordem.getColumns().stream()
+                .map(coluna -> coluna.getName() + (coluna.getDirection() == Sort.Direction.Descending ? " desc" : " asc"))
+                .collect(Collectors.joining(", "));
+    }
+}
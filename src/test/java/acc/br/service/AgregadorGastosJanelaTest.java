@@ -0,0 +1,121 @@
+package acc.br.service;
+
+import acc.br.util.TotaisJanela;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.transaction.Status;
+import javax.transaction.Synchronization;
+import javax.transaction.TransactionSynchronizationRegistry;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AgregadorGastosJanelaTest {
+
+    private static final Instant INICIO = Instant.parse("2024-01-02T10:00:00Z");
+
+    private AgregadorGastosJanela agregador;
+
+    @BeforeEach
+    public void setUp() {
+        agregador = new AgregadorGastosJanela();
+        agregador.duracaoIntervaloSegundos = 60;
+        agregador.maximaHoras = 2;
+        agregador.clientesMaximo = 100;
+        agregador.registroSincronizacao = (TransactionSynchronizationRegistry) Proxy.newProxyInstance(
+                TransactionSynchronizationRegistry.class.getClassLoader(), new Class<?>[]{TransactionSynchronizationRegistry.class},
+                (proxy, metodo, argumentos) -> metodo.getName().equals("getTransactionStatus") ? Status.STATUS_NO_TRANSACTION : null);
+        agregador.inicializar();
+        avancarPara(Duration.ZERO);
+    }
+
+    @Test
+    public void testJanelasDeslizamComOTempo() {
+        agregador.registrar(1L, new BigDecimal("100.00"));
+        avancarPara(Duration.ofMinutes(30));
+        agregador.registrar(1L, new BigDecimal("50.00"));
+        avancarPara(Duration.ofMinutes(45));
+
+        assertTotais("150.00", 2, agregador.consultar(1L, 60));
+        assertTotais("50.00", 1, agregador.consultar(1L, 20));
+        assertTotais("0.00", 0, agregador.consultar(2L, 60));
+
+        avancarPara(Duration.ofMinutes(70));
+        assertTotais("50.00", 1, agregador.consultar(1L, 60));
+        assertTotais("150.00", 2, agregador.consultar(1L, 120));
+
+        avancarPara(Duration.ofMinutes(200));
+        assertTotais("0.00", 0, agregador.consultar(1L, 120));
+    }
+
+    @Test
+    public void testBufferReaproveitadoAposPeriodoSemSaidas() {
+        agregador.registrar(1L, new BigDecimal("100.00"));
+        avancarPara(Duration.ofHours(5));
+        agregador.registrar(1L, new BigDecimal("10.00"));
+        avancarPara(Duration.ofHours(5).plusMinutes(1));
+        agregador.registrar(1L, new BigDecimal("5.00"));
+
+        assertTotais("15.00", 2, agregador.consultar(1L, 120));
+        assertTotais("5.00", 1, agregador.consultar(1L, 1));
+    }
+
+    @Test
+    public void testJanelaMaiorQueOMaximoLimitadaAoBuffer() {
+        agregador.registrar(1L, new BigDecimal("100.00"));
+        avancarPara(Duration.ofMinutes(90));
+        agregador.registrar(1L, new BigDecimal("1.00"));
+        avancarPara(Duration.ofMinutes(150));
+
+        assertTotais("1.00", 1, agregador.consultar(1L, 10_000));
+    }
+
+    @Test
+    public void testConsultarJanelaSemSaidasNaoAlocaBuffer() {
+        assertSame(TotaisJanela.VAZIO, agregador.consultar(1L, 60));
+    }
+
+    @Test
+    public void testSaidasEmCursoContamAteOFimDaTransacao() {
+        List<Synchronization> sincronizacoes = new ArrayList<>();
+        agregador.registroSincronizacao = (TransactionSynchronizationRegistry) Proxy.newProxyInstance(
+                TransactionSynchronizationRegistry.class.getClassLoader(), new Class<?>[]{TransactionSynchronizationRegistry.class},
+                (proxy, metodo, argumentos) -> {
+                    if (metodo.getName().equals("registerInterposedSynchronization")) {
+                        sincronizacoes.add((Synchronization) argumentos[0]);
+                    }
+                    return metodo.getName().equals("getTransactionStatus") ? Status.STATUS_ACTIVE : null;
+                });
+
+        TotaisJanela[] antesDaPrimeira = agregador.registrar(1L, new BigDecimal("100.00"), 60, 10);
+        TotaisJanela[] antesDaSegunda = agregador.registrar(1L, new BigDecimal("40.00"), 60);
+
+        assertSame(TotaisJanela.VAZIO, antesDaPrimeira[0]);
+        assertSame(TotaisJanela.VAZIO, antesDaPrimeira[1]);
+        assertTotais("100.00", 1, antesDaSegunda[0]);
+        assertTotais("140.00", 2, agregador.consultar(1L, 60));
+
+        sincronizacoes.get(0).afterCompletion(Status.STATUS_COMMITTED);
+        sincronizacoes.get(1).afterCompletion(Status.STATUS_ROLLEDBACK);
+        assertTotais("100.00", 1, agregador.consultar(1L, 60));
+        avancarPara(Duration.ofMinutes(90));
+        assertTotais("0.00", 0, agregador.consultar(1L, 60));
+    }
+
+    private void avancarPara(Duration decorrido) {
+        agregador.relogio = Clock.fixed(INICIO.plus(decorrido), ZoneId.of("UTC"));
+    }
+
+    private static void assertTotais(String valor, long quantidade, TotaisJanela totais) {
+        assertEquals(new BigDecimal(valor), totais.getValor());
+        assertEquals(quantidade, totais.getQuantidade());
+    }
+}
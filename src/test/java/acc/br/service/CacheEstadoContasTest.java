@@ -0,0 +1,148 @@
+package acc.br.service;
+
+import acc.br.model.ContaCorrente;
+import acc.br.repository.ContaCorrenteRepository;
+import acc.br.util.EstadoConta;
+import acc.br.util.TipoConta;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.transaction.Status;
+import javax.transaction.Synchronization;
+import javax.transaction.TransactionSynchronizationRegistry;
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CacheEstadoContasTest {
+
+    private final Map<Long, ContaCorrente> contas = new HashMap<>();
+    private final AtomicInteger consultas = new AtomicInteger();
+    private CacheEstadoContas cacheEstadoContas;
+
+    @BeforeEach
+    public void setUp() {
+        cacheEstadoContas = new CacheEstadoContas();
+        cacheEstadoContas.contaCorrenteRepository = new ContaCorrenteRepository() {
+            @Override
+            public ContaCorrente findById(Long id) {
+                consultas.incrementAndGet();
+                return contas.get(id);
+            }
+        };
+        cacheEstadoContas.registroSincronizacao = new SemTransacao();
+        cacheEstadoContas.tamanhoMaximo = 100;
+        cacheEstadoContas.expiracaoSegundos = 60;
+        cacheEstadoContas.inicializar();
+
+        contas.put(1L, criarContaCorrente(1L, "100.00", "50.00"));
+    }
+
+    @Test
+    public void testConsultaBancoApenasNaPrimeiraLeitura() {
+        EstadoConta primeira = cacheEstadoContas.obter(TipoConta.CONTA_CORRENTE, 1L);
+        EstadoConta segunda = cacheEstadoContas.obter(TipoConta.CONTA_CORRENTE, 1L);
+
+        assertSame(primeira, segunda);
+        assertEquals(1, consultas.get());
+        assertEquals(new BigDecimal("150.00"), segunda.getDisponivel());
+        assertEquals(0.5, cacheEstadoContas.getTaxaAcerto());
+    }
+
+    @Test
+    public void testContaInexistenteNaoFicaEmCache() {
+        assertNull(cacheEstadoContas.obter(TipoConta.CONTA_CORRENTE, 2L));
+
+        contas.put(2L, criarContaCorrente(2L, "10.00", "0.00"));
+
+        assertNotNull(cacheEstadoContas.obter(TipoConta.CONTA_CORRENTE, 2L));
+    }
+
+    @Test
+    public void testAtualizarGravaNovoEstadoSemConsultarBanco() {
+        ContaCorrente conta = criarContaCorrente(1L, "80.00", "50.00");
+
+        cacheEstadoContas.atualizar(conta);
+
+        assertEquals(new BigDecimal("80.00"), cacheEstadoContas.obter(TipoConta.CONTA_CORRENTE, 1L).getSaldo());
+        assertEquals(0, consultas.get());
+    }
+
+    @Test
+    public void testCargaFeitaForaDoCacheNaoSobrescreveEstadoGravadoDuranteAConsulta() {
+        ContaCorrente alterada = criarContaCorrente(1L, "70.00", "50.00");
+        cacheEstadoContas.contaCorrenteRepository = new ContaCorrenteRepository() {
+            @Override
+            public ContaCorrente findById(Long id) {
+                // Dentro de um Cache.get, a gravação na mesma chave durante a carga falharia como atualização recursiva
+                cacheEstadoContas.atualizar(alterada);
+                return contas.get(id);
+            }
+        };
+
+        EstadoConta estado = cacheEstadoContas.obter(TipoConta.CONTA_CORRENTE, 1L);
+
+        assertEquals(new BigDecimal("70.00"), estado.getSaldo());
+        assertEquals(new BigDecimal("70.00"), cacheEstadoContas.obter(TipoConta.CONTA_CORRENTE, 1L).getSaldo());
+    }
+
+    @Test
+    public void testInvalidarForcaNovaConsulta() {
+        cacheEstadoContas.obter(TipoConta.CONTA_CORRENTE, 1L);
+
+        cacheEstadoContas.invalidar(TipoConta.CONTA_CORRENTE, 1L);
+        cacheEstadoContas.obter(TipoConta.CONTA_CORRENTE, 1L);
+
+        assertEquals(2, consultas.get());
+    }
+
+    private ContaCorrente criarContaCorrente(Long id, String saldo, String limiteCredito) {
+        ContaCorrente contaCorrente = new ContaCorrente();
+        contaCorrente.setcontaCorrenteID(id);
+        contaCorrente.setSaldo(new BigDecimal(saldo));
+        contaCorrente.setLimiteCredito(new BigDecimal(limiteCredito));
+        return contaCorrente;
+    }
+
+    /**
+     * Registro de sincronização fora de transação: as alterações do cache são aplicadas imediatamente.
+     */
+    private static class SemTransacao implements TransactionSynchronizationRegistry {
+
+        @Override
+        public Object getTransactionKey() {
+            return null;
+        }
+
+        @Override
+        public void putResource(Object key, Object value) {
+        }
+
+        @Override
+        public Object getResource(Object key) {
+            return null;
+        }
+
+        @Override
+        public void registerInterposedSynchronization(Synchronization sync) {
+            throw new IllegalStateException("Sem transação ativa");
+        }
+
+        @Override
+        public int getTransactionStatus() {
+            return Status.STATUS_NO_TRANSACTION;
+        }
+
+        @Override
+        public void setRollbackOnly() {
+        }
+
+        @Override
+        public boolean getRollbackOnly() {
+            return false;
+        }
+    }
+}
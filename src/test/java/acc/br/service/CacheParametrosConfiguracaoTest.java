@@ -0,0 +1,160 @@
+package acc.br.service;
+
+import acc.br.exception.ParametroConfiguracaoNaoEncontradoException;
+import acc.br.model.ParametrosConfiguracao;
+import acc.br.repository.ParametrosConfiguracaoRepository;
+import io.quarkus.panache.common.Sort;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.transaction.Status;
+import javax.transaction.Synchronization;
+import javax.transaction.TransactionSynchronizationRegistry;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CacheParametrosConfiguracaoTest {
+
+    private final List<ParametrosConfiguracao> tabela = new ArrayList<>();
+    private final AtomicInteger consultas = new AtomicInteger();
+    private CacheParametrosConfiguracao cache;
+
+    @BeforeEach
+    public void setUp() {
+        cache = new CacheParametrosConfiguracao();
+        cache.parametrosConfiguracaoRepository = new ParametrosConfiguracaoRepository() {
+            @Override
+            public List<ParametrosConfiguracao> listAll(Sort sort) {
+                consultas.incrementAndGet();
+                return new ArrayList<>(tabela);
+            }
+        };
+        cache.registroSincronizacao = (TransactionSynchronizationRegistry) Proxy.newProxyInstance(
+                TransactionSynchronizationRegistry.class.getClassLoader(),
+                new Class<?>[]{TransactionSynchronizationRegistry.class},
+                (proxy, metodo, argumentos) -> metodo.getName().equals("getTransactionStatus") ? Status.STATUS_NO_TRANSACTION : null);
+    }
+
+    @Test
+    public void testValoresConvertidosSemNovasConsultas() throws ParametroConfiguracaoNaoEncontradoException {
+        adicionar("TaxaPoupanca", "0.5");
+        adicionar("LimiteSaque", "1000");
+
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(new BigDecimal("0.5"), cache.obterBigDecimal("TaxaPoupanca"));
+            assertEquals(1000L, cache.obterLong("LimiteSaque"));
+        }
+
+        assertEquals("0.5", cache.obterTexto("TaxaPoupanca"));
+        assertEquals(1, consultas.get());
+        assertEquals(1, cache.getVersao());
+    }
+
+    @Test
+    public void testParametroAusenteOuInvalidoELancaExcecao() {
+        adicionar("TaxaPoupanca", "meio por cento");
+
+        assertThrows(ParametroConfiguracaoNaoEncontradoException.class, () -> cache.obterBigDecimal("TaxaPoupanca"));
+        assertThrows(ParametroConfiguracaoNaoEncontradoException.class, () -> cache.obterLong("TaxaPoupanca"));
+        assertThrows(ParametroConfiguracaoNaoEncontradoException.class, () -> cache.obterTexto("TaxaInexistente"));
+    }
+
+    @Test
+    public void testRecargaPublicaNovaVersaoSomenteQuandoOConteudoMuda() throws ParametroConfiguracaoNaoEncontradoException {
+        ParametrosConfiguracao taxa = adicionar("TaxaPoupanca", "0.5");
+        assertEquals(new BigDecimal("0.5"), cache.obterBigDecimal("TaxaPoupanca"));
+
+        cache.recarregarAposCommit();
+        assertEquals(1, cache.getVersao());
+
+        taxa.setValorParametro("0.6");
+        cache.recarregarAposCommit();
+        assertEquals(2, cache.getVersao());
+        assertEquals(new BigDecimal("0.6"), cache.obterBigDecimal("TaxaPoupanca"));
+    }
+
+    @Test
+    public void testCommitsFinalizadosForaDeOrdemPublicamOEstadoMaisRecenteDaTabela() throws ParametroConfiguracaoNaoEncontradoException {
+        ParametrosConfiguracao taxa = adicionar("TaxaPoupanca", "0.5");
+        assertEquals(new BigDecimal("0.5"), cache.obterBigDecimal("TaxaPoupanca"));
+        List<Synchronization> sincronizacoes = new ArrayList<>();
+        AtomicInteger novasTransacoes = new AtomicInteger();
+        CacheParametrosConfiguracao emTransacao = new CacheParametrosConfiguracao() {
+            @Override
+            void emNovaTransacao(Runnable operacao) {
+                novasTransacoes.incrementAndGet();
+                operacao.run();
+            }
+        };
+        emTransacao.parametrosConfiguracaoRepository = cache.parametrosConfiguracaoRepository;
+        emTransacao.registroSincronizacao = (TransactionSynchronizationRegistry) Proxy.newProxyInstance(
+                TransactionSynchronizationRegistry.class.getClassLoader(),
+                new Class<?>[]{TransactionSynchronizationRegistry.class},
+                (proxy, metodo, argumentos) -> {
+                    if (metodo.getName().equals("registerInterposedSynchronization")) {
+                        sincronizacoes.add((Synchronization) argumentos[0]);
+                    }
+                    return metodo.getName().equals("getTransactionStatus") ? Status.STATUS_ACTIVE : null;
+                });
+        assertEquals(new BigDecimal("0.5"), emTransacao.obterBigDecimal("TaxaPoupanca"));
+        int consultasAntes = consultas.get();
+
+        // Duas escritas: a primeira grava 0.6 e a segunda 0.7, e os commits são notificados na ordem inversa
+        taxa.setValorParametro("0.6");
+        emTransacao.recarregarAposCommit();
+        taxa.setValorParametro("0.7");
+        emTransacao.recarregarAposCommit();
+        assertEquals(consultasAntes, consultas.get());
+
+        sincronizacoes.get(1).afterCompletion(Status.STATUS_COMMITTED);
+        sincronizacoes.get(0).afterCompletion(Status.STATUS_COMMITTED);
+
+        assertEquals(new BigDecimal("0.7"), emTransacao.obterBigDecimal("TaxaPoupanca"));
+        assertEquals(2, novasTransacoes.get());
+        assertEquals(2, emTransacao.getVersao());
+    }
+
+    @Test
+    public void testEscritaDesfeitaNaoRelaATabela() throws ParametroConfiguracaoNaoEncontradoException {
+        adicionar("TaxaPoupanca", "0.5");
+        assertEquals(new BigDecimal("0.5"), cache.obterBigDecimal("TaxaPoupanca"));
+        List<Synchronization> sincronizacoes = new ArrayList<>();
+        cache.registroSincronizacao = (TransactionSynchronizationRegistry) Proxy.newProxyInstance(
+                TransactionSynchronizationRegistry.class.getClassLoader(),
+                new Class<?>[]{TransactionSynchronizationRegistry.class},
+                (proxy, metodo, argumentos) -> {
+                    if (metodo.getName().equals("registerInterposedSynchronization")) {
+                        sincronizacoes.add((Synchronization) argumentos[0]);
+                    }
+                    return metodo.getName().equals("getTransactionStatus") ? Status.STATUS_ACTIVE : null;
+                });
+
+        cache.recarregarAposCommit();
+        sincronizacoes.get(0).afterCompletion(Status.STATUS_ROLLEDBACK);
+
+        assertEquals(1, consultas.get());
+        assertEquals(1, cache.getVersao());
+    }
+
+    @Test
+    public void testNomeRepetidoMantemOParametroDeMenorID() throws ParametroConfiguracaoNaoEncontradoException {
+        adicionar("TaxaPoupanca", "0.5");
+        adicionar("TaxaPoupanca", "0.9");
+
+        assertEquals(new BigDecimal("0.5"), cache.obterBigDecimal("TaxaPoupanca"));
+    }
+
+    private ParametrosConfiguracao adicionar(String nome, String valor) {
+        ParametrosConfiguracao parametro = new ParametrosConfiguracao();
+        parametro.setParametroID((long) tabela.size() + 1);
+        parametro.setNomeParametro(nome);
+        parametro.setValorParametro(valor);
+        tabela.add(parametro);
+        return parametro;
+    }
+}
@@ -16,7 +16,12 @@ import javax.validation.constraints.*;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import acc.br.util.TipoTransacao;
+
+import javax.persistence.PersistenceException;
+import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 
 class ClientesServiceTest {
 
@@ -168,4 +173,105 @@ class ClientesServiceTest {
         // Verifica se um CPF válido é válido
         assertTrue(clientesService.isCPFValid("04575123692"));
     }
+
+    @Test
+    public void testViolacaoDasRestricoesUnicasViraClienteExistente() {
+        ClienteExistenteException email = ClientesService.traduzirViolacaoUnicidade(violacao(
+                "PUBLIC.UK_CLIENTES_EMAIL_INDEX_A ON PUBLIC.CLIENTES(EMAIL)", new SQLException("duplicada", "23505")));
+        ClienteExistenteException cpf = ClientesService.traduzirViolacaoUnicidade(violacao(
+                "Clientes.UK_Clientes_CPF", new SQLException("Duplicate entry", "23000", 1062)));
+        ClienteExistenteException semNome = ClientesService.traduzirViolacaoUnicidade(violacao(
+                "UK_k3h8w2", new SQLException("Duplicate entry", "23000", 1062)));
+
+        assertEquals(ClientesService.MENSAGEM_EMAIL_EXISTENTE, email.getMessage());
+        assertEquals(ClientesService.MENSAGEM_CPF_EXISTENTE, cpf.getMessage());
+        assertNotNull(semNome);
+        assertNull(ClientesService.traduzirViolacaoUnicidade(violacao(null, new SQLException("nulo", "23502"))));
+    }
+
+    @Test
+    public void testFiltroNegativoDispensaAConsultaDeDuplicidade() {
+        List<String> consultas = new ArrayList<>();
+        ClientesService servico = new ClientesService();
+        servico.clientesRepository = new ClientesRepository() {
+            @Override
+            public Optional<Object[]> buscarConflito(String email, String cpf, Long clienteID) {
+                consultas.add(email);
+                return "fulano@example.com".equalsIgnoreCase(email) ? Optional.of(new Object[]{email, "04575123692"}) : Optional.empty();
+            }
+        };
+        servico.filtroClientesExistentes = new FiltroClientesExistentes() {
+            @Override
+            public boolean isHabilitado() {
+                return true;
+            }
+
+            @Override
+            public boolean talvezExista(String email, String cpf) {
+                return !"novo@example.com".equals(email);
+            }
+        };
+
+        Clientes novo = new Clientes();
+        novo.setCpf("04575123692");
+        novo.setEmail("novo@example.com");
+        servico.validarCliente(novo);
+        assertTrue(consultas.isEmpty());
+
+        Clientes duplicado = new Clientes();
+        duplicado.setCpf("04575123692");
+        duplicado.setEmail("Fulano@example.com");
+        assertThrows(ClienteExistenteException.class, () -> servico.validarCliente(duplicado));
+        assertEquals(1, consultas.size());
+    }
+
+    @Test
+    public void testAutenticacaoRecodificaSenhaSemCodificacao() {
+        List<String> senhasGravadas = new ArrayList<>();
+        Clientes cliente = new Clientes();
+        cliente.setClienteID(7L);
+        cliente.setEmail("fulano@example.com");
+        cliente.setSenha("segredo1");
+
+        ClientesService servico = new ClientesService();
+        servico.clientesRepository = new ClientesRepository() {
+            @Override
+            public Optional<Clientes> buscarPorEmail(String email) {
+                return cliente.getEmail().equals(email) ? Optional.of(cliente) : Optional.empty();
+            }
+
+            @Override
+            public int atualizarSenha(Long clienteID, String anterior, String nova) {
+                assertEquals(7L, clienteID);
+                assertEquals("segredo1", anterior);
+                senhasGravadas.add(nova);
+                return 1;
+            }
+        };
+        servico.executorHashSenhas = new ExecutorHashSenhas();
+        servico.executorHashSenhas.iteracoes = 1000;
+        servico.executorHashSenhas.tamanhoSalt = 16;
+        servico.executorHashSenhas.threads = 1;
+        servico.executorHashSenhas.tamanhoFila = 10;
+        servico.executorHashSenhas.inicializar();
+        try {
+            assertFalse(servico.autenticar("fulano@example.com", "errada").toCompletableFuture().join().isPresent());
+            assertFalse(servico.autenticar("outro@example.com", "segredo1").toCompletableFuture().join().isPresent());
+            assertTrue(senhasGravadas.isEmpty());
+
+            assertTrue(servico.autenticar("fulano@example.com", "segredo1").toCompletableFuture().join().isPresent());
+            assertEquals(1, senhasGravadas.size());
+            assertTrue(acc.br.util.CodificadorSenha.verificar("segredo1", senhasGravadas.get(0)));
+
+            // Com a senha já recodificada, o login seguinte não grava novamente
+            assertTrue(servico.autenticar("fulano@example.com", "segredo1").toCompletableFuture().join().isPresent());
+            assertEquals(1, senhasGravadas.size());
+        } finally {
+            servico.executorHashSenhas.encerrar();
+        }
+    }
+
+    private static PersistenceException violacao(String restricao, SQLException erro) {
+        return new PersistenceException(new org.hibernate.exception.ConstraintViolationException("falha", erro, restricao));
+    }
 }
@@ -0,0 +1,151 @@
+package acc.br.service;
+
+import acc.br.model.Notificacoes;
+import acc.br.model.NotificacoesPendentes;
+import acc.br.model.Transacoes;
+import acc.br.repository.NotificacoesPendentesRepository;
+import acc.br.repository.NotificacoesRepository;
+import acc.br.util.TipoConta;
+import acc.br.util.TipoTransacao;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DespachanteNotificacoesTest {
+
+    private final List<NotificacoesPendentes> pendentes = new ArrayList<>();
+    private final List<Notificacoes> gravadas = new ArrayList<>();
+    private final List<Notificacoes> entregues = new ArrayList<>();
+    private final List<TipoConta> consultasClientes = new ArrayList<>();
+    private DespachanteNotificacoes despachante;
+
+    @BeforeEach
+    public void setUp() {
+        despachante = new DespachanteNotificacoes();
+        despachante.tamanhoLote = 2;
+        despachante.notificacoesPendentesRepository = new NotificacoesPendentesRepository() {
+            @Override
+            public List<NotificacoesPendentes> buscarLote(int tamanhoLote) {
+                return new ArrayList<>(pendentes.subList(0, Math.min(tamanhoLote, pendentes.size())));
+            }
+
+            @Override
+            public long remover(Collection<Long> ids) {
+                pendentes.removeIf(pendente -> ids.contains(pendente.getNotificacaoPendenteID()));
+                return ids.size();
+            }
+
+            @Override
+            public Map<Long, Long> buscarClientes(TipoConta tipoConta, Collection<Long> contaIDs) {
+                consultasClientes.add(tipoConta);
+                return contaIDs.stream().filter(id -> id != 99L).collect(Collectors.toMap(id -> id, id -> id * 10));
+            }
+        };
+        despachante.notificacoesRepository = new NotificacoesRepository() {
+            @Override
+            public void persist(Iterable<Notificacoes> notificacoes) {
+                notificacoes.forEach(gravadas::add);
+            }
+        };
+        despachante.canalNotificacao = entregues::add;
+    }
+
+    @Test
+    public void testDespachaTodosOsLotesERemoveAsPendentes() {
+        pendentes.add(pendente(1L, 10L, 1L, TipoTransacao.SAQUE));
+        pendentes.add(pendente(2L, 20L, 2L, TipoTransacao.TRANSFERENCIA));
+        pendentes.add(pendente(3L, 30L, 3L, TipoTransacao.SAQUE));
+
+        despachante.despachar();
+
+        assertTrue(pendentes.isEmpty());
+        assertEquals(List.of(10L, 20L, 30L), gravadas.stream().map(Notificacoes::getClienteID).collect(Collectors.toList()));
+        assertEquals(gravadas, entregues);
+        assertTrue(gravadas.stream().allMatch(notificacao -> notificacao.getEnviada() == 1));
+        assertTrue(consultasClientes.isEmpty());
+    }
+
+    @Test
+    public void testClienteDoDepositoObtidoNoDespachoComUmaConsultaPorTipoDeConta() {
+        pendentes.add(pendente(1L, null, 4L, TipoTransacao.DEPOSITO));
+        pendentes.add(pendente(2L, null, 99L, TipoTransacao.DEPOSITO));
+
+        assertEquals(2, despachante.despacharLote());
+
+        assertEquals(List.of(TipoConta.CONTA_CORRENTE), consultasClientes);
+        assertEquals(1, gravadas.size());
+        assertEquals(40L, gravadas.get(0).getClienteID());
+        assertEquals("O Cliente: 40 realizou um Tipo de Transação: DEPOSITO na data e hora: 2024-01-02 no valor de: R$ 25.00",
+                gravadas.get(0).getMensagemNotificacao());
+        assertTrue(pendentes.isEmpty());
+    }
+
+    @Test
+    public void testFalhaNaEntregaGravaNotificacaoComoNaoEnviada() {
+        despachante.canalNotificacao = notificacao -> {
+            throw new IllegalStateException("canal indisponível");
+        };
+        pendentes.add(pendente(1L, 10L, 1L, TipoTransacao.SAQUE));
+
+        despachante.despachar();
+
+        assertEquals(1, gravadas.size());
+        assertEquals(0, gravadas.get(0).getEnviada());
+        assertTrue(pendentes.isEmpty());
+    }
+
+    @Test
+    public void testRegistrarBlocoInsereAsPendentesDeUmaVez() {
+        List<List<NotificacoesPendentes>> insercoes = new ArrayList<>();
+        despachante.notificacoesPendentesRepository = new NotificacoesPendentesRepository() {
+            @Override
+            public void inserir(List<NotificacoesPendentes> pendentes) {
+                insercoes.add(pendentes);
+            }
+        };
+
+        despachante.registrar(List.of(10L, 20L), List.of(
+                transacao(1L, TipoTransacao.SAQUE), transacao(2L, TipoTransacao.RENDIMENTO)));
+
+        assertEquals(1, insercoes.size());
+        List<NotificacoesPendentes> inseridas = insercoes.get(0);
+        assertEquals(List.of(10L, 20L), inseridas.stream().map(NotificacoesPendentes::getClienteID).collect(Collectors.toList()));
+        assertEquals(List.of(TipoTransacao.SAQUE, TipoTransacao.RENDIMENTO),
+                inseridas.stream().map(NotificacoesPendentes::getTipoTransacao).collect(Collectors.toList()));
+        assertEquals(2L, inseridas.get(1).getContaID());
+        assertEquals(inseridas.get(0).getDataCriacao(), inseridas.get(1).getDataCriacao());
+    }
+
+    private static Transacoes transacao(Long contaID, TipoTransacao tipoTransacao) {
+        Transacoes transacao = new Transacoes();
+        transacao.setContaID(contaID);
+        transacao.setTipoConta(TipoConta.CONTA_POUPANCA);
+        transacao.setTipoTransacao(tipoTransacao);
+        transacao.setValor(new BigDecimal("25.00"));
+        transacao.setDataHoraTransacao(LocalDate.of(2024, 1, 2));
+        return transacao;
+    }
+
+    private static NotificacoesPendentes pendente(Long id, Long clienteID, Long contaID, TipoTransacao tipoTransacao) {
+        NotificacoesPendentes pendente = new NotificacoesPendentes();
+        pendente.setNotificacaoPendenteID(id);
+        pendente.setClienteID(clienteID);
+        pendente.setTipoConta(TipoConta.CONTA_CORRENTE);
+        pendente.setContaID(contaID);
+        pendente.setTipoTransacao(tipoTransacao);
+        pendente.setValor(new BigDecimal("25.00"));
+        pendente.setDataHoraTransacao(LocalDate.of(2024, 1, 2));
+        pendente.setDataCriacao(LocalDateTime.now());
+        return pendente;
+    }
+}
@@ -0,0 +1,68 @@
+package acc.br.service;
+
+import acc.br.exception.ConcorrenciaSaldoException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.persistence.OptimisticLockException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExecutorConcorrenciaSaldoTest {
+
+    private ExecutorConcorrenciaSaldo executor;
+
+    @BeforeEach
+    public void setUp() {
+        executor = new ExecutorConcorrenciaSaldo();
+        executor.maxTentativas = 3;
+        executor.esperaBaseMs = 0;
+    }
+
+    @Test
+    public void testRepeteOperacaoAposConflitoDeVersao() {
+        AtomicInteger tentativas = new AtomicInteger();
+
+        String resultado = executor.executar(() -> {
+            if (tentativas.incrementAndGet() < 3) {
+                throw new OptimisticLockException("conflito");
+            }
+            return "ok";
+        });
+
+        assertEquals("ok", resultado);
+        assertEquals(3, tentativas.get());
+    }
+
+    @Test
+    public void testLancaConcorrenciaSaldoExceptionAposMaximoDeTentativas() {
+        AtomicInteger tentativas = new AtomicInteger();
+
+        assertThrows(ConcorrenciaSaldoException.class, () -> executor.executar(() -> {
+            tentativas.incrementAndGet();
+            throw new IllegalStateException(new OptimisticLockException("conflito"));
+        }));
+        assertEquals(3, tentativas.get());
+    }
+
+    @Test
+    public void testNaoRepeteOutrasFalhas() {
+        AtomicInteger tentativas = new AtomicInteger();
+
+        assertThrows(IllegalArgumentException.class, () -> executor.executar(() -> {
+            tentativas.incrementAndGet();
+            throw new IllegalArgumentException("valor inválido");
+        }));
+        assertEquals(1, tentativas.get());
+    }
+
+    @Test
+    public void testDetectaConflitoSuprimidoNoCommit() {
+        Exception rollback = new Exception("rollback");
+        rollback.addSuppressed(new OptimisticLockException("conflito"));
+
+        assertTrue(ExecutorConcorrenciaSaldo.isConflitoDeVersao(new RuntimeException(rollback)));
+        assertFalse(ExecutorConcorrenciaSaldo.isConflitoDeVersao(new RuntimeException("outro erro")));
+    }
+}
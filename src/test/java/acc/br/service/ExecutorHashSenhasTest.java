@@ -0,0 +1,92 @@
+package acc.br.service;
+
+import acc.br.util.CodificadorSenha;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExecutorHashSenhasTest {
+
+    private ExecutorHashSenhas executor;
+
+    @AfterEach
+    public void encerrar() {
+        if (executor != null) {
+            executor.encerrar();
+        }
+    }
+
+    @Test
+    public void testCodificarNoPoolSempreCodificaASenhaRecebida() {
+        executor = criarExecutor(1000, 2, 10);
+
+        String codificada = executor.codificar("segredo1").toCompletableFuture().join();
+
+        assertTrue(CodificadorSenha.isCodificada(codificada));
+        assertTrue(executor.verificar("segredo1", codificada).toCompletableFuture().join());
+        assertFalse(executor.verificar("segredo2", codificada).toCompletableFuture().join());
+        // Um valor com o formato de senha codificada, informado pelo cliente, também é codificado
+        String recodificada = executor.codificar(codificada).toCompletableFuture().join();
+        assertNotEquals(codificada, recodificada);
+        assertTrue(CodificadorSenha.verificar(codificada, recodificada));
+        assertTrue(CodificadorSenha.verificar(codificada, executor.codificarAguardando(codificada)));
+        assertNull(executor.codificar(null).toCompletableFuture().join());
+    }
+
+    @Test
+    public void testRecodificacaoQuandoOsParametrosMudam() {
+        executor = criarExecutor(1000, 1, 10);
+        String codificada = executor.codificarAguardando("segredo1");
+
+        assertFalse(executor.precisaRecodificar(codificada));
+        assertTrue(executor.precisaRecodificar("segredo1"));
+        assertTrue(executor.verificar("segredo1", "segredo1").toCompletableFuture().join());
+
+        executor.iteracoes = 2000;
+        assertTrue(executor.precisaRecodificar(codificada));
+        assertTrue(executor.verificar("segredo1", codificada).toCompletableFuture().join());
+    }
+
+    @Test
+    public void testCodificarTodasMantemAOrdem() {
+        executor = criarExecutor(1000, 3, 10);
+        String jaCodificada = executor.codificarAguardando("terceira");
+
+        List<String> codificadas = executor.codificarTodas(Arrays.asList("primeira", null, jaCodificada, "quarta", "quinta"));
+
+        assertTrue(CodificadorSenha.verificar("primeira", codificadas.get(0)));
+        assertNull(codificadas.get(1));
+        assertTrue(CodificadorSenha.verificar(jaCodificada, codificadas.get(2)));
+        assertTrue(CodificadorSenha.verificar("quarta", codificadas.get(3)));
+        assertTrue(CodificadorSenha.verificar("quinta", codificadas.get(4)));
+    }
+
+    @Test
+    public void testFilaCheiaRecusaAOperacaoAssincrona() {
+        executor = criarExecutor(3_000_000, 1, 1);
+
+        executor.codificar("primeira");
+        executor.codificar("segunda");
+        CompletionStage<String> recusada = executor.codificar("terceira");
+
+        CompletionException erro = assertThrows(CompletionException.class, () -> recusada.toCompletableFuture().join());
+        assertTrue(erro.getCause() instanceof RejectedExecutionException);
+    }
+
+    private ExecutorHashSenhas criarExecutor(int iteracoes, int threads, int fila) {
+        ExecutorHashSenhas executorHashSenhas = new ExecutorHashSenhas();
+        executorHashSenhas.iteracoes = iteracoes;
+        executorHashSenhas.tamanhoSalt = 16;
+        executorHashSenhas.threads = threads;
+        executorHashSenhas.tamanhoFila = fila;
+        executorHashSenhas.inicializar();
+        return executorHashSenhas;
+    }
+}
@@ -0,0 +1,211 @@
+package acc.br.service;
+
+import acc.br.model.AuditoriaBancoDados;
+import acc.br.util.ModoDurabilidadeAuditoria;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.transaction.Status;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Field;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GravadorAuditoriaTest {
+
+    private final List<AuditoriaBancoDados> gravados = new CopyOnWriteArrayList<>();
+    private final AtomicInteger falhasRestantes = new AtomicInteger();
+    private GravadorAuditoria gravador;
+    private Path arquivoWal;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        arquivoWal = Files.createTempFile("auditoria", ".wal");
+        gravador = new GravadorAuditoria() {
+            @Override
+            void gravar(List<AuditoriaBancoDados> registros) throws SQLException {
+                if (falhasRestantes.getAndUpdate(falhas -> Math.max(falhas - 1, 0)) > 0) {
+                    throw new SQLException("Banco de dados indisponível");
+                }
+                gravados.addAll(registros);
+            }
+        };
+        gravador.modo = ModoDurabilidadeAuditoria.ASSINCRONO_WAL;
+        gravador.capacidadeFila = 100;
+        gravador.tamanhoLote = 10;
+        gravador.intervaloFlushMs = 10;
+        gravador.arquivoWal = arquivoWal.toString();
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        gravador.encerrar(null);
+        Files.deleteIfExists(arquivoWal);
+    }
+
+    @Test
+    public void testGravaRegistrosEnfileiradosEEsvaziaArquivoWal() throws Exception {
+        gravador.iniciar(null);
+
+        gravador.enfileirar(Arrays.asList(criarAuditoria("INSERT"), criarAuditoria("UPDATE")));
+        gravador.encerrar(null);
+
+        assertEquals(2, gravados.size());
+        assertEquals(0, gravador.getRegistrosPendentes());
+        assertEquals(0, gravador.getProfundidadeFila());
+        assertEquals(0, Files.size(arquivoWal));
+    }
+
+    @Test
+    public void testReprocessaArquivoWalNaInicializacao() throws Exception {
+        String linhas = GravadorAuditoria.paraLinhaWal(GravadorAuditoria.SEM_TRANSACAO, criarAuditoria("INSERT")) + "\n"
+                + GravadorAuditoria.paraLinhaWal("t1", criarAuditoria("DELETE")) + "\n"
+                + "t2\t2023-10-01T10:00"; // linha interrompida por uma queda
+        Files.write(arquivoWal, linhas.getBytes(StandardCharsets.UTF_8));
+
+        gravador.iniciar(null);
+
+        assertEquals(2, gravados.size());
+        assertEquals("DELETE", gravados.get(1).getAcao());
+        assertEquals(0, Files.size(arquivoWal));
+    }
+
+    @Test
+    public void testLoteQueFalhaEGravadoNovamenteEArquivoWalEEsvaziadoDepois() throws Exception {
+        gravador.iniciar(null);
+        falhasRestantes.set(2);
+
+        gravador.enfileirar(Arrays.asList(criarAuditoria("INSERT"), criarAuditoria("UPDATE")));
+        aguardarGravacao(2);
+
+        assertEquals(0, falhasRestantes.get());
+        assertEquals(0, gravador.getRegistrosPendentes());
+        assertEquals(1, gravador.getLotesGravados());
+        assertEquals(0, Files.size(arquivoWal));
+
+        // Após a recuperação, as gravações seguintes continuam esvaziando o arquivo
+        gravador.enfileirar(Collections.singletonList(criarAuditoria("DELETE")));
+        aguardarGravacao(3);
+        assertEquals(0, Files.size(arquivoWal));
+    }
+
+    @Test
+    public void testFalhaNoReprocessamentoEGravadaEmSegundoPlano() throws Exception {
+        String linhas = GravadorAuditoria.paraLinhaWal(GravadorAuditoria.SEM_TRANSACAO, criarAuditoria("INSERT")) + "\n";
+        Files.write(arquivoWal, linhas.getBytes(StandardCharsets.UTF_8));
+        falhasRestantes.set(1);
+
+        gravador.iniciar(null);
+        aguardarGravacao(1);
+
+        assertEquals("INSERT", gravados.get(0).getAcao());
+        assertEquals(0, gravador.getRegistrosPendentes());
+        assertEquals(0, Files.size(arquivoWal));
+    }
+
+    @Test
+    public void testFalhaAoAnexarAoArquivoWalDesfazATransacao() throws Exception {
+        gravador.iniciar(null);
+        Field campoCanal = GravadorAuditoria.class.getDeclaredField("canalWal");
+        campoCanal.setAccessible(true);
+        ((FileChannel) campoCanal.get(gravador)).close();
+        GravadorAuditoria.RegistrosTransacao transacao = gravador.new RegistrosTransacao();
+        transacao.registros.add(criarAuditoria("INSERT"));
+
+        assertThrows(UncheckedIOException.class, transacao::beforeCompletion);
+        transacao.afterCompletion(Status.STATUS_ROLLEDBACK);
+
+        assertEquals(0, gravador.getRegistrosPendentes());
+        assertTrue(gravados.isEmpty());
+    }
+
+    @Test
+    public void testConverteLinhaWal() {
+        AuditoriaBancoDados auditoria = criarAuditoria("UPDATE");
+
+        AuditoriaBancoDados convertida = GravadorAuditoria.deLinhaWal(GravadorAuditoria.paraLinhaWal("t1", auditoria), Collections.emptySet());
+
+        assertEquals(auditoria.getNomeEntidade(), convertida.getNomeEntidade());
+        assertEquals(auditoria.getAcao(), convertida.getAcao());
+        assertEquals(auditoria.getDataHora(), convertida.getDataHora());
+        assertNull(GravadorAuditoria.deLinhaWal("incompleta", Collections.emptySet()));
+        assertNull(GravadorAuditoria.deLinhaWal(GravadorAuditoria.paraLinhaWal("t1", auditoria), Collections.singleton("t1")));
+    }
+
+    @Test
+    public void testRegistrosDeTransacaoAnexadosAntesDoCommit() throws Exception {
+        gravador.iniciar(null);
+        GravadorAuditoria.RegistrosTransacao transacao = gravador.new RegistrosTransacao();
+        transacao.registros.add(criarAuditoria("INSERT"));
+
+        transacao.beforeCompletion();
+
+        assertTrue(new String(Files.readAllBytes(arquivoWal), StandardCharsets.UTF_8).contains("\tINSERT\t"));
+        assertEquals(1, gravador.getRegistrosPendentes());
+
+        transacao.registros.add(criarAuditoria("UPDATE")); // incluído por outra sincronização após a preparação
+        transacao.afterCompletion(Status.STATUS_COMMITTED);
+        gravador.encerrar(null);
+
+        assertEquals(2, gravados.size());
+        assertEquals(0, gravador.getRegistrosPendentes());
+        assertEquals(0, Files.size(arquivoWal));
+    }
+
+    @Test
+    public void testTransacaoDesfeitaAposPreparacaoNaoEReprocessada() throws Exception {
+        gravador.iniciar(null);
+        GravadorAuditoria.RegistrosTransacao desfeita = gravador.new RegistrosTransacao();
+        desfeita.registros.add(criarAuditoria("DELETE"));
+        GravadorAuditoria.RegistrosTransacao emAndamento = gravador.new RegistrosTransacao();
+        emAndamento.registros.add(criarAuditoria("INSERT"));
+
+        desfeita.beforeCompletion();
+        emAndamento.beforeCompletion();
+        desfeita.afterCompletion(Status.STATUS_ROLLEDBACK);
+        gravador.encerrar(null); // queda antes da conclusão da outra transação
+
+        assertEquals(1, gravador.getRegistrosPendentes());
+        assertTrue(Files.size(arquivoWal) > 0);
+        gravados.clear();
+
+        gravador.iniciar(null);
+
+        assertEquals(1, gravados.size());
+        assertEquals("INSERT", gravados.get(0).getAcao());
+        assertEquals(0, Files.size(arquivoWal));
+    }
+
+    /**
+     * Aguarda a gravação dos registros e o esvaziamento do arquivo de log antecipado pela thread de gravação.
+     */
+    private void aguardarGravacao(int quantidade) throws Exception {
+        long prazo = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while ((gravados.size() < quantidade || gravador.getRegistrosPendentes() > 0 || Files.size(arquivoWal) > 0)
+                && System.nanoTime() < prazo) {
+            Thread.sleep(5);
+        }
+        assertEquals(quantidade, gravados.size());
+    }
+
+    private AuditoriaBancoDados criarAuditoria(String acao) {
+        AuditoriaBancoDados auditoria = new AuditoriaBancoDados();
+        auditoria.setNomeEntidade("acc.br.model.Transacoes");
+        auditoria.setAcao(acao);
+        auditoria.setDataHora(LocalDateTime.of(2023, 10, 1, 10, 0, 30));
+        return auditoria;
+    }
+}
@@ -0,0 +1,187 @@
+package acc.br.service;
+
+import acc.br.exception.ChaveIdempotenciaInvalidaException;
+import acc.br.exception.ChaveIdempotenciaReutilizadaException;
+import acc.br.model.ChavesIdempotencia;
+import acc.br.repository.ChavesIdempotenciaRepository;
+import acc.br.util.TipoConta;
+import acc.br.util.TipoTransacao;
+import org.hibernate.exception.ConstraintViolationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceException;
+import javax.transaction.Status;
+import javax.transaction.TransactionSynchronizationRegistry;
+import javax.ws.rs.core.Response;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdempotenciaServiceTest {
+
+    private static final String MENSAGEM_SAQUE = "Saque realizado com sucesso.";
+
+    private final Map<String, ChavesIdempotencia> chavesGravadas = new HashMap<>();
+    private final AtomicInteger execucoes = new AtomicInteger();
+    private IdempotenciaService idempotenciaService;
+    private PersistenceException falhaNaReserva;
+    private Runnable aoFalharReserva;
+
+    @BeforeEach
+    public void setUp() {
+        idempotenciaService = new IdempotenciaService();
+        idempotenciaService.validadeHoras = 24;
+        idempotenciaService.tamanhoMaximoCache = 100;
+        idempotenciaService.chavesIdempotenciaRepository = new ChavesIdempotenciaRepository() {
+            @Override
+            public Optional<ChavesIdempotencia> findByIdOptional(String chave) {
+                return Optional.ofNullable(chavesGravadas.get(chave));
+            }
+        };
+        idempotenciaService.inicializar();
+    }
+
+    @Test
+    public void testAssinaturaNormalizaValoresDecimais() {
+        assertEquals(IdempotenciaService.assinar(1L, new BigDecimal("10"), TipoConta.CONTA_CORRENTE),
+                IdempotenciaService.assinar(1L, new BigDecimal("10.00"), TipoConta.CONTA_CORRENTE));
+        assertNotEquals(IdempotenciaService.assinar(1L, new BigDecimal("10"), TipoConta.CONTA_CORRENTE),
+                IdempotenciaService.assinar(1L, new BigDecimal("100"), TipoConta.CONTA_CORRENTE));
+    }
+
+    @Test
+    public void testRepeticaoDevolveRespostaArmazenadaSemExecutarAOperacao() {
+        String assinatura = IdempotenciaService.assinar(1L, new BigDecimal("50.00"), TipoConta.CONTA_CORRENTE);
+        gravarChave("chave-1", TipoTransacao.SAQUE, assinatura, LocalDateTime.now().minusMinutes(5));
+
+        Optional<Response> resposta = idempotenciaService.executar("chave-1", TipoTransacao.SAQUE, assinatura, MENSAGEM_SAQUE,
+                execucoes::incrementAndGet);
+
+        assertTrue(resposta.isPresent());
+        assertEquals(200, resposta.get().getStatus());
+        assertEquals(MENSAGEM_SAQUE, resposta.get().getEntity());
+        assertEquals("true", resposta.get().getHeaderString(IdempotenciaService.CABECALHO_REPETIDA));
+        assertEquals(0, execucoes.get());
+    }
+
+    @Test
+    public void testRepeticaoAtendidaPeloCacheSemConsultarATabela() {
+        String assinatura = IdempotenciaService.assinar(1L, new BigDecimal("50.00"), TipoConta.CONTA_CORRENTE);
+        gravarChave("chave-1", TipoTransacao.SAQUE, assinatura, LocalDateTime.now());
+        idempotenciaService.executar("chave-1", TipoTransacao.SAQUE, assinatura, MENSAGEM_SAQUE, execucoes::incrementAndGet);
+
+        chavesGravadas.clear();
+        Optional<Response> resposta = idempotenciaService.executar("chave-1", TipoTransacao.SAQUE, assinatura, MENSAGEM_SAQUE,
+                execucoes::incrementAndGet);
+
+        assertTrue(resposta.isPresent());
+        assertEquals(0, execucoes.get());
+    }
+
+    @Test
+    public void testChaveUtilizadaEmOutraRequisicaoERecusada() {
+        gravarChave("chave-1", TipoTransacao.SAQUE,
+                IdempotenciaService.assinar(1L, new BigDecimal("50.00"), TipoConta.CONTA_CORRENTE), LocalDateTime.now());
+
+        String outraAssinatura = IdempotenciaService.assinar(1L, new BigDecimal("500.00"), TipoConta.CONTA_CORRENTE);
+        ChaveIdempotenciaReutilizadaException erro = assertThrows(ChaveIdempotenciaReutilizadaException.class,
+                () -> idempotenciaService.executar("chave-1", TipoTransacao.SAQUE, outraAssinatura, MENSAGEM_SAQUE,
+                        execucoes::incrementAndGet));
+
+        assertEquals(422, erro.getResponse().getStatus());
+        assertEquals(0, execucoes.get());
+    }
+
+    @Test
+    public void testChaveEmBrancoOuLongaDemaisERecusada() {
+        String assinatura = IdempotenciaService.assinar(1L);
+        String longa = "x".repeat(IdempotenciaService.TAMANHO_MAXIMO_CHAVE + 1);
+
+        assertThrows(ChaveIdempotenciaInvalidaException.class,
+                () -> idempotenciaService.executar(" ", TipoTransacao.SAQUE, assinatura, MENSAGEM_SAQUE, execucoes::incrementAndGet));
+        assertThrows(ChaveIdempotenciaInvalidaException.class,
+                () -> idempotenciaService.executar(longa, TipoTransacao.SAQUE, assinatura, MENSAGEM_SAQUE, execucoes::incrementAndGet));
+        assertEquals(0, execucoes.get());
+    }
+
+    @Test
+    public void testSomenteAViolacaoDaChaveEAtribuidaARequisicaoSimultanea() {
+        String assinatura = IdempotenciaService.assinar(1L, new BigDecimal("50.00"), TipoConta.CONTA_CORRENTE);
+        prepararGravacao();
+
+        // A requisição simultânea gravou a chave primeiro: a gravação da reserva viola a chave primária
+        falhaNaReserva = violacaoUnicidade("PRIMARY");
+        aoFalharReserva = () -> gravarChave("chave-1", TipoTransacao.SAQUE, assinatura, LocalDateTime.now());
+        Optional<Response> repetida = idempotenciaService.executar("chave-1", TipoTransacao.SAQUE, assinatura, MENSAGEM_SAQUE,
+                execucoes::incrementAndGet);
+        assertTrue(repetida.isPresent());
+        assertEquals(0, execucoes.get());
+
+        // A violação causada pela própria operação não é confundida com a chave duplicada
+        falhaNaReserva = null;
+        PersistenceException daOperacao = violacaoUnicidade("UK_SaldosConsolidados_Conta");
+        PersistenceException lancada = assertThrows(PersistenceException.class,
+                () -> idempotenciaService.executar("chave-2", TipoTransacao.SAQUE, assinatura, MENSAGEM_SAQUE, () -> {
+                    throw daOperacao;
+                }));
+        assertSame(daOperacao, lancada);
+
+        assertFalse(IdempotenciaService.isViolacaoUnicidade(new PersistenceException(
+                new ConstraintViolationException("falha", new SQLException("fk", "23503"), "FK_Transacoes_Conta"))));
+    }
+
+    private void prepararGravacao() {
+        idempotenciaService.chavesIdempotenciaRepository = new ChavesIdempotenciaRepository() {
+            @Override
+            public Optional<ChavesIdempotencia> findByIdOptional(String chave) {
+                return Optional.ofNullable(chavesGravadas.get(chave));
+            }
+
+            @Override
+            public boolean removerSeExpirada(String chave, LocalDateTime limite) {
+                return false;
+            }
+
+            @Override
+            public void persist(ChavesIdempotencia chaveIdempotencia) {
+            }
+        };
+        idempotenciaService.entityManager = (EntityManager) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{EntityManager.class}, (proxy, metodo, argumentos) -> {
+                    if ("flush".equals(metodo.getName()) && falhaNaReserva != null) {
+                        aoFalharReserva.run();
+                        throw falhaNaReserva;
+                    }
+                    return null;
+                });
+        idempotenciaService.registroSincronizacao = (TransactionSynchronizationRegistry) Proxy.newProxyInstance(
+                getClass().getClassLoader(), new Class<?>[]{TransactionSynchronizationRegistry.class},
+                (proxy, metodo, argumentos) -> "getTransactionStatus".equals(metodo.getName()) ? Status.STATUS_NO_TRANSACTION : null);
+        idempotenciaService.executorConcorrenciaSaldo = new ExecutorConcorrenciaSaldo();
+        idempotenciaService.executorConcorrenciaSaldo.maxTentativas = 1;
+    }
+
+    private static PersistenceException violacaoUnicidade(String restricao) {
+        return new PersistenceException(new ConstraintViolationException("falha", new SQLException("duplicada", "23505"), restricao));
+    }
+
+    private void gravarChave(String chave, TipoTransacao tipoTransacao, String assinatura, LocalDateTime dataCriacao) {
+        ChavesIdempotencia chaveIdempotencia = new ChavesIdempotencia();
+        chaveIdempotencia.setChave(chave);
+        chaveIdempotencia.setTipoTransacao(tipoTransacao);
+        chaveIdempotencia.setHashRequisicao(assinatura);
+        chaveIdempotencia.setStatusHttp(200);
+        chaveIdempotencia.setResposta(MENSAGEM_SAQUE);
+        chaveIdempotencia.setDataCriacao(dataCriacao);
+        chavesGravadas.put(chave, chaveIdempotencia);
+    }
+}
@@ -0,0 +1,117 @@
+package acc.br.service;
+
+import acc.br.model.Clientes;
+import acc.br.util.CodificadorSenha;
+import acc.br.util.LinhaImportacaoCliente;
+import acc.br.util.ResultadoImportacaoClientes;
+import acc.br.util.ResultadoOperacaoLote;
+import org.junit.jupiter.api.Test;
+
+import javax.validation.Validator;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ImportadorClientesTest {
+
+    private static final Validator VALIDADOR_SEM_VIOLACOES = (Validator) Proxy.newProxyInstance(
+            Validator.class.getClassLoader(), new Class<?>[]{Validator.class}, (proxy, metodo, argumentos) -> Collections.emptySet());
+
+    @Test
+    public void testPrepararNormalizaCpfERejeitaRepeticoesNoBloco() {
+        List<LinhaImportacaoCliente> bloco = List.of(
+                LinhaImportacaoCliente.cliente(0, criarCliente("maria@example.com", "045.751.236-92")),
+                LinhaImportacaoCliente.cliente(1, criarCliente("joao@example.com", "12345678900")),
+                LinhaImportacaoCliente.erro(2, "Data inválida: 10/05/1990"),
+                LinhaImportacaoCliente.cliente(3, criarCliente("ana@example.com", "04575123692")),
+                LinhaImportacaoCliente.cliente(4, criarCliente("MARIA@example.com", "52998224725")),
+                LinhaImportacaoCliente.cliente(5, criarCliente("ana@example.com", "11144477735")));
+        List<ResultadoOperacaoLote> falhas = new ArrayList<>();
+
+        List<LinhaImportacaoCliente> aceitos = ImportadorClientes.preparar(bloco, VALIDADOR_SEM_VIOLACOES, falhas);
+
+        // O registro 5 repete o e-mail do registro 3, que foi rejeitado pelo CPF, e por isso é aceito
+        assertEquals(List.of(0L, 5L), aceitos.stream().map(LinhaImportacaoCliente::getIndice).collect(Collectors.toList()));
+        assertEquals("04575123692", aceitos.get(0).getCliente().getCpf());
+        assertEquals(List.of(1L, 2L, 3L, 4L), falhas.stream().map(ResultadoOperacaoLote::getIndice).collect(Collectors.toList()));
+        assertEquals("CPF inválido: 12345678900", falhas.get(0).getMensagem());
+        assertEquals("Data inválida: 10/05/1990", falhas.get(1).getMensagem());
+        assertEquals("CPF repetido no arquivo.", falhas.get(2).getMensagem());
+        assertEquals("E-mail repetido no arquivo.", falhas.get(3).getMensagem());
+    }
+
+    @Test
+    public void testImportarEmBlocosLimitaOsErrosGuardadosEInformaOErroDeLeitura() {
+        List<List<Long>> blocosGravados = new ArrayList<>();
+        ImportadorClientes importador = new ImportadorClientes() {
+            @Override
+            List<ResultadoOperacaoLote> gravarBloco(List<LinhaImportacaoCliente> aceitos) {
+                List<Long> indices = new ArrayList<>();
+                List<ResultadoOperacaoLote> resultados = new ArrayList<>();
+                for (LinhaImportacaoCliente linha : aceitos) {
+                    indices.add(linha.getIndice());
+                    linha.getCliente().setClienteID(linha.getIndice() + 100);
+                    resultados.add(ResultadoOperacaoLote.sucesso(linha.getIndice()));
+                }
+                blocosGravados.add(indices);
+                return resultados;
+            }
+        };
+        importador.validator = VALIDADOR_SEM_VIOLACOES;
+        importador.executorHashSenhas = new ExecutorHashSenhas();
+        importador.executorHashSenhas.iteracoes = 1000;
+        importador.executorHashSenhas.tamanhoSalt = 16;
+        importador.executorHashSenhas.threads = 2;
+        importador.executorHashSenhas.tamanhoFila = 10;
+        importador.executorHashSenhas.inicializar();
+        importador.filtroClientesExistentes = new FiltroClientesExistentes();
+        importador.tamanhoBloco = 2;
+        importador.errosMaximo = 1;
+
+        List<LinhaImportacaoCliente> linhas = List.of(
+                LinhaImportacaoCliente.cliente(0, criarCliente("maria@example.com", "04575123692")),
+                LinhaImportacaoCliente.erro(1, "JSON inválido"),
+                LinhaImportacaoCliente.cliente(2, criarCliente("ana@example.com", "52998224725")),
+                LinhaImportacaoCliente.cliente(3, criarCliente("joao@example.com", "00000000000")));
+        Iterator<LinhaImportacaoCliente> iterador = linhas.iterator();
+        Iterator<LinhaImportacaoCliente> comErroNoFim = new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                if (!iterador.hasNext()) {
+                    throw new IllegalStateException("conexão encerrada");
+                }
+                return true;
+            }
+
+            @Override
+            public LinhaImportacaoCliente next() {
+                return iterador.next();
+            }
+        };
+
+        ResultadoImportacaoClientes resultado = importador.importar(comErroNoFim);
+
+        assertEquals(List.of(List.of(0L), List.of(2L)), blocosGravados);
+        assertTrue(CodificadorSenha.verificar("123456", linhas.get(0).getCliente().getSenha()));
+        assertEquals(4, resultado.getTotal());
+        assertEquals(2, resultado.getImportados());
+        assertEquals(2, resultado.getFalhas());
+        assertEquals(1, resultado.getErros().size());
+        assertEquals(1, resultado.getErros().get(0).getIndice());
+        assertEquals("Conteúdo inválido após o registro 4: conexão encerrada", resultado.getErroLeitura());
+    }
+
+    private Clientes criarCliente(String email, String cpf) {
+        Clientes cliente = new Clientes();
+        cliente.setNome("Cliente");
+        cliente.setEmail(email);
+        cliente.setSenha("123456");
+        cliente.setCpf(cpf);
+        return cliente;
+    }
+}
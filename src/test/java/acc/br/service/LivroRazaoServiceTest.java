@@ -0,0 +1,228 @@
+package acc.br.service;
+
+import acc.br.exception.ContaNaoEncontradaException;
+import acc.br.model.ContaCorrente;
+import acc.br.model.LancamentosRazao;
+import acc.br.model.SaldosConsolidados;
+import acc.br.model.Transacoes;
+import acc.br.repository.ContaCorrenteRepository;
+import acc.br.repository.LancamentosRazaoRepository;
+import acc.br.repository.SaldosConsolidadosRepository;
+import acc.br.util.NaturezaLancamento;
+import acc.br.util.TipoConta;
+import acc.br.util.TipoTransacao;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.persistence.EntityManager;
+import javax.persistence.LockModeType;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LivroRazaoServiceTest {
+
+    private static final long CONTA_ID = 1L;
+
+    private final List<LancamentosRazao> lancamentos = new ArrayList<>();
+    private final Map<String, SaldosConsolidados> saldosConsolidados = new HashMap<>();
+    private final List<LockModeType> bloqueios = new ArrayList<>();
+    private final ContaCorrente contaCorrente = new ContaCorrente();
+    private LivroRazaoService livroRazaoService;
+
+    @BeforeEach
+    public void setUp() {
+        contaCorrente.setcontaCorrenteID(CONTA_ID);
+        contaCorrente.setSaldo(new BigDecimal("1000.00"));
+
+        livroRazaoService = new LivroRazaoService();
+        livroRazaoService.tamanhoBloco = 10000;
+        livroRazaoService.entityManager = (EntityManager) Proxy.newProxyInstance(EntityManager.class.getClassLoader(),
+                new Class<?>[]{EntityManager.class}, (proxy, metodo, argumentos) -> null);
+        livroRazaoService.contaCorrenteRepository = new ContaCorrenteRepository() {
+            @Override
+            public ContaCorrente findById(Long id, LockModeType modoBloqueio) {
+                bloqueios.add(modoBloqueio);
+                return id == CONTA_ID ? contaCorrente : null;
+            }
+        };
+        livroRazaoService.lancamentosRazaoRepository = new LancamentosRazaoRepository() {
+            @Override
+            public void inserir(List<LancamentosRazao> novos) {
+                for (LancamentosRazao lancamento : novos) {
+                    lancamento.setLancamentoID(lancamentos.size() + 1L);
+                    lancamentos.add(lancamento);
+                }
+            }
+
+            @Override
+            public BigDecimal somar(TipoConta tipoConta, Long contaID, long inicio, long fim) {
+                BigDecimal soma = BigDecimal.ZERO;
+                for (LancamentosRazao lancamento : lancamentos) {
+                    if (lancamento.getTipoConta() == tipoConta && contaID.equals(lancamento.getContaID())
+                            && lancamento.getLancamentoID() > inicio && lancamento.getLancamentoID() <= fim) {
+                        soma = soma.add(valorComSinal(lancamento));
+                    }
+                }
+                return soma;
+            }
+
+            @Override
+            public List<Object[]> somarPorConta(long inicio, long fim) {
+                Map<String, Object[]> somas = new LinkedHashMap<>();
+                for (LancamentosRazao lancamento : lancamentos) {
+                    if (lancamento.getContaID() != null && lancamento.getLancamentoID() > inicio && lancamento.getLancamentoID() <= fim) {
+                        Object[] soma = somas.computeIfAbsent(chave(lancamento.getTipoConta(), lancamento.getContaID()),
+                                c -> new Object[]{lancamento.getTipoConta(), lancamento.getContaID(), BigDecimal.ZERO});
+                        soma[2] = ((BigDecimal) soma[2]).add(valorComSinal(lancamento));
+                    }
+                }
+                return new ArrayList<>(somas.values());
+            }
+        };
+        livroRazaoService.saldosConsolidadosRepository = new SaldosConsolidadosRepository() {
+            @Override
+            public Optional<SaldosConsolidados> buscar(TipoConta tipoConta, Long contaID) {
+                return Optional.ofNullable(saldosConsolidados.get(chave(tipoConta, contaID)));
+            }
+
+            @Override
+            public long buscarUltimoLancamentoConsolidado() {
+                return saldosConsolidados.values().stream().mapToLong(SaldosConsolidados::getUltimoLancamentoID).max().orElse(0L);
+            }
+
+            @Override
+            public void persist(SaldosConsolidados saldoConsolidado) {
+                saldosConsolidados.put(chave(saldoConsolidado.getTipoConta(), saldoConsolidado.getContaID()), saldoConsolidado);
+            }
+        };
+    }
+
+    @Test
+    public void testTransferenciaDebitaOrigemECreditaDestinoComOMesmoValor() {
+        Transacoes transacao = transacao(TipoTransacao.TRANSFERENCIA, "75.50");
+        transacao.setContaDestinoID(2L);
+
+        List<LancamentosRazao> partidas = LivroRazaoService.partidas(transacao, TipoConta.CONTA_POUPANCA, LocalDateTime.now());
+
+        assertEquals(2, partidas.size());
+        assertEquals(NaturezaLancamento.DEBITO, partidas.get(0).getNatureza());
+        assertEquals(TipoConta.CONTA_CORRENTE, partidas.get(0).getTipoConta());
+        assertEquals(CONTA_ID, partidas.get(0).getContaID());
+        assertEquals(NaturezaLancamento.CREDITO, partidas.get(1).getNatureza());
+        assertEquals(TipoConta.CONTA_POUPANCA, partidas.get(1).getTipoConta());
+        assertEquals(2L, partidas.get(1).getContaID());
+        assertEquals(0, partidas.get(0).getValor().compareTo(partidas.get(1).getValor()));
+        assertEquals(transacao.getTransacaoID(), partidas.get(1).getTransacaoID());
+    }
+
+    @Test
+    public void testDepositoESaqueTemOCaixaComoContrapartida() {
+        List<LancamentosRazao> deposito = LivroRazaoService.partidas(transacao(TipoTransacao.DEPOSITO, "10.00"), null, LocalDateTime.now());
+        List<LancamentosRazao> saque = LivroRazaoService.partidas(transacao(TipoTransacao.SAQUE, "10.00"), null, LocalDateTime.now());
+
+        assertNull(deposito.get(0).getContaID());
+        assertEquals(NaturezaLancamento.CREDITO, deposito.get(1).getNatureza());
+        assertEquals(NaturezaLancamento.DEBITO, saque.get(0).getNatureza());
+        assertNull(saque.get(1).getContaID());
+        assertThrows(IllegalArgumentException.class,
+                () -> LivroRazaoService.partidas(transacao(TipoTransacao.TRANSFERENCIA, "10.00"), null, LocalDateTime.now()));
+    }
+
+    @Test
+    public void testSaldoAbertoDaColunaSaldoSomaOsLancamentosAntesEDepoisDaConsolidacao() {
+        // Depósito de 200 após a abertura da conta com 1000
+        contaCorrente.setSaldo(new BigDecimal("1200.00"));
+        livroRazaoService.lancar(transacao(TipoTransacao.DEPOSITO, "200.00"), null);
+
+        assertEquals(new BigDecimal("1200.00"), livroRazaoService.consultarSaldo(TipoConta.CONTA_CORRENTE, CONTA_ID));
+
+        livroRazaoService.consolidarBloco(0, lancamentos.size());
+        contaCorrente.setSaldo(new BigDecimal("1150.00"));
+        livroRazaoService.lancar(transacao(TipoTransacao.SAQUE, "50.00"), null);
+
+        SaldosConsolidados saldoConsolidado = saldosConsolidados.get(chave(TipoConta.CONTA_CORRENTE, CONTA_ID));
+        assertEquals(new BigDecimal("1200.00"), saldoConsolidado.getSaldo());
+        assertEquals(2L, saldoConsolidado.getUltimoLancamentoID());
+        assertEquals(new BigDecimal("1150.00"), livroRazaoService.consultarSaldo(TipoConta.CONTA_CORRENTE, CONTA_ID));
+    }
+
+    @Test
+    public void testConsultaSemSaldoConsolidadoLeAColunaSaldoSemGravarNemBloquear() {
+        contaCorrente.setSaldo(new BigDecimal("1200.00"));
+        livroRazaoService.lancar(transacao(TipoTransacao.DEPOSITO, "200.00"), null);
+
+        assertEquals(new BigDecimal("1200.00"), livroRazaoService.consultarSaldo(TipoConta.CONTA_CORRENTE, CONTA_ID));
+        assertTrue(saldosConsolidados.isEmpty());
+        assertEquals(List.of(LockModeType.NONE), bloqueios);
+        assertThrows(ContaNaoEncontradaException.class, () -> livroRazaoService.consultarSaldo(TipoConta.CONTA_CORRENTE, 2L));
+    }
+
+    @Test
+    public void testConsolidacaoAbreOSaldoDaContaSemSaldoConsolidado() {
+        contaCorrente.setSaldo(new BigDecimal("1300.00"));
+        livroRazaoService.lancar(List.of(transacao(TipoTransacao.DEPOSITO, "100.00"), transacao(TipoTransacao.DEPOSITO, "200.00")));
+
+        int contas = livroRazaoService.consolidarBloco(0, 2);
+        livroRazaoService.consolidarBloco(2, lancamentos.size());
+
+        assertEquals(1, contas);
+        SaldosConsolidados saldoConsolidado = saldosConsolidados.get(chave(TipoConta.CONTA_CORRENTE, CONTA_ID));
+        assertEquals(new BigDecimal("1300.00"), saldoConsolidado.getSaldo());
+        assertEquals(4L, saldoConsolidado.getUltimoLancamentoID());
+        assertEquals(new BigDecimal("1300.00"), livroRazaoService.consultarSaldo(TipoConta.CONTA_CORRENTE, CONTA_ID));
+    }
+
+    @Test
+    public void testSaldoDaContaCorrenteComLimiteEmUsoEAPosicaoLiquida() {
+        // Saldo 100 e limite 50: o saque de 120 zera o saldo e consome 20 do limite
+        contaCorrente.setSaldo(new BigDecimal("100.00"));
+        contaCorrente.setLimiteCredito(new BigDecimal("50.00"));
+        contaCorrente.setLimiteCreditoUtilizado(BigDecimal.ZERO);
+        assertTrue(RegraDebito.de(TipoConta.CONTA_CORRENTE).debitar(contaCorrente, new BigDecimal("120.00")));
+        livroRazaoService.lancar(transacao(TipoTransacao.SAQUE, "120.00"), null);
+
+        assertEquals(new BigDecimal("-20.00"), livroRazaoService.consultarSaldo(TipoConta.CONTA_CORRENTE, CONTA_ID));
+
+        livroRazaoService.consolidarBloco(0, lancamentos.size());
+
+        SaldosConsolidados saldoConsolidado = saldosConsolidados.get(chave(TipoConta.CONTA_CORRENTE, CONTA_ID));
+        assertEquals(new BigDecimal("-20.00"), saldoConsolidado.getSaldo());
+        assertEquals(new BigDecimal("-20.00"), livroRazaoService.consultarSaldo(TipoConta.CONTA_CORRENTE, CONTA_ID));
+
+        // O depósito volta ao saldo; a posição líquida e o razão continuam iguais
+        contaCorrente.setSaldo(new BigDecimal("50.00"));
+        livroRazaoService.lancar(transacao(TipoTransacao.DEPOSITO, "50.00"), null);
+
+        assertEquals(new BigDecimal("30.00"), LivroRazaoService.posicaoLiquida(contaCorrente));
+        assertEquals(new BigDecimal("30.00"), livroRazaoService.consultarSaldo(TipoConta.CONTA_CORRENTE, CONTA_ID));
+    }
+
+    private static Transacoes transacao(TipoTransacao tipoTransacao, String valor) {
+        Transacoes transacao = new Transacoes();
+        transacao.setTransacaoID(99L);
+        transacao.setTipoTransacao(tipoTransacao);
+        transacao.setValor(new BigDecimal(valor));
+        transacao.setDataHoraTransacao(LocalDate.now());
+        transacao.setContaID(CONTA_ID);
+        transacao.setTipoConta(TipoConta.CONTA_CORRENTE);
+        return transacao;
+    }
+
+    private static BigDecimal valorComSinal(LancamentosRazao lancamento) {
+        return lancamento.getNatureza() == NaturezaLancamento.CREDITO ? lancamento.getValor() : lancamento.getValor().negate();
+    }
+
+    private static String chave(TipoConta tipoConta, Long contaID) {
+        return tipoConta + ":" + contaID;
+    }
+}
@@ -0,0 +1,157 @@
+package acc.br.service;
+
+import acc.br.exception.SaldoInsuficienteException;
+import acc.br.model.Transacoes;
+import acc.br.util.TipoConta;
+import acc.br.util.TipoTransacao;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.transaction.Status;
+import javax.transaction.Synchronization;
+import javax.transaction.TransactionSynchronizationRegistry;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MetricasBancoTest {
+
+    private final TransacaoAtiva transacaoAtiva = new TransacaoAtiva();
+    private SimpleMeterRegistry registro;
+    private MetricasBanco metricasBanco;
+
+    @BeforeEach
+    public void setUp() {
+        ConfiguracaoMetricas configuracaoMetricas = new ConfiguracaoMetricas();
+        configuracaoMetricas.percentis = Arrays.asList(0.5, 0.95, 0.99);
+
+        registro = new SimpleMeterRegistry();
+        registro.config().meterFilter(configuracaoMetricas.configurarDistribuicoes());
+
+        metricasBanco = new MetricasBanco();
+        metricasBanco.registro = registro;
+        metricasBanco.registroSincronizacao = transacaoAtiva;
+        metricasBanco.inicializar();
+    }
+
+    @Test
+    public void testTransacaoContadaSomenteAposCommit() {
+        metricasBanco.contarTransacao(criarTransacao(TipoTransacao.SAQUE, TipoConta.CONTA_POUPANCA));
+        assertEquals(0.0, contagem(TipoTransacao.SAQUE, TipoConta.CONTA_POUPANCA));
+
+        transacaoAtiva.concluir(Status.STATUS_COMMITTED);
+
+        assertEquals(1.0, contagem(TipoTransacao.SAQUE, TipoConta.CONTA_POUPANCA));
+        assertEquals(0.0, contagem(TipoTransacao.SAQUE, TipoConta.CONTA_CORRENTE));
+    }
+
+    @Test
+    public void testTransacaoDesfeitaNaoEContada() {
+        metricasBanco.contarTransacao(criarTransacao(TipoTransacao.DEPOSITO, TipoConta.CONTA_CORRENTE));
+
+        transacaoAtiva.concluir(Status.STATUS_ROLLEDBACK);
+
+        assertEquals(0.0, contagem(TipoTransacao.DEPOSITO, TipoConta.CONTA_CORRENTE));
+    }
+
+    @Test
+    public void testExcecaoContadaUmaVezAoAtravessarVariosBeans() {
+        SaldoInsuficienteException excecao = new SaldoInsuficienteException("Saldo insuficiente");
+
+        metricasBanco.registrarExecucao(TransacoesService.class, "realizarTransferencia", 1_000_000, excecao);
+        metricasBanco.registrarExecucao(ExecutorConcorrenciaSaldo.class, "executar", 2_000_000, excecao);
+        metricasBanco.contarExcecao(new SaldoInsuficienteException("Saldo insuficiente"));
+
+        assertEquals(2.0, registro.get(MetricasBanco.EXCECOES).tag("excecao", "SaldoInsuficienteException").counter().count());
+    }
+
+    @Test
+    public void testExcecaoPropagadaParaOutraThreadNaoEContadaDeNovo() throws Exception {
+        SaldoInsuficienteException excecao = new SaldoInsuficienteException("Saldo insuficiente");
+        metricasBanco.contarExcecao(excecao);
+
+        Thread outra = new Thread(() -> metricasBanco.contarExcecao(excecao));
+        outra.start();
+        outra.join();
+
+        assertEquals(1.0, registro.get(MetricasBanco.EXCECOES).tag("excecao", "SaldoInsuficienteException").counter().count());
+    }
+
+    @Test
+    public void testTempoDosMetodosPublicaPercentis() {
+        metricasBanco.registrarExecucao(TransacoesService.class, "realizarSaque", 3_000_000, null);
+
+        Timer temporizador = registro.get(ConfiguracaoMetricas.METODOS)
+                .tag("classe", "TransacoesService")
+                .tag("metodo", "realizarSaque")
+                .tag("excecao", MetricasBanco.SEM_EXCECAO)
+                .timer();
+        assertEquals(1, temporizador.count());
+        assertEquals(3, temporizador.takeSnapshot().percentileValues().length);
+    }
+
+    private double contagem(TipoTransacao tipoTransacao, TipoConta tipoConta) {
+        return registro.get(MetricasBanco.TRANSACOES)
+                .tag("tipo_transacao", tipoTransacao.name())
+                .tag("tipo_conta", tipoConta.name())
+                .counter()
+                .count();
+    }
+
+    private Transacoes criarTransacao(TipoTransacao tipoTransacao, TipoConta tipoConta) {
+        Transacoes transacao = new Transacoes();
+        transacao.setTipoTransacao(tipoTransacao);
+        transacao.setTipoConta(tipoConta);
+        return transacao;
+    }
+
+    /**
+     * Registro de sincronização com uma transação ativa, concluída explicitamente pelo teste.
+     */
+    private static class TransacaoAtiva implements TransactionSynchronizationRegistry {
+
+        private final List<Synchronization> sincronizacoes = new ArrayList<>();
+
+        void concluir(int status) {
+            sincronizacoes.forEach(sincronizacao -> sincronizacao.afterCompletion(status));
+            sincronizacoes.clear();
+        }
+
+        @Override
+        public Object getTransactionKey() {
+            return null;
+        }
+
+        @Override
+        public void putResource(Object key, Object value) {
+        }
+
+        @Override
+        public Object getResource(Object key) {
+            return null;
+        }
+
+        @Override
+        public void registerInterposedSynchronization(Synchronization sync) {
+            sincronizacoes.add(sync);
+        }
+
+        @Override
+        public int getTransactionStatus() {
+            return Status.STATUS_ACTIVE;
+        }
+
+        @Override
+        public void setRollbackOnly() {
+        }
+
+        @Override
+        public boolean getRollbackOnly() {
+            return false;
+        }
+    }
+}
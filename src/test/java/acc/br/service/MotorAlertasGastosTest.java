@@ -0,0 +1,193 @@
+package acc.br.service;
+
+import acc.br.model.AlertasGastosExcessivos;
+import acc.br.model.Notificacoes;
+import acc.br.repository.AlertasGastosExcessivosRepository;
+import acc.br.repository.NotificacoesRepository;
+import acc.br.util.TipoTransacao;
+import org.eclipse.microprofile.context.ManagedExecutor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.transaction.Status;
+import javax.transaction.Synchronization;
+import javax.transaction.TransactionSynchronizationRegistry;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MotorAlertasGastosTest {
+
+    private final List<AlertasGastosExcessivos> alertasAtivos = new ArrayList<>();
+    private final List<Notificacoes> gravadas = new ArrayList<>();
+    private final List<Notificacoes> entregues = new ArrayList<>();
+    private final List<Runnable> tarefas = new ArrayList<>();
+    private MotorAlertasGastos motor;
+
+    @BeforeEach
+    public void setUp() {
+        motor = new MotorAlertasGastos();
+        motor.alertasGastosExcessivosRepository = new AlertasGastosExcessivosRepository() {
+            @Override
+            public List<AlertasGastosExcessivos> listarAtivos() {
+                return alertasAtivos;
+            }
+        };
+        motor.notificacoesRepository = new NotificacoesRepository() {
+            @Override
+            public void persist(Notificacoes notificacao) {
+                gravadas.add(notificacao);
+            }
+        };
+        motor.canalNotificacao = entregues::add;
+        motor.executor = (ManagedExecutor) Proxy.newProxyInstance(ManagedExecutor.class.getClassLoader(),
+                new Class<?>[]{ManagedExecutor.class}, (proxy, metodo, argumentos) -> {
+                    if (metodo.getName().equals("execute")) {
+                        tarefas.add((Runnable) argumentos[0]);
+                    }
+                    return null;
+                });
+        motor.registroSincronizacao = (TransactionSynchronizationRegistry) Proxy.newProxyInstance(
+                TransactionSynchronizationRegistry.class.getClassLoader(), new Class<?>[]{TransactionSynchronizationRegistry.class},
+                (proxy, metodo, argumentos) -> metodo.getName().equals("getTransactionStatus") ? Status.STATUS_NO_TRANSACTION : null);
+        motor.agregadorGastosJanela = new AgregadorGastosJanela();
+        motor.agregadorGastosJanela.registroSincronizacao = motor.registroSincronizacao;
+        motor.agregadorGastosJanela.duracaoIntervaloSegundos = 60;
+        motor.agregadorGastosJanela.maximaHoras = 24;
+        motor.agregadorGastosJanela.clientesMaximo = 100;
+        motor.agregadorGastosJanela.relogio = Clock.fixed(Instant.parse("2024-01-02T10:00:00Z"), ZoneId.of("UTC"));
+        motor.agregadorGastosJanela.inicializar();
+    }
+
+    @Test
+    public void testSaqueAbaixoDoMenorLimiteNaoDisparaAlerta() {
+        alertasAtivos.add(alerta(1L, 10L, "Limite diário", "500.00"));
+        motor.recarregar();
+
+        motor.avaliar(10L, TipoTransacao.SAQUE, new BigDecimal("500.00"));
+        motor.avaliar(20L, TipoTransacao.SAQUE, new BigDecimal("100000.00"));
+
+        assertTrue(tarefas.isEmpty());
+    }
+
+    @Test
+    public void testDisparoEmSegundoPlanoDeCadaAlertaExcedido() {
+        alertasAtivos.add(alerta(1L, 10L, "Limite alto", "1000.00"));
+        alertasAtivos.add(alerta(2L, 10L, "Limite baixo", "100.00"));
+        alertasAtivos.add(alerta(3L, 10L, "Limite máximo", "5000.00"));
+        motor.recarregar();
+
+        motor.avaliar(10L, TipoTransacao.SAQUE, new BigDecimal("2000.00"));
+
+        assertTrue(gravadas.isEmpty());
+        assertEquals(1, tarefas.size());
+        tarefas.get(0).run();
+
+        assertEquals(List.of(
+                "Alerta (Limite baixo): Saque de R$ 2000.00 excede o limite de R$ 100.00.",
+                "Alerta (Limite alto): Saque de R$ 2000.00 excede o limite de R$ 1000.00."),
+                gravadas.stream().map(Notificacoes::getMensagemNotificacao).collect(Collectors.toList()));
+        assertEquals(gravadas, entregues);
+        assertTrue(gravadas.stream().allMatch(notificacao -> notificacao.getClienteID() == 10L && notificacao.getEnviada() == 1));
+    }
+
+    @Test
+    public void testIndiceAcompanhaCriacaoAlteracaoERemocao() {
+        AlertasGastosExcessivos alerta = alerta(1L, 10L, "Limite", "100.00");
+        motor.atualizar(null, alerta);
+        motor.avaliar(10L, TipoTransacao.SAQUE, new BigDecimal("150.00"));
+        assertEquals(1, tarefas.size());
+
+        alerta.setClienteID(20L);
+        motor.atualizar(10L, alerta);
+        motor.avaliar(10L, TipoTransacao.SAQUE, new BigDecimal("150.00"));
+        assertEquals(1, tarefas.size());
+        motor.avaliar(20L, TipoTransacao.SAQUE, new BigDecimal("150.00"));
+        assertEquals(2, tarefas.size());
+
+        alerta.setAtivo(0);
+        motor.atualizar(20L, alerta);
+        motor.avaliar(20L, TipoTransacao.SAQUE, new BigDecimal("150.00"));
+        assertEquals(2, tarefas.size());
+
+        alerta.setAtivo(1);
+        motor.atualizar(20L, alerta);
+        motor.remover(alerta);
+        motor.avaliar(20L, TipoTransacao.SAQUE, new BigDecimal("150.00"));
+        assertEquals(2, tarefas.size());
+    }
+
+    @Test
+    public void testAlertaDeJanelaDisparaUmaVezAoUltrapassarOsLimites() {
+        AlertasGastosExcessivos valorEmUmaHora = alerta(1L, 10L, "Valor por hora", "1000.00");
+        valorEmUmaHora.setJanelaMinutos(60);
+        AlertasGastosExcessivos saquesEmUmaHora = alerta(2L, 10L, "Saques por hora", null);
+        saquesEmUmaHora.setJanelaMinutos(60);
+        saquesEmUmaHora.setQuantidadeMaxima(2);
+        alertasAtivos.add(valorEmUmaHora);
+        alertasAtivos.add(saquesEmUmaHora);
+        motor.recarregar();
+
+        motor.avaliar(10L, TipoTransacao.SAQUE, new BigDecimal("600.00"));
+        motor.avaliar(10L, TipoTransacao.TRANSFERENCIA, new BigDecimal("300.00"));
+        assertTrue(tarefas.isEmpty());
+
+        motor.avaliar(10L, TipoTransacao.SAQUE, new BigDecimal("200.00"));
+        assertEquals(1, tarefas.size());
+        tarefas.get(0).run();
+        assertEquals(List.of(
+                "Alerta (Valor por hora): Saídas de R$ 1100.00 nos últimos 60 minutos excedem o limite de R$ 1000.00.",
+                "Alerta (Saques por hora): 3 saídas nos últimos 60 minutos excedem o máximo de 2."),
+                gravadas.stream().map(Notificacoes::getMensagemNotificacao).collect(Collectors.toList()));
+
+        motor.avaliar(10L, TipoTransacao.SAQUE, new BigDecimal("50.00"));
+        assertEquals(1, tarefas.size());
+    }
+
+    @Test
+    public void testAlertaDeQuantidadeDisparaUmaVezComSaidasSimultaneasEmCurso() {
+        AlertasGastosExcessivos saquesEmUmaHora = alerta(2L, 10L, "Saques por hora", null);
+        saquesEmUmaHora.setJanelaMinutos(60);
+        saquesEmUmaHora.setQuantidadeMaxima(2);
+        alertasAtivos.add(saquesEmUmaHora);
+        motor.recarregar();
+        List<Synchronization> sincronizacoes = new ArrayList<>();
+        motor.registroSincronizacao = (TransactionSynchronizationRegistry) Proxy.newProxyInstance(
+                TransactionSynchronizationRegistry.class.getClassLoader(), new Class<?>[]{TransactionSynchronizationRegistry.class},
+                (proxy, metodo, argumentos) -> {
+                    if (metodo.getName().equals("registerInterposedSynchronization")) {
+                        sincronizacoes.add((Synchronization) argumentos[0]);
+                    }
+                    return metodo.getName().equals("getTransactionStatus") ? Status.STATUS_ACTIVE : null;
+                });
+        motor.agregadorGastosJanela.registroSincronizacao = motor.registroSincronizacao;
+
+        // Quatro saques simultâneos, nenhum confirmado quando os demais são avaliados
+        for (int i = 0; i < 4; i++) {
+            motor.avaliar(10L, TipoTransacao.SAQUE, new BigDecimal("10.00"));
+        }
+        sincronizacoes.forEach(sincronizacao -> sincronizacao.afterCompletion(Status.STATUS_COMMITTED));
+
+        assertEquals(1, tarefas.size());
+        tarefas.get(0).run();
+        assertEquals(List.of("Alerta (Saques por hora): 3 saídas nos últimos 60 minutos excedem o máximo de 2."),
+                gravadas.stream().map(Notificacoes::getMensagemNotificacao).collect(Collectors.toList()));
+    }
+
+    private static AlertasGastosExcessivos alerta(Long alertaID, Long clienteID, String tipoAlerta, String valorLimite) {
+        AlertasGastosExcessivos alerta = new AlertasGastosExcessivos();
+        alerta.setAlertaID(alertaID);
+        alerta.setClienteID(clienteID);
+        alerta.setTipoAlerta(tipoAlerta);
+        alerta.setValorLimite(valorLimite == null ? null : new BigDecimal(valorLimite));
+        alerta.setAtivo(1);
+        return alerta;
+    }
+}
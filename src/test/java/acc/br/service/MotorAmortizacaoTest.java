@@ -0,0 +1,99 @@
+package acc.br.service;
+
+import acc.br.model.Emprestimos;
+import acc.br.util.ParcelaAmortizacao;
+import acc.br.util.PrecisaoAmortizacao;
+import acc.br.util.SistemaAmortizacao;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MotorAmortizacaoTest {
+
+    @Test
+    public void testTabelaPriceZeraOSaldoNaUltimaParcela() {
+        MotorAmortizacao motor = criarMotor(PrecisaoAmortizacao.RAPIDA);
+        Emprestimos emprestimo = new Emprestimos();
+        emprestimo.setValorEmprestimo(new BigDecimal("1000.00"));
+        emprestimo.setTaxaJuros(new BigDecimal("12"));
+        emprestimo.setPrazoMeses(12);
+
+        List<ParcelaAmortizacao> tabela = motor.tabela(emprestimo, SistemaAmortizacao.PRICE);
+
+        assertEquals(12, tabela.size());
+        assertEquals(new BigDecimal("88.85"), tabela.get(0).getValorParcela());
+        assertEquals(new BigDecimal("10.00"), tabela.get(0).getJuros());
+        assertEquals(new BigDecimal("78.85"), tabela.get(0).getAmortizacao());
+        assertEquals(new BigDecimal("921.15"), tabela.get(0).getSaldoDevedor());
+        assertEquals(0, tabela.get(11).getSaldoDevedor().signum());
+        assertEquals(new BigDecimal("1000.00"), tabela.stream().map(ParcelaAmortizacao::getAmortizacao).reduce(BigDecimal.ZERO, BigDecimal::add));
+        for (ParcelaAmortizacao parcela : tabela.subList(0, 11)) {
+            assertEquals(new BigDecimal("88.85"), parcela.getValorParcela());
+        }
+    }
+
+    @Test
+    public void testTabelaSacTemAmortizacaoConstante() {
+        MotorAmortizacao motor = criarMotor(PrecisaoAmortizacao.RAPIDA);
+
+        Iterator<ParcelaAmortizacao> parcelas = motor.parcelas(new BigDecimal("1000"), new BigDecimal("0.01"), 3, SistemaAmortizacao.SAC);
+
+        ParcelaAmortizacao primeira = parcelas.next();
+        assertEquals(new BigDecimal("333.33"), primeira.getAmortizacao());
+        assertEquals(new BigDecimal("343.33"), primeira.getValorParcela());
+        ParcelaAmortizacao segunda = parcelas.next();
+        assertEquals(new BigDecimal("333.33"), segunda.getAmortizacao());
+        assertEquals(new BigDecimal("6.67"), segunda.getJuros());
+        ParcelaAmortizacao terceira = parcelas.next();
+        assertEquals(new BigDecimal("333.34"), terceira.getAmortizacao());
+        assertEquals(0, terceira.getSaldoDevedor().signum());
+        assertFalse(parcelas.hasNext());
+    }
+
+    @Test
+    public void testPrecisaoRapidaIgualAExataNosCentavos() {
+        MotorAmortizacao rapido = criarMotor(PrecisaoAmortizacao.RAPIDA);
+        MotorAmortizacao exato = criarMotor(PrecisaoAmortizacao.EXATA);
+        BigDecimal[] valores = {new BigDecimal("0.01"), new BigDecimal("1234.56"), new BigDecimal("300000.00"), new BigDecimal("9999999.99")};
+        String[] taxasAnuais = {"0.5", "9.5", "23.99", "100"};
+        int[] prazos = {1, 12, 360, 999};
+
+        for (BigDecimal valor : valores) {
+            for (String taxaAnual : taxasAnuais) {
+                BigDecimal taxaMensal = MotorAmortizacao.taxaMensal(new BigDecimal(taxaAnual));
+                for (int prazo : prazos) {
+                    assertEquals(exato.valorParcelaPrice(valor, taxaMensal, prazo), rapido.valorParcelaPrice(valor, taxaMensal, prazo),
+                            valor + " a " + taxaAnual + "% em " + prazo + " meses");
+                }
+            }
+        }
+
+        // A mesma taxa em outra escala usa o mesmo fator
+        long fatores = rapido.getCache().estimatedSize();
+        rapido.valorParcelaPrice(new BigDecimal("1000"), new BigDecimal("0.0100000"), 12);
+        rapido.valorParcelaPrice(new BigDecimal("1000"), new BigDecimal("0.01"), 12);
+        assertEquals(fatores + 1, rapido.getCache().estimatedSize());
+    }
+
+    @Test
+    public void testTaxaZeroEDadosInvalidos() {
+        MotorAmortizacao motor = criarMotor(PrecisaoAmortizacao.RAPIDA);
+
+        assertEquals(new BigDecimal("83.33"), motor.valorParcelaPrice(new BigDecimal("1000"), BigDecimal.ZERO, 12));
+        assertThrows(IllegalArgumentException.class, () -> motor.parcelas(BigDecimal.ZERO, BigDecimal.ONE, 12, SistemaAmortizacao.PRICE));
+        assertThrows(IllegalArgumentException.class, () -> motor.parcelas(BigDecimal.TEN, BigDecimal.ONE.negate(), 12, SistemaAmortizacao.PRICE));
+        assertThrows(IllegalArgumentException.class, () -> motor.parcelas(BigDecimal.TEN, BigDecimal.ONE, 0, SistemaAmortizacao.SAC));
+    }
+
+    private static MotorAmortizacao criarMotor(PrecisaoAmortizacao precisao) {
+        MotorAmortizacao motor = new MotorAmortizacao();
+        motor.precisao = precisao;
+        motor.fatoresMaximo = 1000;
+        motor.inicializar();
+        return motor;
+    }
+}
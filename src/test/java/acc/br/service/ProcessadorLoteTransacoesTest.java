@@ -0,0 +1,186 @@
+package acc.br.service;
+
+import acc.br.model.ContaCorrente;
+import acc.br.model.Contas;
+import acc.br.model.Poupanca;
+import acc.br.model.Transacoes;
+import acc.br.repository.ContaCorrenteRepository;
+import acc.br.repository.TransacoesRepository;
+import acc.br.util.ModoConcorrencia;
+import acc.br.util.OperacaoLote;
+import acc.br.util.ResultadoOperacaoLote;
+import acc.br.util.TipoConta;
+import acc.br.util.TipoDeposito;
+import acc.br.util.TipoTransacao;
+import io.quarkus.hibernate.orm.panache.PanacheQuery;
+import io.quarkus.panache.common.Sort;
+import org.junit.jupiter.api.Test;
+
+import javax.persistence.EntityManager;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProcessadorLoteTransacoesTest {
+
+    @Test
+    public void testSaqueContaCorrenteUsaLimiteDeCredito() {
+        ContaCorrente contaCorrente = new ContaCorrente();
+        contaCorrente.setSaldo(new BigDecimal("100.00"));
+        contaCorrente.setLimiteCredito(new BigDecimal("50.00"));
+
+        assertNull(ProcessadorLoteTransacoes.aplicar(criarOperacao(TipoTransacao.SAQUE, TipoConta.CONTA_CORRENTE, "120.00"), contaCorrente));
+
+        assertEquals(BigDecimal.ZERO, contaCorrente.getSaldo());
+        assertEquals(new BigDecimal("30.00"), contaCorrente.getLimiteCredito());
+    }
+
+    @Test
+    public void testSaqueAcimaDoLimiteNaoAlteraConta() {
+        ContaCorrente contaCorrente = new ContaCorrente();
+        contaCorrente.setSaldo(new BigDecimal("100.00"));
+        contaCorrente.setLimiteCredito(new BigDecimal("50.00"));
+
+        String erro = ProcessadorLoteTransacoes.aplicar(criarOperacao(TipoTransacao.SAQUE, TipoConta.CONTA_CORRENTE, "200.00"), contaCorrente);
+
+        assertEquals("Saque excede o limite de crédito da conta corrente.", erro);
+        assertEquals(new BigDecimal("100.00"), contaCorrente.getSaldo());
+        assertEquals(new BigDecimal("50.00"), contaCorrente.getLimiteCredito());
+    }
+
+    @Test
+    public void testDepositoESaqueEmSequenciaNaPoupanca() {
+        Poupanca poupanca = new Poupanca();
+        poupanca.setSaldo(new BigDecimal("10.00"));
+
+        assertNotNull(ProcessadorLoteTransacoes.aplicar(criarOperacao(TipoTransacao.SAQUE, TipoConta.CONTA_POUPANCA, "15.00"), poupanca));
+        assertNull(ProcessadorLoteTransacoes.aplicar(criarOperacao(TipoTransacao.DEPOSITO, TipoConta.CONTA_POUPANCA, "10.00"), poupanca));
+        assertNull(ProcessadorLoteTransacoes.aplicar(criarOperacao(TipoTransacao.SAQUE, TipoConta.CONTA_POUPANCA, "15.00"), poupanca));
+
+        assertEquals(new BigDecimal("5.00"), poupanca.getSaldo());
+    }
+
+    @Test
+    public void testValidarOperacao() {
+        OperacaoLote transferencia = criarOperacao(TipoTransacao.TRANSFERENCIA, TipoConta.CONTA_CORRENTE, "10.00");
+        OperacaoLote valorNegativo = criarOperacao(TipoTransacao.SAQUE, TipoConta.CONTA_CORRENTE, "-1.00");
+        OperacaoLote chequeSemNumero = criarOperacao(TipoTransacao.DEPOSITO, TipoConta.CONTA_CORRENTE, "10.00");
+        chequeSemNumero.setTipoDeposito(TipoDeposito.CHEQUE);
+
+        assertNotNull(ProcessadorLoteTransacoes.validar(transferencia));
+        assertNotNull(ProcessadorLoteTransacoes.validar(valorNegativo));
+        assertNotNull(ProcessadorLoteTransacoes.validar(chequeSemNumero));
+        assertNull(ProcessadorLoteTransacoes.validar(criarOperacao(TipoTransacao.DEPOSITO, TipoConta.CONTA_CORRENTE, "10.00")));
+    }
+
+    @Test
+    public void testSaquesDoLoteSaoAvaliadosPelosAlertasDeGastos() {
+        ContaCorrente contaCorrente = new ContaCorrente();
+        contaCorrente.setcontaCorrenteID(1L);
+        contaCorrente.setClienteID(10L);
+        contaCorrente.setSaldo(new BigDecimal("100.00"));
+        contaCorrente.setLimiteCredito(BigDecimal.ZERO);
+        List<String> avaliados = new ArrayList<>();
+        ProcessadorLoteTransacoes processador = criarProcessador(contaCorrente, new ArrayList<>());
+        processador.motorAlertasGastos = new MotorAlertasGastos() {
+            @Override
+            public void avaliar(Long clienteID, TipoTransacao tipoTransacao, BigDecimal valor) {
+                avaliados.add(clienteID + ":" + tipoTransacao + ":" + valor);
+            }
+        };
+
+        List<ResultadoOperacaoLote> resultados = processador.aplicarChunk(List.of(
+                criarOperacao(TipoTransacao.SAQUE, TipoConta.CONTA_CORRENTE, "30.00"),
+                criarOperacao(TipoTransacao.DEPOSITO, TipoConta.CONTA_CORRENTE, "5.00"),
+                criarOperacao(TipoTransacao.SAQUE, TipoConta.CONTA_CORRENTE, "500.00")), 0);
+
+        assertEquals(3, resultados.size());
+        assertEquals(List.of("10:SAQUE:30.00"), avaliados);
+        assertEquals(new BigDecimal("75.00"), contaCorrente.getSaldo());
+    }
+
+    @Test
+    public void testOperacoesDoLoteGravamAsNotificacoesNaOutbox() {
+        ContaCorrente contaCorrente = new ContaCorrente();
+        contaCorrente.setcontaCorrenteID(1L);
+        contaCorrente.setClienteID(10L);
+        contaCorrente.setSaldo(new BigDecimal("100.00"));
+        contaCorrente.setLimiteCredito(BigDecimal.ZERO);
+        List<String> notificadas = new ArrayList<>();
+        ProcessadorLoteTransacoes processador = criarProcessador(contaCorrente, notificadas);
+
+        processador.aplicarChunk(List.of(
+                criarOperacao(TipoTransacao.SAQUE, TipoConta.CONTA_CORRENTE, "30.00"),
+                criarOperacao(TipoTransacao.SAQUE, TipoConta.CONTA_CORRENTE, "500.00"),
+                criarOperacao(TipoTransacao.DEPOSITO, TipoConta.CONTA_CORRENTE, "5.00")), 0);
+
+        assertEquals(List.of("10:SAQUE:30.00", "10:DEPOSITO:5.00"), notificadas);
+    }
+
+    /**
+     * Cria um processador cujas contas correntes são lidas de uma única conta em memória, sem acesso ao banco, e que
+     * anota em {@code notificadas} as notificações gravadas na outbox.
+     */
+    @SuppressWarnings("unchecked")
+    static ProcessadorLoteTransacoes criarProcessador(ContaCorrente contaCorrente, List<String> notificadas) {
+        ProcessadorLoteTransacoes processador = new ProcessadorLoteTransacoes();
+        processador.modoConcorrencia = ModoConcorrencia.OTIMISTA;
+        processador.motorAlertasGastos = new MotorAlertasGastos() {
+            @Override
+            public void avaliar(Long clienteID, TipoTransacao tipoTransacao, BigDecimal valor) {
+            }
+        };
+        processador.despachanteNotificacoes = new DespachanteNotificacoes() {
+            @Override
+            public void registrar(List<Long> clientesIDs, List<Transacoes> transacoes) {
+                for (int i = 0; i < transacoes.size(); i++) {
+                    notificadas.add(clientesIDs.get(i) + ":" + transacoes.get(i).getTipoTransacao() + ":" + transacoes.get(i).getValor());
+                }
+            }
+        };
+        processador.contaCorrenteRepository = new ContaCorrenteRepository() {
+            @Override
+            public PanacheQuery<ContaCorrente> find(String consulta, Sort ordem, Object... parametros) {
+                return (PanacheQuery<ContaCorrente>) Proxy.newProxyInstance(PanacheQuery.class.getClassLoader(),
+                        new Class<?>[]{PanacheQuery.class}, (proxy, metodo, argumentos) ->
+                                metodo.getName().equals("list") ? List.of(contaCorrente) : proxy);
+            }
+        };
+        processador.entityManager = (EntityManager) Proxy.newProxyInstance(EntityManager.class.getClassLoader(),
+                new Class<?>[]{EntityManager.class}, (proxy, metodo, argumentos) -> null);
+        processador.transacoesRepository = new TransacoesRepository() {
+            @Override
+            public void inserir(List<Transacoes> transacoes) {
+            }
+        };
+        processador.livroRazaoService = new LivroRazaoService() {
+            @Override
+            public void lancar(List<Transacoes> transacoes) {
+            }
+        };
+        processador.metricasBanco = new MetricasBanco() {
+            @Override
+            public void contarTransacao(Transacoes transacao) {
+            }
+        };
+        processador.cacheEstadoContas = new CacheEstadoContas() {
+            @Override
+            public void atualizar(Contas conta) {
+            }
+        };
+        return processador;
+    }
+
+    private OperacaoLote criarOperacao(TipoTransacao tipoTransacao, TipoConta tipoConta, String valor) {
+        OperacaoLote operacao = new OperacaoLote();
+        operacao.setTipoTransacao(tipoTransacao);
+        operacao.setTipoConta(tipoConta);
+        operacao.setContaID(1L);
+        operacao.setValor(new BigDecimal(valor));
+        operacao.setTipoDeposito(TipoDeposito.DINHEIRO);
+        return operacao;
+    }
+}
@@ -0,0 +1,103 @@
+package acc.br.service;
+
+import acc.br.model.Poupanca;
+import acc.br.model.Transacoes;
+import acc.br.util.TipoConta;
+import acc.br.util.TipoTransacao;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProcessadorRendimentoPoupancaTest {
+
+    private static final BigDecimal TAXA = new BigDecimal("0.5");
+
+    @Test
+    public void testDiasAniversarioIncluemOsDiasQueOMesNaoTem() {
+        assertEquals(List.of(15), ProcessadorRendimentoPoupanca.diasAniversario(LocalDate.of(2024, 3, 15)));
+        assertEquals(List.of(29, 30, 31), ProcessadorRendimentoPoupanca.diasAniversario(LocalDate.of(2024, 2, 29)));
+        assertEquals(List.of(30, 31), ProcessadorRendimentoPoupanca.diasAniversario(LocalDate.of(2024, 4, 30)));
+        assertEquals(List.of(31), ProcessadorRendimentoPoupanca.diasAniversario(LocalDate.of(2024, 5, 31)));
+    }
+
+    @Test
+    public void testCreditoGeraTransacaoDeRendimentoEMarcaAReferencia() {
+        LocalDate referencia = LocalDate.of(2024, 3, 15);
+        Poupanca comSaldo = criarPoupanca(1L, "15000.00");
+        Poupanca semSaldo = criarPoupanca(2L, "0.00");
+
+        List<Transacoes> transacoes = ProcessadorRendimentoPoupanca.creditar(List.of(comSaldo, semSaldo), TAXA, referencia);
+
+        assertEquals(1, transacoes.size());
+        Transacoes transacao = transacoes.get(0);
+        assertEquals(TipoTransacao.RENDIMENTO, transacao.getTipoTransacao());
+        assertEquals(TipoConta.CONTA_POUPANCA, transacao.getTipoConta());
+        assertEquals(1L, transacao.getContaID());
+        assertEquals(new BigDecimal("75.00"), transacao.getValor());
+        assertEquals(referencia, transacao.getDataHoraTransacao());
+
+        assertEquals(new BigDecimal("15075.00"), comSaldo.getSaldo());
+        assertEquals(new BigDecimal("0.00"), semSaldo.getSaldo());
+        assertEquals(referencia, comSaldo.getDataUltimoRendimento());
+        assertEquals(referencia, semSaldo.getDataUltimoRendimento());
+    }
+
+    @Test
+    public void testNotificacoesDoRendimentoVaoAoClienteDeCadaContaCreditada() {
+        Poupanca comSaldo = criarPoupanca(1L, "15000.00");
+        comSaldo.setClienteID(10L);
+        Poupanca semSaldo = criarPoupanca(2L, "0.00");
+        semSaldo.setClienteID(20L);
+        Poupanca outraComSaldo = criarPoupanca(3L, "100.00");
+        outraComSaldo.setClienteID(30L);
+        List<Poupanca> contas = List.of(comSaldo, semSaldo, outraComSaldo);
+
+        List<Transacoes> transacoes = ProcessadorRendimentoPoupanca.creditar(contas, TAXA, LocalDate.of(2024, 3, 15));
+
+        assertEquals(List.of(10L, 30L), ProcessadorRendimentoPoupanca.clientes(contas, transacoes));
+    }
+
+    @Test
+    public void testExecucaoAgendadaRetomaNaoConcluidasERecuperaDatasSemExecucao() {
+        LocalDate hoje = LocalDate.of(2024, 3, 15);
+
+        assertEquals(List.of(hoje), ProcessadorRendimentoPoupanca.referenciasPendentes(List.of(), null, hoje, 31));
+        assertEquals(List.of(hoje), ProcessadorRendimentoPoupanca.referenciasPendentes(List.of(), hoje.minusDays(1), hoje, 31));
+        assertEquals(List.of(hoje), ProcessadorRendimentoPoupanca.referenciasPendentes(List.of(hoje), hoje, hoje, 31));
+        assertEquals(List.of(LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 12), LocalDate.of(2024, 3, 13),
+                        LocalDate.of(2024, 3, 14), hoje),
+                ProcessadorRendimentoPoupanca.referenciasPendentes(List.of(LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 12)),
+                        LocalDate.of(2024, 3, 12), hoje, 31));
+    }
+
+    @Test
+    public void testRecuperacaoLimitadaAosUltimosDias() {
+        LocalDate hoje = LocalDate.of(2024, 3, 15);
+
+        assertEquals(List.of(LocalDate.of(2024, 3, 13), LocalDate.of(2024, 3, 14), hoje),
+                ProcessadorRendimentoPoupanca.referenciasPendentes(List.of(), LocalDate.of(2024, 1, 1), hoje, 2));
+        assertEquals(List.of(hoje),
+                ProcessadorRendimentoPoupanca.referenciasPendentes(List.of(LocalDate.of(2024, 3, 20)), LocalDate.of(2024, 3, 20), hoje, 2));
+    }
+
+    @Test
+    public void testDiaAniversarioDerivadoDaData() {
+        Poupanca poupanca = criarPoupanca(1L, "10.00");
+        assertEquals(15, poupanca.getDiaAniversario());
+
+        poupanca.setDataAniversario("data inválida");
+        assertNull(poupanca.getDiaAniversario());
+    }
+
+    private Poupanca criarPoupanca(Long id, String saldo) {
+        Poupanca poupanca = new Poupanca();
+        poupanca.setPoupancaID(id);
+        poupanca.setSaldo(new BigDecimal(saldo));
+        poupanca.setDataAniversario("2023-01-15");
+        return poupanca;
+    }
+}
@@ -0,0 +1,299 @@
+package acc.br.service;
+
+import acc.br.exception.SaldoInsuficienteException;
+import acc.br.exception.SaqueExcedeSaldoException;
+import acc.br.exception.ValorMinimoInvalidoException;
+import acc.br.model.ContaCorrente;
+import acc.br.model.Contas;
+import acc.br.model.Poupanca;
+import acc.br.model.Transacoes;
+import acc.br.repository.ContaCorrenteRepository;
+import acc.br.repository.ContasConjuntasRepository;
+import acc.br.repository.PoupancaRepository;
+import acc.br.repository.TransacoesRepository;
+import acc.br.util.EstadoConta;
+import acc.br.util.ModoConcorrencia;
+import acc.br.util.PaginaTransacoes;
+import acc.br.util.TipoConta;
+import acc.br.util.TipoTransacao;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.persistence.EntityManager;
+import javax.persistence.LockModeType;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransacoesServiceTest {
+
+    private final ContaCorrente contaCorrente = new ContaCorrente();
+    private final Poupanca poupanca = new Poupanca();
+    private final List<String> leituras = new ArrayList<>();
+    private final List<Contas> contasPersistidas = new ArrayList<>();
+    private final List<Transacoes> transacoes = new ArrayList<>();
+    private final List<Long> clientesNotificados = new ArrayList<>();
+    private final Map<Long, EstadoConta> estadosEmCache = new HashMap<>();
+    private final List<ContaCorrente> gravacoesCondicionais = new ArrayList<>();
+    private long versaoNoBanco;
+    private TransacoesService transacoesService;
+
+    @BeforeEach
+    public void setUp() {
+        contaCorrente.setcontaCorrenteID(1L);
+        contaCorrente.setClienteID(10L);
+        contaCorrente.setSaldo(new BigDecimal("100.00"));
+        contaCorrente.setLimiteCredito(new BigDecimal("50.00"));
+        poupanca.setPoupancaID(2L);
+        poupanca.setClienteID(20L);
+        poupanca.setSaldo(new BigDecimal("10.00"));
+
+        transacoesService = new TransacoesService();
+        transacoesService.modoConcorrencia = ModoConcorrencia.OTIMISTA;
+        transacoesService.motorAlertasGastos = new MotorAlertasGastos() {
+            @Override
+            public void avaliar(Long clienteID, TipoTransacao tipoTransacao, BigDecimal valor) {
+            }
+        };
+        transacoesService.despachanteNotificacoes = new DespachanteNotificacoes() {
+            @Override
+            public void registrar(Long clienteID, Transacoes transacao) {
+                clientesNotificados.add(clienteID);
+            }
+        };
+        transacoesService.entityManager = (EntityManager) Proxy.newProxyInstance(EntityManager.class.getClassLoader(),
+                new Class<?>[]{EntityManager.class}, (proxy, metodo, argumentos) -> null);
+        transacoesService.contaCorrenteRepository = new ContaCorrenteRepository() {
+            @Override
+            public ContaCorrente findById(Long id, LockModeType modoBloqueio) {
+                leituras.add("ContaCorrente:" + id);
+                return id.equals(contaCorrente.getcontaCorrenteID()) ? contaCorrente : null;
+            }
+
+            @Override
+            public void persist(ContaCorrente conta) {
+                contasPersistidas.add(conta);
+            }
+
+            @Override
+            public boolean gravarSaldo(ContaCorrente conta) {
+                if (conta.getVersao() != versaoNoBanco) {
+                    return false;
+                }
+                conta.setVersao(conta.getVersao() + 1);
+                gravacoesCondicionais.add(conta);
+                return true;
+            }
+        };
+        transacoesService.contasConjuntasRepository = new ContasConjuntasRepository();
+        transacoesService.poupancaRepository = new PoupancaRepository() {
+            @Override
+            public Poupanca findById(Long id, LockModeType modoBloqueio) {
+                leituras.add("Poupanca:" + id);
+                return id.equals(poupanca.getPoupancaID()) ? poupanca : null;
+            }
+
+            @Override
+            public void persist(Poupanca conta) {
+                contasPersistidas.add(conta);
+            }
+        };
+        transacoesService.transacoesRepository = new TransacoesRepository() {
+            @Override
+            public void persist(Transacoes transacao) {
+                transacoes.add(transacao);
+            }
+        };
+        transacoesService.metricasBanco = new MetricasBanco() {
+            @Override
+            public void contarTransacao(Transacoes transacao) {
+            }
+        };
+        transacoesService.livroRazaoService = new LivroRazaoService() {
+            @Override
+            public void lancar(Transacoes transacao, TipoConta tipoContaDestino) {
+            }
+        };
+        transacoesService.cacheEstadoContas = new CacheEstadoContas() {
+            @Override
+            public EstadoConta obter(TipoConta tipoConta, Long contaID) {
+                return tipoConta == TipoConta.CONTA_CORRENTE ? estadosEmCache.get(contaID) : null;
+            }
+
+            @Override
+            public void atualizar(Contas conta) {
+            }
+
+            @Override
+            public void invalidar(TipoConta tipoConta, Long contaID) {
+                estadosEmCache.remove(contaID);
+            }
+        };
+        transacoesService.inicializar();
+    }
+
+    @Test
+    public void testTransferenciaLeCadaContaUmaUnicaVez() {
+        transacoesService.realizarTransferencia(1L, 2L, new BigDecimal("40.00"), TipoConta.CONTA_CORRENTE, TipoConta.CONTA_POUPANCA);
+
+        assertEquals(List.of("ContaCorrente:1", "Poupanca:2"), leituras);
+        assertEquals(new BigDecimal("60.00"), contaCorrente.getSaldo());
+        assertEquals(new BigDecimal("50.00"), poupanca.getSaldo());
+        assertEquals(List.of(contaCorrente, poupanca), contasPersistidas);
+        assertEquals(1, transacoes.size());
+        assertEquals(2L, transacoes.get(0).getContaDestinoID());
+    }
+
+    @Test
+    public void testTransferenciaDaContaCorrenteUsaOLimiteDeCreditoComoOSaque() {
+        transacoesService.realizarTransferencia(1L, 2L, new BigDecimal("120.00"), TipoConta.CONTA_CORRENTE, TipoConta.CONTA_POUPANCA);
+
+        assertEquals(BigDecimal.ZERO, contaCorrente.getSaldo());
+        assertEquals(new BigDecimal("30.00"), contaCorrente.getLimiteCredito());
+        assertEquals(new BigDecimal("20.00"), contaCorrente.getLimiteCreditoUtilizado());
+
+        SaldoInsuficienteException erro = assertThrows(SaldoInsuficienteException.class, () -> transacoesService.realizarTransferencia(
+                1L, 2L, new BigDecimal("31.00"), TipoConta.CONTA_CORRENTE, TipoConta.CONTA_POUPANCA));
+        assertEquals("Saldo e limite de crédito insuficientes na conta de origem.", erro.getResponse().getEntity());
+        assertEquals(new BigDecimal("30.00"), contaCorrente.getLimiteCredito());
+    }
+
+    @Test
+    public void testTransferenciaParaAMesmaContaERecusadaSemLerAConta() {
+        contaCorrente.setSaldo(BigDecimal.ZERO);
+        contaCorrente.setLimiteCredito(new BigDecimal("100.00"));
+
+        assertThrows(IllegalArgumentException.class, () -> transacoesService.realizarTransferencia(
+                1L, 1L, new BigDecimal("100.00"), TipoConta.CONTA_CORRENTE, TipoConta.CONTA_CORRENTE));
+
+        assertTrue(leituras.isEmpty());
+        assertEquals(BigDecimal.ZERO, contaCorrente.getSaldo());
+        assertEquals(new BigDecimal("100.00"), contaCorrente.getLimiteCredito());
+        assertTrue(contasPersistidas.isEmpty());
+        assertTrue(transacoes.isEmpty());
+    }
+
+    @Test
+    public void testSaqueRecusadoNaoAlteraAConta() {
+        SaqueExcedeSaldoException erro = assertThrows(SaqueExcedeSaldoException.class,
+                () -> transacoesService.realizarSaque(2L, new BigDecimal("15.00"), TipoConta.CONTA_POUPANCA));
+
+        assertEquals("Saque excede o saldo da conta poupança.", erro.getMessage());
+        assertEquals(new BigDecimal("10.00"), poupanca.getSaldo());
+        assertTrue(contasPersistidas.isEmpty());
+        assertTrue(transacoes.isEmpty());
+    }
+
+    @Test
+    public void testSaqueParteDoEstadoEmCacheSemLerAConta() {
+        versaoNoBanco = 3;
+        estadosEmCache.put(1L, new EstadoConta(TipoConta.CONTA_CORRENTE, 1L, 10L, new BigDecimal("100.00"), new BigDecimal("50.00"), BigDecimal.ZERO, 3));
+
+        transacoesService.realizarSaque(1L, new BigDecimal("120.00"), TipoConta.CONTA_CORRENTE);
+
+        assertTrue(leituras.isEmpty());
+        assertTrue(contasPersistidas.isEmpty());
+        assertEquals(1, gravacoesCondicionais.size());
+        ContaCorrente gravada = gravacoesCondicionais.get(0);
+        assertEquals(BigDecimal.ZERO, gravada.getSaldo());
+        assertEquals(new BigDecimal("30.00"), gravada.getLimiteCredito());
+        assertEquals(new BigDecimal("20.00"), gravada.getLimiteCreditoUtilizado());
+        assertEquals(4, gravada.getVersao());
+        assertEquals(1, transacoes.size());
+        assertEquals(List.of(10L), clientesNotificados);
+    }
+
+    @Test
+    public void testSaqueComEstadoEmCacheDefasadoReleAConta() {
+        versaoNoBanco = 4;
+        estadosEmCache.put(1L, new EstadoConta(TipoConta.CONTA_CORRENTE, 1L, 10L, new BigDecimal("100.00"), new BigDecimal("50.00"), BigDecimal.ZERO, 3));
+
+        transacoesService.realizarSaque(1L, new BigDecimal("40.00"), TipoConta.CONTA_CORRENTE);
+
+        assertTrue(gravacoesCondicionais.isEmpty());
+        assertFalse(estadosEmCache.containsKey(1L));
+        assertEquals(List.of("ContaCorrente:1"), leituras);
+        assertEquals(List.of(contaCorrente), contasPersistidas);
+        assertEquals(new BigDecimal("60.00"), contaCorrente.getSaldo());
+    }
+
+    @Test
+    public void testSaqueRecusadoPeloEstadoEmCacheEDecididoPeloSaldoAtual() {
+        versaoNoBanco = 3;
+        estadosEmCache.put(1L, new EstadoConta(TipoConta.CONTA_CORRENTE, 1L, 10L, new BigDecimal("5.00"), BigDecimal.ZERO, new BigDecimal("50.00"), 2));
+
+        transacoesService.realizarSaque(1L, new BigDecimal("40.00"), TipoConta.CONTA_CORRENTE);
+
+        assertTrue(gravacoesCondicionais.isEmpty());
+        assertEquals(List.of("ContaCorrente:1"), leituras);
+        assertEquals(new BigDecimal("60.00"), contaCorrente.getSaldo());
+    }
+
+    @Test
+    public void testListagemPorContaPercorreTodasAsPaginasSemTruncar() {
+        List<Transacoes> saques = new ArrayList<>();
+        for (long id = 1; id <= 5; id++) {
+            Transacoes saque = new Transacoes();
+            saque.setTransacaoID(id);
+            saque.setContaID(1L);
+            saque.setTipoTransacao(TipoTransacao.SAQUE);
+            saque.setDataHoraTransacao(LocalDate.of(2024, 1, id <= 3 ? 10 : 20));
+            saques.add(saque);
+        }
+        Comparator<Transacoes> ordem = Comparator.comparing(Transacoes::getDataHoraTransacao)
+                .thenComparing(Transacoes::getTransacaoID).reversed();
+        transacoesService.transacoesRepository = new TransacoesRepository() {
+            @Override
+            public Transacoes findById(Long id) {
+                return saques.stream().filter(saque -> saque.getTransacaoID().equals(id)).findFirst().orElse(null);
+            }
+
+            @Override
+            public List<Transacoes> listarPorContaETipo(Long contaID, TipoTransacao tipoTransacao, Transacoes ultima, int limite) {
+                return saques.stream()
+                        .filter(saque -> ultima == null || ordem.compare(saque, ultima) > 0)
+                        .sorted(ordem)
+                        .limit(limite)
+                        .collect(Collectors.toList());
+            }
+        };
+
+        List<Long> lidas = new ArrayList<>();
+        Long cursor = null;
+        int paginas = 0;
+        do {
+            PaginaTransacoes pagina = transacoesService.listarSaquesPorConta(1L, cursor, 2);
+            pagina.getTransacoes().forEach(saque -> lidas.add(saque.getTransacaoID()));
+            cursor = pagina.getProximoCursor();
+            paginas++;
+        } while (cursor != null);
+
+        assertEquals(List.of(5L, 4L, 3L, 2L, 1L), lidas);
+        assertEquals(3, paginas);
+        assertThrows(IllegalArgumentException.class, () -> transacoesService.listarSaquesPorConta(1L, 99L, 2));
+    }
+
+    @Test
+    public void testListagemPorValorMinimoExigeValorNaoNegativo() {
+        transacoesService.transacoesRepository = new TransacoesRepository() {
+            @Override
+            public List<Transacoes> listarPorTipoEValorMinimo(TipoTransacao tipoTransacao, BigDecimal valorMinimo, Transacoes ultima,
+                                                              int limite) {
+                return new ArrayList<>();
+            }
+        };
+
+        assertThrows(ValorMinimoInvalidoException.class, () -> transacoesService.listarSaquesPorValorMinimo(null, null, 10));
+        assertThrows(ValorMinimoInvalidoException.class,
+                () -> transacoesService.listarDepositosPorValorMinimo(new BigDecimal("-0.01"), null, 10));
+        assertTrue(transacoesService.listarTransferenciasPorValorMinimo(BigDecimal.ZERO, null, 10).getTransacoes().isEmpty());
+    }
+}
@@ -0,0 +1,44 @@
+package acc.br.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CodificadorSenhaTest {
+
+    private static final byte[] SALT = {1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16};
+
+    @Test
+    public void testCodificarEVerificar() {
+        String codificada = CodificadorSenha.codificar("segredo1", 1000, SALT);
+
+        assertTrue(codificada.startsWith("$pbkdf2-sha256$1000$"));
+        assertTrue(codificada.length() <= 255);
+        assertTrue(CodificadorSenha.verificar("segredo1", codificada));
+        assertFalse(CodificadorSenha.verificar("segredo2", codificada));
+        assertNotEquals(codificada, CodificadorSenha.codificar("segredo1", 1000, new byte[16]));
+    }
+
+    @Test
+    public void testParametrosDaSenhaCodificada() {
+        String codificada = CodificadorSenha.codificar("segredo1", 1200, SALT);
+
+        assertTrue(CodificadorSenha.isCodificada(codificada));
+        assertEquals(1200, CodificadorSenha.iteracoes(codificada));
+        assertEquals(16, CodificadorSenha.tamanhoSalt(codificada));
+    }
+
+    @Test
+    public void testSenhaSemCodificacaoOuMalformada() {
+        assertFalse(CodificadorSenha.isCodificada("segredo1"));
+        assertFalse(CodificadorSenha.isCodificada(null));
+        assertFalse(CodificadorSenha.isCodificada("$pbkdf2-sha256$0$AQID$AQID"));
+        assertFalse(CodificadorSenha.isCodificada("$pbkdf2-sha256$mil$AQID$AQID"));
+        assertFalse(CodificadorSenha.isCodificada("$pbkdf2-sha256$1000$AQID"));
+        assertFalse(CodificadorSenha.verificar("segredo1", "segredo1"));
+        assertEquals(0, CodificadorSenha.iteracoes("segredo1"));
+
+        assertTrue(CodificadorSenha.compararSemCodificacao("segredo1", "segredo1"));
+        assertFalse(CodificadorSenha.compararSemCodificacao("segredo1", "segredo"));
+    }
+}
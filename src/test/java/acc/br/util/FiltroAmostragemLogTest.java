@@ -0,0 +1,46 @@
+package acc.br.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FiltroAmostragemLogTest {
+
+    private final FiltroAmostragemLog filtro = new FiltroAmostragemLog(10);
+
+    @Test
+    public void testAmostraCadaModeloDeMensagemSeparadamente() {
+        int saques = 0;
+        int depositos = 0;
+        for (int i = 0; i < 100; i++) {
+            saques += filtro.isLoggable(new LogRecord(Level.INFO, "Saque realizado com sucesso: {0,number,#}")) ? 1 : 0;
+        }
+        for (int i = 0; i < 5; i++) {
+            depositos += filtro.isLoggable(new LogRecord(Level.INFO, "Depósito realizado com sucesso: {0,number,#}")) ? 1 : 0;
+        }
+
+        assertEquals(10, saques);
+        assertEquals(1, depositos);
+    }
+
+    @Test
+    public void testErrosEDepuracaoNuncaSaoDescartados() {
+        for (int i = 0; i < 20; i++) {
+            assertTrue(filtro.isLoggable(new LogRecord(Level.SEVERE, "Erro ao sacar: {0}")));
+            assertTrue(filtro.isLoggable(new LogRecord(Level.FINE, "Transação criada com sucesso: {0}")));
+        }
+    }
+
+    @Test
+    public void testModelosAcimaDoLimiteNaoSaoAmostrados() {
+        for (int i = 0; i < FiltroAmostragemLog.MAXIMO_MODELOS; i++) {
+            filtro.isLoggable(new LogRecord(Level.INFO, "Modelo " + i));
+        }
+
+        assertTrue(filtro.isLoggable(new LogRecord(Level.INFO, "Modelo excedente")));
+        assertTrue(filtro.isLoggable(new LogRecord(Level.INFO, "Modelo excedente")));
+    }
+}
@@ -0,0 +1,40 @@
+package acc.br.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FiltroBloomTest {
+
+    @Test
+    public void testTextosAdicionadosSempreSaoEncontrados() {
+        FiltroBloom filtro = new FiltroBloom(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filtro.adicionar("cliente" + i + "@example.com");
+        }
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(filtro.talvezContenha("cliente" + i + "@example.com"));
+        }
+    }
+
+    @Test
+    public void testFalsosPositivosDentroDaTaxaConfigurada() {
+        FiltroBloom filtro = new FiltroBloom(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filtro.adicionar(String.format("%011d", i));
+        }
+        int falsosPositivos = 0;
+        for (int i = 10_000; i < 110_000; i++) {
+            if (filtro.talvezContenha(String.format("%011d", i))) {
+                falsosPositivos++;
+            }
+        }
+        assertTrue(falsosPositivos < 2_000, "Falsos positivos: " + falsosPositivos);
+    }
+
+    @Test
+    public void testParametrosInvalidosSaoRecusados() {
+        assertThrows(IllegalArgumentException.class, () -> new FiltroBloom(0, 0.01));
+        assertThrows(IllegalArgumentException.class, () -> new FiltroBloom(100, 1));
+    }
+}
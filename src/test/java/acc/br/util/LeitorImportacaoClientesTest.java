@@ -0,0 +1,72 @@
+package acc.br.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LeitorImportacaoClientesTest {
+
+    @Test
+    public void testCsvComAspasESeparadorPontoEVirgula() {
+        String csv = "Nome;Email;CPF;DataNascimento;Ativo\n"
+                + "\"Silva; Maria\";maria@example.com;045.751.236-92;1990-05-10;true\n"
+                + "\n"
+                + "\"Jo\"\"ao\";joao@example.com;04575123692;;0\n";
+        LeitorImportacaoClientes leitor = LeitorImportacaoClientes.csv(new StringReader(csv));
+
+        LinhaImportacaoCliente maria = leitor.next();
+        assertEquals(0, maria.getIndice());
+        assertEquals("Silva; Maria", maria.getCliente().getNome());
+        assertEquals("045.751.236-92", maria.getCliente().getCpf());
+        assertEquals(LocalDate.of(1990, 5, 10), maria.getCliente().getDataNascimento());
+        assertTrue(maria.getCliente().isAtivo());
+
+        LinhaImportacaoCliente joao = leitor.next();
+        assertEquals(1, joao.getIndice());
+        assertEquals("Jo\"ao", joao.getCliente().getNome());
+        assertNull(joao.getCliente().getDataNascimento());
+        assertFalse(leitor.hasNext());
+    }
+
+    @Test
+    public void testCsvRegistroInvalidoNaoInterrompeALeitura() {
+        String csv = "nome,email,dataNascimento\n"
+                + "Maria,maria@example.com,10/05/1990\n"
+                + "Joao,joao@example.com\n"
+                + "Ana,ana@example.com,1990-05-10\n";
+        LeitorImportacaoClientes leitor = LeitorImportacaoClientes.csv(new StringReader(csv));
+
+        assertEquals("Data inválida: 10/05/1990", leitor.next().getErro());
+        assertNotNull(leitor.next().getErro());
+        assertEquals("Ana", leitor.next().getCliente().getNome());
+        assertThrows(IllegalArgumentException.class, () -> LeitorImportacaoClientes.csv(new StringReader("nome,saldo\n")));
+    }
+
+    @Test
+    public void testNdjson() {
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        String ndjson = "{\"nome\":\"Maria\",\"cpf\":\"04575123692\",\"dataNascimento\":\"1990-05-10\"}\n"
+                + "{\"nome\":\n"
+                + "{\"nome\":\"Ana\"}\n";
+        LeitorImportacaoClientes leitor = LeitorImportacaoClientes.ndjson(new StringReader(ndjson), objectMapper);
+
+        LinhaImportacaoCliente maria = leitor.next();
+        assertEquals("04575123692", maria.getCliente().getCpf());
+        assertEquals(LocalDate.of(1990, 5, 10), maria.getCliente().getDataNascimento());
+        assertNotNull(leitor.next().getErro());
+        assertEquals("Ana", leitor.next().getCliente().getNome());
+        assertFalse(leitor.hasNext());
+    }
+
+    @Test
+    public void testSepararCampos() {
+        assertEquals(List.of("a", "", "b,c"), LeitorImportacaoClientes.separarCampos("a,,\"b,c\"", ','));
+        assertThrows(IllegalArgumentException.class, () -> LeitorImportacaoClientes.separarCampos("\"a,b", ','));
+    }
+}
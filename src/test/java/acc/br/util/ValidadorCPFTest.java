@@ -0,0 +1,47 @@
+package acc.br.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ValidadorCPFTest {
+
+    @Test
+    public void testCPFSemFormatacao() {
+        assertTrue(ValidadorCPF.isValido("04575123692"));
+        assertFalse(ValidadorCPF.isValido("12345678900"));
+        assertFalse(ValidadorCPF.isValido("11111111111"));
+        assertFalse(ValidadorCPF.isValido("0457512369a"));
+        assertFalse(ValidadorCPF.isValido("045.751.236-92"));
+        assertFalse(ValidadorCPF.isValido(null));
+    }
+
+    @Test
+    public void testInterpretacaoComESemFormatacao() {
+        assertEquals(4575123692L, ValidadorCPF.interpretar("04575123692"));
+        assertEquals(4575123692L, ValidadorCPF.interpretar("045.751.236-92"));
+        assertEquals(ValidadorCPF.INVALIDO, ValidadorCPF.interpretar("045-751.236.92"));
+        assertEquals(ValidadorCPF.INVALIDO, ValidadorCPF.interpretar("045.751.236-93"));
+
+        byte[] linha = "Fulano;045.751.236-92;fulano@example.com".getBytes(StandardCharsets.US_ASCII);
+        assertEquals(4575123692L, ValidadorCPF.interpretar(linha, 7, 21));
+        assertEquals(ValidadorCPF.INVALIDO, ValidadorCPF.interpretar(linha, 0, 11));
+    }
+
+    @Test
+    public void testFormatacao() {
+        assertEquals("045.751.236-92", ValidadorCPF.formatar(4575123692L));
+        assertEquals("045.751.236-92", ValidadorCPF.formatar("04575123692"));
+        assertThrows(IllegalArgumentException.class, () -> ValidadorCPF.formatar("0457512369"));
+    }
+
+    @Test
+    public void testValidacaoEmLoteMantemAPosicaoDeCadaCPF() {
+        boolean[] validos = ValidadorCPF.validar(List.of("04575123692", "12345678900", "045.751.236-92", "00000000000"));
+
+        assertArrayEquals(new boolean[]{true, false, true, false}, validos);
+    }
+}